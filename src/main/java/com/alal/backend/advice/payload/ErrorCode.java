@@ -10,7 +10,11 @@ public enum ErrorCode {
     INVALID_OPTIONAL_ISPRESENT(400, null, "해당 값이 존재하지 않습니다."),
     INVALID_CHECK(400, null, "해당 값이 유효하지 않습니다."),
     INVALID_AUTHENTICATION(400, null, "잘못된 인증입니다."),
-    INVALID_URL(400, null, "이미지 인코딩에 실패하였습니다.");
+    INVALID_URL(400, null, "이미지 인코딩에 실패하였습니다."),
+    UPLOAD_FAILED(500, null, "파일 업로드에 실패하였습니다."),
+    MODEL_SERVER_TIMEOUT(504, null, "AI 모델 서버 응답 시간이 초과되었습니다."),
+    MODEL_SERVER_UNAVAILABLE(503, null, "AI 모델 서버를 일시적으로 사용할 수 없습니다."),
+    CATALOG_NOT_READY(503, null, "모션 목록을 불러오는 중입니다. 잠시 후 다시 시도해 주세요.");
 
     private final String code;
     private final String message;
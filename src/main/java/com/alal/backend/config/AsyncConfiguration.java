@@ -1,10 +1,13 @@
 package com.alal.backend.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.task.TaskExecutor;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
+import java.util.concurrent.ThreadPoolExecutor;
+
 @Configuration
 public class AsyncConfiguration {
 
@@ -18,4 +21,50 @@ public class AsyncConfiguration {
         executor.initialize();
         return executor;
     }
+
+    // GCS 업로드 전용 풀. 큐가 가득 차면 거절한다.
+    // 요청 스레드에서 직접 업로드하면 배치별 동시 업로드 제한(AvatarService)을 벗어나 순차 실행이 되므로,
+    // 거절된 배치는 이미 올린 파일을 정리하고 업로드 실패로 응답한다.
+    @Bean
+    public TaskExecutor storageUploadExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(4);
+        executor.setMaxPoolSize(8);
+        executor.setQueueCapacity(100);
+        executor.setThreadNamePrefix("Upload-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    // 조회 응답을 만들 때 이미지 다운로드/인코딩을 동시에 처리하는 I/O 전용 풀
+    // 큐가 가득 차면 거절한다. 요청 스레드에서 직접 내려받으면 제한 시간이 걸리지 않고 순차 실행이 되므로,
+    // 거절된 이미지는 ImageResolver 가 바로 대체 이미지로 채운다.
+    @Bean
+    public TaskExecutor imageDownloadExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(8);
+        executor.setMaxPoolSize(16);
+        executor.setQueueCapacity(200);
+        executor.setThreadNamePrefix("Image-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    // AI 작업 큐 워커. 스레드 수가 곧 Flask 서버로 나가는 최대 동시 추론 수이다.
+    // 큐가 가득 차면 거절한다. 넘친 작업은 DB 에 QUEUED 로 남고, 자리가 나면 AiJobWorker 의 회수 주기가 가져간다.
+    @Bean
+    public ThreadPoolTaskExecutor aiJobExecutor(@Value("${ai.job.workers:4}") int workers,
+                                                @Value("${ai.job.queue-capacity:100}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setThreadNamePrefix("AiJob-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
 }
@@ -0,0 +1,79 @@
+package com.alal.backend.config;
+
+import com.alal.backend.utils.resilience.FlaskEndpoint;
+import lombok.Data;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+// Flask 모델 서버 엔드포인트별 타임아웃, 동시 호출 수 제한(AIMD)과 서킷 브레이커 설정
+// 타임아웃은 비동기 요청 타임아웃(ai.model.serving.timeout-ms + 10초)보다 짧게 둔다.
+@Getter
+@Configuration
+@ConfigurationProperties(prefix = "ai.model.serving.policy")
+public class FlaskPolicyConfig {
+    private final Endpoint pose = new Endpoint(60_000, 30_000, 4, 20);
+    private final Endpoint voice = new Endpoint(60_000, 30_000, 4, 20);
+    private final Endpoint image = new Endpoint(120_000, 60_000, 2, 8);
+    private final Breaker breaker = new Breaker();
+    private final LoadBalancer loadBalancer = new LoadBalancer();
+
+    public Endpoint endpoint(FlaskEndpoint flaskEndpoint) {
+        switch (flaskEndpoint) {
+            case POSE:
+                return pose;
+            case VOICE:
+                return voice;
+            case IMAGE:
+                return image;
+            default:
+                throw new IllegalArgumentException(flaskEndpoint.name());
+        }
+    }
+
+    @Data
+    @NoArgsConstructor
+    public static class Endpoint {
+        private long timeoutMs;
+        // 이보다 오래 걸린 성공 호출도 모델 서버 과부하 신호로 보고 동시 호출 한도를 줄인다.
+        private long slowCallMs;
+        // 동시 호출 한도는 [min, max] 안에서 응답 결과에 따라 조정된다.
+        private int initialConcurrentCalls;
+        private int minConcurrentCalls = 1;
+        private int maxConcurrentCalls;
+        // 과부하 신호마다 한도에 곱하는 비율
+        private double backoffRatio = 0.9;
+
+        public Endpoint(long timeoutMs, long slowCallMs, int initialConcurrentCalls, int maxConcurrentCalls) {
+            this.timeoutMs = timeoutMs;
+            this.slowCallMs = slowCallMs;
+            this.initialConcurrentCalls = initialConcurrentCalls;
+            this.maxConcurrentCalls = maxConcurrentCalls;
+        }
+    }
+
+    @Data
+    public static class Breaker {
+        // 최근 slidingWindowSize 번의 호출 중 실패 비율(%)이 임계값 이상이면 열린다.
+        private int failureRateThreshold = 50;
+        private int slidingWindowSize = 20;
+        private int minimumNumberOfCalls = 10;
+        // 열린 뒤 이 시간이 지나면 half-open 상태에서 시험 호출을 보낸다.
+        private long openStateMs = 30_000;
+        private int permittedCallsInHalfOpenState = 3;
+    }
+
+    @Data
+    public static class LoadBalancer {
+        // 연속 실패가 이 횟수에 이르면 인스턴스를 잠시 라우팅에서 제외한다. (passive ejection)
+        private int consecutiveFailures = 3;
+        // 제외 시간은 다시 제외될 때마다 두 배씩 늘어난다.
+        private long baseEjectionMs = 10_000;
+        private long maxEjectionMs = 120_000;
+        // active health check: 인스턴스 주소의 healthPath 로 GET 하여 5xx/무응답이면 비정상으로 본다.
+        private String healthPath = "/";
+        private long healthIntervalMs = 10_000;
+        private long healthTimeoutMs = 2_000;
+    }
+}
@@ -1,5 +1,6 @@
 package com.alal.backend.config;
 
+import com.alal.backend.utils.transaction.OutboundIoGuard;
 import com.google.auth.oauth2.GoogleCredentials;
 import com.google.cloud.storage.Storage;
 import com.google.cloud.storage.StorageOptions;
@@ -13,18 +14,19 @@ import java.io.InputStream;
 @Configuration
 public class GoogleCloudStorageConfig {
 
+    // 트랜잭션 안의 GCS 호출을 OutboundIoGuard 가 모두 볼 수 있도록 클라이언트를 감싸서 등록한다.
     @Bean
-    public Storage storage() throws IOException {
+    public Storage storage(OutboundIoGuard outboundIoGuard) throws IOException {
 
         InputStream is = new ClassPathResource("config/secret.json").getInputStream();
         GoogleCredentials credentials = GoogleCredentials.fromStream(is);
         String projectId = "red-equinox-405800";
 
-        return StorageOptions.newBuilder()
+        return outboundIoGuard.guard(StorageOptions.newBuilder()
                 .setProjectId(projectId)
                 .setCredentials(credentials)
                 .build()
-                .getService();
+                .getService());
     }
 }
 
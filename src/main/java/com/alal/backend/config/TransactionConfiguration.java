@@ -0,0 +1,26 @@
+package com.alal.backend.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Configuration
+public class TransactionConfiguration {
+
+    // 직접 TransactionTemplate 을 등록하면 스프링 부트의 기본 빈이 빠지므로 같은 설정으로 다시 등록한다.
+    @Bean
+    @Primary
+    public TransactionTemplate transactionTemplate(PlatformTransactionManager transactionManager) {
+        return new TransactionTemplate(transactionManager);
+    }
+
+    // 조회 전용. 엔티티만 읽고 커넥션을 바로 반환한 뒤, 이미지 변환 같은 외부 I/O 는 트랜잭션 밖에서 한다.
+    @Bean
+    public TransactionTemplate readOnlyTransactionTemplate(PlatformTransactionManager transactionManager) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        return transactionTemplate;
+    }
+}
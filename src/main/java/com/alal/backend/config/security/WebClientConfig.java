@@ -1,5 +1,6 @@
 package com.alal.backend.config.security;
 
+import com.alal.backend.utils.transaction.OutboundIoGuard;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.reactive.function.client.WebClient;
@@ -12,7 +13,9 @@ public class WebClientConfig {
     }
 
     @Bean
-    public WebClient webClient(WebClient.Builder webClientBuilder) {
-        return webClientBuilder.build();
+    public WebClient webClient(WebClient.Builder webClientBuilder, OutboundIoGuard outboundIoGuard) {
+        return webClientBuilder
+                .filter(outboundIoGuard.webClientFilter())
+                .build();
     }
 }
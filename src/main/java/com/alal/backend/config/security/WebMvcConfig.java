@@ -2,6 +2,7 @@ package com.alal.backend.config.security;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
@@ -14,6 +15,17 @@ public class WebMvcConfig implements WebMvcConfigurer{
     @Value("${app.cors.allowedOrigins}")
     private String[] allowedOrigins;
 
+    // 비동기 응답(CompletableFuture)은 모델 서버 타임아웃보다 조금 더 기다려 준다.
+    @Value("${ai.model.serving.timeout-ms:120000}")
+    private long modelServingTimeoutMs;
+
+    private final long ASYNC_TIMEOUT_MARGIN_MILLIS = 10_000;
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setDefaultTimeout(modelServingTimeoutMs + ASYNC_TIMEOUT_MARGIN_MILLIS);
+    }
+
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
         registry.addResourceHandler("/css/**").addResourceLocations("classpath:/css/**").setCachePeriod(60 * 60 * 24 * 365);
@@ -7,14 +7,17 @@ import com.alal.backend.domain.dto.request.UploadMemoRequest;
 import com.alal.backend.domain.dto.request.UploadProjectRequest;
 import com.alal.backend.domain.dto.request.UploadSceneRequest;
 import com.alal.backend.domain.dto.response.*;
+import com.alal.backend.domain.vo.ImageMode;
 import com.alal.backend.service.group.*;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
-import java.io.IOException;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/group")
@@ -34,6 +37,15 @@ public class GroupController {
         return ResponseEntity.ok(memoService.uploadMemo(uploadMemoRequest, userId));
     }
 
+    // base64 JSON 대신 파일을 그대로 받는 multipart 업로드. 파일은 문자열로 만들지 않고 스토리지로 스트리밍된다.
+    @PostMapping(value = "/memo/upload", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<UploadMemoResponse> upload(@RequestPart("csvFile") MultipartFile csvFile
+            , @CurrentUser UserPrincipal userPrincipal
+    ) {
+        Long userId = userPrincipal.getId();
+        return ResponseEntity.ok(memoService.uploadMemo(csvFile, userId));
+    }
+
     @GetMapping("/memo")
     public ResponseEntity<ReadMemoResponse> readAll(
             @CurrentUser UserPrincipal userPrincipal
@@ -50,17 +62,30 @@ public class GroupController {
         return ResponseEntity.ok(projectService.uploadProject(uploadProjectRequest, userId));
     }
 
+    @PostMapping(value = "/project/upload", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<UploadProjectResponse> uploadProject(@RequestPart("project") UploadProjectRequest uploadProjectRequest
+            , @RequestPart("poster") MultipartFile poster
+            , @RequestPart("script") MultipartFile script
+            , @CurrentUser UserPrincipal userPrincipal
+    ) {
+        Long userId = userPrincipal.getId();
+        return ResponseEntity.ok(projectService.uploadProject(uploadProjectRequest, poster, script, userId));
+    }
+
     @GetMapping("/project/all")
     public ResponseEntity<ReadProjectsResponseList> readProjects(@PageableDefault(value = 8) Pageable pageable
             , @CurrentUser UserPrincipal userPrincipal
+            , @RequestParam(value = "image", defaultValue = "base64") String image
             ) {
         Long userId = userPrincipal.getId();
-        return ResponseEntity.ok(projectReadService.readProjects(userId, pageable));
+        return ResponseEntity.ok(projectReadService.readProjects(userId, pageable, ImageMode.from(image)));
     }
 
     @GetMapping("/project/{id}")
-    public ResponseEntity<ReadProjectResponse> readProject(@PathVariable("id") Long projectId) throws IOException {
-        ReadProjectResponse readProjectResponse = projectReadService.readProject(projectId);
+    public ResponseEntity<ReadProjectResponse> readProject(@PathVariable("id") Long projectId
+            , @RequestParam(value = "image", defaultValue = "base64") String image
+    ) {
+        ReadProjectResponse readProjectResponse = projectReadService.readProject(projectId, ImageMode.from(image));
         return ResponseEntity.ok(readProjectResponse);
     }
 
@@ -69,18 +94,32 @@ public class GroupController {
         return ResponseEntity.ok(avatarService.updateAvatar(avatarRequest));
     }
 
+    // 배역 이미지 파트의 이름은 avatarId, 이미지 파트가 없는 배역은 이름만 수정된다.
+    @PatchMapping(value = "/avatar", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<UpdateAvatarResponse> update(@RequestPart("avatarInfos") UpdateAvatarRequest avatarRequest
+            , @RequestParam Map<String, MultipartFile> avatarImages) {
+        return ResponseEntity.ok(avatarService.updateAvatar(avatarRequest, avatarImages));
+    }
+
     @GetMapping("/scene/{id}")
     public ResponseEntity<ReadSceneResponseList> readAll(@PathVariable("id") Long projectId) {
         return ResponseEntity.ok(sceneService.readAllScene(projectId));
     }
 
     @GetMapping("/scene/{id}/{no}")
-    public ResponseEntity<ReadSceneResponse> readDetail(@PathVariable("id") Long projectId, @PathVariable("no") Long sceneNo) {
-        return ResponseEntity.ok(sceneService.readDetailScene(projectId, sceneNo));
+    public ResponseEntity<ReadSceneResponse> readDetail(@PathVariable("id") Long projectId, @PathVariable("no") Long sceneNo
+            , @RequestParam(value = "image", defaultValue = "base64") String image) {
+        return ResponseEntity.ok(sceneService.readDetailScene(projectId, sceneNo, ImageMode.from(image)));
     }
 
     @PostMapping("/scene/upload")
     public ResponseEntity<UploadSceneResponse> upload(@RequestBody UploadSceneRequest uploadSceneRequest) {
         return ResponseEntity.ok(sceneService.uploadScene(uploadSceneRequest));
     }
+
+    @PostMapping(value = "/scene/upload", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<UploadSceneResponse> upload(@RequestPart("scene") UploadSceneRequest uploadSceneRequest
+            , @RequestPart(value = "thumbnail", required = false) MultipartFile thumbnail) {
+        return ResponseEntity.ok(sceneService.uploadScene(uploadSceneRequest, thumbnail));
+    }
 }
@@ -10,11 +10,13 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
-import java.util.concurrent.ExecutionException;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/image")
@@ -22,12 +24,24 @@ import java.util.concurrent.ExecutionException;
 public class ImageController {
     private final ImageService imageService;
 
+    // 메쉬 생성 동안 Tomcat 스레드를 반환하고, 결과가 나오면 비동기 디스패치로 응답한다.
     @PostMapping("upload")
-    public ResponseEntity<UploadImageResponse> upload(@RequestBody UploadImageRequest uploadImageRequest
+    public CompletableFuture<ResponseEntity<UploadImageResponse>> upload(@RequestBody UploadImageRequest uploadImageRequest
                                                       ,@CurrentUser UserPrincipal userPrincipal
-    ) throws ExecutionException, InterruptedException {
+    ) {
+        Long userId = userPrincipal.getId();
+        return imageService.uploadImage(uploadImageRequest, userId)
+                .thenApply(ResponseEntity::ok);
+    }
+
+    @PostMapping(value = "upload", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public CompletableFuture<ResponseEntity<UploadImageResponse>> upload(@RequestPart("image") MultipartFile image
+                                                      , @RequestParam("description") String description
+                                                      , @CurrentUser UserPrincipal userPrincipal
+    ) {
         Long userId = userPrincipal.getId();
-        return ResponseEntity.ok(imageService.uploadImage(uploadImageRequest, userId));
+        return imageService.uploadImage(image, description, userId)
+                .thenApply(ResponseEntity::ok);
     }
 
     @GetMapping
@@ -0,0 +1,61 @@
+package com.alal.backend.controller.user;
+
+import com.alal.backend.config.security.token.CurrentUser;
+import com.alal.backend.config.security.token.UserPrincipal;
+import com.alal.backend.domain.dto.request.UploadImageRequest;
+import com.alal.backend.domain.dto.response.ReadJobResponse;
+import com.alal.backend.domain.dto.response.SubmitJobResponse;
+import com.alal.backend.domain.entity.job.JobType;
+import com.alal.backend.payload.request.user.FlaskRequest;
+import com.alal.backend.payload.request.user.FlaskVoiceRequest;
+import com.alal.backend.service.job.AiJobService;
+import com.alal.backend.service.user.PoseDetectionService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import javax.validation.Valid;
+
+// /view/video, /view/voice, /image/upload 의 작업 큐 버전.
+// 요청은 작업 번호(202 Accepted)만 바로 돌려주고, 클라이언트는 GET /jobs/{id} 로 결과를 확인한다.
+@RestController
+@RequestMapping("/jobs")
+@RequiredArgsConstructor
+public class JobController {
+    private final AiJobService aiJobService;
+    private final PoseDetectionService poseDetectionService;
+
+    @PostMapping("/pose")
+    public ResponseEntity<SubmitJobResponse> submitPose(@Valid @RequestBody FlaskRequest flaskRequest
+            , @CurrentUser UserPrincipal userPrincipal
+    ) {
+        Long userId = userPrincipal.getId();
+        // 큐에 넣기 전에 영상 길이를 확인해, 워커에서야 실패하는 작업을 만들지 않는다.
+        poseDetectionService.validate(flaskRequest);
+        return ResponseEntity.accepted().body(aiJobService.submit(JobType.POSE, flaskRequest, userId));
+    }
+
+    @PostMapping("/voice")
+    public ResponseEntity<SubmitJobResponse> submitVoice(@RequestBody FlaskVoiceRequest flaskRequest
+            , @CurrentUser UserPrincipal userPrincipal
+    ) {
+        Long userId = userPrincipal.getId();
+        return ResponseEntity.accepted().body(aiJobService.submit(JobType.VOICE, flaskRequest, userId));
+    }
+
+    @PostMapping("/mesh")
+    public ResponseEntity<SubmitJobResponse> submitMesh(@RequestBody UploadImageRequest uploadImageRequest
+            , @CurrentUser UserPrincipal userPrincipal
+    ) {
+        Long userId = userPrincipal.getId();
+        return ResponseEntity.accepted().body(aiJobService.submit(JobType.MESH, uploadImageRequest, userId));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ReadJobResponse> read(@PathVariable("id") Long jobId
+            , @CurrentUser UserPrincipal userPrincipal
+    ) {
+        Long userId = userPrincipal.getId();
+        return ResponseEntity.ok(aiJobService.readJob(jobId, userId));
+    }
+}
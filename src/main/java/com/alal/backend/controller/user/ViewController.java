@@ -3,29 +3,42 @@ package com.alal.backend.controller.user;
 import com.alal.backend.config.security.token.CurrentUser;
 import com.alal.backend.config.security.token.UserPrincipal;
 import com.alal.backend.domain.dto.response.FbxResponse;
+import com.alal.backend.domain.dto.response.MotionImportResponse;
 import com.alal.backend.domain.dto.response.UpdateUserHistoryResponse;
 import com.alal.backend.domain.dto.response.ViewResponse;
 import com.alal.backend.domain.dto.response.VoiceResponse;
 import com.alal.backend.payload.request.auth.FbxRequest;
 import com.alal.backend.payload.request.user.FlaskRequest;
 import com.alal.backend.payload.request.user.FlaskVoiceRequest;
+import com.alal.backend.service.user.MotionImportService;
+import com.alal.backend.service.user.MotionMetadataBackfillService;
 import com.alal.backend.service.user.MotionService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.Disposable;
 
 import javax.servlet.http.HttpSession;
+import javax.validation.Valid;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @Controller
 @RequestMapping("/view")
@@ -33,6 +46,11 @@ import java.util.List;
 public class ViewController {
 
     private final MotionService motionService;
+    private final MotionMetadataBackfillService motionMetadataBackfillService;
+    private final MotionImportService motionImportService;
+
+    @Value("${ai.pose.stream.timeout-ms:600000}")
+    private long poseStreamTimeoutMs;
 
 
     @GetMapping
@@ -54,25 +72,64 @@ public class ViewController {
     // 클라이언트에서 동영상 파일(mp4)을 받아 Flask 서버와 통신하여 문자열 리스트를 받음
     @PostMapping("/video")
     @ResponseBody
-    public ResponseEntity<UpdateUserHistoryResponse> videoPost(@RequestBody FlaskRequest flaskRequest
+    // 추론이 끝날 때까지 Tomcat 스레드를 반환해 두고, 완료되면 비동기 디스패치로 응답한다.
+    public CompletableFuture<ResponseEntity<UpdateUserHistoryResponse>> videoPost(@Valid @RequestBody FlaskRequest flaskRequest
+                            ,@CurrentUser UserPrincipal userPrincipal
+    ) {
+        Long userId = userPrincipal.getId();
+
+        return motionService.findUrlByUploadMp4(flaskRequest, userId)
+                .thenApply(ResponseEntity::ok);
+    }
+
+    // /video 와 같은 요청이지만, 동작을 하나 인식할 때마다 SSE(motion 이벤트)로 부분 결과를 내려보낸다.
+    // 모두 끝나면 done 이벤트로 최종 기록을, 실패하면 error 이벤트로 사유를 보낸다.
+    // 스트림은 원소 사이 간격에만 모델 서버 타임아웃이 걸리므로, MVC 기본 비동기 타임아웃 대신 SseEmitter 에 따로 정한 시간을 쓴다.
+    @PostMapping(value = "/video/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @ResponseBody
+    public SseEmitter videoStream(@Valid @RequestBody FlaskRequest flaskRequest
                             ,@CurrentUser UserPrincipal userPrincipal
     ) {
         Long userId = userPrincipal.getId();
-        UpdateUserHistoryResponse updateUserHistoryResponse = motionService.findUrlByUploadMp4(flaskRequest, userId);
 
-        return ResponseEntity.ok(updateUserHistoryResponse);
+        SseEmitter emitter = new SseEmitter(poseStreamTimeoutMs);
+        Disposable subscription = motionService.streamPose(flaskRequest, userId)
+                .subscribe(event -> send(emitter, event), emitter::completeWithError, emitter::complete);
+        emitter.onTimeout(() -> {
+            subscription.dispose();
+            emitter.complete();
+        });
+        emitter.onError(e -> subscription.dispose());
+
+        return emitter;
+    }
+
+    // 클라이언트가 연결을 끊어 보내지 못하면 예외를 던져 구독을 취소한다.
+    private static void send(SseEmitter emitter, ServerSentEvent<Object> event) {
+        SseEmitter.SseEventBuilder builder = SseEmitter.event()
+                .name(event.event())
+                .data(event.data(), MediaType.APPLICATION_JSON);
+        if (event.id() != null) {
+            builder.id(event.id());
+        }
+
+        try {
+            emitter.send(builder);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 
     // 클라이언트에서 음성 파일을 받아 Flask 서버와 통신 후 변조된 음성 파일 응답
     @PostMapping("/voice")
     @ResponseBody
-    public ResponseEntity<VoiceResponse> voicePost(@RequestBody FlaskVoiceRequest flaskRequest
+    public CompletableFuture<ResponseEntity<VoiceResponse>> voicePost(@RequestBody FlaskVoiceRequest flaskRequest
                                                    ,@CurrentUser UserPrincipal userPrincipal
                                                    ) {
         Long userId = userPrincipal.getId();
-        VoiceResponse voiceResponse = motionService.uploadAndRespondWithAudioFileSuccess(flaskRequest, userId);
 
-        return ResponseEntity.ok(voiceResponse);
+        return motionService.uploadAndRespondWithAudioFileSuccess(flaskRequest, userId)
+                .thenApply(ResponseEntity::ok);
     }
 
     // 웹에서 다운로드 버튼 클릭 시 /view/result?fbxUrl=... 로 리다이렉트
@@ -111,6 +168,30 @@ public class ViewController {
         return ResponseEntity.ok(voiceResponse);
     }
 
+    // 음성 모델을 다시 학습시킨 뒤 해당 모델의 변환 결과 캐시를 비운다.
+    @DeleteMapping("/voice/cache")
+    @ResponseBody
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Integer> invalidateVoiceCache(@RequestParam("modelName") String modelName) {
+        return ResponseEntity.ok(motionService.invalidateVoiceModel(modelName));
+    }
+
+    // 메타데이터 컬럼이 비어 있는 모션을 채운다. (시작할 때도 한 번 실행된다)
+    @PostMapping("/motion/metadata/backfill")
+    @ResponseBody
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Integer> backfillMotionMetadata() {
+        return ResponseEntity.ok(motionMetadataBackfillService.backfill());
+    }
+
+    // 모션 팩 CSV(motion_gif, motion_fbx 헤더)를 스트리밍으로 등록하고 처리 건수와 속도를 돌려준다.
+    @PostMapping(value = "/motion/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @ResponseBody
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<MotionImportResponse> importMotions(@RequestPart("csvFile") MultipartFile csvFile) {
+        return ResponseEntity.ok(motionImportService.importCsv(csvFile));
+    }
+
     @GetMapping("/filter")
     public String filterPage(@PageableDefault(size = 12) Pageable pageable, Model model, @RequestParam("motion") String motionName
                                          , @CurrentUser UserPrincipal userPrincipal
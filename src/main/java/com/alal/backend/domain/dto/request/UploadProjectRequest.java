@@ -4,7 +4,6 @@ import com.alal.backend.domain.vo.StaffVO;
 import lombok.Getter;
 import lombok.Setter;
 
-import java.util.Base64;
 import java.util.List;
 
 @Getter
@@ -16,8 +15,4 @@ public class UploadProjectRequest {
     private List<String> avatarName;
     private String poster;
     private String script;
-
-    public byte[] encodeBase64() {
-        return Base64.getDecoder().decode(script);
-    }
 }
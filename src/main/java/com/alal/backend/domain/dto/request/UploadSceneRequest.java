@@ -5,8 +5,6 @@ import com.alal.backend.domain.entity.project.Script;
 import lombok.Getter;
 import lombok.Setter;
 
-import java.util.Base64;
-
 @Getter
 @Setter
 public class UploadSceneRequest {
@@ -16,10 +14,6 @@ public class UploadSceneRequest {
     private String levelPosition;
     private String thumbNail;
 
-    public byte[] decodeBase64() {
-        return Base64.getDecoder().decode(thumbNail);
-    }
-
     public Scene from(Script script, String thumbnailUrl) {
         return Scene.builder()
                 .sceneNo(sceneNo)
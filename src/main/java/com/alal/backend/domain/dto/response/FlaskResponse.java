@@ -1,5 +1,6 @@
 package com.alal.backend.domain.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -10,4 +11,19 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 public class FlaskResponse {
     private String responseMessage;
+
+    // 동작이 나온 영상 위치(초). 구간 분석에서만 Flask 서버가 채우며, 구간이 아니라 영상 처음부터 센 값이다.
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Double start;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Double end;
+
+    public FlaskResponse(String responseMessage) {
+        this(responseMessage, null, null);
+    }
+
+    public boolean hasTime() {
+        return start != null && end != null;
+    }
 }
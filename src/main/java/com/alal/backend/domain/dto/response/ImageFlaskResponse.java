@@ -13,4 +13,18 @@ public class ImageFlaskResponse {
     private String mesh_mtl;
     private String mesh_obj;
     private String url_mesh_example;
+
+    public static ImageFlaskResponse of(String albedo, String meshMtl, String meshObj, String urlMeshExample) {
+        ImageFlaskResponse imageFlaskResponse = new ImageFlaskResponse();
+        imageFlaskResponse.setAlbedo(albedo);
+        imageFlaskResponse.setMesh_mtl(meshMtl);
+        imageFlaskResponse.setMesh_obj(meshObj);
+        imageFlaskResponse.setUrl_mesh_example(urlMeshExample);
+        return imageFlaskResponse;
+    }
+
+    // 메쉬 생성이 끝까지 성공하여 주소가 모두 채워졌는지
+    public boolean isComplete() {
+        return albedo != null && mesh_mtl != null && mesh_obj != null;
+    }
 }
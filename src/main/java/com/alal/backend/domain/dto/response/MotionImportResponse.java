@@ -0,0 +1,32 @@
+package com.alal.backend.domain.dto.response;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@Builder
+public class MotionImportResponse {
+    private long totalRows;
+    private long insertedRows;
+    private long skippedRows;
+    private long invalidRows;
+    private List<String> errors;
+    private long elapsedMillis;
+    private long rowsPerSecond;
+
+    public static MotionImportResponse of(long totalRows, long insertedRows, long skippedRows, long invalidRows,
+                                          List<String> errors, long elapsedNanos) {
+        long elapsedMillis = elapsedNanos / 1_000_000;
+        return MotionImportResponse.builder()
+                .totalRows(totalRows)
+                .insertedRows(insertedRows)
+                .skippedRows(skippedRows)
+                .invalidRows(invalidRows)
+                .errors(errors)
+                .elapsedMillis(elapsedMillis)
+                .rowsPerSecond(elapsedNanos == 0 ? 0 : insertedRows * 1_000_000_000L / elapsedNanos)
+                .build();
+    }
+}
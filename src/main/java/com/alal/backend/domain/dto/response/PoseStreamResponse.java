@@ -0,0 +1,28 @@
+package com.alal.backend.domain.dto.response;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+// SSE 로 동작을 하나 인식할 때마다 내려보내는 부분 결과
+@Getter
+@Builder
+public class PoseStreamResponse {
+    private int index;
+
+    private String motion;
+
+    private List<GifUrlResponse> gifs;
+
+    private List<FbxUrlResponse> fbxs;
+
+    public static PoseStreamResponse of(int index, String motion, List<GifUrlResponse> gifs, List<FbxUrlResponse> fbxs) {
+        return PoseStreamResponse.builder()
+                .index(index)
+                .motion(motion)
+                .gifs(gifs)
+                .fbxs(fbxs)
+                .build();
+    }
+}
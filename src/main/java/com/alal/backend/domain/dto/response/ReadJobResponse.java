@@ -0,0 +1,38 @@
+package com.alal.backend.domain.dto.response;
+
+import com.alal.backend.domain.entity.job.AiJob;
+import com.alal.backend.domain.entity.job.JobStatus;
+import com.alal.backend.domain.entity.job.JobType;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Builder
+public class ReadJobResponse {
+    private Long jobId;
+    private JobType type;
+    private JobStatus status;
+
+    // 저장된 FlaskResponse / ImageFlaskResponse JSON을 다시 파싱하지 않고 그대로 내려준다.
+    @JsonRawValue
+    private String result;
+
+    private String errorMessage;
+    private LocalDateTime createdDate;
+    private LocalDateTime finishedAt;
+
+    public static ReadJobResponse fromEntity(AiJob aiJob) {
+        return ReadJobResponse.builder()
+                .jobId(aiJob.getId())
+                .type(aiJob.getType())
+                .status(aiJob.getStatus())
+                .result(aiJob.getResult())
+                .errorMessage(aiJob.getErrorMessage())
+                .createdDate(aiJob.getCreatedDate())
+                .finishedAt(aiJob.getFinishedAt())
+                .build();
+    }
+}
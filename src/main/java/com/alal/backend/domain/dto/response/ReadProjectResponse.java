@@ -3,13 +3,11 @@ package com.alal.backend.domain.dto.response;
 import com.alal.backend.domain.entity.project.*;
 import com.alal.backend.domain.info.AvatarInfo;
 import com.alal.backend.domain.info.StaffInfo;
-import com.alal.backend.utils.Parser;
 import lombok.Builder;
 import lombok.Getter;
 
-import java.io.IOException;
-import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Getter
@@ -21,10 +19,11 @@ public class ReadProjectResponse {
     private final List<AvatarInfo> avatarInfo;
     private final List<StaffInfo> staffInfo;
 
-    public static ReadProjectResponse fromEntity(Project project, List<Avatar> avatars, List<Staff> staffs) throws IOException {
-        List<AvatarInfo> avatarInfos = fromAvatarList(avatars);
-        List<StaffInfo> staffInfos = fromStaffList(staffs);
-        String base64Poster = fromPoster(project.getPoster());
+    public static ReadProjectResponse fromEntity(Project project, List<Avatar> avatars, List<Staff> staffs,
+                                                 Function<String, String> imageEncoder) {
+        List<AvatarInfo> avatarInfos = fromAvatarList(avatars, imageEncoder);
+        List<StaffInfo> staffInfos = fromStaffList(staffs, imageEncoder);
+        String base64Poster = imageEncoder.apply(project.getPoster());
 
         return ReadProjectResponse.builder()
                 .projectName(project.getProjectName())
@@ -35,31 +34,15 @@ public class ReadProjectResponse {
                 .build();
     }
 
-    private static String fromPoster(String poster) throws IOException {
-        return Parser.downloadAndEncodeImage(poster);
-    }
-
-    private static List<StaffInfo> fromStaffList(List<Staff> staffs) {
+    private static List<StaffInfo> fromStaffList(List<Staff> staffs, Function<String, String> imageEncoder) {
         return staffs.stream()
-                .map(staff -> {
-                    try {
-                        return StaffInfo.fromEntity(staff);
-                    } catch (IOException e) {
-                        throw new UncheckedIOException(e);
-                    }
-                })
+                .map(staff -> StaffInfo.fromEntity(staff, imageEncoder))
                 .collect(Collectors.toList());
     }
 
-    private static List<AvatarInfo> fromAvatarList(List<Avatar> avatars) {
+    private static List<AvatarInfo> fromAvatarList(List<Avatar> avatars, Function<String, String> imageEncoder) {
         return avatars.stream()
-                .map(avatar -> {
-                    try {
-                        return AvatarInfo.fromEntity(avatar);
-                    } catch (IOException e) {
-                        throw new UncheckedIOException(e);
-                    }
-                })
+                .map(avatar -> AvatarInfo.fromEntity(avatar, imageEncoder))
                 .collect(Collectors.toList());
     }
 
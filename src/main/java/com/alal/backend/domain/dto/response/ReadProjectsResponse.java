@@ -1,11 +1,10 @@
 package com.alal.backend.domain.dto.response;
 
 import com.alal.backend.domain.entity.project.Project;
-import com.alal.backend.utils.Parser;
 import lombok.Builder;
 import lombok.Getter;
 
-import java.io.IOException;
+import java.util.function.Function;
 
 @Getter
 @Builder
@@ -14,8 +13,8 @@ public class ReadProjectsResponse {
     private String projectName;
     private String posterUrl;
 
-    public static ReadProjectsResponse fromEntity(Project project) throws IOException {
-        String poster = Parser.downloadAndEncodeImage(project.getPoster());
+    public static ReadProjectsResponse fromEntity(Project project, Function<String, String> imageEncoder) {
+        String poster = imageEncoder.apply(project.getPoster());
 
         return ReadProjectsResponse.builder()
                 .projectId(project.getProjectId())
@@ -0,0 +1,20 @@
+package com.alal.backend.domain.dto.response;
+
+import com.alal.backend.domain.entity.job.AiJob;
+import com.alal.backend.domain.entity.job.JobStatus;
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+public class SubmitJobResponse {
+    private Long jobId;
+    private JobStatus status;
+
+    public static SubmitJobResponse fromEntity(AiJob aiJob) {
+        return SubmitJobResponse.builder()
+                .jobId(aiJob.getId())
+                .status(aiJob.getStatus())
+                .build();
+    }
+}
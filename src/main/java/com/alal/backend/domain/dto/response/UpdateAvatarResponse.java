@@ -5,9 +5,8 @@ import com.alal.backend.domain.info.AvatarInfo;
 import lombok.Builder;
 import lombok.Getter;
 
-import java.io.IOException;
-import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Getter
@@ -15,23 +14,17 @@ import java.util.stream.Collectors;
 public class UpdateAvatarResponse {
     private List<AvatarInfo> avatarInfos;
 
-    public static UpdateAvatarResponse fromEntity(List<Avatar> avatars) {
-        List<AvatarInfo> avatarInfoFromAvatars = fromAvatarList(avatars);
+    public static UpdateAvatarResponse fromEntity(List<Avatar> avatars, Function<String, String> imageEncoder) {
+        List<AvatarInfo> avatarInfoFromAvatars = fromAvatarList(avatars, imageEncoder);
 
         return UpdateAvatarResponse.builder()
                 .avatarInfos(avatarInfoFromAvatars)
                 .build();
     }
 
-    private static List<AvatarInfo> fromAvatarList(List<Avatar> avatars) {
+    private static List<AvatarInfo> fromAvatarList(List<Avatar> avatars, Function<String, String> imageEncoder) {
         return avatars.stream()
-                .map(avatar -> {
-                    try {
-                        return AvatarInfo.fromEntity(avatar);
-                    } catch (IOException e) {
-                        throw new UncheckedIOException(e);
-                    }
-                })
+                .map(avatar -> AvatarInfo.fromEntity(avatar, imageEncoder))
                 .collect(Collectors.toList());
     }
 }
@@ -2,7 +2,9 @@ package com.alal.backend.domain.dto.response;
 
 import lombok.*;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 @Getter
 @Setter
@@ -14,12 +16,20 @@ public class ViewResponse {
     private final List<FbxUrlResponse> fbxUrls;
     private final List<String> resultMotions;
     private final String motionName;
+    // 기록의 동작별로 찾은 모션 수
+    private final Map<String, Integer> motionCounts;
 
     public static ViewResponse fromList(List<GifUrlResponse> allGifs, List<FbxUrlResponse> allFbxs, List<String> userHistories) {
+        return fromList(allGifs, allFbxs, userHistories, Collections.emptyMap());
+    }
+
+    public static ViewResponse fromList(List<GifUrlResponse> allGifs, List<FbxUrlResponse> allFbxs, List<String> userHistories,
+                                        Map<String, Integer> motionCounts) {
         return ViewResponse.builder()
                 .gifUrls(allGifs)
                 .fbxUrls(allFbxs)
                 .resultMotions(userHistories)
+                .motionCounts(motionCounts)
                 .build();
     }
 }
@@ -0,0 +1,102 @@
+package com.alal.backend.domain.entity.job;
+
+import com.alal.backend.domain.entity.time.DefaultTime;
+import lombok.*;
+import org.hibernate.annotations.Comment;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Getter
+@Builder
+@Table(name = "ai_job", indexes = {
+        @Index(name = "idx_ai_job_status", columnList = "status"),
+        @Index(name = "idx_ai_job_status_heartbeat", columnList = "status, heartbeatAt")
+})
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+public class AiJob extends DefaultTime {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column
+    @Comment("작업 번호")
+    private Long id;
+
+    @Column(nullable = false)
+    @Comment("요청한 유저 번호")
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    @Comment("작업 종류 (POSE, VOICE, MESH)")
+    private JobType type;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    @Comment("작업 상태 (QUEUED, RUNNING, DONE, FAILED)")
+    private JobStatus status;
+
+    @Lob
+    @Column(columnDefinition = "LONGTEXT")
+    @Comment("Flask 요청 본문(JSON), 완료되면 비운다")
+    private String payload;
+
+    @Lob
+    @Column(columnDefinition = "LONGTEXT")
+    @Comment("Flask 응답 본문(JSON)")
+    private String result;
+
+    @Column(length = 1000)
+    @Comment("실패 사유")
+    private String errorMessage;
+
+    @Column
+    @Comment("실행 시작 시각")
+    private LocalDateTime startedAt;
+
+    @Column
+    @Comment("완료 시각")
+    private LocalDateTime finishedAt;
+
+    @Column(length = 128)
+    @Comment("실행 중이거나 실행 큐에 넣어 둔 워커(인스턴스) 식별자")
+    private String owner;
+
+    @Column
+    @Comment("마지막 생존 신호 시각. 실행 중이면 실행하는 워커가, 대기 중이면 실행 큐에 넣어 둔 워커가 갱신한다. 어느 워커의 큐에도 없는 대기 작업은 생성(회수) 시각에서 멈추고, 큐가 가득 차 넣지 못한 작업은 비운다")
+    private LocalDateTime heartbeatAt;
+
+    public static AiJob of(JobType type, Long userId, String payload) {
+        return AiJob.builder()
+                .type(type)
+                .userId(userId)
+                .payload(payload)
+                .status(JobStatus.QUEUED)
+                .heartbeatAt(LocalDateTime.now())
+                .build();
+    }
+
+    // 입력은 재실행에만 필요하므로 완료되면 비워 둔다. (이미지 base64가 수 MB에 달함)
+    public void done(String result) {
+        this.status = JobStatus.DONE;
+        this.result = result;
+        this.payload = null;
+        this.finishedAt = LocalDateTime.now();
+    }
+
+    public void fail(String errorMessage) {
+        this.status = JobStatus.FAILED;
+        this.errorMessage = errorMessage;
+        this.finishedAt = LocalDateTime.now();
+    }
+
+    // 임대 시간이 지나 다른 워커가 다시 가져간 작업의 결과는 저장하지 않는다.
+    public boolean isRunningBy(String owner) {
+        return this.status == JobStatus.RUNNING && owner.equals(this.owner);
+    }
+
+    public boolean isOwnedBy(Long userId) {
+        return this.userId.equals(userId);
+    }
+}
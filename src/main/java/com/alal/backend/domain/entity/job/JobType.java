@@ -0,0 +1,7 @@
+package com.alal.backend.domain.entity.job;
+
+public enum JobType {
+    POSE,
+    VOICE,
+    MESH
+}
@@ -3,11 +3,11 @@ package com.alal.backend.domain.entity.project;
 import com.alal.backend.domain.dto.request.UploadSceneRequest;
 import com.alal.backend.domain.dto.response.ReadSceneResponse;
 import com.alal.backend.domain.dto.response.UploadSceneResponse;
-import com.alal.backend.utils.Parser;
 import lombok.*;
 import org.hibernate.annotations.Comment;
 
 import javax.persistence.*;
+import java.util.function.Function;
 
 @Entity
 @Getter
@@ -42,12 +42,12 @@ public class Scene {
     @JoinColumn(name = "script_id")
     private Script script;
 
-    public ReadSceneResponse toReadSceneResponse() {
+    public ReadSceneResponse toReadSceneResponse(Function<String, String> imageEncoder) {
         return ReadSceneResponse.builder()
                 .sceneNo(this.sceneNo)
                 .story(this.story)
                 .levelPosition(this.levelPosition)
-                .thumbnail(encodeThumbnail())
+                .thumbnail(imageEncoder.apply(this.thumbnail))
                 .build();
     }
 
@@ -57,10 +57,6 @@ public class Scene {
                 .build();
     }
 
-    private String encodeThumbnail() {
-        return Parser.downloadAndEncodeImage(this.thumbnail);
-    }
-
     public void update(UploadSceneRequest uploadSceneRequest, String thumbnailUrl) {
         if (uploadSceneRequest.getStory() != null) {
             this.story = uploadSceneRequest.getStory();
@@ -70,7 +66,7 @@ public class Scene {
             this.levelPosition = uploadSceneRequest.getLevelPosition();
         }
 
-        if (uploadSceneRequest.getThumbNail() != null) {
+        if (thumbnailUrl != null) {
             this.thumbnail = thumbnailUrl;
         }
     }
@@ -0,0 +1,47 @@
+package com.alal.backend.domain.entity.storage;
+
+import com.alal.backend.domain.entity.time.DefaultTime;
+import lombok.*;
+import org.hibernate.annotations.Comment;
+
+import javax.persistence.*;
+
+@Entity
+@Getter
+@Builder
+@Table(name = "content_blob")
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+public class ContentBlob extends DefaultTime {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column
+    @Comment("파일 번호")
+    private Long id;
+
+    @Column(nullable = false, length = 64)
+    @Comment("디코딩된 파일의 SHA-256")
+    private String contentHash;
+
+    // 폴더마다 따로 올리므로 같은 내용이라도 폴더가 다르면 다른 행이다.
+    @Column(nullable = false, unique = true)
+    @Comment("구글 스토리지 오브젝트 이름 (폴더/SHA-256)")
+    private String objectName;
+
+    @Column(nullable = false)
+    @Comment("구글 스토리지 주소")
+    private String uploadUrl;
+
+    public static ContentBlob of(String contentHash, String objectName, String uploadUrl) {
+        return ContentBlob.builder()
+                .contentHash(contentHash)
+                .objectName(objectName)
+                .uploadUrl(uploadUrl)
+                .build();
+    }
+
+    // 아직 인덱스 테이블에 저장되지 않은, 이번 요청에서 새로 업로드된 파일인지
+    public boolean isNew() {
+        return id == null;
+    }
+}
@@ -0,0 +1,137 @@
+package com.alal.backend.domain.entity.storage;
+
+import com.alal.backend.domain.dto.response.ImageFlaskResponse;
+import com.alal.backend.domain.entity.time.DefaultTime;
+import com.alal.backend.utils.ContentFingerprint;
+import com.alal.backend.utils.Parser;
+import lombok.*;
+import org.hibernate.annotations.Comment;
+
+import javax.persistence.*;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+
+// 사용자, 이미지 내용(SHA-256), 설명별로 이미 생성한 3D 메쉬 주소를 기록한다.
+// 메쉬 파일은 요청한 사용자와 설명(image_name)으로 이름이 정해지므로, 셋 중 하나라도 다르면 돌려주지 않는다.
+// Flask 결과 파일은 같은 이름에 덮어쓰이므로, 주소마다 기록할 때의 generation 을 남겨 두고 재사용 전에 확인한다.
+// 내용 주소 이름(Parser.isContentAddressed)은 바뀌지 않으므로 generation 을 남기지 않는다.
+@Entity
+@Getter
+@Builder
+@Table(name = "generated_mesh", uniqueConstraints = @UniqueConstraint(
+        name = "uk_generated_mesh_user_content_description", columnNames = {"userId", "contentHash", "descriptionHash"}))
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+public class GeneratedMesh extends DefaultTime {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column
+    @Comment("메쉬 번호")
+    private Long id;
+
+    @Column(nullable = false)
+    @Comment("메쉬를 생성한 유저 번호")
+    private Long userId;
+
+    @Column(nullable = false, length = 64)
+    @Comment("디코딩된 이미지의 SHA-256")
+    private String contentHash;
+
+    @Column(nullable = false, length = 64)
+    @Comment("메쉬 설명(image_name)의 SHA-256")
+    private String descriptionHash;
+
+    @Column(nullable = false, length = 32)
+    @Comment("충돌 확인용 MD5")
+    private String contentMd5;
+
+    @Column(nullable = false)
+    @Comment("충돌 확인용 이미지 크기(byte)")
+    private Long contentLength;
+
+    @Column
+    @Comment("albedo 주소")
+    private String albedoUrl;
+
+    @Column
+    @Comment("기록할 때 albedo 오브젝트의 generation")
+    private Long albedoGeneration;
+
+    @Column
+    @Comment("mtl 주소")
+    private String meshMtlUrl;
+
+    @Column
+    @Comment("기록할 때 mtl 오브젝트의 generation")
+    private Long meshMtlGeneration;
+
+    @Column
+    @Comment("obj 주소")
+    private String meshObjUrl;
+
+    @Column
+    @Comment("기록할 때 obj 오브젝트의 generation")
+    private Long meshObjGeneration;
+
+    @Column
+    @Comment("썸네일 영상")
+    private String thumbnailUrl;
+
+    @Column
+    @Comment("기록할 때 썸네일 오브젝트의 generation")
+    private Long thumbnailGeneration;
+
+    // generationOf 는 주소의 현재 generation 을 돌려준다. (내용 주소 이름이면 null)
+    public static GeneratedMesh of(Long userId, ContentFingerprint fingerprint, String descriptionHash,
+                                   ImageFlaskResponse flaskResponse, Function<String, Long> generationOf) {
+        return GeneratedMesh.builder()
+                .userId(userId)
+                .contentHash(fingerprint.getSha256())
+                .descriptionHash(descriptionHash)
+                .contentMd5(fingerprint.getMd5())
+                .contentLength(fingerprint.getLength())
+                .albedoUrl(flaskResponse.getAlbedo())
+                .albedoGeneration(generation(flaskResponse.getAlbedo(), generationOf))
+                .meshMtlUrl(flaskResponse.getMesh_mtl())
+                .meshMtlGeneration(generation(flaskResponse.getMesh_mtl(), generationOf))
+                .meshObjUrl(flaskResponse.getMesh_obj())
+                .meshObjGeneration(generation(flaskResponse.getMesh_obj(), generationOf))
+                .thumbnailUrl(flaskResponse.getUrl_mesh_example())
+                .thumbnailGeneration(generation(flaskResponse.getUrl_mesh_example(), generationOf))
+                .build();
+    }
+
+    private static Long generation(String url, Function<String, Long> generationOf) {
+        return url == null ? null : generationOf.apply(url);
+    }
+
+    // 기록한 주소가 모두 아직 이 메쉬의 파일을 가리키는지. 하나라도 다시 쓰였으면 재사용하지 않는다.
+    // isCurrent 는 (주소, 기록한 generation) 으로 현재 오브젝트를 확인한다.
+    public boolean isCurrent(BiPredicate<String, Long> isCurrent) {
+        return isCurrent(albedoUrl, albedoGeneration, isCurrent)
+                && isCurrent(meshMtlUrl, meshMtlGeneration, isCurrent)
+                && isCurrent(meshObjUrl, meshObjGeneration, isCurrent)
+                && isCurrent(thumbnailUrl, thumbnailGeneration, isCurrent);
+    }
+
+    private static boolean isCurrent(String url, Long generation, BiPredicate<String, Long> isCurrent) {
+        if (url == null) {
+            return true;
+        }
+        if (generation == null) {
+            return Parser.isContentAddressed(url);
+        }
+        return isCurrent.test(url, generation);
+    }
+
+    // SHA-256 이 같아도 MD5 와 크기까지 같아야 같은 이미지로 본다.
+    public boolean matches(ContentFingerprint fingerprint) {
+        return contentHash.equals(fingerprint.getSha256())
+                && contentMd5.equals(fingerprint.getMd5())
+                && contentLength == fingerprint.getLength();
+    }
+
+    public ImageFlaskResponse toFlaskResponse() {
+        return ImageFlaskResponse.of(albedoUrl, meshMtlUrl, meshObjUrl, thumbnailUrl);
+    }
+}
@@ -0,0 +1,51 @@
+package com.alal.backend.domain.entity.storage;
+
+import com.alal.backend.domain.entity.time.DefaultTime;
+import lombok.*;
+import org.hibernate.annotations.Comment;
+
+import javax.persistence.*;
+
+// 쓰이지 않게 된 파일(롤백, 배치 업로드 실패, 다른 파일로 교체)의 삭제 예약.
+// 재시작이나 배포로 서버가 내려가도 남아 있어야 하므로 메모리가 아닌 테이블에 둔다.
+@Entity
+@Getter
+@Builder
+@Table(name = "pending_delete", indexes = @Index(name = "idx_pending_delete_requested_at", columnList = "requestedAt"))
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+public class PendingDelete extends DefaultTime {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column
+    @Comment("삭제 예약 번호")
+    private Long id;
+
+    @Column(nullable = false)
+    @Comment("구글 스토리지 오브젝트 이름")
+    private String objectName;
+
+    @Column(nullable = false)
+    @Comment("구글 스토리지 주소")
+    private String uploadUrl;
+
+    @Column(nullable = false)
+    @Comment("삭제를 요청한 시각(epoch ms). 이 뒤에 다시 올라간 같은 이름의 파일은 지우지 않는다")
+    private Long requestedAt;
+
+    @Column(nullable = false)
+    @Comment("삭제에 실패한 횟수")
+    private int attempts;
+
+    public static PendingDelete of(String objectName, String uploadUrl, long requestedAt) {
+        return PendingDelete.builder()
+                .objectName(objectName)
+                .uploadUrl(uploadUrl)
+                .requestedAt(requestedAt)
+                .build();
+    }
+
+    public int failed() {
+        return ++attempts;
+    }
+}
@@ -7,9 +7,17 @@ import lombok.NoArgsConstructor;
 import org.hibernate.annotations.Comment;
 
 import javax.persistence.*;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
 
 @Getter
-@Table(name="motion")
+@Table(name="motion", indexes = {
+        @Index(name = "idx_motion_name", columnList = "motionName"),
+        @Index(name = "idx_motion_gif_file_name", columnList = "gifFileName"),
+        @Index(name = "idx_motion_fbx_file_name", columnList = "fbxFileName")
+})
 @Entity
 @Builder
 @NoArgsConstructor
@@ -29,4 +37,87 @@ public class Motion {
     @Column
     @Comment("모션 제목 FBX")
     private String motionFbx;
+
+    @Column
+    @Comment("정규화한 모션 이름 (GIF 파일 이름 소문자)")
+    private String motionName;
+
+    @Column
+    @Comment("GIF 파일 이름 (확장자 제외)")
+    private String gifFileName;
+
+    @Column
+    @Comment("FBX 파일 이름 (확장자 제외)")
+    private String fbxFileName;
+
+    @Builder.Default
+    @ElementCollection
+    @CollectionTable(name = "motion_tag", joinColumns = @JoinColumn(name = "motion_id"),
+            indexes = @Index(name = "idx_motion_tag", columnList = "tag"))
+    @Column(name = "tag")
+    @Comment("모션 분류 태그 (이름을 _, -, 공백으로 나눈 단어)")
+    private Set<String> tags = new LinkedHashSet<>();
+
+    // 등록할 때 메타데이터를 함께 계산한다.
+    public static Motion of(String motionGif, String motionFbx) {
+        Motion motion = Motion.builder()
+                .motionGif(motionGif)
+                .motionFbx(motionFbx)
+                .build();
+        motion.refreshMetadata();
+        return motion;
+    }
+
+    // 저장 경로와 상관없이 메타데이터가 비지 않도록 한다.
+    @PrePersist
+    private void fillMetadata() {
+        if (motionName == null) {
+            refreshMetadata();
+        }
+    }
+
+    // 주소에서 메타데이터를 다시 계산한다. 값이 바뀌었으면 true
+    public boolean refreshMetadata() {
+        String gif = fileName(motionGif);
+        String fbx = fileName(motionFbx);
+        String name = gif == null ? null : gif.toLowerCase(Locale.ROOT);
+        Set<String> newTags = tagsOf(name);
+
+        boolean changed = !Objects.equals(gifFileName, gif) || !Objects.equals(fbxFileName, fbx)
+                || !Objects.equals(motionName, name) || !Objects.equals(tags, newTags);
+
+        gifFileName = gif;
+        fbxFileName = fbx;
+        motionName = name;
+        if (tags == null) {
+            tags = new LinkedHashSet<>();
+        }
+        tags.retainAll(newTags);
+        tags.addAll(newTags);
+        return changed;
+    }
+
+    // https://.../walk_forward.gif -> walk_forward
+    public static String fileName(String url) {
+        if (url == null || url.isEmpty()) {
+            return null;
+        }
+        String fileNameWithExtension = url.substring(url.lastIndexOf('/') + 1);
+        int pos = fileNameWithExtension.lastIndexOf('.');
+        return pos < 0 ? fileNameWithExtension : fileNameWithExtension.substring(0, pos);
+    }
+
+    // walk_forward-02 -> [walk, forward] (숫자만 있는 단어는 번호이므로 뺀다)
+    static Set<String> tagsOf(String motionName) {
+        Set<String> result = new LinkedHashSet<>();
+        if (motionName == null) {
+            return result;
+        }
+        for (String token : motionName.split("[_\\-\\s]+")) {
+            if (!token.isEmpty() && !token.chars().allMatch(Character::isDigit)) {
+                result.add(token);
+            }
+        }
+        return result;
+    }
 }
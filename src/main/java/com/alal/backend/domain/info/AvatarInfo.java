@@ -4,9 +4,7 @@ import com.alal.backend.domain.entity.project.Avatar;
 import lombok.Builder;
 import lombok.Getter;
 
-import java.io.IOException;
-
-import static com.alal.backend.utils.Parser.downloadAndEncodeImage;
+import java.util.function.Function;
 
 @Getter
 @Builder
@@ -15,8 +13,8 @@ public class AvatarInfo {
     private final String avatarName;
     private final String avatarImage;
 
-    public static AvatarInfo fromEntity(Avatar avatar) throws IOException {
-        String base64Image = downloadAndEncodeImage(avatar.getAvatarImage());
+    public static AvatarInfo fromEntity(Avatar avatar, Function<String, String> imageEncoder) {
+        String base64Image = imageEncoder.apply(avatar.getAvatarImage());
 
         return AvatarInfo.builder()
                 .avatarId(avatar.getAvatarId())
@@ -2,11 +2,10 @@ package com.alal.backend.domain.info;
 
 import com.alal.backend.domain.entity.project.Staff;
 import com.alal.backend.domain.entity.project.StaffRole;
-import com.alal.backend.utils.Parser;
 import lombok.Builder;
 import lombok.Getter;
 
-import java.io.IOException;
+import java.util.function.Function;
 
 @Getter
 @Builder
@@ -15,8 +14,8 @@ public class StaffInfo {
     private final String staffImage;
     private final StaffRole staffRole;
 
-    public static StaffInfo fromEntity(Staff staff) throws IOException {
-        String base64Image = Parser.downloadAndEncodeImage(staff.getStaffProfile());
+    public static StaffInfo fromEntity(Staff staff, Function<String, String> imageEncoder) {
+        String base64Image = imageEncoder.apply(staff.getStaffProfile());
 
         return StaffInfo.builder()
                 .staffName(staff.getStaffName())
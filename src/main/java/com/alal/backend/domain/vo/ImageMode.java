@@ -0,0 +1,25 @@
+package com.alal.backend.domain.vo;
+
+import com.alal.backend.advice.error.DefaultException;
+import com.alal.backend.advice.payload.ErrorCode;
+
+// 조회 응답에 이미지를 담는 방식. base64는 기존 방식(본문에 이미지 포함), url은 짧게 유효한 V4 서명 URL
+public enum ImageMode {
+    BASE64("base64"),
+    SIGNED_URL("url");
+
+    private final String mode;
+
+    ImageMode(String mode) {
+        this.mode = mode;
+    }
+
+    public static ImageMode from(String value) {
+        for (ImageMode imageMode : ImageMode.values()) {
+            if (imageMode.mode.equalsIgnoreCase(value)) {
+                return imageMode;
+            }
+        }
+        throw new DefaultException(ErrorCode.INVALID_PARAMETER, "유효하지 않은 이미지 응답 방식입니다. " + value);
+    }
+}
@@ -0,0 +1,41 @@
+package com.alal.backend.domain.vo;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// 영상의 한 구간 [start, end) (초). 영상 바이트를 자르지 않고 Flask 서버에 구간만 알려 준다.
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class VideoSegment {
+    private final int index;
+    private final double start;
+    private final double end;
+
+    // 경계에 걸친 동작을 놓치지 않도록 다음 구간은 overlap 만큼 앞에서 시작한다.
+    public static List<VideoSegment> split(double durationSeconds, double segmentSeconds, double overlapSeconds) {
+        if (!Double.isFinite(durationSeconds) || durationSeconds <= 0) {
+            throw new IllegalArgumentException("영상 길이가 올바르지 않습니다. " + durationSeconds);
+        }
+        if (durationSeconds <= segmentSeconds) {
+            return Collections.singletonList(new VideoSegment(0, 0, durationSeconds));
+        }
+
+        double step = segmentSeconds - Math.min(overlapSeconds, segmentSeconds / 2);
+        List<VideoSegment> segments = new ArrayList<>();
+        double start = 0;
+        while (start < durationSeconds) {
+            double end = Math.min(durationSeconds, start + segmentSeconds);
+            segments.add(new VideoSegment(segments.size(), start, end));
+            if (end >= durationSeconds) {
+                break;
+            }
+            start += step;
+        }
+        return segments;
+    }
+}
@@ -3,10 +3,16 @@ package com.alal.backend.payload.request.user;
 import lombok.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import javax.validation.constraints.Positive;
+
 @Data
 @Builder
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @AllArgsConstructor
 public class FlaskRequest {
     private String fileName;
+    // 영상 길이(초). 값이 있고 구간 길이보다 길면 구간별로 나눠 동시에 분석한다.
+    // NaN, Infinity 와 최대 길이는 PoseDetectionService.validate 에서 막는다.
+    @Positive
+    private Double durationSeconds;
 }
@@ -0,0 +1,74 @@
+package com.alal.backend.repository.job;
+
+import com.alal.backend.domain.entity.job.AiJob;
+import com.alal.backend.domain.entity.job.JobStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface AiJobRepository extends JpaRepository<AiJob, Long> {
+    // 같은 작업이 두 번 큐에 들어가도 QUEUED -> RUNNING 전환은 한 워커만 성공한다.
+    @Modifying(clearAutomatically = true)
+    @Query("update AiJob j set j.status = com.alal.backend.domain.entity.job.JobStatus.RUNNING, " +
+            "j.startedAt = :now, j.heartbeatAt = :now, j.owner = :owner " +
+            "where j.id = :id and j.status = com.alal.backend.domain.entity.job.JobStatus.QUEUED")
+    int markRunning(@Param("id") Long id, @Param("owner") String owner, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("update AiJob j set j.heartbeatAt = :now " +
+            "where j.owner = :owner and j.status = com.alal.backend.domain.entity.job.JobStatus.RUNNING")
+    int heartbeat(@Param("owner") String owner, @Param("now") LocalDateTime now);
+
+    // 이 인스턴스의 실행 큐에서 기다리는 작업의 생존 신호. 큐가 길어 임대 시간 안에 실행되지 못해도 다른 인스턴스가 가져가지 않는다.
+    // 큐에 넣어 둔 워커도 함께 기록해, 그 워커가 재시작되면 임대 시간을 기다리지 않고 바로 되찾을 수 있게 한다.
+    @Modifying
+    @Query("update AiJob j set j.heartbeatAt = :now, j.owner = :owner " +
+            "where j.id in :ids and j.status = com.alal.backend.domain.entity.job.JobStatus.QUEUED")
+    int heartbeatQueued(@Param("ids") Collection<Long> ids, @Param("owner") String owner, @Param("now") LocalDateTime now);
+
+    // 실행 큐에 넣지 못한 작업은 다음 회수 주기에 바로 가져갈 수 있게 생존 신호를 지운다.
+    // 커밋 직후(AFTER_COMMIT 리스너)에도 불린다. 끝난 트랜잭션에 참여하면 커밋되지 않으므로 항상 새 트랜잭션으로 실행한다.
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Modifying
+    @Query("update AiJob j set j.heartbeatAt = null " +
+            "where j.id = :id and j.status = com.alal.backend.domain.entity.job.JobStatus.QUEUED")
+    int expire(@Param("id") Long id);
+
+    // 같은 인스턴스 식별자의 이전 실행(재시작 전 워커)이 잡고 있던 작업. ownerPattern 은 '!' 로 escape 한다.
+    @Query("select j.id from AiJob j where j.status in :statuses " +
+            "and j.owner like :ownerPattern escape '!' and j.owner <> :owner order by j.id")
+    List<Long> findAbandonedJobIds(@Param("statuses") Collection<JobStatus> statuses,
+                                   @Param("ownerPattern") String ownerPattern, @Param("owner") String owner);
+
+    @Modifying(clearAutomatically = true)
+    @Query("update AiJob j set j.status = com.alal.backend.domain.entity.job.JobStatus.QUEUED, " +
+            "j.owner = null, j.startedAt = null, j.heartbeatAt = :now " +
+            "where j.id = :id and j.status in :statuses " +
+            "and j.owner like :ownerPattern escape '!' and j.owner <> :owner")
+    int reclaimAbandoned(@Param("id") Long id, @Param("statuses") Collection<JobStatus> statuses,
+                         @Param("ownerPattern") String ownerPattern, @Param("owner") String owner,
+                         @Param("now") LocalDateTime now);
+
+    @Query("select j.id from AiJob j where j.status in :statuses " +
+            "and (j.heartbeatAt is null or j.heartbeatAt < :expiredBefore) order by j.id")
+    List<Long> findExpiredJobIds(@Param("statuses") Collection<JobStatus> statuses,
+                                 @Param("expiredBefore") LocalDateTime expiredBefore);
+
+    // 조건부 update 이므로 여러 인스턴스가 같은 작업을 보더라도 한 곳만 다시 큐에 넣는다.
+    @Modifying(clearAutomatically = true)
+    @Query("update AiJob j set j.status = com.alal.backend.domain.entity.job.JobStatus.QUEUED, " +
+            "j.owner = null, j.startedAt = null, j.heartbeatAt = :now " +
+            "where j.id = :id and j.status in :statuses " +
+            "and (j.heartbeatAt is null or j.heartbeatAt < :expiredBefore)")
+    int reclaim(@Param("id") Long id, @Param("statuses") Collection<JobStatus> statuses,
+                @Param("expiredBefore") LocalDateTime expiredBefore, @Param("now") LocalDateTime now);
+}
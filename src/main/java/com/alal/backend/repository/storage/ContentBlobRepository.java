@@ -0,0 +1,48 @@
+package com.alal.backend.repository.storage;
+
+import com.alal.backend.domain.entity.storage.ContentBlob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.LockModeType;
+import java.util.Optional;
+
+@Repository
+public interface ContentBlobRepository extends JpaRepository<ContentBlob, Long> {
+    Optional<ContentBlob> findByObjectName(String objectName);
+
+    boolean existsByObjectName(String objectName);
+
+    // 등록(register)은 공유 잠금으로, 정리(GoogleService.deleteIfUnreferenced)는 배타 잠금으로 같은 행을 읽는다.
+    // 정리가 인덱스를 지우는 동안 같은 파일을 재사용해 등록하려는 요청은 커밋을 기다린 뒤 행이 없는 것을 보게 된다.
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("select c from ContentBlob c where c.objectName = :objectName")
+    Optional<ContentBlob> findSharedByObjectName(@Param("objectName") String objectName);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c from ContentBlob c where c.objectName = :objectName")
+    Optional<ContentBlob> findLockedByObjectName(@Param("objectName") String objectName);
+
+    // 업로드한 파일 주소를 담는 모든 컬럼에서 이 주소를 쓰는 행의 수.
+    // 지금은 폴더마다 따로 올리지만, 폴더와 상관없이 내용만으로 재사용하던 때의 행은 다른 폴더의 파일을 가리킬 수 있으므로 모두 확인한다.
+    @Query(value = "select (select count(*) from project where poster = :uploadUrl)"
+            + " + (select count(*) from script where script_url = :uploadUrl)"
+            + " + (select count(*) from memo where upload_url = :uploadUrl)"
+            + " + (select count(*) from avatar where avatar_image = :uploadUrl)"
+            + " + (select count(*) from scene where thumbnail = :uploadUrl)", nativeQuery = true)
+    long countReferences(@Param("uploadUrl") String uploadUrl);
+
+    // 같은 내용을 동시에 등록해도 유니크 제약 위반 없이 한 행만 남는다.
+    // 예외가 나면 호출한 트랜잭션 전체가 rollback-only 가 되므로 save 대신 insert ignore 를 쓴다.
+    // insert ignore 는 MySQL 전용 문법이다. H2 는 MODE=MySQL 에서만 받고, PostgreSQL 로 옮기면
+    // insert ... on conflict (object_name) do nothing 으로 바꿔야 한다.
+    @Modifying
+    @Query(value = "insert ignore into content_blob (content_hash, object_name, upload_url, created_date, modified_date)"
+            + " values (:contentHash, :objectName, :uploadUrl, now(), now())", nativeQuery = true)
+    int insertIgnore(@Param("contentHash") String contentHash, @Param("objectName") String objectName,
+                     @Param("uploadUrl") String uploadUrl);
+}
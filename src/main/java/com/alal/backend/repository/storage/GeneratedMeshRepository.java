@@ -0,0 +1,12 @@
+package com.alal.backend.repository.storage;
+
+import com.alal.backend.domain.entity.storage.GeneratedMesh;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface GeneratedMeshRepository extends JpaRepository<GeneratedMesh, Long> {
+    Optional<GeneratedMesh> findByUserIdAndContentHashAndDescriptionHash(Long userId, String contentHash, String descriptionHash);
+}
@@ -0,0 +1,19 @@
+package com.alal.backend.repository.storage;
+
+import com.alal.backend.domain.entity.storage.PendingDelete;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Repository
+public interface PendingDeleteRepository extends JpaRepository<PendingDelete, Long> {
+    List<PendingDelete> findTop100ByRequestedAtLessThanEqualOrderByIdAsc(Long requestedAt);
+
+    // 롤백 직후(AFTER_ROLLBACK 리스너)에도 불린다. 끝난 트랜잭션에 참여하면 커밋되지 않으므로 항상 새 트랜잭션으로 저장한다.
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    <S extends PendingDelete> S save(S pendingDelete);
+}
@@ -1,9 +1,8 @@
 package com.alal.backend.repository.user;
 
 import com.alal.backend.domain.entity.user.Motion;
+import java.util.Collection;
 import java.util.List;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -11,6 +10,15 @@ import org.springframework.stereotype.Repository;
 
 @Repository
 public interface MotionRepository extends JpaRepository<Motion, Long> {
-    @Query("select m from Motion m where m.motionGif like %:userHistory% or m.motionFbx like %:userHistory%")
-    List<Motion> findByMotionContaining(@Param("userHistory") String userHistory);
+    // 아래 조회는 모두 색인된 메타데이터 컬럼에 대한 동등 조건이다.
+    @Query("select m.motionGif from Motion m where m.gifFileName in :gifFileNames")
+    List<String> findMotionGifByGifFileNameIn(@Param("gifFileNames") Collection<String> gifFileNames);
+
+    List<Motion> findByGifFileNameIn(Collection<String> gifFileNames);
+
+    // 메타데이터가 비어 있는 행을 id 순서로 조금씩 읽는다. (backfill)
+    List<Motion> findTop500ByMotionNameIsNullAndIdGreaterThanOrderByIdAsc(Long id);
+
+    @Query("select max(m.id) from Motion m")
+    Long findMaxId();
 }
@@ -1,71 +1,204 @@
 package com.alal.backend.service.group;
 
+import com.alal.backend.advice.error.DefaultException;
+import com.alal.backend.advice.payload.ErrorCode;
 import com.alal.backend.domain.dto.request.UpdateAvatarRequest;
 import com.alal.backend.domain.dto.response.UpdateAvatarResponse;
 import com.alal.backend.domain.entity.project.Avatar;
+import com.alal.backend.domain.entity.storage.ContentBlob;
 import com.alal.backend.domain.info.AvatarInfo;
+import com.alal.backend.domain.vo.ImageMode;
 import com.alal.backend.repository.group.AvatarRepository;
-import com.alal.backend.utils.Parser;
-import com.google.cloud.storage.BlobInfo;
-import com.google.cloud.storage.Storage;
+import com.alal.backend.utils.ImageResolver;
+import com.alal.backend.utils.event.UploadReplacedEvent;
+import com.alal.backend.utils.event.UploadRollBackEvent;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.TaskExecutor;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
 
-import java.util.Base64;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 @Service
 @RequiredArgsConstructor
 public class AvatarService {
+    // 한 번의 요청(배치)이 업로드 풀을 독점하지 않도록 동시에 진행되는 업로드 수를 제한한다.
+    private static final int MAX_CONCURRENT_UPLOADS_PER_BATCH = 4;
+
     private final AvatarRepository avatarRepository;
-    private final Parser parser;
-    private final Storage storage;
+    private final GoogleService googleService;
+    private final ImageResolver imageResolver;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    @Qualifier("storageUploadExecutor")
+    private final TaskExecutor storageUploadExecutor;
 
     @Value("${spring.cloud.gcp.storage.bucket}")
     private String bucketName;
 
-    @Transactional
     public UpdateAvatarResponse updateAvatar(UpdateAvatarRequest avatarRequest) {
-        List<Avatar> avatars = findAvatars(avatarRequest);
-        List<String> avatarUrls = uploadAvatarsAndGetUrls(avatarRequest.getAvatarInfos());
+        return updateAvatar(avatarRequest, this::storeAvatar);
+    }
+
+    // multipart 요청은 배역 이미지 파트의 이름이 avatarId 이다.
+    public UpdateAvatarResponse updateAvatar(UpdateAvatarRequest avatarRequest, Map<String, MultipartFile> avatarImages) {
+        return updateAvatar(avatarRequest,
+                avatarInfo -> storeAvatar(avatarImages.get(String.valueOf(avatarInfo.getAvatarId()))));
+    }
+
+    // GCS 업로드는 트랜잭션 전에, 응답용 이미지 변환은 커밋 후에 하여 DB 커넥션은 저장하는 동안만 잡는다.
+    // 업로드를 먼저 등록해 두므로 배역을 찾지 못해 롤백되면 새로 올린 이미지도 함께 지워진다.
+    private UpdateAvatarResponse updateAvatar(UpdateAvatarRequest avatarRequest, Function<AvatarInfo, ContentBlob> store) {
+        List<ContentBlob> contentBlobs = storeAvatars(avatarRequest.getAvatarInfos(), store);
 
-        avatars = updateAvatars(avatars, avatarUrls, avatarRequest.getAvatarInfos());
+        List<Avatar> avatars = transactionTemplate.execute(status -> {
+            List<String> avatarUrls = registerAvatars(contentBlobs);
+            return updateAvatars(findAvatars(avatarRequest), avatarUrls, avatarRequest.getAvatarInfos());
+        });
 
-        return UpdateAvatarResponse.fromEntity(avatars);
+        List<String> avatarImages = avatars.stream()
+                .map(Avatar::getAvatarImage)
+                .collect(Collectors.toList());
+        return UpdateAvatarResponse.fromEntity(avatars, imageResolver.resolveAll(avatarImages, ImageMode.BASE64));
     }
 
+    // findAllById는 순서를 보장하지 않으므로 요청의 avatarInfos 순서대로 다시 정렬한다.
     private List<Avatar> findAvatars(UpdateAvatarRequest avatarRequest) {
         List<Long> avatarIds = avatarRequest.getAvatarInfos().stream()
                 .map(AvatarInfo::getAvatarId)
                 .collect(Collectors.toList());
 
-        return avatarRepository.findAllById(avatarIds);
+        Map<Long, Avatar> avatarsById = avatarRepository.findAllById(avatarIds).stream()
+                .collect(Collectors.toMap(Avatar::getAvatarId, Function.identity()));
+
+        return avatarIds.stream()
+                .map(avatarId -> {
+                    Avatar avatar = avatarsById.get(avatarId);
+                    if (avatar == null) {
+                        throw new DefaultException(ErrorCode.INVALID_PARAMETER, "배역을 찾을 수 없습니다. " + avatarId);
+                    }
+                    return avatar;
+                })
+                .collect(Collectors.toList());
     }
 
-    private List<String> uploadAvatarsAndGetUrls(List<AvatarInfo> avatarInfos) {
-        return avatarInfos.stream()
-                .map(this::uploadAvatarAndGetUrl)
+    private List<String> registerAvatars(List<ContentBlob> contentBlobs) {
+        return contentBlobs.stream()
+                .map(this::registerAvatar)
                 .collect(Collectors.toList());
     }
 
-    private String uploadAvatarAndGetUrl(AvatarInfo avatarInfo) {
-        if (avatarInfo.getAvatarImage() == null || avatarInfo.getAvatarImage().isEmpty()) {
+    private String registerAvatar(ContentBlob contentBlob) {
+        if (contentBlob == null) {
             return null;
         }
-        byte[] decodedBytes = Base64.getDecoder().decode(avatarInfo.getAvatarImage());
+        String avatarUrl = googleService.register(contentBlob);
+        eventPublisher.publishEvent(new UploadRollBackEvent(bucketName, avatarUrl));
+        return avatarUrl;
+    }
+
+    // 하나가 실패하면 남은 배역은 더 제출하지 않고, 이미 대기열에 들어간 업로드도 올리지 않고 건너뛴다.
+    private List<ContentBlob> storeAvatars(List<AvatarInfo> avatarInfos, Function<AvatarInfo, ContentBlob> store) {
+        UploadBatch batch = new UploadBatch();
+        List<CompletableFuture<ContentBlob>> uploads = new ArrayList<>();
+
+        for (AvatarInfo avatarInfo : avatarInfos) {
+            batch.permits.acquireUninterruptibly();
+            if (batch.hasFailed()) {
+                batch.permits.release();
+                break;
+            }
+            uploads.add(submitUpload(avatarInfo, store, batch));
+        }
+
+        try {
+            CompletableFuture.allOf(uploads.toArray(new CompletableFuture[0])).join();
+        } catch (CompletionException e) {
+            batch.fail(e.getCause());
+        }
+
+        if (batch.hasFailed()) {
+            deleteUploaded(uploads);
+            throw uploadFailure(batch.failure.get());
+        }
+
+        return uploads.stream()
+                .map(CompletableFuture::join)
+                .collect(Collectors.toList());
+    }
+
+    // 실패는 permit 을 돌려주기 전에 기록하므로, permit 을 기다리던 제출 루프는 깨어나자마자 실패를 본다.
+    private CompletableFuture<ContentBlob> submitUpload(AvatarInfo avatarInfo, Function<AvatarInfo, ContentBlob> store,
+                                                        UploadBatch batch) {
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    if (batch.hasFailed()) {
+                        return null;
+                    }
+                    return store.apply(avatarInfo);
+                } catch (RuntimeException e) {
+                    batch.fail(e);
+                    return null;
+                } finally {
+                    batch.permits.release();
+                }
+            }, storageUploadExecutor);
+        } catch (RejectedExecutionException e) {
+            // 업로드 풀이 가득 찼다. 배치 전체를 실패로 처리하여 이미 올린 파일을 정리한다.
+            batch.fail(new DefaultException(ErrorCode.UPLOAD_FAILED, "업로드 대기열이 가득 찼습니다."));
+            batch.permits.release();
+            return CompletableFuture.completedFuture(null);
+        }
+    }
 
-        BlobInfo blobInfo = storage.create(
-                BlobInfo.newBuilder(bucketName, String.valueOf(avatarInfo.getAvatarId()))
-                        .setContentType("image/png")
-                        .build(),
-                decodedBytes
-        );
+    // 하나라도 실패하면 이번 배치에서 새로 올라간 이미지를 지워 all-or-nothing을 보장한다.
+    // 중복 제거로 기존 파일을 재사용한 경우는 다른 곳에서 참조 중이므로 지우지 않는다.
+    // 같은 이미지를 올린 다른 요청이 아직 등록 전일 수 있으므로 바로 지우지 않고 GoogleService 에 맡긴다.
+    private void deleteUploaded(List<CompletableFuture<ContentBlob>> uploads) {
+        uploads.stream()
+                .filter(upload -> !upload.isCompletedExceptionally())
+                .map(CompletableFuture::join)
+                .filter(Objects::nonNull)
+                .filter(ContentBlob::isNew)
+                .forEach(contentBlob -> googleService.deleteLater(contentBlob.getObjectName(), contentBlob.getUploadUrl()));
+    }
 
-        return parser.parseBlobInfo(blobInfo);
+    private RuntimeException uploadFailure(Throwable cause) {
+        if (cause instanceof RuntimeException) {
+            return (RuntimeException) cause;
+        }
+        return new DefaultException(ErrorCode.UPLOAD_FAILED, String.valueOf(cause));
+    }
+
+    private ContentBlob storeAvatar(AvatarInfo avatarInfo) {
+        if (avatarInfo.getAvatarImage() == null || avatarInfo.getAvatarImage().isEmpty()) {
+            return null;
+        }
+        return googleService.storeAvatar(avatarInfo);
+    }
+
+    private ContentBlob storeAvatar(MultipartFile avatarImage) {
+        if (avatarImage == null || avatarImage.isEmpty()) {
+            return null;
+        }
+        return googleService.storeAvatar(avatarImage);
     }
 
     private List<Avatar> updateAvatars(List<Avatar> avatars, List<String> avatarUrls, List<AvatarInfo> avatarInfos) {
@@ -74,11 +207,30 @@ public class AvatarService {
         return avatarRepository.saveAll(avatars);
     }
 
+    // 이미지가 바뀌면 커밋 후 이전 이미지를 정리 대상으로 넘긴다.
     private void updateAvatar(Avatar avatar, String avatarUrl, AvatarInfo avatarInfo) {
         if (avatarUrl == null || avatarUrl.isEmpty()) {
             avatar.updateNameOnly(avatarInfo);
             return;
         }
+        String previousUrl = avatar.getAvatarImage();
         avatar.update(avatarUrl, avatarInfo);
+        if (previousUrl != null && !previousUrl.equals(avatarUrl)) {
+            eventPublisher.publishEvent(new UploadReplacedEvent(previousUrl));
+        }
+    }
+
+    // 한 배치의 업로드가 함께 쓰는 동시 실행 제한과 첫 번째 실패
+    private static class UploadBatch {
+        private final Semaphore permits = new Semaphore(MAX_CONCURRENT_UPLOADS_PER_BATCH);
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        boolean hasFailed() {
+            return failure.get() != null;
+        }
+
+        void fail(Throwable cause) {
+            failure.compareAndSet(null, cause);
+        }
     }
 }
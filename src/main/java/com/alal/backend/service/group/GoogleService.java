@@ -1,70 +1,260 @@
 package com.alal.backend.service.group;
 
+import com.alal.backend.advice.error.DefaultException;
+import com.alal.backend.advice.payload.ErrorCode;
 import com.alal.backend.domain.dto.request.UploadProjectRequest;
 import com.alal.backend.domain.dto.request.UploadSceneRequest;
+import com.alal.backend.domain.entity.storage.ContentBlob;
+import com.alal.backend.domain.entity.storage.PendingDelete;
+import com.alal.backend.domain.info.AvatarInfo;
+import com.alal.backend.repository.storage.ContentBlobRepository;
+import com.alal.backend.repository.storage.PendingDeleteRepository;
 import com.alal.backend.utils.Parser;
+import com.alal.backend.utils.StorageUploader;
+import com.alal.backend.utils.StorageUploader.ContentSource;
+import com.alal.backend.utils.StorageUploader.Digest;
+import com.google.cloud.storage.Blob;
+import com.google.cloud.storage.BlobId;
 import com.google.cloud.storage.BlobInfo;
 import com.google.cloud.storage.Storage;
+import com.google.cloud.storage.StorageException;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
 
-import java.util.Base64;
-import java.util.UUID;
+import java.util.Optional;
 
+import static com.alal.backend.utils.StorageUploader.base64;
+import static com.alal.backend.utils.StorageUploader.multipart;
+
+// 업로드되는 파일은 디코딩된 내용의 SHA-256을 이름으로 저장한다. (content-addressed)
+// 같은 내용이 이미 올라가 있으면 GCS 쓰기를 생략하고 기존 주소를 그대로 돌려준다.
+// base64(JSON) 요청과 multipart 요청 모두 같은 경로로 청크 단위 스트리밍 업로드된다.
+// store* 는 GCS 업로드만 수행하고 인덱스 테이블에는 기록하지 않는다. 트랜잭션 밖에서 호출하고
+// 결과는 이어지는 짧은 트랜잭션 안에서 register 해야 롤백 시 함께 되돌려진다.
+// 이름이 내용마다 달라 덮어쓰이지 않으므로, 행이 다른 파일로 바뀌면 이전 파일은 releaseLater 로 정리한다.
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class GoogleService {
     private static final String SCENE_FOLDER = "Scene/";
     private static final String SCRIPTS_FOLDER = "Scripts/";
     private static final String POSTER_FOLDER = "Poster/";
+    private static final String MEMO_FOLDER = "Memo/";
+    private static final String AVATAR_FOLDER = "Avatar/";
+
+    private static final String IMAGE_TYPE = "image/png";
+    private static final String CSV_TYPE = "text/csv";
+
+    // 실패한 삭제를 포기하기 전까지 다시 시도하는 횟수
+    private static final int MAX_DELETE_ATTEMPTS = 5;
 
     @Value("${spring.cloud.gcp.storage.bucket}")
     private String bucketName;
 
     private final Parser parser;
+    private final StorageUploader storageUploader;
     private final Storage storage;
+    private final ContentBlobRepository contentBlobRepository;
+    private final PendingDeleteRepository pendingDeleteRepository;
+    private final TransactionTemplate transactionTemplate;
 
-    public String uploadImage(UploadSceneRequest uploadSceneRequest) {
-        byte[] decodedBytes = uploadSceneRequest.decodeBase64();
-        String posterUrl = SCENE_FOLDER + UUID.randomUUID();
+    @Value("${storage.pending-delete.grace-ms:600000}")
+    private long deleteGraceMs;
 
-        BlobInfo blobInfo = storage.create(
-                BlobInfo.newBuilder(bucketName, posterUrl)
-                        .setContentType("image/png")
-                        .build(),
-                decodedBytes
-        );
+    public ContentBlob storeImage(UploadSceneRequest uploadSceneRequest) {
+        if (uploadSceneRequest.getThumbNail() == null) {
+            return null;
+        }
+        return store(SCENE_FOLDER, IMAGE_TYPE, base64(uploadSceneRequest.getThumbNail()));
+    }
 
-        return parser.parseBlobInfo(blobInfo);
+    public ContentBlob storeImage(MultipartFile thumbnail) {
+        if (isEmpty(thumbnail)) {
+            return null;
+        }
+        return store(SCENE_FOLDER, IMAGE_TYPE, multipart(thumbnail));
     }
 
-    public String uploadScripts(UploadProjectRequest uploadProjectRequest) {
-        byte[] decodedBytes = uploadProjectRequest.encodeBase64();
-        String scriptName = SCRIPTS_FOLDER + uploadProjectRequest.getProjectName();
+    public ContentBlob storeScripts(UploadProjectRequest uploadProjectRequest) {
+        return store(SCRIPTS_FOLDER, CSV_TYPE, base64(uploadProjectRequest.getScript()));
+    }
 
-        BlobInfo blobInfo = storage.create(
-                BlobInfo.newBuilder(bucketName, scriptName)
-                        .setContentType("text/csv")
-                        .build(),
-                decodedBytes
-        );
+    public ContentBlob storeScripts(MultipartFile script) {
+        return store(SCRIPTS_FOLDER, CSV_TYPE, multipart(script));
+    }
+
+    public ContentBlob storePoster(UploadProjectRequest uploadProjectRequest) {
+        return store(POSTER_FOLDER, IMAGE_TYPE, base64(uploadProjectRequest.getPoster()));
+    }
+
+    public ContentBlob storePoster(MultipartFile poster) {
+        return store(POSTER_FOLDER, IMAGE_TYPE, multipart(poster));
+    }
+
+    public ContentBlob storeMemo(String csvFile) {
+        return store(MEMO_FOLDER, CSV_TYPE, base64(csvFile));
+    }
+
+    public ContentBlob storeMemo(MultipartFile csvFile) {
+        return store(MEMO_FOLDER, CSV_TYPE, multipart(csvFile));
+    }
+
+    public ContentBlob storeAvatar(AvatarInfo avatarInfo) {
+        return store(AVATAR_FOLDER, IMAGE_TYPE, base64(avatarInfo.getAvatarImage()));
+    }
+
+    public ContentBlob storeAvatar(MultipartFile avatarImage) {
+        return store(AVATAR_FOLDER, IMAGE_TYPE, multipart(avatarImage));
+    }
+
+    public String register(ContentBlob contentBlob) {
+        if (!contentBlob.isNew()) {
+            return registerReused(contentBlob);
+        }
+
+        // 다른 요청이 같은 내용을 먼저 등록 중이면 그 트랜잭션이 끝날 때까지 기다린 뒤 남은 행을 읽는다.
+        contentBlobRepository.insertIgnore(contentBlob.getContentHash(), contentBlob.getObjectName(),
+                contentBlob.getUploadUrl());
+        return contentBlobRepository.findByObjectName(contentBlob.getObjectName())
+                .orElseThrow(() -> new DefaultException(ErrorCode.UPLOAD_FAILED, "파일 인덱스를 등록하지 못했습니다."))
+                .getUploadUrl();
+    }
+
+    // store 에서 찾은 기존 파일은 그 사이 정리됐을 수 있다. 커밋까지 공유 잠금을 잡아 정리와 겹치지 않게 한다.
+    private String registerReused(ContentBlob contentBlob) {
+        return contentBlobRepository.findSharedByObjectName(contentBlob.getObjectName())
+                .orElseThrow(() -> new DefaultException(ErrorCode.UPLOAD_FAILED, "파일이 정리되었습니다. 다시 시도해 주세요."))
+                .getUploadUrl();
+    }
+
+    private boolean isRegistered(String objectName) {
+        return contentBlobRepository.existsByObjectName(objectName);
+    }
+
+    public void delete(String uploadUrl) {
+        storage.delete(bucketName, Parser.parseObjectName(bucketName, uploadUrl));
+        parser.evictImage(uploadUrl);
+    }
+
+    // 쓰이지 않게 된 파일(롤백, 배치 업로드 실패, 다른 파일로 교체)을 유예 시간 뒤에 지운다.
+    // store(트랜잭션 밖)와 register(트랜잭션 안) 사이에 있는 다른 요청이 같은 파일을 쓰고 있을 수 있기 때문이다.
+    // 예약은 테이블에 남기므로 유예 시간 안에 서버가 재시작돼도 고아 파일로 남지 않는다.
+    public void deleteLater(String objectName, String uploadUrl) {
+        pendingDeleteRepository.save(PendingDelete.of(objectName, uploadUrl, System.currentTimeMillis()));
+    }
+
+    // 행이 가리키던 파일이 바뀐 뒤(커밋 후)에 부른다. 인덱스에 있는 업로드 파일만 정리 대상이며,
+    // 기본 이미지나 이전 방식(고정 이름)으로 올린 파일, 다른 버킷의 주소는 건드리지 않는다.
+    public void releaseLater(String uploadUrl) {
+        if (!Parser.isStorageUrl(uploadUrl)) {
+            return;
+        }
+        BlobId blobId = Parser.parseBlobId(uploadUrl);
+        if (!bucketName.equals(blobId.getBucket()) || !isRegistered(blobId.getName())) {
+            return;
+        }
+        deleteLater(blobId.getName(), uploadUrl);
+    }
+
+    // 한 번에 최대 100건씩 처리하고 남은 예약은 다음 주기에 이어서 지운다.
+    // 처리한 예약은 지우고, 실패한 예약은 횟수를 올려 다음 주기에 다시 시도한다.
+    // 여러 서버가 같은 예약을 동시에 처리해도 삭제는 generation 조건으로 한 번만 일어난다.
+    @Scheduled(fixedDelayString = "${storage.pending-delete.sweep-interval-ms:60000}")
+    public void deletePendingUploads() {
+        long dueBefore = System.currentTimeMillis() - deleteGraceMs;
 
-        return parser.parseBlobInfo(blobInfo);
+        for (PendingDelete pendingDelete : pendingDeleteRepository.findTop100ByRequestedAtLessThanEqualOrderByIdAsc(dueBefore)) {
+            try {
+                deleteIfUnreferenced(pendingDelete.getObjectName(), pendingDelete.getUploadUrl(), pendingDelete.getRequestedAt());
+                pendingDeleteRepository.delete(pendingDelete);
+            } catch (RuntimeException e) {
+                retryLater(pendingDelete, e);
+            }
+        }
     }
 
+    private void retryLater(PendingDelete pendingDelete, RuntimeException cause) {
+        if (pendingDelete.failed() < MAX_DELETE_ATTEMPTS) {
+            log.warn("쓰이지 않는 업로드 삭제 실패, 다음 주기에 다시 시도 = {}", pendingDelete.getUploadUrl(), cause);
+            pendingDeleteRepository.save(pendingDelete);
+            return;
+        }
+        log.error("쓰이지 않는 업로드 삭제를 {}번 실패해 포기 = {}", MAX_DELETE_ATTEMPTS, pendingDelete.getUploadUrl(), cause);
+        pendingDeleteRepository.delete(pendingDelete);
+    }
+
+    // 다음 경우에는 다른 요청의 파일이므로 남긴다.
+    // - 인덱스가 있고 그 주소를 쓰는 행이 있다: 다른 요청이 등록했거나 아직 쓰이고 있다.
+    // - 삭제를 요청한 뒤에 만들어졌다: 인덱스가 없어 다른 요청이 다시 올렸고 아직 등록하지 않았다.
+    // 아무 행도 쓰지 않는 인덱스는 파일보다 먼저 지워, 이후 같은 내용은 새로 올라가게 한다.
+    // 확인과 삭제 사이에 다시 올라가는 경우는 generation 조건으로 막는다.
+    boolean deleteIfUnreferenced(String objectName, String uploadUrl, long requestedAt) {
+        if (Boolean.TRUE.equals(transactionTemplate.execute(status -> isInUse(objectName)))) {
+            return false;
+        }
+
+        Blob blob = storage.get(BlobId.of(bucketName, objectName));
+        if (blob == null || blob.getCreateTime() == null || blob.getCreateTime() > requestedAt) {
+            return false;
+        }
+
+        try {
+            boolean deleted = storage.delete(BlobId.of(bucketName, objectName),
+                    Storage.BlobSourceOption.generationMatch(blob.getGeneration()));
+            parser.evictImage(uploadUrl);
+            return deleted;
+        } catch (StorageException e) {
+            if (e.getCode() == HttpStatus.PRECONDITION_FAILED.value()) {
+                return false;
+            }
+            throw e;
+        }
+    }
+
+    private boolean isInUse(String objectName) {
+        Optional<ContentBlob> contentBlob = contentBlobRepository.findLockedByObjectName(objectName);
+        if (contentBlob.isEmpty()) {
+            return false;
+        }
+        if (contentBlobRepository.countReferences(contentBlob.get().getUploadUrl()) > 0) {
+            return true;
+        }
+        contentBlobRepository.delete(contentBlob.get());
+        return false;
+    }
+
+    // 같은 내용은 같은 폴더 안에서만 재사용한다. 배역 이미지가 Poster/ 파일을 가리키는 식으로 종류가 섞이면
+    // 콘텐츠 타입과 폴더 규칙이 어긋나고, 한 종류의 교체/정리가 다른 종류의 파일에 엮인다.
+    private ContentBlob store(String folder, String contentType, ContentSource source) {
+        Digest digest = storageUploader.digest(source);
+        String objectName = folder + digest.getSha256();
 
-    public String uploadPoster(UploadProjectRequest uploadProjectRequest) {
-        byte[] decodedBytes = Base64.getDecoder().decode(uploadProjectRequest.getPoster());
-        String posterUrl = POSTER_FOLDER + uploadProjectRequest.getProjectName();
+        return contentBlobRepository.findByObjectName(objectName)
+                .orElseGet(() -> upload(objectName, contentType, source, digest));
+    }
 
-        BlobInfo blobInfo = storage.create(
-                BlobInfo.newBuilder(bucketName, posterUrl)
-                        .setContentType("image/png")
+    private ContentBlob upload(String objectName, String contentType, ContentSource source, Digest digest) {
+        BlobInfo blobInfo = storageUploader.upload(
+                BlobInfo.newBuilder(bucketName, objectName)
+                        .setContentType(contentType)
+                        .setCrc32c(digest.getCrc32c())
                         .build(),
-                decodedBytes
+                source
         );
 
-        return parser.parseBlobInfo(blobInfo);
+        String uploadUrl = parser.parseBlobInfo(blobInfo);
+        parser.evictImage(uploadUrl);
+
+        return ContentBlob.of(digest.getSha256(), objectName, uploadUrl);
+    }
+
+    private static boolean isEmpty(MultipartFile file) {
+        return file == null || file.isEmpty();
     }
 }
@@ -4,22 +4,21 @@ import com.alal.backend.domain.dto.request.UploadMemoRequest;
 import com.alal.backend.domain.dto.response.ReadMemoResponse;
 import com.alal.backend.domain.dto.response.UploadMemoResponse;
 import com.alal.backend.domain.entity.project.Memo;
+import com.alal.backend.domain.entity.storage.ContentBlob;
 import com.alal.backend.domain.entity.user.User;
 import com.alal.backend.domain.vo.Group;
 import com.alal.backend.repository.group.MemoRepository;
 import com.alal.backend.repository.user.UserRepository;
-import com.alal.backend.utils.Parser;
+import com.alal.backend.utils.event.UploadReplacedEvent;
 import com.alal.backend.utils.event.UploadRollBackEvent;
-import com.google.cloud.storage.BlobInfo;
-import com.google.cloud.storage.Storage;
-import com.google.cloud.storage.StorageException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
 
-import java.util.Base64;
 import java.util.NoSuchElementException;
 import java.util.Optional;
 
@@ -29,49 +28,44 @@ public class MemoService {
     private final MemoRepository memoRepository;
     private final UserRepository userRepository;
 
-    private final Parser parser;
-    private final Storage storage;
+    private final GoogleService googleService;
     private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
 
     @Value("${spring.cloud.gcp.storage.bucket}")
     private String bucketName;
-    private static final String MEMO_FOLDER = "Memo/";
 
-    @Transactional
+    // GCS 업로드는 트랜잭션 밖에서 먼저 끝내고, DB 커넥션은 저장하는 동안만 잡는다.
     public UploadMemoResponse uploadMemo(UploadMemoRequest uploadMemoRequest, Long userId) {
-        User user = getUser(userId);
+        ContentBlob csvFile = googleService.storeMemo(uploadMemoRequest.getCsvFile());
 
-        return saveMemo(uploadMemoRequest, user);
+        return transactionTemplate.execute(status -> saveMemo(csvFile, getUser(userId)));
     }
 
-    private UploadMemoResponse saveMemo(UploadMemoRequest uploadMemoRequest, User user) throws StorageException {
+    public UploadMemoResponse uploadMemo(MultipartFile csvFile, Long userId) {
+        ContentBlob storedCsvFile = googleService.storeMemo(csvFile);
+
+        return transactionTemplate.execute(status -> saveMemo(storedCsvFile, getUser(userId)));
+    }
+
+    // 그룹의 메모는 하나이므로 이전 메모 파일은 커밋 후 정리 대상으로 넘긴다.
+    private UploadMemoResponse saveMemo(ContentBlob csvFile, User user) {
         Memo memo = memoRepository.findByGroup(getUserGroup(user));
         if (memo != null) {
             memoRepository.delete(memo);
         }
 
-        String uploadUrl = uploadStorage(user, uploadMemoRequest);
+        String uploadUrl = googleService.register(csvFile);
         eventPublisher.publishEvent(new UploadRollBackEvent(bucketName, uploadUrl));
+        if (memo != null && !uploadUrl.equals(memo.getUploadUrl())) {
+            eventPublisher.publishEvent(new UploadReplacedEvent(memo.getUploadUrl()));
+        }
         Memo createdMemo = Memo.fromEntity(uploadUrl, user.getUserGroup());
         memoRepository.save(createdMemo);
 
         return UploadMemoResponse.fromEntity(uploadUrl);
     }
 
-    private String uploadStorage(User user, UploadMemoRequest uploadMemoRequest) {
-        byte[] decodedBytes = Base64.getDecoder().decode(uploadMemoRequest.getCsvFile());
-        String memoUrl = MEMO_FOLDER + user.getUserGroup() + ".csv";
-
-        BlobInfo blobInfo = storage.create(
-                BlobInfo.newBuilder(bucketName, memoUrl)
-                        .setContentType("text/csv")
-                        .build(),
-                decodedBytes
-        );
-
-        return parser.parseBlobInfo(blobInfo);
-    }
-
     @Transactional(readOnly = true)
     public ReadMemoResponse readMemos(Long userId) {
         User user = getUser(userId);
@@ -6,53 +6,75 @@ import com.alal.backend.domain.dto.response.ReadProjectsResponseList;
 import com.alal.backend.domain.entity.project.*;
 import com.alal.backend.domain.entity.user.User;
 import com.alal.backend.domain.vo.Group;
+import com.alal.backend.domain.vo.ImageMode;
 import com.alal.backend.repository.group.ProjectRepository;
 import com.alal.backend.service.user.UserService;
+import com.alal.backend.utils.ImageResolver;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.io.IOException;
-import java.io.UncheckedIOException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
+// 엔티티는 짧은 읽기 전용 트랜잭션 안에서 읽고, 이미지 변환(GCS 다운로드, 서명)은 커넥션을 반환한 뒤에 한다.
+// 이미지가 수십 장이면 변환에 수백 ms 가 걸리는데, 그동안 DB 커넥션을 붙잡지 않기 위해서이다.
 @Service
 @RequiredArgsConstructor
 public class ProjectReadService {
     private final UserService userService;
     private final ProjectRepository projectRepository;
+    private final ImageResolver imageResolver;
 
-    @Transactional(readOnly = true)
-    public ReadProjectsResponseList readProjects(Long userId, Pageable pageable) {
-        User user = userService.getUser(userId);
-        Group group = userService.getUserGroup(user);
+    @Qualifier("readOnlyTransactionTemplate")
+    private final TransactionTemplate readOnlyTransactionTemplate;
 
-        List<ReadProjectsResponse> readProjectsResponses = findAllProjects(group, pageable);
+    public ReadProjectsResponseList readProjects(Long userId, Pageable pageable, ImageMode imageMode) {
+        List<Project> projects = readOnlyTransactionTemplate.execute(status -> {
+            User user = userService.getUser(userId);
+            Group group = userService.getUserGroup(user);
+            return projectRepository.findAllByGroupOrderByProjectIdDesc(group, pageable).getContent();
+        });
+
+        List<String> posters = projects.stream()
+                .map(Project::getPoster)
+                .collect(Collectors.toList());
+        Function<String, String> imageEncoder = imageResolver.resolveAll(posters, imageMode);
+
+        List<ReadProjectsResponse> readProjectsResponses = projects.stream()
+                .map(project -> ReadProjectsResponse.fromEntity(project, imageEncoder))
+                .collect(Collectors.toList());
 
         return ReadProjectsResponseList.from(readProjectsResponses);
     }
 
-    private List<ReadProjectsResponse> findAllProjects(Group group, Pageable pageable) {
-        return projectRepository.findAllByGroupOrderByProjectIdDesc(group, pageable)
-                .map(project -> {
-                    try {
-                        return ReadProjectsResponse.fromEntity(project);
-                    } catch (IOException e) {
-                        throw new UncheckedIOException(e);
-                    }
-                })
-                .getContent();
+    public ReadProjectResponse readProject(Long projectId, ImageMode imageMode) {
+        ProjectGraph projectGraph = readOnlyTransactionTemplate.execute(status -> findProjectGraph(projectId));
+        Function<String, String> imageEncoder = imageResolver.resolveAll(projectGraph.imageUrls, imageMode);
+
+        return ReadProjectResponse.fromEntity(projectGraph.project, projectGraph.avatars, projectGraph.staffs, imageEncoder);
     }
 
-    @Transactional(readOnly = true)
-    public ReadProjectResponse readProject(Long projectId) throws IOException {
+    // 배역과 스태프는 지연 로딩이므로, 응답에 쓰는 값(이미지 주소)을 트랜잭션 안에서 읽어 초기화해 둔다.
+    private ProjectGraph findProjectGraph(Long projectId) {
         Project project = projectRepository.findByProjectId(projectId);
         List<Avatar> avatars = findAvatars(project);
         List<Staff> staffs = findStaffs(project);
 
-        return ReadProjectResponse.fromEntity(project, avatars, staffs);
+        return new ProjectGraph(project, avatars, staffs, findImageUrls(project, avatars, staffs));
+    }
+
+    private List<String> findImageUrls(Project project, List<Avatar> avatars, List<Staff> staffs) {
+        List<String> imageUrls = new ArrayList<>();
+        imageUrls.add(project.getPoster());
+        avatars.forEach(avatar -> imageUrls.add(avatar.getAvatarImage()));
+        staffs.forEach(staff -> imageUrls.add(staff.getStaffProfile()));
+
+        return imageUrls;
     }
 
     private List<Staff> findStaffs(Project project) {
@@ -66,4 +88,12 @@ public class ProjectReadService {
                 .map(ProjectAvatar::getAvatar)
                 .collect(Collectors.toList());
     }
+
+    @RequiredArgsConstructor
+    private static class ProjectGraph {
+        private final Project project;
+        private final List<Avatar> avatars;
+        private final List<Staff> staffs;
+        private final List<String> imageUrls;
+    }
 }
@@ -4,6 +4,7 @@ import com.alal.backend.advice.error.UserNotFoundException;
 import com.alal.backend.domain.dto.request.UploadProjectRequest;
 import com.alal.backend.domain.dto.response.UploadProjectResponse;
 import com.alal.backend.domain.entity.project.*;
+import com.alal.backend.domain.entity.storage.ContentBlob;
 import com.alal.backend.domain.entity.user.User;
 import com.alal.backend.domain.vo.Group;
 import com.alal.backend.domain.vo.StaffVO;
@@ -15,7 +16,8 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -35,26 +37,51 @@ public class ProjectService {
     private final GoogleService googleService;
     private final UserService userService;
     private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
 
     @Value("${spring.cloud.gcp.storage.bucket}")
     private String bucketName;
 
-    @Transactional
+    // GCS 업로드는 트랜잭션 밖에서 먼저 끝내고, DB 커넥션은 저장하는 동안만 잡는다.
     public UploadProjectResponse uploadProject(UploadProjectRequest uploadProjectRequest, Long userId) {
+        ContentBlob poster = googleService.storePoster(uploadProjectRequest);
+        ContentBlob script = googleService.storeScripts(uploadProjectRequest);
+
+        return transactionTemplate.execute(status -> saveProject(uploadProjectRequest, userId, poster, script));
+    }
+
+    public UploadProjectResponse uploadProject(UploadProjectRequest uploadProjectRequest, MultipartFile posterFile,
+                                               MultipartFile scriptFile, Long userId) {
+        ContentBlob poster = googleService.storePoster(posterFile);
+        ContentBlob script = googleService.storeScripts(scriptFile);
+
+        return transactionTemplate.execute(status -> saveProject(uploadProjectRequest, userId, poster, script));
+    }
+
+    private UploadProjectResponse saveProject(UploadProjectRequest uploadProjectRequest, Long userId,
+                                              ContentBlob poster, ContentBlob script) {
+        String posterUrl = registerUpload(poster);
+        String scriptUrl = registerUpload(script);
+
         List<Staff> staffs = saveStaff(uploadProjectRequest);
-        Project project = saveProject(uploadProjectRequest, userId);
+        Project project = saveProject(uploadProjectRequest, userId, posterUrl);
         List<Avatar> avatars = saveAvatar(uploadProjectRequest, userId);
 
-        saveScripts(uploadProjectRequest, project);
+        saveScripts(scriptUrl, project);
         addProjectMembers(staffs, project);
         addProjectAvatars(avatars, project);
 
         return project.toUploadResponse();
     }
 
-    private void saveScripts(UploadProjectRequest uploadProjectRequest, Project project) {
-        String scriptUrl = googleService.uploadScripts(uploadProjectRequest);
-        eventPublisher.publishEvent(new UploadRollBackEvent(bucketName, scriptUrl));
+    // 이후 저장이 실패하여 롤백되면 이번 요청에서 새로 올린 파일도 지워진다.
+    private String registerUpload(ContentBlob contentBlob) {
+        String uploadUrl = googleService.register(contentBlob);
+        eventPublisher.publishEvent(new UploadRollBackEvent(bucketName, uploadUrl));
+        return uploadUrl;
+    }
+
+    private void saveScripts(String scriptUrl, Project project) {
         Script script = Script.from(scriptUrl, project);
 
         scriptRepository.save(script);
@@ -93,11 +120,9 @@ public class ProjectService {
         projectMemberRepository.saveAll(projectStaffs);
     }
 
-    private Project saveProject(UploadProjectRequest uploadProjectRequest, Long userId) {
+    private Project saveProject(UploadProjectRequest uploadProjectRequest, Long userId, String posterUrl) {
         User user = userService.getUser(userId);
         Group group = userService.getUserGroup(user);
-        String posterUrl = googleService.uploadPoster(uploadProjectRequest);
-        eventPublisher.publishEvent(new UploadRollBackEvent(bucketName, posterUrl));
         Project project = Project.fromDto(group, uploadProjectRequest, posterUrl);
 
         return projectRepository.save(project);
@@ -6,14 +6,21 @@ import com.alal.backend.domain.dto.response.ReadSceneResponseList;
 import com.alal.backend.domain.dto.response.UploadSceneResponse;
 import com.alal.backend.domain.entity.project.Scene;
 import com.alal.backend.domain.entity.project.Script;
+import com.alal.backend.domain.entity.storage.ContentBlob;
+import com.alal.backend.domain.vo.ImageMode;
 import com.alal.backend.repository.group.SceneRepository;
 import com.alal.backend.repository.group.ScriptRepository;
+import com.alal.backend.utils.ImageResolver;
+import com.alal.backend.utils.event.UploadReplacedEvent;
 import com.alal.backend.utils.event.UploadRollBackEvent;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
 
 @Service
 @RequiredArgsConstructor
@@ -21,7 +28,12 @@ public class SceneService {
     private final SceneRepository sceneRepository;
     private final ScriptRepository scriptRepository;
     private final GoogleService googleService;
+    private final ImageResolver imageResolver;
     private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    @Qualifier("readOnlyTransactionTemplate")
+    private final TransactionTemplate readOnlyTransactionTemplate;
 
     @Value("${spring.cloud.gcp.storage.bucket}")
     private String bucketName;
@@ -32,11 +44,27 @@ public class SceneService {
         return script.toReadSceneResponseList();
     }
 
-    @Transactional
+    // 썸네일 업로드는 트랜잭션 밖에서 먼저 끝내고, DB 커넥션은 저장하는 동안만 잡는다.
     public UploadSceneResponse uploadScene(UploadSceneRequest uploadSceneRequest) {
+        ContentBlob thumbnail = googleService.storeImage(uploadSceneRequest);
+
+        return transactionTemplate.execute(status -> saveScene(uploadSceneRequest, thumbnail));
+    }
+
+    public UploadSceneResponse uploadScene(UploadSceneRequest uploadSceneRequest, MultipartFile thumbnailFile) {
+        ContentBlob thumbnail = googleService.storeImage(thumbnailFile);
+
+        return transactionTemplate.execute(status -> saveScene(uploadSceneRequest, thumbnail));
+    }
+
+    private UploadSceneResponse saveScene(UploadSceneRequest uploadSceneRequest, ContentBlob thumbnail) {
+        String thumbnailUrl = null;
+        if (thumbnail != null) {
+            thumbnailUrl = googleService.register(thumbnail);
+            eventPublisher.publishEvent(new UploadRollBackEvent(bucketName, thumbnailUrl));
+        }
+
         Script script = scriptRepository.getReferenceById(uploadSceneRequest.getProjectId());
-        String thumbnailUrl = googleService.uploadImage(uploadSceneRequest);
-        eventPublisher.publishEvent(new UploadRollBackEvent(bucketName, thumbnailUrl));
 
         Scene scene = sceneRepository.findByScriptAndSceneNo(script, uploadSceneRequest.getSceneNo());
 
@@ -47,16 +75,22 @@ public class SceneService {
             return scene.toUploadResponse();
         }
 
+        String previousThumbnail = scene.getThumbnail();
         scene.update(uploadSceneRequest, thumbnailUrl);
+        if (thumbnailUrl != null && previousThumbnail != null && !previousThumbnail.equals(thumbnailUrl)) {
+            eventPublisher.publishEvent(new UploadReplacedEvent(previousThumbnail));
+        }
         return scene.toUploadResponse();
     }
 
 
-    @Transactional(readOnly = true)
-    public ReadSceneResponse readDetailScene(Long projectId, Long sceneNo) {
-        Script script = scriptRepository.getReferenceById(projectId);
-        Scene scene = sceneRepository.findByScriptAndSceneNo(script, sceneNo);
+    // 장면은 읽기 전용 트랜잭션에서 읽고, 썸네일 변환(GCS 다운로드, 서명)은 커넥션을 반환한 뒤에 한다.
+    public ReadSceneResponse readDetailScene(Long projectId, Long sceneNo, ImageMode imageMode) {
+        Scene scene = readOnlyTransactionTemplate.execute(status -> {
+            Script script = scriptRepository.getReferenceById(projectId);
+            return sceneRepository.findByScriptAndSceneNo(script, sceneNo);
+        });
 
-        return scene.toReadSceneResponse();
+        return scene.toReadSceneResponse(imageResolver.resolver(imageMode));
     }
 }
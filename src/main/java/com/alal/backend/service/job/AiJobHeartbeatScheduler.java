@@ -0,0 +1,48 @@
+package com.alal.backend.service.job;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+
+// AI 작업 생존 신호 전용 스케줄러.
+// @Scheduled 작업(Flask 상태 확인, 업로드 정리, 모션 목록 갱신)은 스프링 스케줄러 풀을 함께 쓰므로, 그중 하나가 느려지면
+// 생존 신호가 임대 시간(ai.job.lease-ms)을 넘겨 밀리고 다른 인스턴스가 아직 실행 중인 작업을 다시 가져가 GPU 작업이 두 번 돈다.
+// 그래서 생존 신호만 빈으로 등록하지 않은 별도 스레드에서 보낸다. (TaskScheduler 빈을 등록하면 모든 @Scheduled 가 그쪽으로 옮겨 간다)
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AiJobHeartbeatScheduler {
+    private final AiJobWorker aiJobWorker;
+
+    private final ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+
+    @Value("${ai.job.heartbeat-interval-ms:30000}")
+    private long heartbeatIntervalMs;
+
+    @PostConstruct
+    public void start() {
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("AiJobHeartbeat-");
+        scheduler.initialize();
+        scheduler.scheduleWithFixedDelay(this::heartbeat, Duration.ofMillis(heartbeatIntervalMs));
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdown();
+    }
+
+    private void heartbeat() {
+        try {
+            aiJobWorker.heartbeat();
+        } catch (RuntimeException e) {
+            log.warn("AI 작업 생존 신호를 보내지 못했습니다. 다음 주기에 다시 보냅니다.", e);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.alal.backend.service.job;
+
+import com.alal.backend.advice.error.DefaultException;
+import com.alal.backend.advice.payload.ErrorCode;
+import com.alal.backend.domain.dto.response.ReadJobResponse;
+import com.alal.backend.domain.dto.response.SubmitJobResponse;
+import com.alal.backend.domain.entity.job.AiJob;
+import com.alal.backend.domain.entity.job.JobType;
+import com.alal.backend.repository.job.AiJobRepository;
+import com.alal.backend.utils.event.AiJobSubmittedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+// 오래 걸리는 추론 요청을 작업으로 저장하고 바로 작업 번호를 돌려준다.
+// 실제 실행은 커밋 이후 AiJobWorker가 맡는다.
+@Service
+@RequiredArgsConstructor
+public class AiJobService {
+    private final AiJobRepository aiJobRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+
+    @Transactional
+    public SubmitJobResponse submit(JobType type, Object request, Long userId) {
+        AiJob aiJob = aiJobRepository.save(AiJob.of(type, userId, toJson(request)));
+        eventPublisher.publishEvent(new AiJobSubmittedEvent(aiJob.getId()));
+
+        return SubmitJobResponse.fromEntity(aiJob);
+    }
+
+    @Transactional(readOnly = true)
+    public ReadJobResponse readJob(Long jobId, Long userId) {
+        AiJob aiJob = aiJobRepository.findById(jobId)
+                .filter(job -> job.isOwnedBy(userId))
+                .orElseThrow(() -> new DefaultException(ErrorCode.INVALID_PARAMETER, "작업이 존재하지 않습니다."));
+
+        return ReadJobResponse.fromEntity(aiJob);
+    }
+
+    private String toJson(Object request) {
+        try {
+            return objectMapper.writeValueAsString(request);
+        } catch (JsonProcessingException e) {
+            throw new DefaultException(ErrorCode.INVALID_PARAMETER, e.getMessage());
+        }
+    }
+}
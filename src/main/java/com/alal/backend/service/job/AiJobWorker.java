@@ -0,0 +1,291 @@
+package com.alal.backend.service.job;
+
+import com.alal.backend.domain.dto.request.UploadImageRequest;
+import com.alal.backend.domain.dto.response.FlaskResponse;
+import com.alal.backend.domain.dto.response.ImageFlaskResponse;
+import com.alal.backend.domain.entity.job.AiJob;
+import com.alal.backend.domain.entity.job.JobStatus;
+import com.alal.backend.payload.request.user.FlaskRequest;
+import com.alal.backend.payload.request.user.FlaskVoiceRequest;
+import com.alal.backend.repository.job.AiJobRepository;
+import com.alal.backend.service.user.FlaskService;
+import com.alal.backend.service.user.ImageService;
+import com.alal.backend.service.user.MeshGenerationService;
+import com.alal.backend.service.user.MotionService;
+import com.alal.backend.service.user.PoseDetectionService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+// 작업 번호를 받아 워커 풀에서 Flask 추론을 실행하고 결과를 저장한다.
+// 워커 스레드는 추론이 끝날 때까지 블로킹되며, 그만큼 Flask 서버로 가는 동시 요청 수가 제한된다.
+// 실행 중인 작업에는 워커 식별자와 생존 신호(heartbeatAt)가 기록되어, 여러 인스턴스가 떠 있어도
+// 살아 있는 인스턴스의 작업은 건드리지 않고 죽은 인스턴스의 작업만 임대 시간이 지난 뒤 다시 실행한다.
+// 인스턴스 식별자(ai.job.instance-id)를 설정하면, 같은 식별자로 재시작한 경우 이전 실행의 작업임을 알 수 있으므로
+// 임대 시간을 기다리지 않고 바로 되찾는다.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AiJobWorker {
+    private static final int MAX_ERROR_MESSAGE_LENGTH = 1000;
+    private static final List<JobStatus> UNFINISHED = List.of(JobStatus.QUEUED, JobStatus.RUNNING);
+    // 대기 작업 생존 신호의 in 절 크기
+    private static final int HEARTBEAT_BATCH_SIZE = 500;
+
+    private final AiJobRepository aiJobRepository;
+    private final FlaskService flaskService;
+    private final PoseDetectionService poseDetectionService;
+    private final MotionService motionService;
+    private final ImageService imageService;
+    private final MeshGenerationService meshGenerationService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Qualifier("aiJobExecutor")
+    private final ThreadPoolTaskExecutor aiJobExecutor;
+
+    // 재시작해도 바뀌지 않는 인스턴스 식별자. 동시에 떠 있는 인스턴스끼리는 반드시 달라야 한다.
+    // (호스트 이름은 host 네트워크 등에서 여러 컨테이너가 같을 수 있어 쓰지 않는다) 비어 있으면 재시작 회수를 하지 않는다.
+    @Value("${ai.job.instance-id:}")
+    private String instanceId;
+
+    // 작업 행에 기록되는 이 실행의 식별자({인스턴스 식별자}/{UUID}). 실행할 때마다 달라진다.
+    private String workerId;
+
+    // 이 인스턴스의 실행 큐에 들어 있는 작업. 자기 큐에 있는 작업을 다시 넣지 않는다.
+    private final Set<Long> localQueue = ConcurrentHashMap.newKeySet();
+
+    @Value("${ai.job.lease-ms:120000}")
+    private long leaseMs;
+
+    // aiJobExecutor 의 큐 크기. 회수 주기에 이보다 많이 가져오지 않는다.
+    @Value("${ai.job.queue-capacity:100}")
+    private int queueCapacity;
+
+    @PostConstruct
+    public void init() {
+        String runId = UUID.randomUUID().toString();
+        workerId = instanceId.isBlank() ? runId : instanceId + "/" + runId;
+
+        Gauge.builder("ai.job.queue.depth", aiJobExecutor, executor -> executor.getThreadPoolExecutor().getQueue().size())
+                .description("실행을 기다리는 작업 수")
+                .register(meterRegistry);
+        Gauge.builder("ai.job.running", aiJobExecutor, ThreadPoolTaskExecutor::getActiveCount)
+                .description("실행 중인 작업 수")
+                .register(meterRegistry);
+    }
+
+    // 큐가 가득 찼거나 종료 중이라 넣지 못하면 작업은 DB 에 QUEUED 로 남는다.
+    // 생존 신호를 지워 두므로 다음 reclaimExpiredJobs 주기에 자리가 있는 인스턴스가 가져간다.
+    public void enqueue(Long jobId) {
+        if (!localQueue.add(jobId)) {
+            return;
+        }
+        try {
+            aiJobExecutor.execute(() -> run(jobId));
+        } catch (TaskRejectedException e) {
+            localQueue.remove(jobId);
+            log.warn("AI 작업 {}을 큐에 넣지 못했습니다. 다음 회수 주기에 다시 시도합니다. {}", jobId, e.getMessage());
+            release(jobId);
+        }
+    }
+
+    private void release(Long jobId) {
+        try {
+            aiJobRepository.expire(jobId);
+        } catch (RuntimeException e) {
+            log.warn("AI 작업 {}의 생존 신호를 지우지 못했습니다. 임대 시간이 지나면 다시 시도합니다.", jobId, e);
+        }
+    }
+
+    // 실행 중인 작업과 이 인스턴스의 실행 큐에서 기다리는 작업의 생존 신호.
+    // 이 인스턴스가 죽으면 갱신이 멈추고, 임대 시간이 지나면 다른 인스턴스가 가져간다.
+    // 다른 @Scheduled 작업에 밀리지 않도록 AiJobHeartbeatScheduler 의 전용 스레드에서 호출한다.
+    public void heartbeat() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> queuedIds = List.copyOf(localQueue);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            aiJobRepository.heartbeat(workerId, now);
+            for (int from = 0; from < queuedIds.size(); from += HEARTBEAT_BATCH_SIZE) {
+                aiJobRepository.heartbeatQueued(queuedIds.subList(from, Math.min(queuedIds.size(), from + HEARTBEAT_BATCH_SIZE)), workerId, now);
+            }
+        });
+    }
+
+    // 임대 시간 동안 생존 신호가 없는 작업만 다시 큐에 넣는다.
+    // - RUNNING: 실행하던 인스턴스가 죽었다. (살아 있는 인스턴스의 작업은 heartbeat 로 계속 갱신된다)
+    // - QUEUED: 커밋 후 어느 큐에도 넣지 못했거나(생성 시각 기준으로 임대 시간이 지남), 큐에 넣어 둔 인스턴스가 죽었다.
+    //   살아 있는 인스턴스의 큐에서 기다리는 작업은 heartbeat 로 갱신되므로, 큐가 길어도 다른 인스턴스가 가져가지 않는다.
+    // 여러 인스턴스가 동시에 돌아도 조건부 update 에 성공한 한 곳만 가져가고, 실행도 markRunning 으로 한 번만 시작된다.
+    // 큐에 남은 자리만큼만 가져오고, 나머지는 DB 에 남겨 다음 주기나 다른 인스턴스에 맡긴다.
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${ai.job.reclaim-interval-ms:60000}", fixedDelayString = "${ai.job.reclaim-interval-ms:60000}")
+    public void reclaimExpiredJobs() {
+        int capacity = queueCapacity - localQueue.size();
+        if (capacity <= 0) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiredBefore = now.minus(Duration.ofMillis(leaseMs));
+
+        List<Long> reclaimedIds = aiJobRepository.findExpiredJobIds(UNFINISHED, expiredBefore).stream()
+                .filter(jobId -> !localQueue.contains(jobId))
+                .filter(jobId -> reclaim(jobId, expiredBefore, now))
+                .limit(capacity)
+                .collect(Collectors.toList());
+
+        if (!reclaimedIds.isEmpty()) {
+            log.info("생존 신호가 끊긴 AI 작업 {}건을 다시 실행합니다.", reclaimedIds.size());
+        }
+        reclaimedIds.forEach(this::enqueue);
+    }
+
+    private boolean reclaim(Long jobId, LocalDateTime expiredBefore, LocalDateTime now) {
+        Integer updated = transactionTemplate.execute(status -> aiJobRepository.reclaim(jobId, UNFINISHED, expiredBefore, now));
+        return updated != null && updated == 1;
+    }
+
+    // 재시작 직후, 같은 인스턴스 식별자의 이전 실행이 실행 중이었거나 큐에 넣어 두었던 작업을 바로 되찾는다.
+    // 이전 프로세스는 이미 죽었으므로 임대 시간을 기다릴 필요가 없다. 큐에 다 넣지 못한 작업은 enqueue 가 다음 주기로 넘긴다.
+    @EventListener(ApplicationReadyEvent.class)
+    public void reclaimAbandonedJobs() {
+        if (instanceId.isBlank()) {
+            return;
+        }
+        String ownerPattern = escapeLike(instanceId) + "/%";
+        LocalDateTime now = LocalDateTime.now();
+
+        List<Long> reclaimedIds = aiJobRepository.findAbandonedJobIds(UNFINISHED, ownerPattern, workerId).stream()
+                .filter(jobId -> reclaimAbandoned(jobId, ownerPattern, now))
+                .collect(Collectors.toList());
+
+        if (!reclaimedIds.isEmpty()) {
+            log.info("이전 실행이 남긴 AI 작업 {}건을 다시 실행합니다.", reclaimedIds.size());
+        }
+        reclaimedIds.forEach(this::enqueue);
+    }
+
+    private boolean reclaimAbandoned(Long jobId, String ownerPattern, LocalDateTime now) {
+        Integer updated = transactionTemplate.execute(status ->
+                aiJobRepository.reclaimAbandoned(jobId, UNFINISHED, ownerPattern, workerId, now));
+        return updated != null && updated == 1;
+    }
+
+    void run(Long jobId) {
+        localQueue.remove(jobId);
+        AiJob aiJob = transactionTemplate.execute(status -> start(jobId));
+        if (aiJob == null) {
+            return;
+        }
+
+        String type = aiJob.getType().name();
+        Timer.builder("ai.job.wait")
+                .description("큐에 들어간 뒤 실행되기까지 걸린 시간")
+                .tag("type", type)
+                .register(meterRegistry)
+                .record(Duration.between(aiJob.getCreatedDate(), aiJob.getStartedAt()));
+
+        long startNanos = System.nanoTime();
+        JobStatus jobStatus = JobStatus.DONE;
+        try {
+            String result = execute(aiJob);
+            transactionTemplate.executeWithoutResult(status -> finish(jobId, job -> job.done(result)));
+        } catch (Exception e) {
+            log.warn("AI 작업 {} 실패: {}", jobId, e.getMessage());
+            jobStatus = JobStatus.FAILED;
+            String errorMessage = truncate(String.valueOf(e.getMessage()));
+            transactionTemplate.executeWithoutResult(status -> finish(jobId, job -> job.fail(errorMessage)));
+        }
+
+        Timer.builder("ai.job.execution")
+                .description("Flask 추론과 결과 저장에 걸린 시간")
+                .tag("type", type)
+                .tag("status", jobStatus.name())
+                .register(meterRegistry)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    // 다른 워커가 이미 가져간 작업이면 null
+    private AiJob start(Long jobId) {
+        if (aiJobRepository.markRunning(jobId, workerId, LocalDateTime.now()) == 0) {
+            return null;
+        }
+        return findJob(jobId);
+    }
+
+    private void finish(Long jobId, Consumer<AiJob> result) {
+        AiJob aiJob = findJob(jobId);
+        if (!aiJob.isRunningBy(workerId)) {
+            log.warn("AI 작업 {}은 다른 워커가 다시 가져가 결과를 저장하지 않습니다.", jobId);
+            return;
+        }
+        result.accept(aiJob);
+    }
+
+    private String execute(AiJob aiJob) throws IOException {
+        Long userId = aiJob.getUserId();
+
+        switch (aiJob.getType()) {
+            case POSE: {
+                FlaskRequest flaskRequest = objectMapper.readValue(aiJob.getPayload(), FlaskRequest.class);
+                List<FlaskResponse> flaskResponses = poseDetectionService.detect(flaskRequest).block();
+                motionService.saveUserHistory(flaskResponses, userId);
+                return objectMapper.writeValueAsString(flaskResponses);
+            }
+            case VOICE: {
+                FlaskVoiceRequest flaskRequest = objectMapper.readValue(aiJob.getPayload(), FlaskVoiceRequest.class);
+                FlaskResponse flaskResponse = flaskService.communicateWithFlaskServerByVoice(flaskRequest, userId).block();
+                motionService.saveVoice(flaskResponse, flaskRequest, userId);
+                return objectMapper.writeValueAsString(flaskResponse);
+            }
+            case MESH: {
+                UploadImageRequest uploadImageRequest = objectMapper.readValue(aiJob.getPayload(), UploadImageRequest.class);
+                ImageFlaskResponse imageFlaskResponse = meshGenerationService.generate(uploadImageRequest, userId).block();
+                imageService.saveImage(imageFlaskResponse, userId);
+                return objectMapper.writeValueAsString(imageFlaskResponse);
+            }
+            default:
+                throw new IllegalStateException("지원하지 않는 작업 종류입니다. " + aiJob.getType());
+        }
+    }
+
+    private AiJob findJob(Long jobId) {
+        return aiJobRepository.findById(jobId)
+                .orElseThrow(() -> new IllegalStateException("작업이 존재하지 않습니다. " + jobId));
+    }
+
+    // AiJobRepository 의 like 조건은 '!' 를 escape 문자로 쓴다.
+    static String escapeLike(String value) {
+        return value.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+    }
+
+    private static String truncate(String message) {
+        return message.length() <= MAX_ERROR_MESSAGE_LENGTH ? message : message.substring(0, MAX_ERROR_MESSAGE_LENGTH);
+    }
+}
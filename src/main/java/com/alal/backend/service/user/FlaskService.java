@@ -3,48 +3,104 @@ package com.alal.backend.service.user;
 import com.alal.backend.domain.dto.request.UploadImageRequest;
 import com.alal.backend.domain.dto.response.FlaskResponse;
 import com.alal.backend.domain.dto.response.ImageFlaskResponse;
+import com.alal.backend.domain.vo.VideoSegment;
 import com.alal.backend.payload.request.user.FlaskRequest;
 import com.alal.backend.payload.request.user.FlaskVoiceRequest;
+import com.alal.backend.utils.Base64JsonBody;
+import com.alal.backend.utils.Parser;
+import com.alal.backend.utils.StorageUploader.ContentSource;
+import com.alal.backend.utils.cache.VoiceConversionCache;
+import com.alal.backend.utils.resilience.FlaskCallPolicy;
+import com.alal.backend.utils.resilience.FlaskEndpoint;
+import com.alal.backend.utils.resilience.FlaskLoadBalancer;
+import com.google.cloud.storage.Blob;
+import com.google.cloud.storage.Storage;
+import com.google.cloud.storage.StorageException;
 import lombok.RequiredArgsConstructor;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.MediaType;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.BodyInserters;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.CompletableFuture;
+import java.util.Optional;
+import java.util.function.Function;
 
+// 모델 추론은 수십 초가 걸리므로 block() 하지 않고 Mono 그대로 돌려준다.
+// 모든 호출은 FlaskLoadBalancer 로 인스턴스를 고른 뒤 FlaskCallPolicy(타임아웃, bulkhead, 서킷 브레이커)를 거친다.
+// 응답은 reactor-netty 이벤트 루프 스레드에서 도착하므로, 호출하는 쪽에서 DB 작업 전에 스케줄러를 옮겨야 한다.
 @Service
 @RequiredArgsConstructor
 public class FlaskService {
 
-    @Value("${ai.model.serving.url}")
-    private String flaskUrl;
-
-    @Value("${ai.model.serving.imageUrl}")
-    private String flaskImageUrl;
-
     private final WebClient webClient;
+    private final VoiceConversionCache voiceConversionCache;
+    private final FlaskCallPolicy flaskCallPolicy;
+    private final FlaskLoadBalancer flaskLoadBalancer;
+    private final Storage storage;
 
     private static final String CHECK_POSE_URI = "/checkpose/";
     private static final String CONVERT_VOICE_URI = "/voice/convert";
 
-    public List<FlaskResponse> communicateWithFlaskServer(FlaskRequest flaskRequest) {
-        return webClient.post()
+    public Mono<List<FlaskResponse>> communicateWithFlaskServer(FlaskRequest flaskRequest) {
+        return checkPose(Map.of("pose", flaskRequest.getFileName()));
+    }
+
+    // 영상의 한 구간만 분석한다. Flask 서버는 start, end(초) 사이의 프레임만 읽는다.
+    public Mono<List<FlaskResponse>> communicateWithFlaskServer(FlaskRequest flaskRequest, VideoSegment videoSegment) {
+        return checkPose(Map.of("pose", flaskRequest.getFileName(),
+                "start", videoSegment.getStart(),
+                "end", videoSegment.getEnd()));
+    }
+
+    private Mono<List<FlaskResponse>> checkPose(Map<String, Object> body) {
+        return call(FlaskEndpoint.POSE, flaskUrl -> webClient.post()
                 .uri(flaskUrl + CHECK_POSE_URI)
                 .contentType(MediaType.APPLICATION_JSON)
-                .bodyValue(Map.of("pose", flaskRequest.getFileName()))
+                .bodyValue(body)
                 .retrieve()
                 .bodyToFlux(FlaskResponse.class)
-                .collectList()
-                .block();
+                .collectList());
+    }
+
+    // 전체 목록을 모으지 않고, Flask 서버가 JSON 배열의 원소를 내려보내는 대로 하나씩 흘려보낸다.
+    public Flux<FlaskResponse> streamPose(FlaskRequest flaskRequest) {
+        return callMany(FlaskEndpoint.POSE, flaskUrl -> webClient.post()
+                .uri(flaskUrl + CHECK_POSE_URI)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("pose", flaskRequest.getFileName()))
+                .retrieve()
+                .bodyToFlux(FlaskResponse.class));
+    }
+
+    // Flask 서버 통신 (음성), 같은 사용자/입력 내용/모델/성별의 변환 결과가 캐시에 있으면 GPU 서버를 호출하지 않는다.
+    // 입력 내용의 지문은 GCS 메타데이터 조회(블로킹)이므로 boundedElastic 에서 읽고, 읽지 못하면 캐시 없이 변환한다.
+    public Mono<FlaskResponse> communicateWithFlaskServerByVoice(FlaskVoiceRequest flaskRequest, Long userId) {
+        return Mono.fromCallable(() -> fingerprintVoice(flaskRequest.getFileName()))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(fingerprint -> {
+                    if (fingerprint.isEmpty()) {
+                        return convertVoice(flaskRequest, userId);
+                    }
+
+                    String inputFingerprint = fingerprint.get();
+                    FlaskResponse cached = voiceConversionCache.get(userId, inputFingerprint, flaskRequest);
+                    if (cached != null) {
+                        return Mono.just(cached);
+                    }
+                    return convertVoice(flaskRequest, userId)
+                            .doOnNext(flaskResponse ->
+                                    voiceConversionCache.put(userId, inputFingerprint, flaskRequest, flaskResponse));
+                });
     }
 
-    // Flask 서버 통신 (음성)
-    public FlaskResponse communicateWithFlaskServerByVoice(FlaskVoiceRequest flaskRequest, Long userId) {
-        return webClient.post()
+    private Mono<FlaskResponse> convertVoice(FlaskVoiceRequest flaskRequest, Long userId) {
+        return call(FlaskEndpoint.VOICE, flaskUrl -> webClient.post()
                 .uri(flaskUrl + CONVERT_VOICE_URI)
                 .contentType(MediaType.APPLICATION_JSON)
                 .bodyValue(Map.of("voice", flaskRequest.getFileName(),
@@ -53,20 +109,69 @@ public class FlaskService {
                         "gender", flaskRequest.getGender())
                 )
                 .retrieve()
-                .bodyToMono(FlaskResponse.class)
-                .block();
+                .bodyToMono(FlaskResponse.class));
     }
 
-    @Async
-    public CompletableFuture<ImageFlaskResponse> uploadImage(UploadImageRequest uploadImageRequest, Long userId) {
-        return CompletableFuture.completedFuture(webClient.post()
+    // 주소가 아니라 내용으로 구분한다. MD5 가 없는 오브젝트(compose 결과)는 덮어쓸 때마다 바뀌는 generation 을 쓴다.
+    private Optional<String> fingerprintVoice(String fileName) {
+        if (!Parser.isStorageUrl(fileName)) {
+            return Optional.empty();
+        }
+
+        try {
+            Blob blob = storage.get(Parser.parseBlobId(fileName));
+            if (blob == null) {
+                return Optional.empty();
+            }
+            if (blob.getMd5() != null) {
+                return Optional.of("md5:" + blob.getMd5());
+            }
+            return Optional.of(blob.getBucket() + "/" + blob.getName() + "#" + blob.getGeneration());
+        } catch (StorageException e) {
+            return Optional.empty();
+        }
+    }
+
+    // 모델을 다시 학습시킨 뒤에는 이전 모델로 변환한 결과를 더 이상 돌려주지 않는다.
+    public int invalidateVoiceModel(String modelName) {
+        return voiceConversionCache.invalidateModel(modelName);
+    }
+
+    public Mono<ImageFlaskResponse> uploadImage(UploadImageRequest uploadImageRequest, Long userId) {
+        return call(FlaskEndpoint.IMAGE, flaskImageUrl -> webClient.post()
                 .uri(flaskImageUrl)
                 .contentType(MediaType.APPLICATION_JSON)
                 .bodyValue(Map.of("image", uploadImageRequest.getImageEncodingString(),
                         "image_name", uploadImageRequest.getDescription(),
                         "user_id", userId))
                 .retrieve()
-                .bodyToMono(ImageFlaskResponse.class)
-                .block());
+                .bodyToMono(ImageFlaskResponse.class));
+    }
+
+    // multipart 로 받은 파일은 base64 문자열을 만들지 않고, 읽는 대로 인코딩해 같은 JSON 형식으로 보낸다.
+    public Mono<ImageFlaskResponse> uploadImage(ContentSource image, long imageLength, String description, Long userId) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("image_name", description);
+        fields.put("user_id", userId);
+        Base64JsonBody body = new Base64JsonBody("image", image, imageLength, fields);
+
+        return call(FlaskEndpoint.IMAGE, flaskImageUrl -> webClient.post()
+                .uri(flaskImageUrl)
+                .contentType(MediaType.APPLICATION_JSON)
+                .contentLength(body.contentLength())
+                .body(BodyInserters.fromDataBuffers(body.content()))
+                .retrieve()
+                .bodyToMono(ImageFlaskResponse.class));
+    }
+
+    // 인스턴스 선택(로드 밸런서)이 바깥에 있어야 인스턴스별 타임아웃/실패가 passive ejection 에 반영된다.
+    private <T> Mono<T> call(FlaskEndpoint endpoint, Function<String, Mono<T>> request) {
+        return flaskLoadBalancer.route(endpoint,
+                instanceUrl -> flaskCallPolicy.protect(endpoint, () -> request.apply(instanceUrl)));
+    }
+
+    private <T> Flux<T> callMany(FlaskEndpoint endpoint, Function<String, Flux<T>> request) {
+        return flaskLoadBalancer.routeMany(endpoint,
+                instanceUrl -> flaskCallPolicy.protectMany(endpoint, () -> request.apply(instanceUrl)));
     }
 }
@@ -13,32 +13,58 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+import reactor.core.scheduler.Schedulers;
 
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutionException;
 
 @Service
 @RequiredArgsConstructor
 public class ImageService {
     private final ImageRepository imageRepository;
     private final UserRepository userRepository;
-    private final FlaskService flaskService;
+    private final MeshGenerationService meshGenerationService;
+    private final TransactionTemplate transactionTemplate;
 
-    @Transactional
-    public UploadImageResponse uploadImage(UploadImageRequest uploadImageRequest, Long userId) throws ExecutionException, InterruptedException {
+    // 메쉬 생성이 끝날 때까지 요청 스레드를 붙잡지 않는다.
+    // 응답이 도착하면 이벤트 루프가 아닌 별도 스레드에서 짧은 트랜잭션으로 저장만 한다.
+    // 이전에 올린 것과 같은 사진이면 Flask 를 거치지 않고 저장된 메쉬 주소로 바로 응답한다.
+    public CompletableFuture<UploadImageResponse> uploadImage(UploadImageRequest uploadImageRequest, Long userId) {
+        return meshGenerationService.generate(uploadImageRequest, userId)
+                .publishOn(Schedulers.boundedElastic())
+                .map(imageFlaskResponse -> saveImage(imageFlaskResponse, userId))
+                .toFuture();
+    }
+
+    // 메쉬 생성 서버는 base64 JSON만 받으므로 Flask로 보낼 때 인코딩하되, 업로드 파일을 base64 문자열로 만들지 않고
+    // 임시 파일을 읽는 대로 인코딩해 요청 본문으로 흘려보낸다. (Base64JsonBody)
+    // 요청 본문을 Jackson이 문자열로 파싱하는 비용과 33% 커진 업로드 본문, 파일 크기만큼의 힙 사용이 모두 사라진다.
+    public CompletableFuture<UploadImageResponse> uploadImage(MultipartFile image, String description, Long userId) {
+        return meshGenerationService.generate(image, description, userId)
+                .publishOn(Schedulers.boundedElastic())
+                .map(imageFlaskResponse -> saveImage(imageFlaskResponse, userId))
+                .toFuture();
+    }
+
+    // Flask 응답을 받은 뒤의 저장 단계. 동기 요청과 작업 큐(AiJobWorker)가 함께 사용한다.
+    public UploadImageResponse saveImage(ImageFlaskResponse imageFlaskResponse, Long userId) {
+        return transactionTemplate.execute(status -> updateImage(imageFlaskResponse, userId));
+    }
+
+    private UploadImageResponse updateImage(ImageFlaskResponse imageFlaskResponse, Long userId) {
         User user = getUser(userId);
-        CompletableFuture<ImageFlaskResponse> imageFlaskResponse = flaskService.uploadImage(uploadImageRequest, userId);
 
         Image image = imageRepository.findByUserId(user.getId());
         if (image == null) {
-            Image createdImage = Image.toEntity(imageFlaskResponse.get(), userId);
+            Image createdImage = Image.toEntity(imageFlaskResponse, userId);
             imageRepository.save(createdImage);
 
             return UploadImageResponse.fromEntity(createdImage);
         }
 
-        image.updateImageUrl(imageFlaskResponse.get());
+        image.updateImageUrl(imageFlaskResponse);
         return UploadImageResponse.fromEntity(image);
     }
 
@@ -0,0 +1,198 @@
+package com.alal.backend.service.user;
+
+import com.alal.backend.domain.dto.request.UploadImageRequest;
+import com.alal.backend.domain.dto.response.ImageFlaskResponse;
+import com.alal.backend.domain.entity.storage.GeneratedMesh;
+import com.alal.backend.repository.storage.GeneratedMeshRepository;
+import com.alal.backend.utils.ContentFingerprint;
+import com.alal.backend.utils.Parser;
+import com.alal.backend.utils.StorageUploader.ContentSource;
+import com.google.cloud.storage.Blob;
+import com.google.cloud.storage.Storage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+import static com.alal.backend.utils.StorageUploader.base64;
+import static com.alal.backend.utils.StorageUploader.multipart;
+
+// 메쉬 생성은 가장 비싼 GPU 작업이므로, 같은 사진을 다시 올리면 Flask 를 호출하지 않고 이전 결과를 돌려준다.
+// - 사용자, 디코딩된 이미지의 SHA-256, 설명으로 generated_mesh 테이블을 찾고, MD5 와 크기까지 같을 때만 재사용한다.
+// - 같은 사용자의 같은 사진과 설명이 동시에 들어오면 먼저 들어온 요청의 Flask 호출 결과를 함께 받는다.
+// - Flask 는 user_id 와 설명(image_name)으로 결과 파일 이름을 정하므로, 둘 중 하나라도 다르면 재사용하지 않는다.
+// - 결과 파일은 같은 이름에 덮어쓰이므로, 기록할 때의 generation 이 지금도 같은 주소만 돌려준다.
+//   다시 쓰였으면 기록을 지우고 새로 생성한다. 스토리지 밖 주소는 확인할 수 없으므로 기록하지 않는다.
+@Slf4j
+@Service
+public class MeshGenerationService {
+    private final FlaskService flaskService;
+    private final GeneratedMeshRepository generatedMeshRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Storage storage;
+
+    private final ConcurrentMap<MeshKey, Mono<ImageFlaskResponse>> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter gpuCalls;
+    private final Counter storedHits;
+    private final Counter inFlightHits;
+    private final Counter collisions;
+    private final Counter staleHits;
+
+    public MeshGenerationService(FlaskService flaskService,
+                                 GeneratedMeshRepository generatedMeshRepository,
+                                 TransactionTemplate transactionTemplate,
+                                 Storage storage,
+                                 MeterRegistry meterRegistry) {
+        this.flaskService = flaskService;
+        this.generatedMeshRepository = generatedMeshRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.storage = storage;
+
+        this.gpuCalls = Counter.builder("ai.mesh.gpu.calls")
+                .description("실제로 Flask 메쉬 생성을 호출한 횟수")
+                .register(meterRegistry);
+        this.storedHits = Counter.builder("ai.mesh.gpu.calls.avoided")
+                .tag("reason", "stored")
+                .register(meterRegistry);
+        this.inFlightHits = Counter.builder("ai.mesh.gpu.calls.avoided")
+                .tag("reason", "in_flight")
+                .register(meterRegistry);
+        this.collisions = Counter.builder("ai.mesh.dedup.collisions")
+                .description("SHA-256 은 같지만 MD5 또는 크기가 달랐던 횟수")
+                .register(meterRegistry);
+        this.staleHits = Counter.builder("ai.mesh.stored.stale")
+                .description("저장된 주소의 파일이 다른 생성으로 덮어써져 다시 생성한 횟수")
+                .register(meterRegistry);
+    }
+
+    public Mono<ImageFlaskResponse> generate(UploadImageRequest uploadImageRequest, Long userId) {
+        return generate(base64(uploadImageRequest.getImageEncodingString()), uploadImageRequest.getDescription(),
+                () -> flaskService.uploadImage(uploadImageRequest, userId), userId);
+    }
+
+    // multipart 파일은 임시 파일을 그대로 읽어 지문을 구하고, Flask 로도 읽는 대로 인코딩해 보낸다.
+    public Mono<ImageFlaskResponse> generate(MultipartFile image, String description, Long userId) {
+        ContentSource source = multipart(image);
+        return generate(source, description,
+                () -> flaskService.uploadImage(source, image.getSize(), description, userId), userId);
+    }
+
+    private Mono<ImageFlaskResponse> generate(ContentSource source, String description,
+                                              Supplier<Mono<ImageFlaskResponse>> upload, Long userId) {
+        return Mono.defer(() -> {
+            MeshKey key = new MeshKey(userId, ContentFingerprint.of(source), ContentFingerprint.sha256(description));
+
+            Optional<GeneratedMesh> generatedMesh = generatedMeshRepository.findByUserIdAndContentHashAndDescriptionHash(
+                    userId, key.fingerprint.getSha256(), key.descriptionHash);
+            if (generatedMesh.isPresent()) {
+                if (!generatedMesh.get().matches(key.fingerprint)) {
+                    // 해시 충돌: 기존 결과는 그대로 두고 이번 요청은 기록 없이 새로 생성한다.
+                    collisions.increment();
+                    log.warn("이미지 해시 충돌 {}: 저장된 메쉬를 재사용하지 않습니다.", key.fingerprint.getSha256());
+                    gpuCalls.increment();
+                    return upload.get();
+                }
+                if (generatedMesh.get().isCurrent(this::isCurrent)) {
+                    storedHits.increment();
+                    return Mono.just(generatedMesh.get().toFlaskResponse());
+                }
+
+                // 같은 사용자의 다른 생성이 결과 파일을 덮어썼다. 기록을 지우고 새로 생성해 다시 기록한다.
+                staleHits.increment();
+                transactionTemplate.executeWithoutResult(status -> generatedMeshRepository.delete(generatedMesh.get()));
+            }
+
+            return generateOnce(key, upload);
+        });
+    }
+
+    private Mono<ImageFlaskResponse> generateOnce(MeshKey key, Supplier<Mono<ImageFlaskResponse>> upload) {
+        Mono<ImageFlaskResponse> flight = upload.get()
+                .publishOn(Schedulers.boundedElastic())
+                .doOnNext(imageFlaskResponse -> register(key, imageFlaskResponse))
+                .doFinally(signal -> inFlight.remove(key))
+                .cache();
+
+        Mono<ImageFlaskResponse> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            inFlightHits.increment();
+            return existing;
+        }
+
+        gpuCalls.increment();
+        return flight;
+    }
+
+    private void register(MeshKey key, ImageFlaskResponse imageFlaskResponse) {
+        if (!imageFlaskResponse.isComplete() || !isStorageResponse(imageFlaskResponse)) {
+            return;
+        }
+
+        GeneratedMesh generatedMesh;
+        try {
+            generatedMesh = GeneratedMesh.of(key.userId, key.fingerprint, key.descriptionHash,
+                    imageFlaskResponse, this::currentGeneration);
+        } catch (IllegalStateException e) {
+            log.warn("메쉬 결과를 기록하지 않습니다. {}", e.getMessage());
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> generatedMeshRepository.save(generatedMesh));
+        } catch (DataIntegrityViolationException e) {
+            // 다른 서버가 같은 사용자의 같은 이미지 결과를 먼저 저장했다.
+            log.debug("이미 저장된 메쉬 {}/{}", key.userId, key.fingerprint.getSha256());
+        }
+    }
+
+    private static boolean isStorageResponse(ImageFlaskResponse imageFlaskResponse) {
+        return Parser.isStorageUrl(imageFlaskResponse.getAlbedo())
+                && Parser.isStorageUrl(imageFlaskResponse.getMesh_mtl())
+                && Parser.isStorageUrl(imageFlaskResponse.getMesh_obj())
+                && (imageFlaskResponse.getUrl_mesh_example() == null
+                || Parser.isStorageUrl(imageFlaskResponse.getUrl_mesh_example()));
+    }
+
+    // 내용 주소 이름은 바뀌지 않으므로 generation 을 기록하지 않는다.
+    private Long currentGeneration(String url) {
+        if (Parser.isContentAddressed(url)) {
+            return null;
+        }
+
+        Blob blob = findGeneration(url);
+        if (blob == null) {
+            throw new IllegalStateException("메쉬 파일을 찾을 수 없습니다. " + url);
+        }
+        return blob.getGeneration();
+    }
+
+    private boolean isCurrent(String url, Long generation) {
+        Blob blob = findGeneration(url);
+        return blob != null && generation.equals(blob.getGeneration());
+    }
+
+    private Blob findGeneration(String url) {
+        return storage.get(Parser.parseBlobId(url), Storage.BlobGetOption.fields(Storage.BlobField.GENERATION));
+    }
+
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static final class MeshKey {
+        private final Long userId;
+        private final ContentFingerprint fingerprint;
+        private final String descriptionHash;
+    }
+}
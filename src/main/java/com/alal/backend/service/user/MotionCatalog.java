@@ -0,0 +1,155 @@
+package com.alal.backend.service.user;
+
+import com.alal.backend.advice.error.DefaultException;
+import com.alal.backend.advice.payload.ErrorCode;
+import com.alal.backend.domain.entity.user.Motion;
+import com.alal.backend.repository.user.MotionRepository;
+import com.alal.backend.utils.search.MotionIndex;
+import com.alal.backend.utils.search.MotionSearchResult;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+// 모션 카탈로그 전체를 메모리 색인(MotionIndex)으로 들고 있으면서 부분 문자열 검색에 답한다.
+// 시작할 때 별도 스레드에서 읽어 두고, 카탈로그가 바뀌면(MotionCatalogChangedEvent) 또는 주기적으로 건수/최대 id가 달라졌을 때 다시 만든다.
+// 색인을 새로 만드는 동안에도 검색은 이전 색인으로 처리된다. 첫 색인이 준비되기 전의 검색은 준비될 때까지 기다린다.
+@Slf4j
+@Component
+public class MotionCatalog {
+    // 최근 검색 결과가 들고 있는 모션 순번의 총 개수 (int 4바이트 기준 약 8MB)
+    private static final int MAX_CACHED_ORDINALS = 2_000_000;
+
+    private final MotionRepository motionRepository;
+    private final Timer refreshTimer;
+
+    private volatile MotionIndex motionIndex;
+    private volatile String version;
+    private final CountDownLatch firstLoad = new CountDownLatch(1);
+
+    // 첫 색인을 기다리는 최대 시간. 넘으면 잠시 후 다시 시도하라고 응답한다.
+    @Value("${motion.catalog.load-timeout-ms:30000}")
+    private long loadTimeoutMs = 30000;
+
+    // access-order: 가장 오래 쓰이지 않은 결과가 맨 앞에 온다.
+    private final LinkedHashMap<List<String>, MotionSearchResult> recentSearches = new LinkedHashMap<>(16, 0.75f, true);
+    private long cachedOrdinals;
+
+    public MotionCatalog(MotionRepository motionRepository, MeterRegistry meterRegistry) {
+        this.motionRepository = motionRepository;
+        this.refreshTimer = Timer.builder("motion.catalog.refresh")
+                .description("모션 색인을 다시 만드는 데 걸린 시간")
+                .register(meterRegistry);
+        Gauge.builder("motion.catalog.size", this, MotionCatalog::size).register(meterRegistry);
+    }
+
+    public List<Motion> findContaining(String term) {
+        return awaitIndex().findContaining(term);
+    }
+
+    // 사용자 기록의 모든 동작을 한 번의 색인 순회로 찾는다.
+    // 같은 사용자가 페이지를 넘길 때는 최근 결과(정렬된 순번과 전체 건수)를 다시 쓴다. 색인이 바뀌면 버려진다.
+    public MotionSearchResult search(List<String> terms) {
+        MotionIndex index = awaitIndex();
+
+        List<String> key = List.copyOf(terms);
+        MotionSearchResult cached = getRecent(key);
+        if (cached != null && cached.isFrom(index)) {
+            return cached;
+        }
+
+        MotionSearchResult searchResult = index.search(key);
+        putRecent(key, searchResult);
+        return searchResult;
+    }
+
+    private synchronized MotionSearchResult getRecent(List<String> key) {
+        return recentSearches.get(key);
+    }
+
+    private synchronized void putRecent(List<String> key, MotionSearchResult searchResult) {
+        MotionSearchResult previous = recentSearches.put(key, searchResult);
+        cachedOrdinals += searchResult.getTotal() - (previous == null ? 0 : previous.getTotal());
+
+        Iterator<MotionSearchResult> iterator = recentSearches.values().iterator();
+        while (cachedOrdinals > MAX_CACHED_ORDINALS && iterator.hasNext()) {
+            cachedOrdinals -= iterator.next().getTotal();
+            iterator.remove();
+        }
+    }
+
+    private synchronized void clearRecent() {
+        recentSearches.clear();
+        cachedOrdinals = 0;
+    }
+
+    // 준비되기 전에는 DB 로 따로 찾지 않는다. 그러면 같은 검색어가 첫 색인 전후로 다른 규칙(URL 부분 문자열과
+    // 태그/이름 접두사)으로 찾아져 결과가 달라진다.
+    private MotionIndex awaitIndex() {
+        MotionIndex index = motionIndex;
+        if (index != null) {
+            return index;
+        }
+
+        try {
+            if (!firstLoad.await(loadTimeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new DefaultException(ErrorCode.CATALOG_NOT_READY);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DefaultException(ErrorCode.CATALOG_NOT_READY);
+        }
+        return motionIndex;
+    }
+
+    // 기동 스레드를 붙잡지 않는다. 실패하면 주기 갱신(refreshIfChanged)이 다시 읽는다.
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        refresh();
+    }
+
+    @Scheduled(initialDelayString = "${motion.catalog.refresh-interval-ms:300000}",
+            fixedDelayString = "${motion.catalog.refresh-interval-ms:300000}")
+    public void refreshIfChanged() {
+        if (!Objects.equals(version, currentVersion())) {
+            refresh();
+        }
+    }
+
+    public synchronized void refresh() {
+        refreshTimer.record(() -> {
+            String loadedVersion = currentVersion();
+            List<Motion> motions = motionRepository.findAll(Sort.by("id"));
+            motionIndex = MotionIndex.of(motions);
+            clearRecent();
+            version = loadedVersion;
+            firstLoad.countDown();
+            log.info("모션 색인 갱신: {}건", motions.size());
+        });
+    }
+
+    public int size() {
+        MotionIndex index = motionIndex;
+        return index == null ? 0 : index.size();
+    }
+
+    // 바깥에서 행을 추가/삭제하면 건수나 최대 id 가 바뀐다.
+    private String currentVersion() {
+        return motionRepository.count() + ":" + motionRepository.findMaxId();
+    }
+}
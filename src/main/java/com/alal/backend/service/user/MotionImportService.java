@@ -0,0 +1,211 @@
+package com.alal.backend.service.user;
+
+import com.alal.backend.advice.error.DefaultException;
+import com.alal.backend.advice.payload.ErrorCode;
+import com.alal.backend.domain.dto.response.MotionImportResponse;
+import com.alal.backend.domain.entity.user.Motion;
+import com.alal.backend.repository.user.MotionRepository;
+import com.alal.backend.utils.event.MotionCatalogChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// 모션 팩 CSV(motion_gif, motion_fbx)를 한 줄씩 읽어 batch-size 단위로 나눠 넣는다.
+// - 파일 전체를 메모리에 올리지 않는다. 메모리에는 한 묶음(기본 1000행)만 있다.
+// - Motion id 는 IDENTITY 이므로 Hibernate 는 insert 를 배치로 묶지 않는다. 묶음마다 짧은 트랜잭션에서
+//   JdbcTemplate.batchUpdate 로 motion 을 넣고, 다시 읽은 id 로 motion_tag 도 배치로 넣는다.
+//   (MySQL 은 JDBC URL 에 rewriteBatchedStatements=true 가 있어야 여러 행 insert 한 번으로 보낸다)
+// - 잘못된 행은 건너뛰고 줄 번호와 이유를 남기며, 이미 있는 GIF 주소는 중복으로 건너뛴다.
+// - 중간에 실패해도 이미 커밋한 묶음은 남으므로 같은 파일을 다시 넣으면 남은 행만 들어간다.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MotionImportService {
+    static final String GIF_COLUMN = "motion_gif";
+    static final String FBX_COLUMN = "motion_fbx";
+    private static final String INSERT_MOTION =
+            "insert into motion (motion_gif, motion_fbx, motion_name, gif_file_name, fbx_file_name) values (?, ?, ?, ?, ?)";
+    private static final String INSERT_MOTION_TAG = "insert into motion_tag (motion_id, tag) values (?, ?)";
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final MotionRepository motionRepository;
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    @Value("${motion.import.batch-size:1000}")
+    private int batchSize;
+
+    public MotionImportResponse importCsv(MultipartFile file) {
+        try (InputStream in = file.getInputStream()) {
+            return importCsv(in);
+        } catch (IOException e) {
+            throw new DefaultException(ErrorCode.INVALID_FILE_PATH, e.getMessage());
+        }
+    }
+
+    public synchronized MotionImportResponse importCsv(InputStream in) {
+        long start = System.nanoTime();
+
+        ImportReport report = new ImportReport();
+        try (Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8);
+             CSVParser parser = CSVFormat.DEFAULT.withFirstRecordAsHeader().withIgnoreHeaderCase().withTrim().parse(reader)) {
+            requireColumns(parser.getHeaderMap());
+
+            List<Motion> chunk = new ArrayList<>(batchSize);
+            for (CSVRecord record : parser) {
+                report.total++;
+                Motion motion = toMotion(record, report);
+                if (motion == null) {
+                    continue;
+                }
+                chunk.add(motion);
+                if (chunk.size() == batchSize) {
+                    insert(chunk, report);
+                    chunk.clear();
+                }
+            }
+            insert(chunk, report);
+        } catch (IOException | IllegalStateException e) {
+            // commons-csv 는 깨진 따옴표 등을 IllegalStateException 으로 알린다. 앞에서 넣은 묶음은 그대로 두고 멈춘다.
+            report.error("CSV 를 더 읽을 수 없습니다: " + e.getMessage());
+        } finally {
+            if (report.inserted > 0) {
+                applicationEventPublisher.publishEvent(new MotionCatalogChangedEvent());
+            }
+        }
+
+        MotionImportResponse response = MotionImportResponse.of(report.total, report.inserted, report.skipped,
+                report.invalid, report.errors, System.nanoTime() - start);
+        log.info("모션 CSV 등록: 전체 {}행, 등록 {}행, 중복 {}행, 오류 {}행, {}ms ({} rows/s)", response.getTotalRows(),
+                response.getInsertedRows(), response.getSkippedRows(), response.getInvalidRows(),
+                response.getElapsedMillis(), response.getRowsPerSecond());
+        return response;
+    }
+
+    private void requireColumns(Map<String, Integer> headerMap) {
+        Set<String> headers = headerMap.keySet().stream()
+                .map(header -> header.toLowerCase(Locale.ROOT))
+                .collect(Collectors.toSet());
+        if (!headers.contains(GIF_COLUMN) || !headers.contains(FBX_COLUMN)) {
+            throw new DefaultException(ErrorCode.INVALID_PARAMETER,
+                    "CSV 헤더에 " + GIF_COLUMN + ", " + FBX_COLUMN + " 컬럼이 있어야 합니다.");
+        }
+    }
+
+    private Motion toMotion(CSVRecord record, ImportReport report) {
+        // 헤더가 첫 줄이므로 데이터 행 번호에 1을 더하면 파일의 줄 번호가 된다. (값 안의 줄바꿈이 없을 때)
+        long line = record.getRecordNumber() + 1;
+        if (!record.isConsistent()) {
+            report.invalid(line, "컬럼 수가 헤더와 다릅니다.");
+            return null;
+        }
+
+        String gif = record.get(GIF_COLUMN);
+        String fbx = record.get(FBX_COLUMN);
+        if (!isUrl(gif, ".gif")) {
+            report.invalid(line, GIF_COLUMN + " 는 .gif 로 끝나는 http(s) 주소여야 합니다: " + gif);
+            return null;
+        }
+        if (!isUrl(fbx, ".fbx")) {
+            report.invalid(line, FBX_COLUMN + " 는 .fbx 로 끝나는 http(s) 주소여야 합니다: " + fbx);
+            return null;
+        }
+        return Motion.of(gif, fbx);
+    }
+
+    private static boolean isUrl(String value, String extension) {
+        String lower = value.toLowerCase(Locale.ROOT);
+        return (lower.startsWith("https://") || lower.startsWith("http://"))
+                && lower.endsWith(extension)
+                && lower.length() > lower.lastIndexOf('/') + 1 + extension.length();
+    }
+
+    // 중복 확인은 색인된 gifFileName 으로 후보를 찾은 뒤 전체 주소로 비교한다.
+    // batchUpdate 는 생성된 id 를 돌려주지 않으므로, 같은 gifFileName 으로 다시 읽어 전체 주소로 id 를 찾는다.
+    private void insert(List<Motion> motions, ImportReport report) {
+        if (motions.isEmpty()) {
+            return;
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Set<String> gifFileNames = motions.stream().map(Motion::getGifFileName).collect(Collectors.toSet());
+            Set<String> seen = new HashSet<>(motionRepository.findMotionGifByGifFileNameIn(gifFileNames));
+
+            List<Motion> fresh = new ArrayList<>(motions.size());
+            for (Motion motion : motions) {
+                if (seen.add(motion.getMotionGif())) {
+                    fresh.add(motion);
+                } else {
+                    report.skipped++;
+                }
+            }
+            if (fresh.isEmpty()) {
+                return;
+            }
+
+            jdbcTemplate.batchUpdate(INSERT_MOTION, fresh.stream()
+                    .map(motion -> new Object[]{motion.getMotionGif(), motion.getMotionFbx(), motion.getMotionName(),
+                            motion.getGifFileName(), motion.getFbxFileName()})
+                    .collect(Collectors.toList()));
+            insertTags(fresh, gifFileNames);
+            report.inserted += fresh.size();
+        });
+    }
+
+    private void insertTags(List<Motion> inserted, Set<String> gifFileNames) {
+        Map<String, Long> ids = motionRepository.findByGifFileNameIn(gifFileNames).stream()
+                .collect(Collectors.toMap(Motion::getMotionGif, Motion::getId, Math::max));
+
+        List<Object[]> tagRows = new ArrayList<>();
+        for (Motion motion : inserted) {
+            Long id = ids.get(motion.getMotionGif());
+            for (String tag : motion.getTags()) {
+                tagRows.add(new Object[]{id, tag});
+            }
+        }
+        if (!tagRows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_MOTION_TAG, tagRows);
+        }
+    }
+
+    private static class ImportReport {
+        private final List<String> errors = new ArrayList<>();
+        private long total;
+        private long inserted;
+        private long skipped;
+        private long invalid;
+
+        void invalid(long line, String reason) {
+            invalid++;
+            error(line + "행: " + reason);
+        }
+
+        void error(String message) {
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(message);
+            }
+        }
+    }
+}
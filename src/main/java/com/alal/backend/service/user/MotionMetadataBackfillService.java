@@ -0,0 +1,66 @@
+package com.alal.backend.service.user;
+
+import com.alal.backend.domain.entity.user.Motion;
+import com.alal.backend.repository.user.MotionRepository;
+import com.alal.backend.utils.event.MotionCatalogChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+// 메타데이터 컬럼(motionName, tags, gif/fbx 파일 이름)이 생기기 전에 들어간 모션을 한 번 채워 넣는다.
+// id 순서로 500건씩 짧은 트랜잭션에서 처리하므로 중간에 멈춰도 다음 실행이 남은 행부터 이어 간다.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MotionMetadataBackfillService {
+    private final MotionRepository motionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    @Value("${motion.metadata.backfill-on-startup:true}")
+    private boolean backfillOnStartup;
+
+    // 비어 있는 행이 없으면 조회 한 번으로 끝난다.
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        if (backfillOnStartup) {
+            backfill();
+        }
+    }
+
+    // 채운 행 수를 돌려준다.
+    public synchronized int backfill() {
+        int updated = 0;
+        Long lastId = 0L;
+
+        while (true) {
+            Long from = lastId;
+            List<Motion> batch = transactionTemplate.execute(status -> {
+                List<Motion> motions = motionRepository.findTop500ByMotionNameIsNullAndIdGreaterThanOrderByIdAsc(from);
+                motions.forEach(Motion::refreshMetadata);
+                return motions;
+            });
+
+            if (batch == null || batch.isEmpty()) {
+                break;
+            }
+            updated += batch.size();
+            lastId = batch.get(batch.size() - 1).getId();
+        }
+
+        if (updated > 0) {
+            log.info("모션 메타데이터 backfill: {}건", updated);
+            applicationEventPublisher.publishEvent(new MotionCatalogChangedEvent());
+        }
+        return updated;
+    }
+}
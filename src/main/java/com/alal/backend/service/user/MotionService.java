@@ -1,44 +1,129 @@
 package com.alal.backend.service.user;
 
+import com.alal.backend.advice.error.DefaultException;
 import com.alal.backend.domain.dto.response.*;
 import com.alal.backend.domain.entity.user.Motion;
 import com.alal.backend.domain.entity.user.User;
 import com.alal.backend.domain.entity.user.Voice;
 import com.alal.backend.payload.request.user.FlaskRequest;
 import com.alal.backend.payload.request.user.FlaskVoiceRequest;
-import com.alal.backend.repository.user.MotionRepository;
 import com.alal.backend.repository.user.UserRepository;
 import com.alal.backend.repository.user.VoiceRepository;
+import com.alal.backend.utils.search.MotionSearchResult;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class MotionService {
-    private final MotionRepository motionRepository;
+    // 스트리밍으로 받은 동작은 하나씩 저장하지 않고, 이 개수나 시간이 찰 때마다 한 번에 저장한다.
+    private static final int HISTORY_FLUSH_SIZE = 10;
+    private static final long HISTORY_FLUSH_NANOS = TimeUnit.SECONDS.toNanos(2);
+
+    private final MotionCatalog motionCatalog;
     private final UserRepository userRepository;
     private final VoiceRepository voiceRepository;
     private final FlaskService flaskService;
+    private final PoseDetectionService poseDetectionService;
+    private final TransactionTemplate transactionTemplate;
 
     // 동영상 파일 Flask 서버와 통신 후 응답 메세지 유저 테이블에 저장
-    @Transactional
-    public UpdateUserHistoryResponse findUrlByUploadMp4(FlaskRequest flaskRequest, Long userId) {
-        List<FlaskResponse> flaskResponses = flaskService.communicateWithFlaskServer(flaskRequest);
+    // 추론 중에는 스레드를 점유하지 않고, 응답이 오면 별도 스레드의 짧은 트랜잭션에서 저장한다.
+    public CompletableFuture<UpdateUserHistoryResponse> findUrlByUploadMp4(FlaskRequest flaskRequest, Long userId) {
+        return poseDetectionService.detect(flaskRequest)
+                .publishOn(Schedulers.boundedElastic())
+                .map(flaskResponses -> saveUserHistory(flaskResponses, userId))
+                .toFuture();
+    }
 
+    // Flask 응답을 받은 뒤의 저장 단계. 동기 요청과 작업 큐(AiJobWorker)가 함께 사용한다.
+    public UpdateUserHistoryResponse saveUserHistory(List<FlaskResponse> flaskResponses, Long userId) {
         String responseMessageToString = flaskResponses.stream()
                 .map(FlaskResponse::getResponseMessage)
                 .collect(Collectors.joining(", "));
 
-        User user = getUserById(userId);
+        return transactionTemplate.execute(status ->
+                updateUserHistoryByResponseMessage(getUserById(userId), responseMessageToString));
+    }
+
+    // 결과 전체를 기다리지 않고, Flask 서버가 동작을 하나 인식할 때마다 SSE 로 내려보낸다.
+    // 기록은 동작마다 트랜잭션을 열지 않고 HISTORY_FLUSH_SIZE 개 또는 HISTORY_FLUSH_NANOS 마다 지금까지의 전체 기록으로 덮어쓴다.
+    // 끝나면(done) 마지막으로 저장하므로 findUrlByUploadMp4 와 같은 기록이 남고, 인식한 동작이 없으면 기록을 비운다.
+    // 중간에 실패하면 그때까지 받은 동작을 저장한 뒤 error 이벤트로 스트림을 닫는다.
+    // 서버가 스트림 도중에 죽으면 마지막 저장 이후의 동작(최대 HISTORY_FLUSH_SIZE 개)은 기록에 남지 않는다.
+    public Flux<ServerSentEvent<Object>> streamPose(FlaskRequest flaskRequest, Long userId) {
+        poseDetectionService.validate(flaskRequest);
+        PoseHistory history = new PoseHistory();
+
+        return flaskService.streamPose(flaskRequest)
+                .publishOn(Schedulers.boundedElastic())
+                .map(flaskResponse -> appendMotion(flaskResponse.getResponseMessage(), userId, history))
+                .map(response -> ServerSentEvent.<Object>builder(response)
+                        .id(String.valueOf(response.getIndex()))
+                        .event("motion")
+                        .build())
+                .concatWith(Mono.fromCallable(() -> ServerSentEvent.<Object>builder(saveHistory(userId, history))
+                        .event("done")
+                        .build()))
+                .onErrorResume(e -> Mono.fromCallable(() -> {
+                    saveReceivedHistory(userId, history);
+                    return ServerSentEvent.<Object>builder(errorMessage(e))
+                            .event("error")
+                            .build();
+                }));
+    }
+
+    private PoseStreamResponse appendMotion(String motion, Long userId, PoseHistory history) {
+        int index = history.append(motion);
+        if (history.isFlushDue()) {
+            saveHistory(userId, history);
+        }
+
+        List<Motion> motions = motionCatalog.findContaining(motion);
+
+        return PoseStreamResponse.of(index, motion, getGifsFromMotions(motions), getFbxsFromMotions(motions));
+    }
 
-        return updateUserHistoryByResponseMessage(user, responseMessageToString);
+    private UpdateUserHistoryResponse saveHistory(Long userId, PoseHistory history) {
+        UpdateUserHistoryResponse response = transactionTemplate.execute(status ->
+                updateUserHistoryByResponseMessage(getUserById(userId), history.joined()));
+        history.flushed();
+        return response;
+    }
+
+    // 실패 사유를 보내는 것이 우선이므로, 저장하지 못해도 error 이벤트는 그대로 보낸다.
+    private void saveReceivedHistory(Long userId, PoseHistory history) {
+        if (!history.hasUnsaved()) {
+            return;
+        }
+        try {
+            saveHistory(userId, history);
+        } catch (RuntimeException e) {
+            log.warn("스트리밍 중 받은 동작 기록 저장 실패 = {}", userId, e);
+        }
+    }
+
+    private static String errorMessage(Throwable e) {
+        if (e instanceof DefaultException) {
+            return ((DefaultException) e).getErrorCode().getMessage();
+        }
+        return "동작 인식 중 오류가 발생하였습니다.";
     }
 
     @Transactional
@@ -49,10 +134,19 @@ public class MotionService {
     }
 
     // 음성 파일 Flask 서버와 통신 후 base64 문자열 응답
-    @Transactional
-    public VoiceResponse uploadAndRespondWithAudioFileSuccess(FlaskVoiceRequest flaskRequest, Long userId) {
+    public CompletableFuture<VoiceResponse> uploadAndRespondWithAudioFileSuccess(FlaskVoiceRequest flaskRequest, Long userId) {
         // Flask 서버 통신
-        FlaskResponse flaskResponse = flaskService.communicateWithFlaskServerByVoice(flaskRequest, userId);
+        return flaskService.communicateWithFlaskServerByVoice(flaskRequest, userId)
+                .publishOn(Schedulers.boundedElastic())
+                .map(flaskResponse -> saveVoice(flaskResponse, flaskRequest, userId))
+                .toFuture();
+    }
+
+    public VoiceResponse saveVoice(FlaskResponse flaskResponse, FlaskVoiceRequest flaskRequest, Long userId) {
+        return transactionTemplate.execute(status -> updateVoice(flaskResponse, flaskRequest, userId));
+    }
+
+    private VoiceResponse updateVoice(FlaskResponse flaskResponse, FlaskVoiceRequest flaskRequest, Long userId) {
         Voice voice = voiceRepository.findByUserId(userId);
 
         if (voice == null) {
@@ -68,30 +162,18 @@ public class MotionService {
     }
 
     // Gif, Fbx Url을 찾는 공통 로직
-    @Transactional(readOnly = true)
+    // 기록의 모든 동작을 한 번에 찾으므로 기록 길이와 관계없이 색인 순회는 한 번이고, 같은 모션은 한 번만 나온다.
+    // 메모리 색인에서 찾으므로 트랜잭션(DB 커넥션)이 필요 없고, 응답 DTO 는 보이는 페이지의 모션만 만든다.
     public Page<ViewResponse> createViewResponse(List<String> userHistories, Pageable pageable) {
-        List<Motion> motions = findMotionsByUserHistories(userHistories);
-        List<GifUrlResponse> allGifs = getGifsFromMotions(motions);
-        List<FbxUrlResponse> allFbxs = getFbxsFromMotions(motions);
-
-        return createViewResponsePage(allGifs, allFbxs, pageable, userHistories);
-    }
-
-    private List<Motion> findMotionsByUserHistories(List<String> userHistories) {
-        List<Motion> allMotions = new ArrayList<>();
-
-        for (String userHistory : userHistories) {
-            List<Motion> motions = motionRepository.findByMotionContaining(userHistory);
-            allMotions.addAll(motions);
-        }
+        MotionSearchResult searchResult = motionCatalog.search(userHistories);
 
-        return allMotions;
+        return createViewResponsePage(searchResult, pageable, userHistories);
     }
 
     private List<GifUrlResponse> getGifsFromMotions(List<Motion> motions) {
         return motions.stream()
                 .map(motion -> GifUrlResponse.builder()
-                        .gifFileName(getFileName(motion.getMotionGif()))
+                        .gifFileName(gifFileName(motion))
                         .gifUrl(motion.getMotionGif())
                         .build())
                 .collect(Collectors.toList());
@@ -100,34 +182,38 @@ public class MotionService {
     private List<FbxUrlResponse> getFbxsFromMotions(List<Motion> motions) {
         return motions.stream()
                 .map(motion -> FbxUrlResponse.builder()
-                        .fbxFileName(getFileName(motion.getMotionFbx()))
+                        .fbxFileName(fbxFileName(motion))
                         .fbxUrl(motion.getMotionFbx())
                         .build())
                 .collect(Collectors.toList());
     }
 
-    private String getFileName(String url) {
-        String[] parts = url.split("/");
-        String fileNameWithExtension = parts[parts.length - 1];
-        int pos = fileNameWithExtension.lastIndexOf(".");
-        return fileNameWithExtension.substring(0, pos);
+    // 파일 이름은 등록할 때 계산해 둔 값을 쓴다. backfill 전의 행만 주소에서 잘라낸다.
+    private String gifFileName(Motion motion) {
+        return motion.getGifFileName() != null ? motion.getGifFileName() : Motion.fileName(motion.getMotionGif());
     }
 
-    private Page<ViewResponse> createViewResponsePage(List<GifUrlResponse> allGifs, List<FbxUrlResponse> allFbxs, Pageable pageable, List<String> userHistories) {
-        int start = (int) pageable.getOffset();
-        int end = Math.min((start + pageable.getPageSize()), allGifs.size());
+    private String fbxFileName(Motion motion) {
+        return motion.getFbxFileName() != null ? motion.getFbxFileName() : Motion.fileName(motion.getMotionFbx());
+    }
 
-        List<GifUrlResponse> pagedGifs = allGifs.subList(start, end);
-        List<FbxUrlResponse> pagedFbxs = allFbxs.subList(start, end);
+    // 전체 건수는 검색 결과에 이미 있으므로, 페이지에 해당하는 모션만 꺼내 DTO 로 바꾼다.
+    private Page<ViewResponse> createViewResponsePage(MotionSearchResult searchResult, Pageable pageable, List<String> userHistories) {
+        List<Motion> pagedMotions = searchResult.page(pageable.getOffset(), pageable.getPageSize());
 
-        List<ViewResponse> content = (start < end)
-                ? Collections.singletonList(ViewResponse.fromList(pagedGifs, pagedFbxs, userHistories))
-                : Collections.emptyList();
+        List<ViewResponse> content = pagedMotions.isEmpty()
+                ? Collections.emptyList()
+                : Collections.singletonList(ViewResponse.fromList(getGifsFromMotions(pagedMotions),
+                getFbxsFromMotions(pagedMotions), userHistories, searchResult.getTermCounts()));
 
-        return new PageImpl<>(content, pageable, allGifs.size());
+        return new PageImpl<>(content, pageable, searchResult.getTotal());
     }
 
 
+    public int invalidateVoiceModel(String modelName) {
+        return flaskService.invalidateVoiceModel(modelName);
+    }
+
     @Transactional(readOnly = true)
     public VoiceResponse findByVoiceUrlWithUserId(Long userId, String modelName) {
         Voice voice = voiceRepository.findByUserIdAndModelName(userId, modelName);
@@ -149,17 +235,10 @@ public class MotionService {
                         .collect(Collectors.toList()));
     }
 
-    @Transactional(readOnly = true)
     public Page<ViewResponse> createViewResponseByMotionName(String motionName, Pageable pageable, List<String> userHistories) {
-        List<Motion> motions = findMotionsByUserHistory(motionName);
-        List<GifUrlResponse> allGifs = getGifsFromMotions(motions);
-        List<FbxUrlResponse> allFbxs = getFbxsFromMotions(motions);
-
-        return createViewResponsePage(allGifs, allFbxs, pageable, userHistories);
-    }
+        MotionSearchResult searchResult = motionCatalog.search(List.of(motionName));
 
-    private List<Motion> findMotionsByUserHistory(String motionName) {
-        return motionRepository.findByMotionContaining(motionName);
+        return createViewResponsePage(searchResult, pageable, userHistories);
     }
 
     public List<String> getUserHistories(Long userId) {
@@ -167,4 +246,34 @@ public class MotionService {
         Optional<List<String>> userHistoriesOptional = getUserUserHistory(user);
         return userHistoriesOptional.orElse(Collections.emptyList());
     }
+
+    // 스트리밍으로 받은 동작 기록. publishOn 이후의 신호는 순서대로 하나씩 오므로 동기화하지 않는다.
+    private static class PoseHistory {
+        private final List<String> motions = new ArrayList<>();
+        private int saved;
+        private long savedAtNanos = System.nanoTime();
+
+        int append(String motion) {
+            motions.add(motion);
+            return motions.size() - 1;
+        }
+
+        boolean hasUnsaved() {
+            return motions.size() > saved;
+        }
+
+        boolean isFlushDue() {
+            return motions.size() - saved >= HISTORY_FLUSH_SIZE
+                    || (hasUnsaved() && System.nanoTime() - savedAtNanos >= HISTORY_FLUSH_NANOS);
+        }
+
+        String joined() {
+            return String.join(", ", motions);
+        }
+
+        void flushed() {
+            saved = motions.size();
+            savedAtNanos = System.nanoTime();
+        }
+    }
 }
@@ -0,0 +1,124 @@
+package com.alal.backend.service.user;
+
+import com.alal.backend.advice.error.DefaultException;
+import com.alal.backend.advice.payload.ErrorCode;
+import com.alal.backend.domain.dto.response.FlaskResponse;
+import com.alal.backend.domain.vo.VideoSegment;
+import com.alal.backend.payload.request.user.FlaskRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+// 긴 영상은 시간 구간으로 나눠 Flask 서버들에 동시에 보내고, 구간 순서대로 결과를 합친다.
+// 구간끼리는 overlap 만큼 겹치므로 겹친 시간 안에서 두 구간이 함께 찾은 동작은 한 번만 남긴다.
+@Service
+public class PoseDetectionService {
+    private final FlaskService flaskService;
+    private final double segmentSeconds;
+    private final double overlapSeconds;
+    private final int maxParallelSegments;
+    private final double maxVideoSeconds;
+
+    public PoseDetectionService(FlaskService flaskService,
+                                @Value("${ai.pose.segment-seconds:30}") double segmentSeconds,
+                                @Value("${ai.pose.segment-overlap-seconds:1}") double overlapSeconds,
+                                @Value("${ai.pose.max-parallel-segments:4}") int maxParallelSegments,
+                                @Value("${ai.pose.max-video-seconds:3600}") double maxVideoSeconds) {
+        this.flaskService = flaskService;
+        this.segmentSeconds = segmentSeconds;
+        this.overlapSeconds = overlapSeconds;
+        this.maxParallelSegments = maxParallelSegments;
+        this.maxVideoSeconds = maxVideoSeconds;
+    }
+
+    public Mono<List<FlaskResponse>> detect(FlaskRequest flaskRequest) {
+        validate(flaskRequest);
+        Double durationSeconds = flaskRequest.getDurationSeconds();
+        if (durationSeconds == null || durationSeconds <= segmentSeconds) {
+            return flaskService.communicateWithFlaskServer(flaskRequest);
+        }
+
+        // flatMapSequential: 구간은 동시에 분석하되 결과는 구간 순서대로 내보낸다.
+        List<VideoSegment> segments = VideoSegment.split(durationSeconds, segmentSeconds, overlapSeconds);
+        return Flux.fromIterable(segments)
+                .flatMapSequential(segment -> flaskService.communicateWithFlaskServer(flaskRequest, segment), maxParallelSegments)
+                .collectList()
+                .map(segmentResults -> merge(segments, segmentResults));
+    }
+
+    // 영상 길이는 클라이언트가 보내는 값이므로, 구간 수(= Flask 호출 수)가 끝없이 늘지 않도록 최대 길이로 막는다.
+    public void validate(FlaskRequest flaskRequest) {
+        Double durationSeconds = flaskRequest.getDurationSeconds();
+        if (durationSeconds == null) {
+            return;
+        }
+        if (!Double.isFinite(durationSeconds) || durationSeconds <= 0) {
+            throw new DefaultException(ErrorCode.INVALID_PARAMETER, "영상 길이가 올바르지 않습니다. " + durationSeconds);
+        }
+        if (durationSeconds > maxVideoSeconds) {
+            throw new DefaultException(ErrorCode.INVALID_PARAMETER,
+                    "영상 길이는 " + maxVideoSeconds + "초를 넘을 수 없습니다. " + durationSeconds);
+        }
+    }
+
+    // 바로 앞 구간과 겹치는 시간 [다음 구간 시작, 앞 구간 끝) 안에서 두 구간이 함께 찾은 동작만 한 번으로 줄인다.
+    // 시각이 없는 동작은 겹친 구간에서 나왔는지 알 수 없으므로 둘 다 남긴다.
+    static List<FlaskResponse> merge(List<VideoSegment> segments, List<List<FlaskResponse>> segmentResults) {
+        List<FlaskResponse> merged = new ArrayList<>(segmentResults.get(0));
+        for (int i = 1; i < segmentResults.size(); i++) {
+            double overlapStart = segments.get(i).getStart();
+            double overlapEnd = segments.get(i - 1).getEnd();
+            List<FlaskResponse> next = segmentResults.get(i);
+
+            int duplicated = boundaryOverlap(
+                    tailWithin(segmentResults.get(i - 1), overlapStart, overlapEnd),
+                    headWithin(next, overlapStart, overlapEnd));
+            merged.addAll(next.subList(duplicated, next.size()));
+        }
+        return merged;
+    }
+
+    private static List<FlaskResponse> tailWithin(List<FlaskResponse> responses, double overlapStart, double overlapEnd) {
+        int from = responses.size();
+        while (from > 0 && isWithin(responses.get(from - 1), overlapStart, overlapEnd)) {
+            from--;
+        }
+        return responses.subList(from, responses.size());
+    }
+
+    private static List<FlaskResponse> headWithin(List<FlaskResponse> responses, double overlapStart, double overlapEnd) {
+        int to = 0;
+        while (to < responses.size() && isWithin(responses.get(to), overlapStart, overlapEnd)) {
+            to++;
+        }
+        return responses.subList(0, to);
+    }
+
+    private static boolean isWithin(FlaskResponse response, double overlapStart, double overlapEnd) {
+        return response.hasTime() && response.getStart() < overlapEnd && response.getEnd() > overlapStart;
+    }
+
+    // 앞 구간의 끝부분과 뒷 구간의 앞부분이 같은 동작 순서로 겹치는 가장 긴 길이
+    private static int boundaryOverlap(List<FlaskResponse> previous, List<FlaskResponse> next) {
+        for (int length = Math.min(previous.size(), next.size()); length > 0; length--) {
+            if (matches(previous.subList(previous.size() - length, previous.size()), next.subList(0, length))) {
+                return length;
+            }
+        }
+        return 0;
+    }
+
+    private static boolean matches(List<FlaskResponse> tail, List<FlaskResponse> head) {
+        for (int i = 0; i < tail.size(); i++) {
+            if (!Objects.equals(tail.get(i).getResponseMessage(), head.get(i).getResponseMessage())) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,95 @@
+package com.alal.backend.utils;
+
+import com.alal.backend.utils.StorageUploader.ContentSource;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Map;
+
+// {"<필드>":"<base64>", ...나머지 필드} 형태의 JSON 본문을, 원본 파일을 읽는 대로 인코딩해 흘려보낸다.
+// 파일 전체를 byte[] 나 base64 String 으로 올리지 않으므로 요청당 추가 힙 사용량은 CHUNK_SIZE 정도로 제한된다.
+// 원본을 3 바이트의 배수 단위로 잘라 인코딩하면, 조각을 이어 붙인 결과가 전체를 한 번에 인코딩한 것과 같다.
+public class Base64JsonBody {
+    static final int CHUNK_SIZE = 48 * 1024;
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final DataBufferFactory BUFFER_FACTORY = DefaultDataBufferFactory.sharedInstance;
+
+    private final ContentSource source;
+    private final long sourceLength;
+    private final byte[] prefix;
+    private final byte[] suffix;
+
+    public Base64JsonBody(String fieldName, ContentSource source, long sourceLength, Map<String, Object> fields) {
+        this.source = source;
+        this.sourceLength = sourceLength;
+        this.prefix = ("{" + json(fieldName) + ":\"").getBytes(StandardCharsets.UTF_8);
+
+        String others = json(fields);
+        this.suffix = (others.length() > 2 ? "\"," + others.substring(1) : "\"}").getBytes(StandardCharsets.UTF_8);
+    }
+
+    // Content-Length 를 미리 알려 주어 chunked 전송을 지원하지 않는 서버에도 보낼 수 있게 한다.
+    public long contentLength() {
+        return prefix.length + (sourceLength + 2) / 3 * 4 + suffix.length;
+    }
+
+    // 구독할 때마다 원본을 처음부터 다시 연다. (재시도, 다른 인스턴스로 다시 보낼 때)
+    // 파일 읽기는 블로킹이므로 이벤트 루프가 아닌 boundedElastic 에서 한다.
+    public Flux<DataBuffer> content() {
+        Flux<DataBuffer> encoded = Flux.using(source::open, this::encode, Base64JsonBody::closeQuietly)
+                .subscribeOn(Schedulers.boundedElastic());
+
+        return Flux.concat(
+                Mono.fromCallable(() -> BUFFER_FACTORY.wrap(prefix)),
+                encoded,
+                Mono.fromCallable(() -> BUFFER_FACTORY.wrap(suffix)));
+    }
+
+    private Flux<DataBuffer> encode(InputStream in) {
+        Base64.Encoder encoder = Base64.getEncoder();
+        byte[] chunk = new byte[CHUNK_SIZE];
+
+        return Flux.generate(sink -> {
+            try {
+                // readNBytes 는 CHUNK_SIZE 를 다 채우거나 파일 끝에서만 돌아오므로, 마지막 조각에만 패딩이 붙는다.
+                int read = in.readNBytes(chunk, 0, CHUNK_SIZE);
+                if (read == 0) {
+                    sink.complete();
+                    return;
+                }
+                sink.next(BUFFER_FACTORY.wrap(encoder.encode(ByteBuffer.wrap(chunk, 0, read))));
+            } catch (IOException e) {
+                sink.error(new UncheckedIOException(e));
+            }
+        });
+    }
+
+    private static String json(Object value) {
+        try {
+            return OBJECT_MAPPER.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    private static void closeQuietly(InputStream in) {
+        try {
+            in.close();
+        } catch (IOException ignored) {
+            // 이미 다 읽은 스트림이다.
+        }
+    }
+}
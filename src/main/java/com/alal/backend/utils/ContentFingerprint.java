@@ -0,0 +1,71 @@
+package com.alal.backend.utils;
+
+import com.alal.backend.advice.error.DefaultException;
+import com.alal.backend.advice.payload.ErrorCode;
+import com.alal.backend.utils.StorageUploader.ContentSource;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+// 디코딩된 파일 내용을 한 번 읽으면서 SHA-256, MD5, 길이를 함께 구한다.
+// SHA-256 으로 찾고 나머지 두 값으로 한 번 더 확인하여, 해시 충돌로 다른 파일의 결과를 돌려주는 일을 막는다.
+@Getter
+@EqualsAndHashCode
+public class ContentFingerprint {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final String sha256;
+    private final String md5;
+    private final long length;
+
+    private ContentFingerprint(String sha256, String md5, long length) {
+        this.sha256 = sha256;
+        this.md5 = md5;
+        this.length = length;
+    }
+
+    public static ContentFingerprint of(ContentSource source) {
+        MessageDigest sha256 = digest("SHA-256");
+        MessageDigest md5 = digest("MD5");
+        long length = 0;
+
+        try (InputStream in = source.open()) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                sha256.update(buffer, 0, read);
+                md5.update(buffer, 0, read);
+                length += read;
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            throw new DefaultException(ErrorCode.INVALID_URL, e.getMessage());
+        }
+
+        return new ContentFingerprint(toHex(sha256, 64), toHex(md5, 32), length);
+    }
+
+    // 길이 제한이 없는 문자열(메쉬 설명 등)을 고정 길이 키로 쓰기 위한 SHA-256. null 은 빈 문자열과 같다.
+    public static String sha256(String text) {
+        MessageDigest sha256 = digest("SHA-256");
+        sha256.update((text == null ? "" : text).getBytes(StandardCharsets.UTF_8));
+        return toHex(sha256, 64);
+    }
+
+    private static MessageDigest digest(String algorithm) {
+        try {
+            return MessageDigest.getInstance(algorithm);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String toHex(MessageDigest digest, int length) {
+        return String.format("%0" + length + "x", new BigInteger(1, digest.digest()));
+    }
+}
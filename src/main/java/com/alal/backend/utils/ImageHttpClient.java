@@ -0,0 +1,138 @@
+package com.alal.backend.utils;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelOption;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+// 구글 스토리지 이미지 다운로드 전용 HTTP 클라이언트.
+// keep-alive 커넥션 풀을 공유해 이미지마다 TLS 핸드셰이크를 다시 하지 않고,
+// 연결/읽기 제한 시간과 최대 파일 크기로 느린 응답이 Tomcat 스레드를 붙잡지 못하게 한다.
+// 읽기 제한 시간은 본문까지 받는 전체 다운로드에 걸리며, 기본값은 ImageResolver 의 이미지 제한 시간(storage.image.timeout-ms)과 같다.
+// 그보다 길면 ImageResolver 가 이미 대체 이미지로 응답한 뒤에도 다운로드가 이미지 풀 스레드를 붙잡고 있게 된다.
+@Component
+public class ImageHttpClient {
+    private static final int DEFAULT_BUFFER_SIZE = 8 * 1024;
+
+    private final HttpClient httpClient;
+    private final int maxObjectBytes;
+    private final Duration readTimeout;
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong connections = new AtomicLong();
+
+    public ImageHttpClient(@Value("${storage.http.connect-timeout-ms:2000}") int connectTimeoutMillis,
+                           @Value("${storage.http.read-timeout-ms:${storage.image.timeout-ms:3000}}") long readTimeoutMillis,
+                           @Value("${storage.http.max-connections:50}") int maxConnections,
+                           @Value("${storage.http.max-object-size:20971520}") int maxObjectBytes,
+                           MeterRegistry meterRegistry) {
+        this.maxObjectBytes = maxObjectBytes;
+        this.readTimeout = Duration.ofMillis(readTimeoutMillis);
+
+        ConnectionProvider connectionProvider = ConnectionProvider.builder("image-download")
+                .maxConnections(maxConnections)
+                .maxIdleTime(Duration.ofSeconds(30))
+                .pendingAcquireTimeout(Duration.ofMillis(connectTimeoutMillis))
+                .build();
+
+        this.httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMillis)
+                .responseTimeout(readTimeout)
+                .keepAlive(true)
+                .followRedirect(true)
+                .doOnConnected(connection -> connections.incrementAndGet())
+                .doOnRequest((request, connection) -> requests.incrementAndGet());
+
+        FunctionCounter.builder("image.http.requests", requests, AtomicLong::get).register(meterRegistry);
+        FunctionCounter.builder("image.http.connections", connections, AtomicLong::get)
+                .description("새로 맺은 커넥션 수. requests와의 차이가 재사용된 커넥션 수")
+                .register(meterRegistry);
+        Gauge.builder("image.http.connection.reuse.ratio", this, ImageHttpClient::connectionReuseRatio).register(meterRegistry);
+    }
+
+    public byte[] download(String imageUrl) throws IOException {
+        try {
+            return httpClient.get()
+                    .uri(imageUrl)
+                    .response((response, content) -> {
+                        if (response.status().code() != HttpResponseStatus.OK.code()) {
+                            return Mono.<byte[]>error(new IOException("이미지 응답 코드 " + response.status().code() + " = " + imageUrl));
+                        }
+
+                        int contentLength = response.responseHeaders().getInt(HttpHeaderNames.CONTENT_LENGTH, -1);
+                        if (contentLength > maxObjectBytes) {
+                            return Mono.<byte[]>error(new IOException("이미지 크기 초과 " + contentLength + " bytes = " + imageUrl));
+                        }
+
+                        ImageBuffer buffer = new ImageBuffer(contentLength, maxObjectBytes);
+                        return content
+                                .handle((byteBuf, sink) -> {
+                                    if (!buffer.append(byteBuf)) {
+                                        sink.error(new IOException("이미지 크기 초과 = " + imageUrl));
+                                    }
+                                })
+                                .then(Mono.fromCallable(buffer::toByteArray));
+                    })
+                    .timeout(readTimeout, Mono.error(() -> new IOException("이미지 다운로드 시간 초과 = " + imageUrl)))
+                    .single()
+                    .block();
+        } catch (RuntimeException e) {
+            Throwable cause = Exceptions.unwrap(e);
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    public double connectionReuseRatio() {
+        long requestCount = requests.get();
+        if (requestCount == 0) {
+            return 0;
+        }
+        return 1 - (double) connections.get() / requestCount;
+    }
+
+    // Content-Length가 있으면 정확한 크기로 한 번만 할당하고, 없으면 최대 크기까지 두 배씩 늘린다.
+    private static class ImageBuffer {
+        private final int maxBytes;
+        private byte[] bytes;
+        private int size;
+
+        ImageBuffer(int contentLength, int maxBytes) {
+            this.maxBytes = maxBytes;
+            this.bytes = new byte[contentLength >= 0 ? contentLength : Math.min(DEFAULT_BUFFER_SIZE, maxBytes)];
+        }
+
+        boolean append(ByteBuf byteBuf) {
+            int readable = byteBuf.readableBytes();
+            if (size + readable > maxBytes) {
+                return false;
+            }
+            if (size + readable > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.min(maxBytes, Math.max(bytes.length * 2, size + readable)));
+            }
+            byteBuf.readBytes(bytes, size, readable);
+            size += readable;
+            return true;
+        }
+
+        byte[] toByteArray() {
+            return size == bytes.length ? bytes : Arrays.copyOf(bytes, size);
+        }
+    }
+}
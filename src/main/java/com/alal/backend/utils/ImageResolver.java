@@ -0,0 +1,103 @@
+package com.alal.backend.utils;
+
+import com.alal.backend.domain.entity.project.Avatar;
+import com.alal.backend.domain.vo.ImageMode;
+import com.google.cloud.storage.BlobInfo;
+import com.google.cloud.storage.Storage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+// 저장된 이미지 주소를 응답 방식에 맞게 변환한다.
+// SIGNED_URL 모드는 서비스 계정 키로 로컬에서 서명만 하므로 이미지 바이트를 서버가 중계하지 않는다.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ImageResolver {
+    // 1x1 투명 PNG. 이미지 하나를 못 가져와도 응답 전체를 실패시키지 않기 위한 대체 이미지
+    static final String PLACEHOLDER_BASE64 =
+            "iVBORw0KGgoAAAANSUhEUgAAAAEAAAABCAYAAAAfFcSJAAAADUlEQVR42mNkYPhfDwAChwGA60e6kgAAAABJRU5ErkJggg==";
+
+    private final Parser parser;
+    private final Storage storage;
+
+    @Qualifier("imageDownloadExecutor")
+    private final TaskExecutor imageDownloadExecutor;
+
+    @Value("${storage.signed-url.ttl-seconds:900}")
+    private long signedUrlTtlSeconds;
+
+    @Value("${storage.image.timeout-ms:3000}")
+    private long imageTimeoutMillis;
+
+    public Function<String, String> resolver(ImageMode imageMode) {
+        if (imageMode == ImageMode.SIGNED_URL) {
+            return this::signUrl;
+        }
+        return parser::downloadAndEncodeImage;
+    }
+
+    // 여러 이미지를 이미지 전용 풀에서 동시에 변환해 두고, 조회용 함수를 돌려준다.
+    // 전체 지연 시간은 이미지 수의 합이 아니라 가장 느린 이미지 하나에 맞춰진다.
+    // 제한 시간을 넘기거나 실패하거나 풀이 가득 차 거절된 이미지는 대체 이미지로 채운다.
+    public Function<String, String> resolveAll(Collection<String> imageUrls, ImageMode imageMode) {
+        Function<String, String> resolver = resolver(imageMode);
+        Map<String, CompletableFuture<String>> pending = new HashMap<>();
+
+        for (String imageUrl : new LinkedHashSet<>(imageUrls)) {
+            CompletableFuture<String> image;
+            try {
+                image = CompletableFuture
+                        .supplyAsync(() -> resolver.apply(imageUrl), imageDownloadExecutor)
+                        .orTimeout(imageTimeoutMillis, TimeUnit.MILLISECONDS)
+                        .exceptionally(e -> placeholder(imageUrl, imageMode, e));
+            } catch (RejectedExecutionException e) {
+                // 풀과 큐가 모두 찼으면 요청 스레드에서 내려받지 않고 바로 대체 이미지로 채운다.
+                image = CompletableFuture.completedFuture(placeholder(imageUrl, imageMode, e));
+            }
+            pending.put(imageUrl, image);
+        }
+
+        Map<String, String> resolved = new HashMap<>();
+        pending.forEach((imageUrl, image) -> resolved.put(imageUrl, image.join()));
+
+        return imageUrl -> resolved.containsKey(imageUrl)
+                ? resolved.get(imageUrl)
+                : resolver.apply(imageUrl);
+    }
+
+    // 스태프/프로필 이미지는 OAuth 제공자 주소나 base64 문자열일 수 있다. GCS 오브젝트가 아니면 서명하지 않고 그대로 둔다.
+    public String signUrl(String imageUrl) {
+        if (!Parser.isStorageUrl(imageUrl)) {
+            return imageUrl;
+        }
+
+        return storage.signUrl(
+                BlobInfo.newBuilder(Parser.parseBlobId(imageUrl)).build(),
+                signedUrlTtlSeconds,
+                TimeUnit.SECONDS,
+                Storage.SignUrlOption.withV4Signature()
+        ).toString();
+    }
+
+    private String placeholder(String imageUrl, ImageMode imageMode, Throwable cause) {
+        log.warn("이미지 변환 실패, 대체 이미지 사용 = {} ({})", imageUrl, cause.toString());
+
+        if (imageMode == ImageMode.SIGNED_URL) {
+            return Avatar.DEFAULT_IMAGE;
+        }
+        return PLACEHOLDER_BASE64;
+    }
+}
@@ -2,18 +2,43 @@ package com.alal.backend.utils;
 
 import com.alal.backend.advice.error.DefaultException;
 import com.alal.backend.advice.payload.ErrorCode;
+import com.alal.backend.utils.cache.EncodedImageCache;
+import com.alal.backend.utils.cache.ImageDiskCache;
+import com.alal.backend.utils.cache.ObjectGenerationCache;
+import com.google.cloud.storage.Blob;
+import com.google.cloud.storage.BlobId;
 import com.google.cloud.storage.BlobInfo;
+import com.google.cloud.storage.Storage;
+import com.google.cloud.storage.StorageException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.net.URL;
+import java.net.URLDecoder;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.util.Base64;
+import java.util.regex.Pattern;
 
+@Slf4j
 @Service
+@RequiredArgsConstructor
 public class Parser {
+    private static final String STORAGE_HOST = "https://storage.googleapis.com/";
+
+    // GoogleService 가 올린 파일은 이름이 내용의 SHA-256({폴더}/{hash})이므로 같은 이름의 내용이 바뀌지 않는다.
+    private static final Pattern CONTENT_ADDRESSED_NAME = Pattern.compile("[A-Za-z]+/[0-9a-f]{64}");
+
+    private final ImageDiskCache imageDiskCache;
+    private final EncodedImageCache encodedImageCache;
+    private final ImageHttpClient imageHttpClient;
+    private final Storage storage;
+    private final ObjectGenerationCache objectGenerationCache;
+
+    // 여러 사용자가 같은 프로젝트를 동시에 열어도 같은 이미지는 한 번만 내려받는다.
+    private final SingleFlight<String, String> imageFlights = new SingleFlight<>();
+
     public String parseBlobInfo(BlobInfo blobInfo) {
         String[] splitName = blobInfo.getName().split(" ");
         StringBuilder encodedName = new StringBuilder();
@@ -25,28 +50,108 @@ public class Parser {
 
         encodedName.setLength(encodedName.length() - 3);
 
-        return String.format("https://storage.googleapis.com/%s/%s", blobInfo.getBucket(), encodedName.toString());
+        return String.format(STORAGE_HOST + "%s/%s", blobInfo.getBucket(), encodedName.toString());
+    }
+
+    // https://storage.googleapis.com/{bucket}/{object} 형태의 주소를 BlobId로 되돌린다.
+    public static BlobId parseBlobId(String uploadUrl) {
+        String path = uploadUrl.substring(STORAGE_HOST.length());
+        int slash = path.indexOf('/');
+
+        return BlobId.of(path.substring(0, slash), URLDecoder.decode(path.substring(slash + 1), StandardCharsets.UTF_8));
+    }
+
+    public static boolean isStorageUrl(String url) {
+        return url != null && url.startsWith(STORAGE_HOST) && url.indexOf('/', STORAGE_HOST.length()) > STORAGE_HOST.length();
+    }
+
+    // 이름이 내용의 해시인 스토리지 오브젝트. 같은 주소의 내용이 바뀌지 않는다.
+    public static boolean isContentAddressed(String url) {
+        return isStorageUrl(url) && CONTENT_ADDRESSED_NAME.matcher(parseBlobId(url).getName()).matches();
+    }
+
+    // parseBlobInfo 가 인코딩한 주소에서 오브젝트 이름(Poster/<hash>)을 되돌린다.
+    public static String parseObjectName(String bucketName, String uploadUrl) {
+        String encodedName = uploadUrl.substring(uploadUrl.indexOf(bucketName) + bucketName.length() + 1);
+        return URLDecoder.decode(encodedName, StandardCharsets.UTF_8);
     }
 
     public static String encodeImageToBase64(byte[] imageBytes) {
         return Base64.getEncoder().encodeToString(imageBytes);
     }
 
-    public static String downloadAndEncodeImage(String imageUrl) {
+    // 메모리/디스크 캐시는 (URL, generation) 으로 찾는다. 스토리지 밖의 주소(OAuth 프로필 등)는
+    // 내용이 바뀌어도 알 방법이 없으므로 캐시하지 않고 매번 내려받는다. (동시 요청만 하나로 합친다)
+    public String downloadAndEncodeImage(String imageUrl) {
+        if (imageUrl == null) {
+            throw new DefaultException(ErrorCode.INVALID_URL);
+        }
+        if (!isStorageUrl(imageUrl)) {
+            return imageFlights.execute(imageUrl, this::downloadAndEncode);
+        }
+
+        String cacheKey = cacheKey(imageUrl);
+        if (cacheKey == null) {
+            return imageFlights.execute(imageUrl, this::downloadAndEncode);
+        }
+        return encodedImageCache.getOrCompute(cacheKey,
+                key -> imageFlights.execute(key, ignored -> downloadAndEncode(imageUrl, cacheKey)));
+    }
+
+    // 같은 이름의 오브젝트가 지워지면 캐시된 이미지를 버린다.
+    // generation 으로 찾는 항목은 다시 쓰이면 키가 바뀌므로 따로 버리지 않아도 되고, 쓰이지 않다가 밀려난다.
+    public void evictImage(String imageUrl) {
+        encodedImageCache.invalidate(imageUrl);
+        imageDiskCache.invalidate(imageUrl);
+        objectGenerationCache.invalidate(imageUrl);
+    }
+
+    // 내용 주소 이름은 generation 이 바뀌어도 내용이 같으므로 URL 을 그대로 키로 쓴다.
+    // 나머지(Flask 결과처럼 같은 이름에 덮어쓰는 파일, 기본 이미지)는 generation 을 키에 붙인다.
+    // generation 은 ObjectGenerationCache 에 잠깐 기억해 두고, 모를 때만 메타데이터를 읽는다.
+    // 메타데이터를 읽지 못하면 마지막으로 본 generation 을 쓰고, 본 적도 없으면 null (캐시 없이 내려받는다)
+    String cacheKey(String imageUrl) {
+        if (isContentAddressed(imageUrl)) {
+            return imageUrl;
+        }
+
+        Long generation = objectGenerationCache.get(imageUrl);
+        if (generation == null) {
+            generation = currentGeneration(imageUrl);
+        }
+        return generation == null ? null : imageUrl + "#" + generation;
+    }
+
+    private Long currentGeneration(String imageUrl) {
+        Blob blob;
         try {
-            byte[] imageBytes = downloadImage(imageUrl);
-            return encodeImageToBase64(imageBytes);
+            blob = storage.get(parseBlobId(imageUrl), Storage.BlobGetOption.fields(Storage.BlobField.GENERATION));
+        } catch (StorageException e) {
+            log.warn("이미지 generation 을 읽지 못했습니다. 마지막으로 본 값을 씁니다. {} ({})", imageUrl, e.getMessage());
+            return objectGenerationCache.getLastKnown(imageUrl);
+        }
+        if (blob == null) {
+            throw new DefaultException(ErrorCode.INVALID_URL, "이미지를 찾을 수 없습니다. " + imageUrl);
+        }
+
+        objectGenerationCache.put(imageUrl, blob.getGeneration());
+        return blob.getGeneration();
+    }
+
+    private String downloadAndEncode(String imageUrl) {
+        try {
+            return encodeImageToBase64(imageHttpClient.download(imageUrl));
         } catch (IOException e) {
             throw new DefaultException(ErrorCode.INVALID_CHECK);
         }
     }
 
-    private static byte[] downloadImage(String imageUrl) throws IOException {
-        URL url = new URL(imageUrl);
-        InputStream inputStream = url.openStream();
-        byte[] imageBytes = inputStream.readAllBytes();
-        inputStream.close();
-
-        return imageBytes;
+    private String downloadAndEncode(String imageUrl, String cacheKey) {
+        try {
+            byte[] imageBytes = imageDiskCache.getOrLoad(cacheKey, key -> imageHttpClient.download(imageUrl));
+            return encodeImageToBase64(imageBytes);
+        } catch (IOException e) {
+            throw new DefaultException(ErrorCode.INVALID_CHECK);
+        }
     }
 }
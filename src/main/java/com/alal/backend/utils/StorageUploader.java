@@ -0,0 +1,173 @@
+package com.alal.backend.utils;
+
+import com.alal.backend.advice.error.DefaultException;
+import com.alal.backend.advice.payload.ErrorCode;
+import com.google.cloud.WriteChannel;
+import com.google.cloud.storage.BlobInfo;
+import com.google.cloud.storage.Storage;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.zip.CRC32C;
+
+// base64 문자열을 통째로 byte[]로 디코딩하지 않고, 청크 단위로 디코딩하여 GCS resumable upload 채널로 흘려보낸다.
+// 요청당 추가 힙 사용량은 파일 크기와 무관하게 CHUNK_SIZE + BUFFER_SIZE 로 제한된다.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StorageUploader {
+    // GCS resumable upload 청크는 256KB의 배수여야 한다.
+    static final int CHUNK_SIZE = 1024 * 1024;
+    static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Storage storage;
+
+    public static ContentSource base64(String base64) {
+        return () -> Base64.getDecoder().wrap(new AsciiInputStream(base64));
+    }
+
+    // multipart 파일은 Tomcat이 임시 파일로 받아 두므로 여러 번 열어 읽을 수 있다.
+    public static ContentSource multipart(MultipartFile file) {
+        return file::getInputStream;
+    }
+
+    // 업로드와 마찬가지로 청크 단위로 읽으며 SHA-256(이름)과 CRC32C(업로드 검증)를 함께 계산한다.
+    public Digest digest(ContentSource source) {
+        MessageDigest sha256 = sha256();
+        CRC32C crc32c = new CRC32C();
+
+        try (InputStream in = source.open()) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                sha256.update(buffer, 0, read);
+                crc32c.update(buffer, 0, read);
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            throw new DefaultException(ErrorCode.UPLOAD_FAILED, e.getMessage());
+        }
+
+        return new Digest(String.format("%064x", new BigInteger(1, sha256.digest())), encodeCrc32c(crc32c));
+    }
+
+    // GCS 는 CRC32C 를 big-endian 4바이트의 base64 로 받는다.
+    static String encodeCrc32c(CRC32C crc32c) {
+        return Base64.getEncoder().encodeToString(ByteBuffer.allocate(4).putInt((int) crc32c.getValue()).array());
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // 세션을 열 때 내용 전체의 CRC32C 를 함께 보내고 crc32cMatch 로 마무리 시점에 검증하게 한다.
+    // 실패하면 채널을 그대로 닫아 세션과 청크 버퍼를 바로 놓는다. 잘린 내용은 체크섬이 맞지 않아
+    // GCS 가 마무리를 거절하므로 최종 이름의 객체로 남지 않는다.
+    public BlobInfo upload(BlobInfo blobInfo, ContentSource source) {
+        if (blobInfo.getCrc32c() == null) {
+            throw new IllegalArgumentException("업로드할 내용의 CRC32C 가 필요합니다. = " + blobInfo.getName());
+        }
+
+        WriteChannel writer = null;
+        boolean completed = false;
+        try (InputStream in = source.open()) {
+            writer = storage.writer(blobInfo, Storage.BlobWriteOption.crc32cMatch());
+            writer.setChunkSize(CHUNK_SIZE);
+            transfer(in, writer);
+            writer.close();
+            completed = true;
+        } catch (IOException | IllegalArgumentException e) {
+            throw new DefaultException(ErrorCode.UPLOAD_FAILED, e.getMessage());
+        } finally {
+            if (!completed) {
+                release(writer, blobInfo);
+            }
+        }
+
+        return blobInfo;
+    }
+
+    // 마무리가 체크섬 불일치로 거절되는 것이 정상이므로 close 에서 나는 예외는 원래 실패를 가리지 않게 삼킨다.
+    private void release(WriteChannel writer, BlobInfo blobInfo) {
+        if (writer == null || !writer.isOpen()) {
+            return;
+        }
+        try {
+            writer.close();
+        } catch (IOException | RuntimeException e) {
+            log.debug("실패한 업로드 세션 정리 = {}", blobInfo.getName(), e);
+        }
+    }
+
+    private void transfer(InputStream in, WriteChannel writer) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        ByteBuffer byteBuffer = ByteBuffer.wrap(buffer);
+        int read;
+
+        while ((read = in.read(buffer)) != -1) {
+            byteBuffer.clear().limit(read);
+            while (byteBuffer.hasRemaining()) {
+                writer.write(byteBuffer);
+            }
+        }
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class Digest {
+        private final String sha256;
+        private final String crc32c;
+    }
+
+    @FunctionalInterface
+    public interface ContentSource {
+        InputStream open() throws IOException;
+    }
+
+    // base64 문자열은 ASCII 이므로 문자 하나를 바이트 하나로 그대로 읽는다. (String.getBytes() 복사 방지)
+    private static class AsciiInputStream extends InputStream {
+        private final CharSequence source;
+        private int position;
+
+        AsciiInputStream(CharSequence source) {
+            this.source = source;
+        }
+
+        @Override
+        public int read() {
+            if (position >= source.length()) {
+                return -1;
+            }
+            return source.charAt(position++) & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) {
+                return 0;
+            }
+            int remaining = source.length() - position;
+            if (remaining <= 0) {
+                return -1;
+            }
+            int count = Math.min(len, remaining);
+            for (int i = 0; i < count; i++) {
+                b[off + i] = (byte) source.charAt(position++);
+            }
+            return count;
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package com.alal.backend.utils.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+// base64 인코딩이 끝난 이미지 문자열을 메모리에 보관하는 캐시. 문자열 크기(바이트)로 예산을 관리한다.
+// W-TinyLFU 방식: 새 항목은 작은 window LRU에 먼저 들어가고, window에서 밀려난 항목은
+// 빈도 스케치 기준으로 main 영역의 희생 후보보다 자주 쓰였을 때만 입장한다.
+// 덕분에 한 번씩만 읽히는 이미지가 몰려도 자주 보는 프로젝트 포스터가 밀려나지 않는다.
+// 키는 Parser.cacheKey 가 만든 (URL, generation) 이다. 같은 이름에 다시 쓰면 키가 바뀌므로 이전 값을 돌려주지 않는다.
+@Component
+public class EncodedImageCache {
+    private static final double WINDOW_RATIO = 0.01;
+    private static final int ENTRY_OVERHEAD = 64;
+
+    private final long windowBudget;
+    private final long mainBudget;
+
+    private final LinkedHashMap<String, String> window = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<String, String> main = new LinkedHashMap<>(16, 0.75f, true);
+    private long windowWeight;
+    private long mainWeight;
+
+    private final FrequencySketch sketch = new FrequencySketch(4096);
+
+    // 읽어 오는 중에 무효화된 키는 읽어 온 (이전) 값을 넣지 않는다.
+    // 두 맵 모두 읽어 오는 중인 키만 들고 있으므로 동시 로드 수 이상 커지지 않는다.
+    private final Map<String, Integer> loading = new HashMap<>();
+    private final Map<String, Long> invalidatedAt = new HashMap<>();
+    private long clock;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong rejections = new AtomicLong();
+
+    public EncodedImageCache(@Value("${storage.cache.memory.max-size:67108864}") long maxBytes,
+                             MeterRegistry meterRegistry) {
+        this.windowBudget = Math.max(1, (long) (maxBytes * WINDOW_RATIO));
+        this.mainBudget = maxBytes - windowBudget;
+
+        FunctionCounter.builder("image.memory.cache.hits", hits, AtomicLong::get).register(meterRegistry);
+        FunctionCounter.builder("image.memory.cache.misses", misses, AtomicLong::get).register(meterRegistry);
+        FunctionCounter.builder("image.memory.cache.evictions", evictions, AtomicLong::get).register(meterRegistry);
+        FunctionCounter.builder("image.memory.cache.rejections", rejections, AtomicLong::get).register(meterRegistry);
+        Gauge.builder("image.memory.cache.size", this, EncodedImageCache::size).baseUnit("bytes").register(meterRegistry);
+    }
+
+    public String getOrCompute(String key, Function<String, String> loader) {
+        String cached = get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        long startedAt = startLoading(key);
+        String loaded = null;
+        try {
+            loaded = loader.apply(key);
+            return loaded;
+        } finally {
+            finishLoading(key, startedAt, loaded);
+        }
+    }
+
+    public synchronized void invalidate(String key) {
+        remove(key);
+        if (loading.containsKey(key)) {
+            invalidatedAt.put(key, ++clock);
+        }
+    }
+
+    public synchronized long size() {
+        return windowWeight + mainWeight;
+    }
+
+    private synchronized long startLoading(String key) {
+        loading.merge(key, 1, Integer::sum);
+        return clock;
+    }
+
+    private synchronized void finishLoading(String key, long startedAt, String loaded) {
+        if (loaded != null && invalidatedAt.getOrDefault(key, Long.MIN_VALUE) <= startedAt) {
+            put(key, loaded);
+        }
+        if (loading.merge(key, -1, Integer::sum) == 0) {
+            loading.remove(key);
+            invalidatedAt.remove(key);
+        }
+    }
+
+    private synchronized String get(String key) {
+        sketch.increment(key);
+
+        String value = window.get(key);
+        if (value == null) {
+            value = main.get(key);
+        }
+
+        if (value == null) {
+            misses.incrementAndGet();
+        } else {
+            hits.incrementAndGet();
+        }
+        return value;
+    }
+
+    private synchronized void put(String key, String value) {
+        long weight = weigh(value);
+        if (weight > mainBudget || window.containsKey(key) || main.containsKey(key)) {
+            return;
+        }
+
+        window.put(key, value);
+        windowWeight += weight;
+
+        Iterator<Map.Entry<String, String>> iterator = window.entrySet().iterator();
+        while (windowWeight > windowBudget && iterator.hasNext()) {
+            Map.Entry<String, String> candidate = iterator.next();
+            iterator.remove();
+            windowWeight -= weigh(candidate.getValue());
+            admit(candidate.getKey(), candidate.getValue());
+        }
+    }
+
+    // window에서 밀려난 후보를 main에 넣을지 결정한다. 공간이 모자라면 main의 LRU 희생 후보와 빈도를 비교한다.
+    // 자리를 만드는 데 필요한 희생 후보를 먼저 모두 고르고, 후보가 그 전부보다 자주 쓰였을 때만 한꺼번에 내보낸다.
+    // (중간에 거절되면 아무것도 내보내지 않는다)
+    private void admit(String key, String value) {
+        long weight = weigh(value);
+        int candidateFrequency = sketch.frequency(key);
+
+        List<String> victims = new ArrayList<>();
+        long freed = 0;
+        Iterator<Map.Entry<String, String>> iterator = main.entrySet().iterator();
+        while (mainWeight - freed + weight > mainBudget && iterator.hasNext()) {
+            Map.Entry<String, String> victim = iterator.next();
+            if (candidateFrequency <= sketch.frequency(victim.getKey())) {
+                rejections.incrementAndGet();
+                return;
+            }
+            victims.add(victim.getKey());
+            freed += weigh(victim.getValue());
+        }
+
+        for (String victim : victims) {
+            main.remove(victim);
+            evictions.incrementAndGet();
+        }
+        mainWeight -= freed;
+
+        main.put(key, value);
+        mainWeight += weight;
+    }
+
+    private void remove(String key) {
+        String removed = window.remove(key);
+        if (removed != null) {
+            windowWeight -= weigh(removed);
+        }
+
+        removed = main.remove(key);
+        if (removed != null) {
+            mainWeight -= weigh(removed);
+        }
+    }
+
+    // base64 문자열은 LATIN1로 압축 저장되므로 글자 수가 곧 바이트 수다.
+    private static long weigh(String value) {
+        return value.length() + ENTRY_OVERHEAD;
+    }
+
+    // 4비트 count-min 스케치. long 하나에 카운터 16개를 담고 각 카운터는 15에서 멈춘다.
+    // 일정 횟수마다 모든 카운터를 절반으로 줄여 오래된 인기도를 잊는다.
+    static class FrequencySketch {
+        private static final int[] SEEDS = {0x9E3779B9, 0x85EBCA6B, 0xC2B2AE35, 0x27D4EB2F};
+        private static final int MAX_COUNT = 15;
+        private static final int COUNTERS_PER_WORD = 16;
+        // 각 4비트 카운터를 한 칸 오른쪽으로 민 뒤 옆 카운터에서 넘어온 최상위 비트를 지운다.
+        private static final long HALVE_MASK = 0x7777777777777777L;
+
+        private final long[][] table;
+        private final int mask;
+        private final int sampleSize;
+        private int additions;
+
+        // width 는 16 이상인 2의 거듭제곱이어야 한다.
+        FrequencySketch(int width) {
+            this.table = new long[SEEDS.length][width / COUNTERS_PER_WORD];
+            this.mask = width - 1;
+            this.sampleSize = width * 10;
+        }
+
+        void increment(String key) {
+            int hash = key.hashCode();
+            for (int row = 0; row < SEEDS.length; row++) {
+                int index = indexOf(hash, row);
+                if (count(row, index) < MAX_COUNT) {
+                    table[row][index >>> 4] += 1L << shiftOf(index);
+                }
+            }
+
+            if (++additions >= sampleSize) {
+                reset();
+            }
+        }
+
+        int frequency(String key) {
+            int hash = key.hashCode();
+            int frequency = MAX_COUNT;
+            for (int row = 0; row < SEEDS.length; row++) {
+                frequency = Math.min(frequency, count(row, indexOf(hash, row)));
+            }
+            return frequency;
+        }
+
+        private int count(int row, int index) {
+            return (int) ((table[row][index >>> 4] >>> shiftOf(index)) & MAX_COUNT);
+        }
+
+        private static int shiftOf(int index) {
+            return (index & (COUNTERS_PER_WORD - 1)) << 2;
+        }
+
+        private int indexOf(int hash, int row) {
+            int spread = (hash ^ SEEDS[row]) * SEEDS[row];
+            spread ^= spread >>> 16;
+            return spread & mask;
+        }
+
+        private void reset() {
+            for (long[] words : table) {
+                for (int i = 0; i < words.length; i++) {
+                    words[i] = (words[i] >>> 1) & HALVE_MASK;
+                }
+            }
+            additions /= 2;
+        }
+    }
+}
@@ -0,0 +1,256 @@
+package com.alal.backend.utils.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// 구글 스토리지에서 내려받은 이미지를 로컬 디스크에 보관하는 LRU 캐시.
+// 파일 이름은 URL의 SHA-256이며, 재시작 시 디렉토리를 다시 읽어 수정 시각 순으로 LRU 순서를 복원한다.
+// 조회할 때마다 수정 시각을 바꾸지 않고, 종료할 때 한 번 LRU 순서대로 기록한다.
+@Slf4j
+@Component
+public class ImageDiskCache {
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final Path directory;
+    private final long maxBytes;
+
+    // access-order LinkedHashMap: 가장 오래 쓰이지 않은 항목이 맨 앞에 온다. (파일 이름 -> 크기)
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long currentBytes;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public ImageDiskCache(@Value("${storage.cache.disk.path:${java.io.tmpdir}/alal-image-cache}") String directory,
+                          @Value("${storage.cache.disk.max-size:536870912}") long maxBytes,
+                          MeterRegistry meterRegistry) {
+        this.directory = Paths.get(directory);
+        this.maxBytes = maxBytes;
+
+        FunctionCounter.builder("image.disk.cache.hits", hits, AtomicLong::get).register(meterRegistry);
+        FunctionCounter.builder("image.disk.cache.misses", misses, AtomicLong::get).register(meterRegistry);
+        FunctionCounter.builder("image.disk.cache.evictions", evictions, AtomicLong::get).register(meterRegistry);
+        Gauge.builder("image.disk.cache.size", this, ImageDiskCache::size).baseUnit("bytes").register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void loadIndex() throws IOException {
+        Files.createDirectories(directory);
+
+        List<Path> files;
+        try (Stream<Path> stream = Files.list(directory)) {
+            files = stream.collect(Collectors.toList());
+        }
+
+        List<Path> cached = files.stream()
+                .filter(file -> !isTempFile(file))
+                .sorted(Comparator.comparing(ImageDiskCache::lastModified))
+                .collect(Collectors.toList());
+
+        List<String> evicted;
+        synchronized (this) {
+            for (Path file : cached) {
+                long fileSize = Files.size(file);
+                entries.put(file.getFileName().toString(), fileSize);
+                currentBytes += fileSize;
+            }
+            evicted = evictIfNecessary();
+        }
+        deleteFiles(evicted);
+
+        // 쓰기 도중 종료되어 남은 임시 파일 정리
+        for (Path file : files) {
+            if (isTempFile(file)) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    public byte[] getOrLoad(String url, ImageLoader loader) throws IOException {
+        byte[] cached = get(url);
+        if (cached != null) {
+            return cached;
+        }
+
+        byte[] loaded = loader.load(url);
+        put(url, loaded);
+        return loaded;
+    }
+
+    // Base64 인코더는 힙 배열을 받으므로 mmap 없이 바로 힙으로 읽는다.
+    public byte[] get(String url) {
+        String key = keyOf(url);
+        synchronized (this) {
+            if (entries.get(key) == null) {
+                misses.incrementAndGet();
+                return null;
+            }
+        }
+
+        try {
+            byte[] bytes = Files.readAllBytes(directory.resolve(key));
+            hits.incrementAndGet();
+            return bytes;
+        } catch (IOException e) {
+            // 다른 스레드가 방금 축출했거나 외부에서 파일이 지워진 경우
+            remove(key);
+            misses.incrementAndGet();
+            return null;
+        }
+    }
+
+    public void put(String url, byte[] bytes) {
+        if (bytes.length > maxBytes) {
+            return;
+        }
+
+        String key = keyOf(url);
+        Path temp = null;
+        try {
+            temp = Files.createTempFile(directory, key, TEMP_SUFFIX);
+            Files.write(temp, bytes);
+            Files.move(temp, directory.resolve(key), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            log.warn("이미지 디스크 캐시 쓰기 실패 = {}", url, e);
+            deleteQuietly(temp);
+            return;
+        }
+
+        List<String> evicted;
+        synchronized (this) {
+            Long previous = entries.put(key, (long) bytes.length);
+            currentBytes += bytes.length - (previous == null ? 0 : previous);
+            evicted = evictIfNecessary();
+        }
+        deleteFiles(evicted);
+    }
+
+    // 다음 시작 때 LRU 순서를 복원할 수 있도록, 오래 쓰이지 않은 파일부터 1ms 간격으로 수정 시각을 기록한다.
+    @PreDestroy
+    public void saveOrder() {
+        List<String> keys;
+        synchronized (this) {
+            keys = new ArrayList<>(entries.keySet());
+        }
+
+        long time = System.currentTimeMillis() - keys.size();
+        for (String key : keys) {
+            try {
+                Files.setLastModifiedTime(directory.resolve(key), FileTime.fromMillis(time++));
+            } catch (IOException e) {
+                log.debug("이미지 디스크 캐시 순서 기록 실패 = {}", key, e);
+            }
+        }
+    }
+
+    public void invalidate(String url) {
+        String key = keyOf(url);
+        remove(key);
+        deleteQuietly(directory.resolve(key));
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    public synchronized long size() {
+        return currentBytes;
+    }
+
+    private synchronized void remove(String key) {
+        Long removed = entries.remove(key);
+        if (removed != null) {
+            currentBytes -= removed;
+        }
+    }
+
+    // synchronized 블록 안에서만 호출한다. 파일 삭제는 락을 놓은 뒤 deleteFiles 로 한다.
+    // 그 사이 같은 키가 다시 쓰여 파일이 지워지더라도 get 에서 읽기 실패로 처리되어 항목이 빠진다.
+    private List<String> evictIfNecessary() {
+        List<String> evicted = new ArrayList<>();
+        Iterator<Map.Entry<String, Long>> iterator = entries.entrySet().iterator();
+        while (currentBytes > maxBytes && iterator.hasNext()) {
+            Map.Entry<String, Long> eldest = iterator.next();
+            iterator.remove();
+            currentBytes -= eldest.getValue();
+            evicted.add(eldest.getKey());
+            evictions.incrementAndGet();
+        }
+        return evicted;
+    }
+
+    private void deleteFiles(List<String> keys) {
+        for (String key : keys) {
+            deleteQuietly(directory.resolve(key));
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("이미지 디스크 캐시 삭제 실패 = {}", file, e);
+        }
+    }
+
+    private static boolean isTempFile(Path file) {
+        return file.getFileName().toString().endsWith(TEMP_SUFFIX);
+    }
+
+    private static FileTime lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    private static String keyOf(String url) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return String.format("%064x", new BigInteger(1, digest.digest(url.getBytes(StandardCharsets.UTF_8))));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @FunctionalInterface
+    public interface ImageLoader {
+        byte[] load(String url) throws IOException;
+    }
+}
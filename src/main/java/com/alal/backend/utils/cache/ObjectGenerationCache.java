@@ -0,0 +1,96 @@
+package com.alal.backend.utils.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+// 이름이 고정된 스토리지 오브젝트(Flask 결과, 기본 이미지)의 generation 을 잠깐 기억한다.
+// Parser 는 이미지 캐시 키에 generation 을 붙이는데, 매번 메타데이터를 읽으면 캐시 적중에도 GCS 왕복이 한 번씩 든다.
+// TTL 동안은 기억한 값을 쓰므로, 같은 이름에 다시 쓴 파일은 최대 TTL 만큼 늦게 보인다.
+// TTL 이 지난 값도 지우지 않고 두어, 메타데이터 조회가 실패했을 때 마지막으로 본 generation 으로 쓸 수 있게 한다.
+@Component
+public class ObjectGenerationCache {
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final LongSupplier nanoClock;
+
+    // access-order: 가장 오래 쓰이지 않은 주소가 맨 앞에 온다.
+    private final LinkedHashMap<String, KnownGeneration> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    @Autowired
+    public ObjectGenerationCache(@Value("${storage.cache.generation.max-entries:10000}") int maxEntries,
+                                 @Value("${storage.cache.generation.ttl-ms:30000}") long ttlMillis,
+                                 MeterRegistry meterRegistry) {
+        this(maxEntries, ttlMillis, System::nanoTime);
+
+        FunctionCounter.builder("storage.cache.generation.hits", hits, AtomicLong::get)
+                .description("메타데이터를 읽지 않고 기억한 generation 을 쓴 횟수")
+                .register(meterRegistry);
+        FunctionCounter.builder("storage.cache.generation.misses", misses, AtomicLong::get).register(meterRegistry);
+        Gauge.builder("storage.cache.generation.size", this, ObjectGenerationCache::size).register(meterRegistry);
+    }
+
+    ObjectGenerationCache(int maxEntries, long ttlMillis, LongSupplier nanoClock) {
+        this.maxEntries = maxEntries;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.nanoClock = nanoClock;
+    }
+
+    // TTL 안에 본 generation. 없거나 지났으면 null
+    public synchronized Long get(String url) {
+        KnownGeneration known = entries.get(url);
+        if (known == null || known.expiresAt - nanoClock.getAsLong() <= 0) {
+            misses.incrementAndGet();
+            return null;
+        }
+
+        hits.incrementAndGet();
+        return known.generation;
+    }
+
+    // TTL 과 상관없이 마지막으로 본 generation. 본 적이 없으면 null
+    public synchronized Long getLastKnown(String url) {
+        KnownGeneration known = entries.get(url);
+        return known == null ? null : known.generation;
+    }
+
+    public synchronized void put(String url, long generation) {
+        entries.put(url, new KnownGeneration(generation, nanoClock.getAsLong() + ttlNanos));
+
+        Iterator<KnownGeneration> iterator = entries.values().iterator();
+        while (entries.size() > maxEntries && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    public synchronized void invalidate(String url) {
+        entries.remove(url);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private static final class KnownGeneration {
+        private final long generation;
+        private final long expiresAt;
+
+        private KnownGeneration(long generation, long expiresAt) {
+            this.generation = generation;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.alal.backend.utils.cache;
+
+import com.alal.backend.domain.dto.response.FlaskResponse;
+import com.alal.backend.payload.request.user.FlaskVoiceRequest;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+// 같은 음성 파일을 같은 모델/성별로 다시 변환하는 요청에 GPU 서버를 거치지 않고 이전 결과를 돌려준다.
+// 키는 사용자 + 입력 음성 내용의 지문(GCS 오브젝트의 MD5 또는 generation) + 모델 이름 + 성별이며,
+// 같은 주소에 다른 파일을 덮어써도 이전 결과가 나가지 않는다. TTL과 최대 항목 수(LRU)로 크기를 제한한다.
+// 모델을 다시 학습시키면 invalidateModel 로 해당 모델의 결과만 비운다.
+@Component
+public class VoiceConversionCache {
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final LongSupplier nanoClock;
+
+    // access-order: 가장 오래 쓰이지 않은 결과가 맨 앞에 온다.
+    private final LinkedHashMap<VoiceKey, CachedVoice> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    @Autowired
+    public VoiceConversionCache(@Value("${ai.voice.cache.max-entries:10000}") int maxEntries,
+                                @Value("${ai.voice.cache.ttl-seconds:86400}") long ttlSeconds,
+                                MeterRegistry meterRegistry) {
+        this(maxEntries, ttlSeconds, System::nanoTime);
+
+        FunctionCounter.builder("ai.voice.cache.hits", hits, AtomicLong::get).register(meterRegistry);
+        FunctionCounter.builder("ai.voice.cache.misses", misses, AtomicLong::get).register(meterRegistry);
+        FunctionCounter.builder("ai.voice.cache.evictions", evictions, AtomicLong::get).register(meterRegistry);
+        // 캐시 적중 한 번이 곧 아낀 Flask 호출 한 번이다.
+        FunctionCounter.builder("ai.voice.cache.flask.calls.saved", hits, AtomicLong::get).register(meterRegistry);
+        Gauge.builder("ai.voice.cache.hit.ratio", this, VoiceConversionCache::hitRatio).register(meterRegistry);
+        Gauge.builder("ai.voice.cache.size", this, VoiceConversionCache::size).register(meterRegistry);
+    }
+
+    VoiceConversionCache(int maxEntries, long ttlSeconds, LongSupplier nanoClock) {
+        this.maxEntries = maxEntries;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.nanoClock = nanoClock;
+    }
+
+    public synchronized FlaskResponse get(Long userId, String inputFingerprint, FlaskVoiceRequest flaskRequest) {
+        VoiceKey key = VoiceKey.of(userId, inputFingerprint, flaskRequest);
+        CachedVoice cached = entries.get(key);
+
+        if (cached == null || cached.isExpired(nanoClock.getAsLong())) {
+            if (cached != null) {
+                entries.remove(key);
+            }
+            misses.incrementAndGet();
+            return null;
+        }
+
+        hits.incrementAndGet();
+        return cached.response;
+    }
+
+    public synchronized void put(Long userId, String inputFingerprint, FlaskVoiceRequest flaskRequest,
+                                 FlaskResponse flaskResponse) {
+        entries.put(VoiceKey.of(userId, inputFingerprint, flaskRequest),
+                new CachedVoice(flaskResponse, nanoClock.getAsLong() + ttlNanos));
+
+        Iterator<CachedVoice> iterator = entries.values().iterator();
+        while (entries.size() > maxEntries && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    public synchronized int invalidateModel(String modelName) {
+        int before = entries.size();
+        entries.keySet().removeIf(key -> Objects.equals(key.modelName, modelName));
+        return before - entries.size();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public double hitRatio() {
+        long hitCount = hits.get();
+        long total = hitCount + misses.get();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    private static final class VoiceKey {
+        private final Long userId;
+        private final String inputFingerprint;
+        private final String modelName;
+        private final String gender;
+
+        private VoiceKey(Long userId, String inputFingerprint, String modelName, String gender) {
+            this.userId = userId;
+            this.inputFingerprint = Objects.requireNonNull(inputFingerprint);
+            this.modelName = modelName;
+            this.gender = gender;
+        }
+
+        static VoiceKey of(Long userId, String inputFingerprint, FlaskVoiceRequest flaskRequest) {
+            return new VoiceKey(userId, inputFingerprint, flaskRequest.getModelName(), flaskRequest.getGender());
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof VoiceKey)) {
+                return false;
+            }
+            VoiceKey other = (VoiceKey) o;
+            return Objects.equals(userId, other.userId)
+                    && inputFingerprint.equals(other.inputFingerprint)
+                    && Objects.equals(modelName, other.modelName)
+                    && Objects.equals(gender, other.gender);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(userId, inputFingerprint, modelName, gender);
+        }
+    }
+
+    private static final class CachedVoice {
+        private final FlaskResponse response;
+        private final long expiresAt;
+
+        private CachedVoice(FlaskResponse response, long expiresAt) {
+            this.response = response;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isExpired(long now) {
+            return now - expiresAt >= 0;
+        }
+    }
+}
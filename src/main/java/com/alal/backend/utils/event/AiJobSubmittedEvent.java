@@ -0,0 +1,12 @@
+package com.alal.backend.utils.event;
+
+import lombok.Getter;
+
+@Getter
+public class AiJobSubmittedEvent {
+    private final Long jobId;
+
+    public AiJobSubmittedEvent(Long jobId) {
+        this.jobId = jobId;
+    }
+}
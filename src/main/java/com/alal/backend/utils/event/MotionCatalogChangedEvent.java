@@ -0,0 +1,5 @@
+package com.alal.backend.utils.event;
+
+// 모션 카탈로그(motion 테이블)가 바뀌었음을 알린다. 커밋된 뒤 메모리 색인을 다시 만든다.
+public class MotionCatalogChangedEvent {
+}
@@ -0,0 +1,13 @@
+package com.alal.backend.utils.event;
+
+import lombok.Getter;
+
+// 행이 가리키던 업로드 파일이 다른 파일로 바뀌었다. 커밋된 뒤 이전 파일을 정리 대상으로 넘긴다.
+@Getter
+public class UploadReplacedEvent {
+    private final String uploadUrl;
+
+    public UploadReplacedEvent(String uploadUrl) {
+        this.uploadUrl = uploadUrl;
+    }
+}
@@ -1,22 +1,18 @@
 package com.alal.backend.utils.event;
 
-import com.google.cloud.storage.Storage;
-
+import com.alal.backend.utils.Parser;
+import lombok.Getter;
 
+@Getter
 public class UploadRollBackEvent {
     private final String bucketName;
-    private final String subPath;
+    private final String uploadUrl;
+    private final String objectName;
 
-    public UploadRollBackEvent(String bucketName, String url) {
+    // 주소는 parseBlobInfo 가 인코딩한 형태(Poster%2F<hash>)이므로, 인덱스/스토리지에서 쓰는 이름으로 디코딩해 둔다.
+    public UploadRollBackEvent(String bucketName, String uploadUrl) {
         this.bucketName = bucketName;
-        this.subPath = getObjectName(url);
-    }
-
-    private String getObjectName(String uploadUrl) {
-        return uploadUrl.substring(uploadUrl.indexOf(this.bucketName) + this.bucketName.length() + 1);
-    }
-
-    public void deleteUrl(Storage storage) {
-        storage.delete(this.bucketName, this.subPath);
+        this.uploadUrl = uploadUrl;
+        this.objectName = Parser.parseObjectName(bucketName, uploadUrl);
     }
 }
@@ -0,0 +1,20 @@
+package com.alal.backend.utils.event.listener;
+
+import com.alal.backend.service.job.AiJobWorker;
+import com.alal.backend.utils.event.AiJobSubmittedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+@RequiredArgsConstructor
+public class AiJobEventListener {
+    private final AiJobWorker aiJobWorker;
+
+    // 커밋된 뒤에 큐에 넣어야 워커가 아직 저장되지 않은 작업을 읽는 일이 없다.
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void handleSubmittedEvent(AiJobSubmittedEvent aiJobSubmittedEvent) {
+        aiJobWorker.enqueue(aiJobSubmittedEvent.getJobId());
+    }
+}
@@ -0,0 +1,20 @@
+package com.alal.backend.utils.event.listener;
+
+import com.alal.backend.service.user.MotionCatalog;
+import com.alal.backend.utils.event.MotionCatalogChangedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+@RequiredArgsConstructor
+public class MotionCatalogEventListener {
+    private final MotionCatalog motionCatalog;
+
+    // 트랜잭션 밖에서 발행되어도 바로 갱신한다.
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void handleChangedEvent(MotionCatalogChangedEvent motionCatalogChangedEvent) {
+        motionCatalog.refresh();
+    }
+}
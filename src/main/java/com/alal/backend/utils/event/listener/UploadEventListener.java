@@ -1,7 +1,8 @@
 package com.alal.backend.utils.event.listener;
 
+import com.alal.backend.service.group.GoogleService;
+import com.alal.backend.utils.event.UploadReplacedEvent;
 import com.alal.backend.utils.event.UploadRollBackEvent;
-import com.google.cloud.storage.Storage;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.event.TransactionPhase;
@@ -10,10 +11,17 @@ import org.springframework.transaction.event.TransactionalEventListener;
 @Component
 @RequiredArgsConstructor
 public class UploadEventListener {
-    private final Storage storage;
+    private final GoogleService googleService;
 
+    // 롤백된 트랜잭션이 만든 인덱스는 함께 사라진다. 파일은 아직 등록하지 않은 다른 요청이 쓰고 있을 수 있으므로 나중에 지운다.
     @TransactionalEventListener(phase = TransactionPhase.AFTER_ROLLBACK)
     public void handleUploadEvent(UploadRollBackEvent uploadRollBackEvent) {
-        uploadRollBackEvent.deleteUrl(storage);
+        googleService.deleteLater(uploadRollBackEvent.getObjectName(), uploadRollBackEvent.getUploadUrl());
+    }
+
+    // 다른 행이 중복 제거로 같은 파일을 쓰고 있을 수 있으므로, 지울지는 정리 주기에 참조를 확인해 정한다.
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void handleReplacedEvent(UploadReplacedEvent uploadReplacedEvent) {
+        googleService.releaseLater(uploadReplacedEvent.getUploadUrl());
     }
 }
@@ -0,0 +1,84 @@
+package com.alal.backend.utils.resilience;
+
+import java.util.concurrent.TimeUnit;
+
+// 동시 호출 한도를 응답 결과로 조정하는 AIMD 리미터. (Netflix concurrency-limits 의 AIMDLimit 방식)
+// - 정상 응답이고 한도의 절반 이상을 쓰고 있었다면 한도 +1 (additive increase)
+// - 실패, 타임아웃, slowCall 보다 느린 응답이면 한도 * backoffRatio (multiplicative decrease)
+// 한도를 넘는 호출은 기다리지 않고 바로 거절한다. 기다려야 하는 요청은 작업 큐(/jobs)를 사용한다.
+public class AimdLimiter {
+    // RTT 지수 이동 평균의 가중치
+    private static final double RTT_SMOOTHING = 0.2;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final long slowCallNanos;
+
+    private double limit;
+    private int inflight;
+    private double rttNanos;
+
+    public AimdLimiter(int initialLimit, int minLimit, int maxLimit, double backoffRatio, long slowCallMs) {
+        this.maxLimit = Math.max(1, maxLimit);
+        this.minLimit = Math.max(1, Math.min(minLimit, this.maxLimit));
+        this.limit = Math.max(this.minLimit, Math.min(initialLimit, this.maxLimit));
+        this.backoffRatio = backoffRatio;
+        this.slowCallNanos = TimeUnit.MILLISECONDS.toNanos(slowCallMs);
+    }
+
+    public synchronized boolean tryAcquire() {
+        if (inflight >= (int) limit) {
+            return false;
+        }
+        inflight++;
+        return true;
+    }
+
+    // 결과 없이 끝난 호출(취소, 서킷 브레이커 거절)은 한도 조정에 쓰지 않는다.
+    public synchronized void release() {
+        inflight--;
+    }
+
+    public synchronized void onSample(long rttNanos, boolean dropped) {
+        adjust(rttNanos, dropped);
+        inflight--;
+    }
+
+    // 스트리밍 응답은 전체 길이가 영상 길이에 따라 달라지므로 첫 원소까지의 시간으로 한도를 조정한다.
+    // 자리는 스트림이 끝날 때 release 또는 onDropped 로 따로 반환한다.
+    public synchronized void onFirstResponse(long rttNanos) {
+        adjust(rttNanos, false);
+    }
+
+    // 첫 원소를 받은 뒤에 실패한 스트림. 스트림 전체 시간은 RTT 에 넣지 않고 한도만 줄인다.
+    public synchronized void onDropped() {
+        limit = Math.max(minLimit, limit * backoffRatio);
+        inflight--;
+    }
+
+    private void adjust(long rttNanos, boolean dropped) {
+        this.rttNanos = this.rttNanos == 0 ? rttNanos : this.rttNanos + RTT_SMOOTHING * (rttNanos - this.rttNanos);
+
+        if (dropped || rttNanos > slowCallNanos) {
+            limit = Math.max(minLimit, limit * backoffRatio);
+            return;
+        }
+        // 한도를 거의 쓰지 않는 동안에는 모델 서버의 여유를 알 수 없으므로 늘리지 않는다.
+        if (inflight * 2 >= limit) {
+            limit = Math.min(maxLimit, limit + 1);
+        }
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public synchronized int getInflight() {
+        return inflight;
+    }
+
+    public synchronized double getRttMillis() {
+        return rttNanos / 1_000_000.0;
+    }
+}
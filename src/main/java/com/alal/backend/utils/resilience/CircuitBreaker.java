@@ -0,0 +1,133 @@
+package com.alal.backend.utils.resilience;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+// 최근 N번 호출의 실패 비율로 여닫는 카운트 기반 서킷 브레이커.
+// CLOSED: 모든 호출 허용 -> 실패율이 임계값을 넘으면 OPEN
+// OPEN: 모든 호출 즉시 거절 -> openState 시간이 지나면 HALF_OPEN
+// HALF_OPEN: 정해진 수의 시험 호출만 허용 -> 모두 성공하면 CLOSED, 하나라도 실패하면 다시 OPEN
+public class CircuitBreaker {
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final int failureRateThreshold;
+    private final int minimumNumberOfCalls;
+    private final int permittedCallsInHalfOpenState;
+    private final long openStateNanos;
+    private final LongSupplier nanoClock;
+
+    // 최근 호출 결과 링 버퍼 (true = 실패)
+    private final boolean[] window;
+    private int windowIndex;
+    private int windowCount;
+    private int windowFailures;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int halfOpenCalls;
+    private int halfOpenSuccesses;
+
+    public CircuitBreaker(int failureRateThreshold, int slidingWindowSize, int minimumNumberOfCalls,
+                          long openStateMs, int permittedCallsInHalfOpenState) {
+        this(failureRateThreshold, slidingWindowSize, minimumNumberOfCalls, openStateMs, permittedCallsInHalfOpenState, System::nanoTime);
+    }
+
+    CircuitBreaker(int failureRateThreshold, int slidingWindowSize, int minimumNumberOfCalls,
+                   long openStateMs, int permittedCallsInHalfOpenState, LongSupplier nanoClock) {
+        this.failureRateThreshold = failureRateThreshold;
+        this.window = new boolean[slidingWindowSize];
+        this.minimumNumberOfCalls = Math.min(minimumNumberOfCalls, slidingWindowSize);
+        this.openStateNanos = TimeUnit.MILLISECONDS.toNanos(openStateMs);
+        this.permittedCallsInHalfOpenState = permittedCallsInHalfOpenState;
+        this.nanoClock = nanoClock;
+    }
+
+    public synchronized boolean tryAcquirePermission() {
+        if (state == State.OPEN) {
+            if (nanoClock.getAsLong() - openedAt < openStateNanos) {
+                return false;
+            }
+            transitionTo(State.HALF_OPEN);
+        }
+
+        if (state == State.HALF_OPEN) {
+            if (halfOpenCalls >= permittedCallsInHalfOpenState) {
+                return false;
+            }
+            halfOpenCalls++;
+        }
+        return true;
+    }
+
+    // 결과 없이 끝난 호출(취소, bulkhead 거절)의 시험 호출 자리를 돌려준다.
+    public synchronized void releasePermission() {
+        if (state == State.HALF_OPEN && halfOpenCalls > 0) {
+            halfOpenCalls--;
+        }
+    }
+
+    public synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            halfOpenSuccesses++;
+            if (halfOpenSuccesses >= permittedCallsInHalfOpenState) {
+                transitionTo(State.CLOSED);
+            }
+            return;
+        }
+        if (state == State.CLOSED) {
+            record(false);
+        }
+    }
+
+    public synchronized void onError() {
+        if (state == State.HALF_OPEN) {
+            transitionTo(State.OPEN);
+            return;
+        }
+        if (state == State.CLOSED) {
+            record(true);
+            if (windowCount >= minimumNumberOfCalls && windowFailures * 100 >= failureRateThreshold * windowCount) {
+                transitionTo(State.OPEN);
+            }
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    private void record(boolean failure) {
+        if (windowCount == window.length) {
+            if (window[windowIndex]) {
+                windowFailures--;
+            }
+        } else {
+            windowCount++;
+        }
+
+        window[windowIndex] = failure;
+        if (failure) {
+            windowFailures++;
+        }
+        windowIndex = (windowIndex + 1) % window.length;
+    }
+
+    private void transitionTo(State next) {
+        state = next;
+        halfOpenCalls = 0;
+        halfOpenSuccesses = 0;
+
+        if (next == State.OPEN) {
+            openedAt = nanoClock.getAsLong();
+        }
+        if (next == State.CLOSED) {
+            windowIndex = 0;
+            windowCount = 0;
+            windowFailures = 0;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.alal.backend.utils.resilience;
+
+import com.alal.backend.advice.error.DefaultException;
+import com.alal.backend.advice.payload.ErrorCode;
+import com.alal.backend.config.FlaskPolicyConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.reactivestreams.Publisher;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+// 모든 Flask 호출을 엔드포인트(pose, voice, image)별 타임아웃, 동시 호출 수 제한(AIMD), 서킷 브레이커로 감싼다.
+// 모델 서버가 느리거나 죽어 있을 때 요청이 쌓이지 않고 바로 503으로 실패하게 하여,
+// 나머지 API(/auth, /group 등)까지 함께 멈추는 것을 막는다.
+@Component
+public class FlaskCallPolicy {
+    private final Map<FlaskEndpoint, EndpointGuard> guards = new EnumMap<>(FlaskEndpoint.class);
+
+    public FlaskCallPolicy(FlaskPolicyConfig flaskPolicyConfig, MeterRegistry meterRegistry) {
+        for (FlaskEndpoint endpoint : FlaskEndpoint.values()) {
+            guards.put(endpoint, new EndpointGuard(endpoint, flaskPolicyConfig.endpoint(endpoint),
+                    flaskPolicyConfig.getBreaker(), meterRegistry));
+        }
+    }
+
+    public <T> Mono<T> protect(FlaskEndpoint endpoint, Supplier<Mono<T>> call) {
+        return protectMany(endpoint, call).singleOrEmpty();
+    }
+
+    // 스트리밍 응답용. 타임아웃은 원소 사이의 간격에 적용되고, 서킷 브레이커에는 스트림이 끝나야 성공으로 기록된다.
+    // 동시 호출 한도(AIMD)는 첫 원소까지의 시간으로 조정하고, 자리는 스트림이 끝날 때 반환한다.
+    public <T> Flux<T> protectMany(FlaskEndpoint endpoint, Supplier<? extends Publisher<T>> call) {
+        return Flux.defer(() -> guards.get(endpoint).execute(call));
+    }
+
+    public CircuitBreaker.State state(FlaskEndpoint endpoint) {
+        return guards.get(endpoint).circuitBreaker.getState();
+    }
+
+    // 4xx는 요청이 잘못된 것이지 모델 서버가 아픈 것이 아니므로 실패로 세지 않는다.
+    private static boolean isServerFailure(Throwable e) {
+        return !(e instanceof WebClientResponseException
+                && ((WebClientResponseException) e).getStatusCode().is4xxClientError());
+    }
+
+    private static class EndpointGuard {
+        private final FlaskEndpoint endpoint;
+        private final Duration timeout;
+        private final AimdLimiter limiter;
+        private final CircuitBreaker circuitBreaker;
+        private final Counter breakerRejections;
+        private final Counter limitRejections;
+
+        EndpointGuard(FlaskEndpoint endpoint, FlaskPolicyConfig.Endpoint policy, FlaskPolicyConfig.Breaker breaker,
+                      MeterRegistry meterRegistry) {
+            this.endpoint = endpoint;
+            this.timeout = Duration.ofMillis(policy.getTimeoutMs());
+            this.limiter = new AimdLimiter(policy.getInitialConcurrentCalls(), policy.getMinConcurrentCalls(),
+                    policy.getMaxConcurrentCalls(), policy.getBackoffRatio(), policy.getSlowCallMs());
+            this.circuitBreaker = new CircuitBreaker(breaker.getFailureRateThreshold(), breaker.getSlidingWindowSize(),
+                    breaker.getMinimumNumberOfCalls(), breaker.getOpenStateMs(), breaker.getPermittedCallsInHalfOpenState());
+
+            String tag = endpoint.tagValue();
+            Gauge.builder("ai.flask.breaker.state", circuitBreaker, cb -> cb.getState().ordinal())
+                    .description("0: CLOSED, 1: OPEN, 2: HALF_OPEN")
+                    .tag("endpoint", tag)
+                    .register(meterRegistry);
+            Gauge.builder("ai.flask.concurrency.limit", limiter, AimdLimiter::getLimit)
+                    .description("현재 허용된 동시 호출 수")
+                    .tag("endpoint", tag)
+                    .register(meterRegistry);
+            Gauge.builder("ai.flask.concurrency.inflight", limiter, AimdLimiter::getInflight)
+                    .tag("endpoint", tag)
+                    .register(meterRegistry);
+            Gauge.builder("ai.flask.rtt", limiter, AimdLimiter::getRttMillis)
+                    .description("Flask 호출 왕복 시간의 이동 평균")
+                    .baseUnit("milliseconds")
+                    .tag("endpoint", tag)
+                    .register(meterRegistry);
+            this.breakerRejections = Counter.builder("ai.flask.rejected")
+                    .tag("endpoint", tag)
+                    .tag("reason", "circuit_open")
+                    .register(meterRegistry);
+            this.limitRejections = Counter.builder("ai.flask.rejected")
+                    .tag("endpoint", tag)
+                    .tag("reason", "concurrency_limit")
+                    .register(meterRegistry);
+        }
+
+        <T> Flux<T> execute(Supplier<? extends Publisher<T>> call) {
+            if (!circuitBreaker.tryAcquirePermission()) {
+                breakerRejections.increment();
+                return Flux.error(unavailable("모델 서버 장애로 호출을 차단하였습니다."));
+            }
+            if (!limiter.tryAcquire()) {
+                circuitBreaker.releasePermission();
+                limitRejections.increment();
+                return Flux.error(unavailable("모델 서버 동시 요청 한도를 초과하였습니다."));
+            }
+
+            long startNanos = System.nanoTime();
+            AtomicBoolean firstResponse = new AtomicBoolean();
+            return Flux.<T>defer(call)
+                    .timeout(timeout)
+                    .doOnNext(element -> {
+                        if (firstResponse.compareAndSet(false, true)) {
+                            limiter.onFirstResponse(System.nanoTime() - startNanos);
+                        }
+                    })
+                    .doOnComplete(() -> {
+                        circuitBreaker.onSuccess();
+                        if (firstResponse.get()) {
+                            limiter.release();
+                        } else {
+                            limiter.onSample(System.nanoTime() - startNanos, false);
+                        }
+                    })
+                    .doOnError(e -> {
+                        boolean serverFailure = isServerFailure(e);
+                        if (serverFailure) {
+                            circuitBreaker.onError();
+                        } else {
+                            circuitBreaker.onSuccess();
+                        }
+                        if (!firstResponse.get()) {
+                            limiter.onSample(System.nanoTime() - startNanos, serverFailure);
+                        } else if (serverFailure) {
+                            limiter.onDropped();
+                        } else {
+                            limiter.release();
+                        }
+                    })
+                    .doOnCancel(() -> {
+                        circuitBreaker.releasePermission();
+                        limiter.release();
+                    })
+                    .onErrorMap(TimeoutException.class,
+                            e -> new DefaultException(ErrorCode.MODEL_SERVER_TIMEOUT, e.getMessage()));
+        }
+
+        private DefaultException unavailable(String reason) {
+            return new DefaultException(ErrorCode.MODEL_SERVER_UNAVAILABLE, endpoint.tagValue() + ": " + reason);
+        }
+    }
+}
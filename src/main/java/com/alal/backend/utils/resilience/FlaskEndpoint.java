@@ -0,0 +1,11 @@
+package com.alal.backend.utils.resilience;
+
+public enum FlaskEndpoint {
+    POSE,
+    VOICE,
+    IMAGE;
+
+    public String tagValue() {
+        return name().toLowerCase();
+    }
+}
@@ -0,0 +1,198 @@
+package com.alal.backend.utils.resilience;
+
+import com.alal.backend.advice.error.DefaultException;
+import com.alal.backend.advice.payload.ErrorCode;
+import com.alal.backend.config.FlaskPolicyConfig;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// 여러 Flask 모델 서버 인스턴스에 요청을 나눠 보낸다.
+// - least-outstanding: 처리 중인 요청이 가장 적은 인스턴스를 고른다. 느린 인스턴스는 요청이 오래 쌓여 있으므로 자연히 덜 받는다.
+// - passive ejection: 연속으로 실패(5xx, 연결 실패, 타임아웃)한 인스턴스는 일정 시간 제외한다.
+// - active health check: 주기적으로 healthPath 를 호출해 응답이 없는 인스턴스를 제외한다.
+// ai.model.serving.url(pose, voice), ai.model.serving.imageUrl(image)에 쉼표로 여러 주소를 적는다.
+@Slf4j
+@Component
+public class FlaskLoadBalancer {
+    private final Map<FlaskEndpoint, List<ModelServerInstance>> instances = new EnumMap<>(FlaskEndpoint.class);
+    private final List<ModelServerInstance> allInstances;
+    private final FlaskPolicyConfig.LoadBalancer policy;
+    private final WebClient webClient;
+
+    public FlaskLoadBalancer(@Value("${ai.model.serving.url}") String[] flaskUrls,
+                             @Value("${ai.model.serving.imageUrl}") String[] flaskImageUrls,
+                             FlaskPolicyConfig flaskPolicyConfig,
+                             WebClient webClient,
+                             MeterRegistry meterRegistry) {
+        this.policy = flaskPolicyConfig.getLoadBalancer();
+        this.webClient = webClient;
+
+        // pose 와 voice 는 같은 서버에서 돌아가므로 인스턴스(처리 중인 요청 수)를 공유한다.
+        List<ModelServerInstance> flaskInstances = toInstances(flaskUrls);
+        instances.put(FlaskEndpoint.POSE, flaskInstances);
+        instances.put(FlaskEndpoint.VOICE, flaskInstances);
+        instances.put(FlaskEndpoint.IMAGE, toInstances(flaskImageUrls));
+
+        this.allInstances = instances.values().stream()
+                .flatMap(List::stream)
+                .distinct()
+                .collect(Collectors.toList());
+        allInstances.forEach(instance -> registerMetrics(instance, meterRegistry));
+    }
+
+    public <T> Mono<T> route(FlaskEndpoint endpoint, Function<String, Mono<T>> call) {
+        return routeMany(endpoint, call).singleOrEmpty();
+    }
+
+    // 스트리밍 응답은 마지막 원소까지 받은 뒤에야 인스턴스가 반환된다.
+    public <T> Flux<T> routeMany(FlaskEndpoint endpoint, Function<String, ? extends Publisher<T>> call) {
+        return Flux.defer(() -> {
+            ModelServerInstance instance = choose(endpoint);
+            instance.begin();
+
+            return Flux.<T>defer(() -> call.apply(instance.getUrl()))
+                    .doOnComplete(instance::onSuccess)
+                    .doOnError(e -> {
+                        if (isInstanceFailure(e)) {
+                            instance.onFailure(policy.getConsecutiveFailures(), policy.getBaseEjectionMs(),
+                                    policy.getMaxEjectionMs(), System.nanoTime());
+                        }
+                    })
+                    .doFinally(signal -> instance.end());
+        });
+    }
+
+    ModelServerInstance choose(FlaskEndpoint endpoint) {
+        List<ModelServerInstance> candidates = instances.get(endpoint);
+        if (candidates.isEmpty()) {
+            throw new DefaultException(ErrorCode.MODEL_SERVER_UNAVAILABLE, endpoint.tagValue() + ": 등록된 모델 서버가 없습니다.");
+        }
+
+        long now = System.nanoTime();
+        List<ModelServerInstance> available = candidates.stream()
+                .filter(instance -> instance.isAvailable(now))
+                .collect(Collectors.toList());
+        // 모두 제외된 상태라면 요청을 버리지 않고 전체 인스턴스 중에서 고른다. (panic mode)
+        if (available.isEmpty()) {
+            available = candidates;
+        }
+
+        return leastOutstanding(available);
+    }
+
+    // 처리 중인 요청 수가 같은 인스턴스끼리는 무작위로 골라 첫 번째 인스턴스에 몰리지 않게 한다.
+    private static ModelServerInstance leastOutstanding(List<ModelServerInstance> available) {
+        ModelServerInstance chosen = null;
+        int chosenOutstanding = Integer.MAX_VALUE;
+        int ties = 0;
+
+        for (ModelServerInstance instance : available) {
+            int outstanding = instance.outstanding();
+            if (outstanding < chosenOutstanding) {
+                chosen = instance;
+                chosenOutstanding = outstanding;
+                ties = 1;
+            } else if (outstanding == chosenOutstanding && ThreadLocalRandom.current().nextInt(++ties) == 0) {
+                chosen = instance;
+            }
+        }
+        return chosen;
+    }
+
+    // 전체 확인이 제한 시간을 넘기면 blockLast 가 예외를 던진다. 예외가 스케줄러로 새지 않게 잡고,
+    // 이번 주기에 응답을 확인하지 못한 인스턴스는 비정상으로 표시한다.
+    @Scheduled(fixedDelayString = "${ai.model.serving.policy.load-balancer.health-interval-ms:10000}")
+    public void checkHealth() {
+        Set<ModelServerInstance> probed = ConcurrentHashMap.newKeySet();
+        try {
+            Flux.fromIterable(allInstances)
+                    .flatMap(instance -> probe(instance)
+                            .doOnNext(healthy -> {
+                                probed.add(instance);
+                                markHealthy(instance, healthy);
+                            }))
+                    .blockLast(Duration.ofMillis(policy.getHealthTimeoutMs() * 2));
+        } catch (RuntimeException e) {
+            log.warn("모델 서버 상태 확인이 제한 시간 안에 끝나지 않았습니다.", e);
+        }
+
+        allInstances.stream()
+                .filter(instance -> !probed.contains(instance))
+                .forEach(instance -> markHealthy(instance, false));
+    }
+
+    private static void markHealthy(ModelServerInstance instance, boolean healthy) {
+        if (instance.isHealthy() != healthy) {
+            log.warn("모델 서버 {} 상태 변경: {}", instance.getUrl(), healthy ? "정상" : "비정상");
+        }
+        instance.markHealthy(healthy);
+    }
+
+    public List<ModelServerInstance> instances(FlaskEndpoint endpoint) {
+        return Collections.unmodifiableList(instances.get(endpoint));
+    }
+
+    // 요청을 만들다 실패해도 그 인스턴스만 비정상으로 끝나도록 defer 로 감싼다.
+    Mono<Boolean> probe(ModelServerInstance instance) {
+        return Mono.defer(() -> webClient.get()
+                        .uri(instance.getHealthUri())
+                        .exchangeToMono(response -> response.releaseBody()
+                                .thenReturn(!response.statusCode().is5xxServerError())))
+                .timeout(Duration.ofMillis(policy.getHealthTimeoutMs()))
+                .onErrorReturn(false);
+    }
+
+    // 요청 자체가 잘못된 4xx 와 서킷 브레이커/bulkhead 거절은 인스턴스 탓이 아니다.
+    private static boolean isInstanceFailure(Throwable e) {
+        if (e instanceof WebClientResponseException) {
+            return ((WebClientResponseException) e).getStatusCode().is5xxServerError();
+        }
+        if (e instanceof DefaultException) {
+            return ((DefaultException) e).getErrorCode() == ErrorCode.MODEL_SERVER_TIMEOUT;
+        }
+        return e instanceof WebClientRequestException;
+    }
+
+    private List<ModelServerInstance> toInstances(String[] urls) {
+        return Arrays.stream(urls)
+                .map(String::trim)
+                .filter(url -> !url.isEmpty())
+                .distinct()
+                .map(url -> new ModelServerInstance(url, policy.getHealthPath()))
+                .collect(Collectors.toList());
+    }
+
+    private static void registerMetrics(ModelServerInstance instance, MeterRegistry meterRegistry) {
+        String url = instance.getUrl();
+        Gauge.builder("ai.flask.instance.outstanding", instance, ModelServerInstance::outstanding)
+                .tag("instance", url)
+                .register(meterRegistry);
+        Gauge.builder("ai.flask.instance.available", instance, i -> i.isAvailable(System.nanoTime()) ? 1 : 0)
+                .tag("instance", url)
+                .register(meterRegistry);
+        FunctionCounter.builder("ai.flask.instance.requests", instance, ModelServerInstance::requests)
+                .tag("instance", url)
+                .register(meterRegistry);
+        FunctionCounter.builder("ai.flask.instance.ejections", instance, ModelServerInstance::ejections)
+                .tag("instance", url)
+                .register(meterRegistry);
+    }
+}
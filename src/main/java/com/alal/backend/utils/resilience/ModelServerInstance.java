@@ -0,0 +1,89 @@
+package com.alal.backend.utils.resilience;
+
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// 로드 밸런서가 관리하는 Flask 모델 서버 인스턴스 하나의 상태
+public class ModelServerInstance {
+    private final String url;
+    private final URI healthUri;
+
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong ejections = new AtomicLong();
+
+    // 아래 상태는 synchronized 로 보호한다.
+    private int consecutiveFailures;
+    private int ejectionCount;
+    private long ejectedUntilNanos;
+    private boolean ejected;
+    private volatile boolean healthy = true;
+
+    public ModelServerInstance(String url, String healthPath) {
+        this.url = url;
+        this.healthUri = URI.create(url).resolve(healthPath);
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public URI getHealthUri() {
+        return healthUri;
+    }
+
+    public int outstanding() {
+        return outstanding.get();
+    }
+
+    public long requests() {
+        return requests.get();
+    }
+
+    public long ejections() {
+        return ejections.get();
+    }
+
+    public synchronized boolean isAvailable(long nowNanos) {
+        return healthy && (!ejected || nowNanos - ejectedUntilNanos >= 0);
+    }
+
+    void begin() {
+        outstanding.incrementAndGet();
+        requests.incrementAndGet();
+    }
+
+    void end() {
+        outstanding.decrementAndGet();
+    }
+
+    synchronized void onSuccess() {
+        consecutiveFailures = 0;
+        ejectionCount = 0;
+        ejected = false;
+    }
+
+    synchronized void onFailure(int failureThreshold, long baseEjectionMs, long maxEjectionMs, long nowNanos) {
+        consecutiveFailures++;
+        if (consecutiveFailures < failureThreshold) {
+            return;
+        }
+
+        long ejectionMs = Math.min(maxEjectionMs, baseEjectionMs << Math.min(ejectionCount, 16));
+        ejectedUntilNanos = nowNanos + TimeUnit.MILLISECONDS.toNanos(ejectionMs);
+        ejected = true;
+        ejectionCount++;
+        consecutiveFailures = 0;
+        ejections.incrementAndGet();
+    }
+
+    void markHealthy(boolean healthy) {
+        this.healthy = healthy;
+    }
+
+    public boolean isHealthy() {
+        return healthy;
+    }
+}
@@ -0,0 +1,252 @@
+package com.alal.backend.utils.search;
+
+import com.alal.backend.domain.entity.user.Motion;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+// 모션 GIF/FBX 주소에 대한 부분 문자열 검색(LIKE '%x%')을 메모리에서 처리하는 trigram 색인. 만든 뒤에는 바뀌지 않는다.
+// - 주소는 모두 같은 버킷 경로로 시작하므로, 공통 접두사를 뺀 나머지(파일 이름 부분)만 trigram 으로 색인한다.
+// - 검색어의 trigram 게시 목록을 교집합한 뒤 실제로 포함하는지 다시 확인하므로 결과는 LIKE 와 같다.
+// - 검색어가 3자 미만이거나 공통 접두사에 걸치면 전체를 순회한다. (그래도 메모리 안이라 빠르다)
+// MySQL 기본 collation 처럼 대소문자를 구분하지 않으며, 결과는 id 순서이다.
+public class MotionIndex {
+    private static final int GRAM = 3;
+    private static final int[] NO_POSTINGS = new int[0];
+
+    private final List<Motion> motions;
+    private final String[] gifs;
+    private final String[] fbxs;
+    private final String gifPrefix;
+    private final String fbxPrefix;
+    private final Map<Long, int[]> postings;
+
+    private MotionIndex(List<Motion> motions, String[] gifs, String[] fbxs, String gifPrefix, String fbxPrefix,
+                        Map<Long, int[]> postings) {
+        this.motions = motions;
+        this.gifs = gifs;
+        this.fbxs = fbxs;
+        this.gifPrefix = gifPrefix;
+        this.fbxPrefix = fbxPrefix;
+        this.postings = postings;
+    }
+
+    public static MotionIndex empty() {
+        return of(Collections.emptyList());
+    }
+
+    // motions 는 id 순서로 정렬되어 있어야 한다.
+    public static MotionIndex of(List<Motion> motions) {
+        int size = motions.size();
+        String[] gifs = new String[size];
+        String[] fbxs = new String[size];
+        for (int i = 0; i < size; i++) {
+            gifs[i] = normalize(motions.get(i).getMotionGif());
+            fbxs[i] = normalize(motions.get(i).getMotionFbx());
+        }
+
+        String gifPrefix = commonPrefix(gifs);
+        String fbxPrefix = commonPrefix(fbxs);
+
+        Map<Long, IntList> builders = new HashMap<>();
+        Set<Long> grams = new HashSet<>();
+        for (int i = 0; i < size; i++) {
+            grams.clear();
+            addGrams(gifs[i], gifPrefix.length(), grams);
+            addGrams(fbxs[i], fbxPrefix.length(), grams);
+            for (Long gram : grams) {
+                builders.computeIfAbsent(gram, key -> new IntList()).add(i);
+            }
+        }
+
+        Map<Long, int[]> postings = new HashMap<>(builders.size() * 2);
+        builders.forEach((gram, list) -> postings.put(gram, list.toArray()));
+
+        return new MotionIndex(Collections.unmodifiableList(new ArrayList<>(motions)), gifs, fbxs, gifPrefix, fbxPrefix, postings);
+    }
+
+    public List<Motion> findContaining(String term) {
+        int[] ordinals = matchOrdinals(term);
+        List<Motion> result = new ArrayList<>(ordinals.length);
+        for (int ordinal : ordinals) {
+            result.add(motions.get(ordinal));
+        }
+        return result;
+    }
+
+    // 모든 검색어를 한 번에 찾아 모션별로 합친다.
+    // 정렬: 포함한 검색어가 많은 모션 -> 앞쪽 검색어에 걸린 모션 -> id 순서. 같은 입력이면 항상 같은 순서이다.
+    public MotionSearchResult search(List<String> terms) {
+        Map<String, Integer> termCounts = new LinkedHashMap<>();
+        Map<Integer, int[]> scores = new HashMap<>();
+
+        int termOrder = 0;
+        for (String term : terms) {
+            if (termCounts.containsKey(term)) {
+                continue;
+            }
+            int[] ordinals = matchOrdinals(term);
+            termCounts.put(term, ordinals.length);
+
+            for (int ordinal : ordinals) {
+                int[] score = scores.get(ordinal);
+                if (score == null) {
+                    scores.put(ordinal, new int[]{1, termOrder});
+                } else {
+                    score[0]++;
+                }
+            }
+            termOrder++;
+        }
+
+        int[] ordered = scores.entrySet().stream()
+                .sorted(Comparator.<Map.Entry<Integer, int[]>>comparingInt(entry -> -entry.getValue()[0])
+                        .thenComparingInt(entry -> entry.getValue()[1])
+                        .thenComparingInt(Map.Entry::getKey))
+                .mapToInt(Map.Entry::getKey)
+                .toArray();
+
+        return new MotionSearchResult(this, ordered, termCounts);
+    }
+
+    // 검색어를 포함하는 모션의 순번(id 순서)
+    int[] matchOrdinals(String term) {
+        String needle = normalize(term);
+        if (needle.length() < GRAM || touchesPrefix(needle, gifPrefix) || touchesPrefix(needle, fbxPrefix)) {
+            return scan(needle);
+        }
+
+        int[] candidates = null;
+        for (int i = 0; i + GRAM <= needle.length(); i++) {
+            int[] list = postings.getOrDefault(gram(needle, i), NO_POSTINGS);
+            candidates = candidates == null ? list : intersect(candidates, list);
+            if (candidates.length == 0) {
+                return NO_POSTINGS;
+            }
+        }
+
+        return verify(candidates, needle);
+    }
+
+    public int size() {
+        return motions.size();
+    }
+
+    public Motion get(int ordinal) {
+        return motions.get(ordinal);
+    }
+
+    private int[] scan(String needle) {
+        IntList matches = new IntList();
+        for (int i = 0; i < motions.size(); i++) {
+            if (contains(i, needle)) {
+                matches.add(i);
+            }
+        }
+        return matches.toArray();
+    }
+
+    private int[] verify(int[] candidates, String needle) {
+        IntList matches = new IntList();
+        for (int candidate : candidates) {
+            if (contains(candidate, needle)) {
+                matches.add(candidate);
+            }
+        }
+        return matches.toArray();
+    }
+
+    private boolean contains(int ordinal, String needle) {
+        return gifs[ordinal].contains(needle) || fbxs[ordinal].contains(needle);
+    }
+
+    // 검색어가 공통 접두사 안에 있거나 접두사 끝에 걸쳐 있으면 색인하지 않은 부분과 겹치므로 색인을 쓸 수 없다.
+    private static boolean touchesPrefix(String needle, String prefix) {
+        if (prefix.contains(needle)) {
+            return true;
+        }
+        for (int k = Math.min(needle.length() - 1, prefix.length()); k > 0; k--) {
+            if (prefix.endsWith(needle.substring(0, k))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int[] intersect(int[] left, int[] right) {
+        int[] result = new int[Math.min(left.length, right.length)];
+        int i = 0;
+        int j = 0;
+        int size = 0;
+        while (i < left.length && j < right.length) {
+            if (left[i] < right[j]) {
+                i++;
+            } else if (left[i] > right[j]) {
+                j++;
+            } else {
+                result[size++] = left[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    private static void addGrams(String value, int from, Set<Long> grams) {
+        for (int i = from; i + GRAM <= value.length(); i++) {
+            grams.add(gram(value, i));
+        }
+    }
+
+    private static long gram(String value, int offset) {
+        return ((long) value.charAt(offset) << 32) | ((long) value.charAt(offset + 1) << 16) | value.charAt(offset + 2);
+    }
+
+    private static String commonPrefix(String[] values) {
+        if (values.length == 0) {
+            return "";
+        }
+        String prefix = values[0];
+        for (String value : values) {
+            int length = 0;
+            int max = Math.min(prefix.length(), value.length());
+            while (length < max && prefix.charAt(length) == value.charAt(length)) {
+                length++;
+            }
+            prefix = prefix.substring(0, length);
+            if (prefix.isEmpty()) {
+                break;
+            }
+        }
+        return prefix;
+    }
+
+    static String normalize(String value) {
+        return value == null ? "" : value.toLowerCase(Locale.ROOT);
+    }
+
+    private static class IntList {
+        private int[] values = new int[4];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
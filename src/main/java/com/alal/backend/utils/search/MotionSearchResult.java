@@ -0,0 +1,57 @@
+package com.alal.backend.utils.search;
+
+import com.alal.backend.domain.entity.user.Motion;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+// 여러 검색어를 한 번에 찾은 결과. 모션은 id 기준으로 한 번씩만 들어 있다.
+public class MotionSearchResult {
+    private final MotionIndex motionIndex;
+    private final int[] ordinals;
+    private final Map<String, Integer> termCounts;
+
+    MotionSearchResult(MotionIndex motionIndex, int[] ordinals, Map<String, Integer> termCounts) {
+        this.motionIndex = motionIndex;
+        this.ordinals = ordinals;
+        this.termCounts = Collections.unmodifiableMap(termCounts);
+    }
+
+    public List<Motion> getMotions() {
+        List<Motion> motions = new ArrayList<>(ordinals.length);
+        for (int ordinal : ordinals) {
+            motions.add(motionIndex.get(ordinal));
+        }
+        return motions;
+    }
+
+    // 보이는 페이지의 모션만 꺼낸다. 범위를 벗어나면 빈 목록
+    public List<Motion> page(long offset, int size) {
+        if (offset >= ordinals.length) {
+            return Collections.emptyList();
+        }
+        int start = (int) offset;
+        int end = Math.min(start + size, ordinals.length);
+
+        List<Motion> motions = new ArrayList<>(end - start);
+        for (int i = start; i < end; i++) {
+            motions.add(motionIndex.get(ordinals[i]));
+        }
+        return motions;
+    }
+
+    // 검색어별로 포함된 모션 수 (중복 제거 전, 요청한 검색어 순서)
+    public Map<String, Integer> getTermCounts() {
+        return termCounts;
+    }
+
+    public int getTotal() {
+        return ordinals.length;
+    }
+
+    public boolean isFrom(MotionIndex index) {
+        return motionIndex == index;
+    }
+}
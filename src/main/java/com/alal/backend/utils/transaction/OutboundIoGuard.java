@@ -0,0 +1,85 @@
+package com.alal.backend.utils.transaction;
+
+import com.google.cloud.storage.Storage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Before;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.Set;
+
+// 트랜잭션(DB 커넥션)을 잡은 채로 외부 I/O(GCS 호출, 이미지 다운로드, WebClient 호출)를 하는지 감시한다.
+// 기본은 경고 로그와 db.transaction.outbound.io 카운터만 남기고, transaction.io-guard.fail-fast=true 이면 호출을 막는다.
+@Slf4j
+@Aspect
+@Component
+public class OutboundIoGuard {
+    // 네트워크를 타지 않는 Storage 메서드
+    private static final Set<String> LOCAL_STORAGE_METHODS = Set.of("getOptions");
+
+    private final MeterRegistry meterRegistry;
+    private final boolean failFast;
+
+    public OutboundIoGuard(MeterRegistry meterRegistry,
+                           @Value("${transaction.io-guard.fail-fast:false}") boolean failFast) {
+        this.meterRegistry = meterRegistry;
+        this.failFast = failFast;
+    }
+
+    @Before("execution(* com.alal.backend.utils.ImageHttpClient.download(..))")
+    public void beforeImageDownload(JoinPoint joinPoint) {
+        check("image", joinPoint.getSignature().getName());
+    }
+
+    // WebClient 요청은 구독하는 스레드에서 필터가 실행되므로, 트랜잭션 안에서 block() 하면 여기서 걸린다.
+    public ExchangeFilterFunction webClientFilter() {
+        return (request, next) -> {
+            check("webclient", request.method() + " " + request.url().getHost());
+            return next.exchange(request);
+        };
+    }
+
+    // GCS 클라이언트 자체를 감싼다. 어느 클래스에서 부르든(자기 호출 포함) get, signUrl, writer, delete 등
+    // 모든 Storage 호출이 검사된다. StorageImpl 은 final 이라 클래스 프록시(AOP) 대신 인터페이스 프록시를 쓴다.
+    public Storage guard(Storage storage) {
+        return (Storage) Proxy.newProxyInstance(Storage.class.getClassLoader(), new Class<?>[]{Storage.class},
+                (proxy, method, args) -> {
+                    if (method.getDeclaringClass() != Object.class && !LOCAL_STORAGE_METHODS.contains(method.getName())) {
+                        check("gcs", method.getName());
+                    }
+                    try {
+                        return method.invoke(storage, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    public void check(String target, String operation) {
+        // 커밋/롤백 이후 콜백(롤백된 업로드 삭제 등)은 synchronization 이 이미 해제된 상태이므로 제외한다.
+        if (!TransactionSynchronizationManager.isActualTransactionActive()
+                || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+
+        String transactionName = TransactionSynchronizationManager.getCurrentTransactionName();
+        Counter.builder("db.transaction.outbound.io")
+                .description("트랜잭션 안에서 발생한 외부 I/O 호출 수")
+                .tag("target", target)
+                .register(meterRegistry)
+                .increment();
+        log.warn("트랜잭션 {} 안에서 외부 호출 {} ({})", transactionName, target, operation);
+
+        if (failFast) {
+            throw new IllegalStateException("트랜잭션 안에서 외부 호출을 할 수 없습니다. " + target + " (" + operation + ")");
+        }
+    }
+}
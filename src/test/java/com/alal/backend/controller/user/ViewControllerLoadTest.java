@@ -0,0 +1,133 @@
+package com.alal.backend.controller.user;
+
+import com.alal.backend.config.security.token.UserPrincipal;
+import com.alal.backend.domain.entity.user.Role;
+import com.alal.backend.domain.entity.user.User;
+import com.alal.backend.repository.user.UserRepository;
+import com.alal.backend.service.auth.CustomTokenProviderService;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.okJson;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+
+// Flask 대신 응답에 10초가 걸리는 WireMock 서버를 띄우고, Tomcat 스레드 수보다 많은 요청을 동시에 보낸다.
+// 요청 스레드가 추론을 기다리며 블로킹되면 (요청 수 / 스레드 수) * 10초가 걸린다.
+@Tag("benchmark")
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "server.tomcat.threads.max=" + ViewControllerLoadTest.TOMCAT_THREADS,
+                "server.tomcat.threads.min-spare=" + ViewControllerLoadTest.TOMCAT_THREADS
+        })
+@ActiveProfiles(profiles = "local")
+class ViewControllerLoadTest {
+    static final int TOMCAT_THREADS = 4;
+    // WebClient 기본 커넥션 풀(최소 16개) 안에서 측정한다.
+    private static final int CONCURRENT_REQUESTS = 16;
+    private static final int FLASK_LATENCY_MILLIS = 10_000;
+
+    private static final WireMockServer flaskServer =
+            new WireMockServer(options().dynamicPort().containerThreads(CONCURRENT_REQUESTS * 2));
+
+    static {
+        flaskServer.start();
+    }
+
+    @DynamicPropertySource
+    static void flaskProperties(DynamicPropertyRegistry registry) {
+        registry.add("ai.model.serving.url", flaskServer::baseUrl);
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @MockBean
+    private CustomTokenProviderService customTokenProviderService;
+
+    @MockBean
+    private UserRepository userRepository;
+
+    @AfterAll
+    static void stopFlaskServer() {
+        flaskServer.stop();
+    }
+
+    @BeforeEach
+    void init() {
+        flaskServer.stubFor(post(urlEqualTo("/checkpose/"))
+                .willReturn(okJson("[{\"responseMessage\":\"sample\"}]")
+                        .withFixedDelay(FLASK_LATENCY_MILLIS)));
+
+        User user = User.builder()
+                .id(1L)
+                .email("string@aa.bb")
+                .role(Role.USER)
+                .build();
+        UserPrincipal userPrincipal = UserPrincipal.create(user);
+
+        Mockito.when(customTokenProviderService.validateToken(anyString())).thenReturn(true);
+        Mockito.when(customTokenProviderService.getAuthenticationById(anyString()))
+                .thenReturn(new UsernamePasswordAuthenticationToken(userPrincipal, null, userPrincipal.getAuthorities()));
+        Mockito.when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+    }
+
+    @DisplayName("추론 대기 중인 동시 요청 수가 Tomcat 스레드 수에 묶이지 않는지")
+    @Test
+    void videoPostConcurrencyTest() {
+        // given
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/view/video"))
+                .header("Authorization", "Bearer token")
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"fileName\":\"sample.mp4\"}"))
+                .build();
+
+        // when
+        long start = System.nanoTime();
+        List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+        for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+            responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.ofString()));
+        }
+        CompletableFuture.allOf(responses.toArray(new CompletableFuture[0])).join();
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        // then
+        for (CompletableFuture<HttpResponse<String>> response : responses) {
+            assertEquals(200, response.join().statusCode());
+        }
+        System.out.printf("%d requests, %d tomcat threads, %dms flask latency -> %dms%n",
+                CONCURRENT_REQUESTS, TOMCAT_THREADS, FLASK_LATENCY_MILLIS, elapsedMillis);
+        assertTrue(elapsedMillis < FLASK_LATENCY_MILLIS * 2L,
+                "동시 요청이 Tomcat 스레드 수만큼씩 처리되었습니다. (" + elapsedMillis + "ms)");
+    }
+}
@@ -0,0 +1,53 @@
+package com.alal.backend.domain.entity.user;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MotionTest {
+    private static final String BUCKET = "https://storage.googleapis.com/alal/Motion/";
+
+    @DisplayName("등록할 때 주소에서 모션 이름, 태그, 파일 이름을 미리 계산하는지")
+    @Test
+    void ofTest() {
+        // given
+        String gif = BUCKET + "Walk_Forward-02.gif";
+        String fbx = BUCKET + "fbx/Walk_Forward-02.fbx";
+
+        // when
+        Motion motion = Motion.of(gif, fbx);
+
+        // then
+        assertEquals("walk_forward-02", motion.getMotionName());
+        assertEquals("Walk_Forward-02", motion.getGifFileName());
+        assertEquals("Walk_Forward-02", motion.getFbxFileName());
+        assertEquals(Set.of("walk", "forward"), motion.getTags());
+        assertEquals(List.of("walk", "forward"), List.copyOf(motion.getTags()));
+    }
+
+    @DisplayName("backfill 은 비어 있는 메타데이터만 바뀐 것으로 보는지")
+    @Test
+    void refreshMetadataTest() {
+        // given
+        Motion legacy = Motion.builder()
+                .id(1L)
+                .motionGif(BUCKET + "sit_down.gif")
+                .motionFbx(BUCKET + "sit_down.fbx")
+                .build();
+
+        // when
+        boolean first = legacy.refreshMetadata();
+        boolean second = legacy.refreshMetadata();
+
+        // then
+        assertTrue(first);
+        assertFalse(second);
+        assertEquals("sit_down", legacy.getMotionName());
+    }
+}
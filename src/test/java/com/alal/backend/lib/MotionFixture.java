@@ -0,0 +1,33 @@
+package com.alal.backend.lib;
+
+import com.alal.backend.domain.entity.user.Motion;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// 모션 벤치마크들이 함께 쓰는 카탈로그. 이름은 "단어_단어_번호" 이고 같은 size 면 항상 같은 목록이 나온다.
+public class MotionFixture {
+    public static final String BUCKET = "https://storage.googleapis.com/alal/Motion/";
+
+    private static final String[] WORDS = {"walk", "run", "jump", "sit", "wave", "kick", "punch", "dance", "bow",
+            "clap", "turn", "crouch", "climb", "swim", "throw", "catch", "push", "pull", "spin", "roll"};
+
+    private MotionFixture() {
+    }
+
+    // id 는 1부터 size 까지
+    public static List<Motion> generate(int size) {
+        Random random = new Random(0);
+        List<Motion> motions = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            String name = WORDS[random.nextInt(WORDS.length)] + "_" + WORDS[random.nextInt(WORDS.length)] + "_" + i;
+            motions.add(Motion.builder()
+                    .id((long) i)
+                    .motionGif(BUCKET + name + ".gif")
+                    .motionFbx(BUCKET + name + ".fbx")
+                    .build());
+        }
+        return motions;
+    }
+}
@@ -0,0 +1,242 @@
+package com.alal.backend.service.group;
+
+import com.alal.backend.advice.error.DefaultException;
+import com.alal.backend.advice.payload.ErrorCode;
+import com.alal.backend.domain.dto.request.UpdateAvatarRequest;
+import com.alal.backend.domain.dto.response.UpdateAvatarResponse;
+import com.alal.backend.domain.entity.project.Avatar;
+import com.alal.backend.domain.entity.storage.ContentBlob;
+import com.alal.backend.domain.info.AvatarInfo;
+import com.alal.backend.domain.vo.ImageMode;
+import com.alal.backend.repository.group.AvatarRepository;
+import com.alal.backend.utils.ImageResolver;
+import com.alal.backend.utils.event.UploadReplacedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class AvatarServiceTest {
+    private static final String BUCKET_URL = "https://storage.googleapis.com/memo-log/";
+
+    private AvatarRepository avatarRepository;
+    private GoogleService googleService;
+    private ApplicationEventPublisher eventPublisher;
+    private ThreadPoolTaskExecutor storageUploadExecutor;
+    private AvatarService avatarService;
+
+    @BeforeEach
+    void init() {
+        avatarRepository = Mockito.mock(AvatarRepository.class);
+        googleService = Mockito.mock(GoogleService.class);
+        ImageResolver imageResolver = Mockito.mock(ImageResolver.class);
+        Mockito.when(imageResolver.resolveAll(anyCollection(), eq(ImageMode.BASE64)))
+                .thenReturn((Function<String, String>) imageUrl -> "encoded:" + imageUrl);
+        Mockito.when(googleService.register(any(ContentBlob.class)))
+                .thenAnswer(invocation -> ((ContentBlob) invocation.getArgument(0)).getUploadUrl());
+        Mockito.when(avatarRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        eventPublisher = Mockito.mock(ApplicationEventPublisher.class);
+        storageUploadExecutor = executor(4, 100);
+        avatarService = new AvatarService(avatarRepository, googleService, imageResolver, eventPublisher,
+                new TransactionTemplate(Mockito.mock(PlatformTransactionManager.class)), storageUploadExecutor);
+        ReflectionTestUtils.setField(avatarService, "bucketName", "memo-log");
+    }
+
+    @AfterEach
+    void cleanup() {
+        storageUploadExecutor.shutdown();
+    }
+
+    @DisplayName("업로드가 끝나는 순서나 조회 순서와 상관없이 요청한 배역 순서대로 이미지를 반영하는지")
+    @Test
+    void keepOrderTest() {
+        // given: 앞의 배역일수록 업로드가 늦게 끝나고, 조회 결과는 역순이다.
+        Mockito.when(googleService.storeAvatar(any(AvatarInfo.class))).thenAnswer(invocation -> {
+            AvatarInfo avatarInfo = invocation.getArgument(0);
+            Thread.sleep(50 * (4 - avatarInfo.getAvatarId()));
+            return newBlob(avatarInfo.getAvatarId());
+        });
+        Mockito.when(avatarRepository.findAllById(anyIterable()))
+                .thenReturn(List.of(avatar(3L), avatar(2L), avatar(1L)));
+
+        // when
+        UpdateAvatarResponse response = avatarService.updateAvatar(request(1L, 2L, 3L));
+
+        // then
+        assertEquals(List.of(1L, 2L, 3L), response.getAvatarInfos().stream()
+                .map(AvatarInfo::getAvatarId)
+                .collect(Collectors.toList()));
+        assertEquals(List.of("encoded:" + url(1L), "encoded:" + url(2L), "encoded:" + url(3L)), response.getAvatarInfos().stream()
+                .map(AvatarInfo::getAvatarImage)
+                .collect(Collectors.toList()));
+        verify(googleService, never()).deleteLater(anyString(), anyString());
+    }
+
+    @DisplayName("이미지를 두 번 바꾸면 바뀔 때마다 이전 이미지를 정리 대상으로 넘기는지")
+    @Test
+    void releaseReplacedImageTest() {
+        // given
+        Avatar avatar = avatar(1L);
+        Mockito.when(avatarRepository.findAllById(anyIterable())).thenReturn(List.of(avatar));
+        Mockito.when(googleService.storeAvatar(any(AvatarInfo.class)))
+                .thenReturn(newBlob(1L))
+                .thenReturn(newBlob(2L));
+
+        // when
+        avatarService.updateAvatar(request(1L));
+        avatarService.updateAvatar(request(1L));
+
+        // then
+        ArgumentCaptor<Object> events = ArgumentCaptor.forClass(Object.class);
+        verify(eventPublisher, Mockito.atLeastOnce()).publishEvent(events.capture());
+        assertEquals(List.of(Avatar.DEFAULT_IMAGE, url(1L)), events.getAllValues().stream()
+                .filter(UploadReplacedEvent.class::isInstance)
+                .map(event -> ((UploadReplacedEvent) event).getUploadUrl())
+                .collect(Collectors.toList()));
+        assertEquals(url(2L), avatar.getAvatarImage());
+    }
+
+    @DisplayName("하나라도 실패하면 이번에 새로 올린 이미지만 지연 삭제에 넘기고, 재사용한 이미지와 DB 는 건드리지 않는지")
+    @Test
+    void deleteUploadedOnFailureTest() {
+        // given: 1번은 새로 올렸고, 2번은 실패하고, 3번은 이미 있던 파일을 재사용했다.
+        ContentBlob uploaded = newBlob(1L);
+        ContentBlob reused = ContentBlob.builder()
+                .id(30L)
+                .contentHash("hash3")
+                .objectName("Avatar/hash3")
+                .uploadUrl(url(3L))
+                .build();
+        Mockito.when(googleService.storeAvatar(any(AvatarInfo.class))).thenAnswer(invocation -> {
+            Long avatarId = ((AvatarInfo) invocation.getArgument(0)).getAvatarId();
+            if (avatarId == 2L) {
+                // 1번과 3번이 이미 시작한 뒤에 실패한다.
+                Thread.sleep(50);
+                throw new DefaultException(ErrorCode.UPLOAD_FAILED, "GCS 오류");
+            }
+            return avatarId == 1L ? uploaded : reused;
+        });
+
+        // when
+        DefaultException failure = assertThrows(DefaultException.class, () -> avatarService.updateAvatar(request(1L, 2L, 3L)));
+
+        // then
+        assertEquals("GCS 오류", failure.getMessage());
+        verify(googleService, times(1)).deleteLater(anyString(), anyString());
+        verify(googleService).deleteLater(uploaded.getObjectName(), uploaded.getUploadUrl());
+        verify(googleService, never()).register(any(ContentBlob.class));
+        verify(avatarRepository, never()).findAllById(anyIterable());
+    }
+
+    @DisplayName("업로드 풀이 가득 차면 요청 스레드에서 올리지 않고 배치를 실패시키며 올린 이미지를 정리하는지")
+    @Test
+    void rejectWhenSaturatedTest() {
+        // given: 스레드 1개, 대기열 없음
+        storageUploadExecutor.shutdown();
+        storageUploadExecutor = executor(1, 0);
+        ReflectionTestUtils.setField(avatarService, "storageUploadExecutor", storageUploadExecutor);
+
+        List<String> uploadThreads = new CopyOnWriteArrayList<>();
+        Mockito.when(googleService.storeAvatar(any(AvatarInfo.class))).thenAnswer(invocation -> {
+            uploadThreads.add(Thread.currentThread().getName());
+            Thread.sleep(100);
+            return newBlob(((AvatarInfo) invocation.getArgument(0)).getAvatarId());
+        });
+
+        // when
+        DefaultException failure = assertThrows(DefaultException.class, () -> avatarService.updateAvatar(request(1L, 2L)));
+
+        // then
+        assertEquals(ErrorCode.UPLOAD_FAILED, failure.getErrorCode());
+        assertEquals(List.of("Upload-1"), uploadThreads);
+        verify(googleService).deleteLater(newBlob(1L).getObjectName(), newBlob(1L).getUploadUrl());
+        verify(avatarRepository, never()).findAllById(anyIterable());
+    }
+
+    @DisplayName("하나가 실패하면 남은 배역을 더 제출하지 않고, 대기열에 들어간 업로드도 올리지 않는지")
+    @Test
+    void stopSubmittingAfterFailureTest() {
+        // given: 스레드 1개이므로 대기열에 들어간 업로드는 첫 번째 업로드가 실패한 뒤에 시작된다.
+        storageUploadExecutor.shutdown();
+        storageUploadExecutor = executor(1, 100);
+        ReflectionTestUtils.setField(avatarService, "storageUploadExecutor", storageUploadExecutor);
+        Mockito.when(googleService.storeAvatar(any(AvatarInfo.class))).thenAnswer(invocation -> {
+            Thread.sleep(50);
+            throw new DefaultException(ErrorCode.UPLOAD_FAILED, "GCS 오류");
+        });
+
+        // when
+        DefaultException failure = assertThrows(DefaultException.class,
+                () -> avatarService.updateAvatar(request(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L)));
+
+        // then
+        assertEquals("GCS 오류", failure.getMessage());
+        verify(googleService, times(1)).storeAvatar(any(AvatarInfo.class));
+        verify(googleService, never()).deleteLater(anyString(), anyString());
+    }
+
+    private static ThreadPoolTaskExecutor executor(int threads, int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("Upload-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    private static UpdateAvatarRequest request(Long... avatarIds) {
+        UpdateAvatarRequest request = new UpdateAvatarRequest();
+        request.setAvatarInfos(List.of(avatarIds).stream()
+                .map(avatarId -> AvatarInfo.builder()
+                        .avatarId(avatarId)
+                        .avatarName("배역" + avatarId)
+                        .avatarImage("aW1hZ2U" + avatarId)
+                        .build())
+                .collect(Collectors.toList()));
+        return request;
+    }
+
+    private static Avatar avatar(Long avatarId) {
+        return Avatar.builder()
+                .avatarId(avatarId)
+                .avatarName("이전 배역" + avatarId)
+                .avatarImage(Avatar.DEFAULT_IMAGE)
+                .build();
+    }
+
+    private static ContentBlob newBlob(Long avatarId) {
+        return ContentBlob.of("hash" + avatarId, "Avatar/hash" + avatarId, url(avatarId));
+    }
+
+    private static String url(Long avatarId) {
+        return BUCKET_URL + "Avatar/hash" + avatarId;
+    }
+}
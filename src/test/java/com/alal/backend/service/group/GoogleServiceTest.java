@@ -0,0 +1,213 @@
+package com.alal.backend.service.group;
+
+import com.alal.backend.domain.entity.project.Avatar;
+import com.alal.backend.domain.entity.storage.ContentBlob;
+import com.alal.backend.domain.entity.storage.PendingDelete;
+import com.alal.backend.repository.storage.ContentBlobRepository;
+import com.alal.backend.repository.storage.PendingDeleteRepository;
+import com.alal.backend.utils.ImageHttpClient;
+import com.alal.backend.utils.Parser;
+import com.alal.backend.utils.StorageUploader;
+import com.alal.backend.utils.cache.EncodedImageCache;
+import com.alal.backend.utils.cache.ImageDiskCache;
+import com.alal.backend.utils.cache.ObjectGenerationCache;
+import com.alal.backend.utils.event.UploadRollBackEvent;
+import com.google.cloud.storage.Blob;
+import com.google.cloud.storage.BlobId;
+import com.google.cloud.storage.BlobInfo;
+import com.google.cloud.storage.Storage;
+import com.google.cloud.storage.StorageException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class GoogleServiceTest {
+    private static final String BUCKET = "alal";
+
+    private Parser parser;
+    private Storage storage;
+    private StorageUploader storageUploader;
+    private ContentBlobRepository contentBlobRepository;
+    private PendingDeleteRepository pendingDeleteRepository;
+    private GoogleService googleService;
+
+    @BeforeEach
+    void init() {
+        parser = new Parser(Mockito.mock(ImageDiskCache.class), Mockito.mock(EncodedImageCache.class),
+                Mockito.mock(ImageHttpClient.class), Mockito.mock(Storage.class), Mockito.mock(ObjectGenerationCache.class));
+        storage = Mockito.mock(Storage.class);
+        storageUploader = Mockito.mock(StorageUploader.class);
+        contentBlobRepository = Mockito.mock(ContentBlobRepository.class);
+        pendingDeleteRepository = Mockito.mock(PendingDeleteRepository.class);
+        googleService = new GoogleService(parser, storageUploader, storage, contentBlobRepository,
+                pendingDeleteRepository, new TransactionTemplate(Mockito.mock(PlatformTransactionManager.class)));
+        ReflectionTestUtils.setField(googleService, "bucketName", BUCKET);
+        ReflectionTestUtils.setField(googleService, "deleteGraceMs", 0L);
+    }
+
+    @DisplayName("같은 내용이라도 다른 폴더(종류)의 파일은 재사용하지 않고 폴더마다 따로 올리는지")
+    @Test
+    void storeByFolderTest() {
+        // given
+        String hash = "0".repeat(64);
+        ContentBlob poster = ContentBlob.builder()
+                .id(1L).contentHash(hash).objectName("Poster/" + hash).uploadUrl(url("Poster%2F" + hash)).build();
+        Mockito.when(storageUploader.digest(any())).thenReturn(new StorageUploader.Digest(hash, "crc32c"));
+        Mockito.when(storageUploader.upload(any(BlobInfo.class), any())).thenAnswer(invocation -> invocation.getArgument(0));
+        Mockito.when(contentBlobRepository.findByObjectName("Poster/" + hash)).thenReturn(Optional.of(poster));
+        Mockito.when(contentBlobRepository.findByObjectName("Avatar/" + hash)).thenReturn(Optional.empty());
+        MockMultipartFile image = new MockMultipartFile("image", "image.png", "image/png", new byte[]{1, 2, 3});
+
+        // when
+        ContentBlob storedPoster = googleService.storePoster(image);
+        ContentBlob storedAvatar = googleService.storeAvatar(image);
+
+        // then
+        assertSame(poster, storedPoster);
+        assertEquals("Avatar/" + hash, storedAvatar.getObjectName());
+        assertEquals(hash, storedAvatar.getContentHash());
+        ArgumentCaptor<BlobInfo> uploaded = ArgumentCaptor.forClass(BlobInfo.class);
+        verify(storageUploader, times(1)).upload(uploaded.capture(), any());
+        assertEquals("Avatar/" + hash, uploaded.getValue().getName());
+    }
+
+    @DisplayName("롤백 이벤트가 인코딩된 주소를 인덱스와 같은 오브젝트 이름으로 되돌리는지")
+    @Test
+    void rollBackEventObjectNameTest() {
+        // given
+        String uploadUrl = parser.parseBlobInfo(BlobInfo.newBuilder(BUCKET, "Poster/abc123").build());
+
+        // when
+        UploadRollBackEvent uploadRollBackEvent = new UploadRollBackEvent(BUCKET, uploadUrl);
+
+        // then
+        assertEquals("https://storage.googleapis.com/alal/Poster%2Fabc123", uploadUrl);
+        assertEquals("Poster/abc123", uploadRollBackEvent.getObjectName());
+    }
+
+    @DisplayName("쓰이지 않게 된 업로드는 유예 뒤 아무도 등록하지 않았고 그 뒤에 다시 올라가지 않았을 때만 지우는지")
+    @Test
+    void deletePendingUploadsTest() {
+        // given
+        long before = System.currentTimeMillis() - 1_000;
+        Blob stale = blob(before, 7L);
+        Blob reuploaded = blob(System.currentTimeMillis() + 60_000, 8L);
+        Mockito.when(storage.get(BlobId.of(BUCKET, "Poster/stale"))).thenReturn(stale);
+        Mockito.when(storage.get(BlobId.of(BUCKET, "Poster/reuploaded"))).thenReturn(reuploaded);
+        ContentBlob registered = ContentBlob.of("registered", "Poster/registered", url("Poster%2Fregistered"));
+        Mockito.when(contentBlobRepository.findLockedByObjectName("Poster/registered")).thenReturn(Optional.of(registered));
+        Mockito.when(contentBlobRepository.countReferences(registered.getUploadUrl())).thenReturn(1L);
+
+        googleService.deleteLater("Poster/stale", url("Poster%2Fstale"));
+        googleService.deleteLater("Poster/reuploaded", url("Poster%2Freuploaded"));
+        googleService.deleteLater("Poster/registered", url("Poster%2Fregistered"));
+        List<PendingDelete> saved = savedPendingDeletes(3);
+        Mockito.when(pendingDeleteRepository.findTop100ByRequestedAtLessThanEqualOrderByIdAsc(anyLong())).thenReturn(saved);
+
+        // when
+        googleService.deletePendingUploads();
+
+        // then
+        verify(storage).delete(eq(BlobId.of(BUCKET, "Poster/stale")), any(Storage.BlobSourceOption.class));
+        verify(storage, never()).delete(eq(BlobId.of(BUCKET, "Poster/reuploaded")), any(Storage.BlobSourceOption.class));
+        verify(storage, never()).get(BlobId.of(BUCKET, "Poster/registered"));
+        verify(contentBlobRepository, never()).delete(registered);
+        saved.forEach(pendingDelete -> verify(pendingDeleteRepository).delete(pendingDelete));
+    }
+
+    @DisplayName("두 번 바꿔 더는 쓰이지 않는 첫 이미지는 인덱스와 함께 지우고, 다른 행이 쓰는 이미지는 남기는지")
+    @Test
+    void collectReplacedUploadTest() {
+        // given: 첫 이미지는 아무도 쓰지 않고, 두 번째 이미지는 중복 제거로 다른 프로젝트 포스터가 쓰고 있다.
+        ContentBlob first = ContentBlob.builder()
+                .id(1L).contentHash("first").objectName("Avatar/first").uploadUrl(url("Avatar%2Ffirst")).build();
+        ContentBlob shared = ContentBlob.builder()
+                .id(2L).contentHash("shared").objectName("Avatar/shared").uploadUrl(url("Avatar%2Fshared")).build();
+        for (ContentBlob contentBlob : List.of(first, shared)) {
+            Mockito.when(contentBlobRepository.existsByObjectName(contentBlob.getObjectName())).thenReturn(true);
+            Mockito.when(contentBlobRepository.findLockedByObjectName(contentBlob.getObjectName()))
+                    .thenReturn(Optional.of(contentBlob));
+        }
+        Mockito.when(contentBlobRepository.countReferences(first.getUploadUrl())).thenReturn(0L);
+        Mockito.when(contentBlobRepository.countReferences(shared.getUploadUrl())).thenReturn(1L);
+        Blob firstBlob = blob(System.currentTimeMillis() - 1_000, 3L);
+        Mockito.when(storage.get(BlobId.of(BUCKET, "Avatar/first"))).thenReturn(firstBlob);
+
+        // when: 기본 이미지 -> first -> shared 로 두 번 바뀐 뒤 정리 주기가 돈다.
+        googleService.releaseLater(Avatar.DEFAULT_IMAGE);
+        googleService.releaseLater(first.getUploadUrl());
+        googleService.releaseLater(shared.getUploadUrl());
+        List<PendingDelete> saved = savedPendingDeletes(2);
+        Mockito.when(pendingDeleteRepository.findTop100ByRequestedAtLessThanEqualOrderByIdAsc(anyLong())).thenReturn(saved);
+        googleService.deletePendingUploads();
+
+        // then
+        verify(contentBlobRepository).delete(first);
+        verify(storage).delete(BlobId.of(BUCKET, "Avatar/first"), Storage.BlobSourceOption.generationMatch(3L));
+        verify(contentBlobRepository, never()).delete(shared);
+        verify(storage, never()).get(BlobId.of(BUCKET, "Avatar/shared"));
+        verify(storage, never()).get(Parser.parseBlobId(Avatar.DEFAULT_IMAGE));
+    }
+
+    @DisplayName("스토리지 오류로 지우지 못한 예약은 남겨 다시 시도하고, 정해진 횟수를 넘기면 포기하는지")
+    @Test
+    void retryFailedDeleteTest() {
+        // given
+        Mockito.when(storage.get(BlobId.of(BUCKET, "Poster/stale"))).thenThrow(new StorageException(503, "unavailable"));
+        googleService.deleteLater("Poster/stale", url("Poster%2Fstale"));
+        PendingDelete pendingDelete = savedPendingDeletes(1).get(0);
+        Mockito.when(pendingDeleteRepository.findTop100ByRequestedAtLessThanEqualOrderByIdAsc(anyLong()))
+                .thenReturn(List.of(pendingDelete));
+
+        // when
+        for (int i = 0; i < 4; i++) {
+            googleService.deletePendingUploads();
+        }
+
+        // then: 네 번째까지는 횟수만 올려 남긴다.
+        assertEquals(4, pendingDelete.getAttempts());
+        verify(pendingDeleteRepository, times(5)).save(pendingDelete);
+        verify(pendingDeleteRepository, never()).delete(pendingDelete);
+
+        // when: 다섯 번째 실패
+        googleService.deletePendingUploads();
+
+        // then
+        verify(pendingDeleteRepository).delete(pendingDelete);
+    }
+
+    private List<PendingDelete> savedPendingDeletes(int count) {
+        ArgumentCaptor<PendingDelete> captor = ArgumentCaptor.forClass(PendingDelete.class);
+        verify(pendingDeleteRepository, times(count)).save(captor.capture());
+        return captor.getAllValues();
+    }
+
+    private static Blob blob(long createTime, long generation) {
+        Blob blob = Mockito.mock(Blob.class);
+        Mockito.when(blob.getCreateTime()).thenReturn(createTime);
+        Mockito.when(blob.getGeneration()).thenReturn(generation);
+        return blob;
+    }
+
+    private static String url(String encodedName) {
+        return "https://storage.googleapis.com/" + BUCKET + "/" + encodedName;
+    }
+}
@@ -0,0 +1,247 @@
+package com.alal.backend.service.group;
+
+import com.alal.backend.config.AsyncConfiguration;
+import com.alal.backend.config.TransactionConfiguration;
+import com.alal.backend.domain.entity.project.Avatar;
+import com.alal.backend.domain.entity.project.Project;
+import com.alal.backend.domain.entity.project.ProjectAvatar;
+import com.alal.backend.domain.entity.project.ProjectStaff;
+import com.alal.backend.domain.entity.project.Scene;
+import com.alal.backend.domain.entity.project.Script;
+import com.alal.backend.domain.entity.project.Staff;
+import com.alal.backend.domain.vo.Group;
+import com.alal.backend.domain.vo.ImageMode;
+import com.alal.backend.service.user.UserService;
+import com.alal.backend.utils.ImageHttpClient;
+import com.alal.backend.utils.ImageResolver;
+import com.alal.backend.utils.Parser;
+import com.alal.backend.utils.cache.EncodedImageCache;
+import com.alal.backend.utils.cache.ImageDiskCache;
+import com.alal.backend.utils.cache.ObjectGenerationCache;
+import com.google.cloud.storage.Storage;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+
+// ./gradlew benchmark 로만 실행된다.
+// 실제 ProjectReadService / SceneService 로 프로젝트와 장면 조회를 H2 + HikariCP 위에서 동시에 보내고,
+// 이미지 다운로드(ImageHttpClient)는 고정 지연 후 바이트를 돌려주는 스텁으로 바꾼다.
+// open-in-view 를 켠 요청(OpenEntityManagerInViewInterceptor 처럼 요청 내내 EntityManager 를 묶어 둔다)과
+// 끈 요청에서 Hikari 의 사용 중 커넥션 수와 커넥션을 기다리는 스레드 수를 측정 전/중/후로 비교한다.
+@Tag("benchmark")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:read-connection;MODE=MySQL",
+        "spring.datasource.hikari.maximum-pool-size=" + ReadConnectionBenchmarkTest.POOL_SIZE,
+        "spring.datasource.hikari.minimum-idle=" + ReadConnectionBenchmarkTest.POOL_SIZE,
+        "spring.datasource.hikari.connection-timeout=60000",
+        "spring.cloud.gcp.storage.bucket=memo-log",
+        "storage.image.timeout-ms=60000"
+})
+@Import({ProjectReadService.class, SceneService.class, UserService.class, ImageResolver.class, Parser.class,
+        TransactionConfiguration.class, AsyncConfiguration.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReadConnectionBenchmarkTest {
+    static final int POOL_SIZE = 4;
+    private static final int CONCURRENT_READS = 16;
+    private static final int READS_PER_CLIENT = 5;
+    private static final long IMAGE_DOWNLOAD_MILLIS = 100;
+    private static final String STORAGE_URL = "https://storage.googleapis.com/memo-log/";
+
+    @Autowired
+    private ProjectReadService projectReadService;
+
+    @Autowired
+    private SceneService sceneService;
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @MockBean
+    private ImageHttpClient imageHttpClient;
+
+    @MockBean
+    private EncodedImageCache encodedImageCache;
+
+    @MockBean
+    private ImageDiskCache imageDiskCache;
+
+    @MockBean
+    private ObjectGenerationCache objectGenerationCache;
+
+    @MockBean
+    private Storage storage;
+
+    @MockBean
+    private GoogleService googleService;
+
+    private Long projectId;
+    private Long sceneNo;
+
+    @BeforeEach
+    void init() throws Exception {
+        // 캐시는 그대로 통과시켜 매 조회가 다운로드(스텁)까지 가게 한다.
+        Mockito.when(encodedImageCache.getOrCompute(anyString(), any())).thenAnswer(invocation ->
+                invocation.<Function<String, String>>getArgument(1).apply(invocation.getArgument(0)));
+        Mockito.when(imageDiskCache.getOrLoad(anyString(), any())).thenAnswer(invocation ->
+                invocation.<ImageDiskCache.ImageLoader>getArgument(1).load(invocation.getArgument(0)));
+        Mockito.when(imageHttpClient.download(anyString())).thenAnswer(invocation -> {
+            Thread.sleep(IMAGE_DOWNLOAD_MILLIS);
+            return new byte[1024];
+        });
+
+        transactionTemplate.executeWithoutResult(status -> saveProject());
+    }
+
+    @DisplayName("open-in-view 를 켰을 때와 껐을 때의 커넥션 사용/대기 비교")
+    @ParameterizedTest(name = "open-in-view = {0}")
+    @ValueSource(booleans = {true, false})
+    void compareConnectionUsage(boolean openInView) throws Exception {
+        // given
+        HikariPoolMXBean pool = dataSource.unwrap(HikariDataSource.class).getHikariPoolMXBean();
+        int activeBefore = pool.getActiveConnections();
+        int awaitingBefore = pool.getThreadsAwaitingConnection();
+
+        Runnable read = () -> {
+            projectReadService.readProject(projectId, ImageMode.BASE64);
+            sceneService.readDetailScene(projectId, sceneNo, ImageMode.BASE64);
+        };
+        Runnable request = openInView ? () -> withOpenEntityManager(read) : read;
+
+        // 사용 중 커넥션 수와 대기 스레드 수를 1ms 마다 읽어 최댓값을 남긴다.
+        AtomicInteger maxActive = new AtomicInteger();
+        AtomicInteger maxAwaiting = new AtomicInteger();
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        sampler.scheduleAtFixedRate(() -> {
+            maxActive.accumulateAndGet(pool.getActiveConnections(), Math::max);
+            maxAwaiting.accumulateAndGet(pool.getThreadsAwaitingConnection(), Math::max);
+        }, 0, 1, TimeUnit.MILLISECONDS);
+
+        // when
+        ExecutorService clients = Executors.newFixedThreadPool(CONCURRENT_READS);
+        long start = System.nanoTime();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < CONCURRENT_READS; i++) {
+            futures.add(clients.submit(() -> {
+                for (int n = 0; n < READS_PER_CLIENT; n++) {
+                    request.run();
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        clients.shutdown();
+        sampler.shutdown();
+        sampler.awaitTermination(1, TimeUnit.SECONDS);
+
+        // then: 조회가 끝나면 모든 커넥션이 풀로 돌아와야 한다.
+        int activeAfter = pool.getActiveConnections();
+        int awaitingAfter = pool.getThreadsAwaitingConnection();
+        assertEquals(0, activeAfter);
+        assertEquals(0, awaitingAfter);
+        System.out.printf("[open-in-view=%s] pool=%d clients=%d reads=%d elapsed=%dms "
+                        + "active(before/max/after)=%d/%d/%d awaiting(before/max/after)=%d/%d/%d%n",
+                openInView, POOL_SIZE, CONCURRENT_READS, CONCURRENT_READS * READS_PER_CLIENT, elapsedMillis,
+                activeBefore, maxActive.get(), activeAfter, awaitingBefore, maxAwaiting.get(), awaitingAfter);
+    }
+
+    // OpenEntityManagerInViewInterceptor 와 같이 요청 동안 EntityManager 를 스레드에 묶어 둔다.
+    // 서비스의 읽기 전용 트랜잭션이 끝나도 EntityManager 가 닫힐 때까지 커넥션을 반환하지 않는다.
+    private void withOpenEntityManager(Runnable read) {
+        EntityManagerHolder holder = new EntityManagerHolder(entityManagerFactory.createEntityManager());
+        TransactionSynchronizationManager.bindResource(entityManagerFactory, holder);
+        try {
+            read.run();
+        } finally {
+            TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+            EntityManagerFactoryUtils.closeEntityManager(holder.getEntityManager());
+        }
+    }
+
+    // 포스터, 배역 2명, 스태프 1명, 장면 썸네일. 이미지는 모두 내용 주소 이름이라 generation 조회 없이 바로 내려받는다.
+    private void saveProject() {
+        Group group = Group.fromUser("benchmark");
+        Project project = testEntityManager.persist(Project.builder()
+                .projectName("benchmark")
+                .group(group)
+                .poster(imageUrl("Poster", 1))
+                .build());
+
+        for (int i = 0; i < 2; i++) {
+            Avatar avatar = testEntityManager.persist(Avatar.builder()
+                    .avatarName("avatar-" + i)
+                    .avatarImage(imageUrl("Avatar", 10 + i))
+                    .group(group)
+                    .build());
+            testEntityManager.persist(ProjectAvatar.fromEntity(avatar, project));
+        }
+
+        Staff staff = testEntityManager.persist(Staff.builder()
+                .staffName("staff")
+                .staffProfile(imageUrl("Staff", 20))
+                .group(group)
+                .build());
+        testEntityManager.persist(ProjectStaff.fromEntity(staff, project));
+
+        // SceneService 는 프로젝트 번호로 대본을 찾으므로 대본 번호와 프로젝트 번호가 같아야 한다.
+        Script script = testEntityManager.persist(Script.from(STORAGE_URL + "Script/benchmark.csv", project));
+        assertEquals(project.getProjectId(), script.getScriptId());
+        Scene scene = testEntityManager.persist(Scene.builder()
+                .sceneNo(1L)
+                .story("story")
+                .thumbnail(imageUrl("Thumbnail", 30))
+                .script(script)
+                .build());
+
+        projectId = project.getProjectId();
+        sceneNo = scene.getSceneNo();
+    }
+
+    private static String imageUrl(String folder, int seed) {
+        return STORAGE_URL + folder + "/" + String.format("%064x", seed);
+    }
+}
@@ -0,0 +1,291 @@
+package com.alal.backend.service.group;
+
+import com.alal.backend.config.TransactionConfiguration;
+import com.alal.backend.domain.dto.request.UploadImageRequest;
+import com.alal.backend.domain.dto.request.UploadMemoRequest;
+import com.alal.backend.domain.dto.request.UploadProjectRequest;
+import com.alal.backend.domain.dto.request.UploadSceneRequest;
+import com.alal.backend.domain.dto.response.FlaskResponse;
+import com.alal.backend.domain.dto.response.ImageFlaskResponse;
+import com.alal.backend.domain.entity.project.Project;
+import com.alal.backend.domain.entity.project.Script;
+import com.alal.backend.domain.entity.project.StaffRole;
+import com.alal.backend.domain.entity.storage.ContentBlob;
+import com.alal.backend.domain.entity.user.Provider;
+import com.alal.backend.domain.entity.user.Role;
+import com.alal.backend.domain.entity.user.User;
+import com.alal.backend.domain.vo.Group;
+import com.alal.backend.domain.vo.StaffVO;
+import com.alal.backend.payload.request.user.FlaskVoiceRequest;
+import com.alal.backend.payload.request.user.ProfileUpdateRequest;
+import com.alal.backend.service.user.FlaskService;
+import com.alal.backend.service.user.ImageService;
+import com.alal.backend.service.user.MeshGenerationService;
+import com.alal.backend.service.user.MotionCatalog;
+import com.alal.backend.service.user.MotionService;
+import com.alal.backend.service.user.PoseDetectionService;
+import com.alal.backend.service.user.UserService;
+import com.alal.backend.utils.ImageResolver;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Mono;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+
+// ./gradlew benchmark 로만 실행된다.
+// 실제 ImageService / ProjectService / SceneService / MemoService / MotionService(음성) 의 저장 흐름을 H2 + HikariCP 위에서 동시에 보내고,
+// GCS 업로드(GoogleService.store*)와 Flask 호출(메쉬 생성, 음성 변환)은 고정 지연 후 결과를 돌려주는 스텁으로 바꾼다.
+// 변경 전처럼 흐름 전체를 하나의 트랜잭션으로 감싼 경우(외부 I/O 동안 커넥션을 잡는다)와 지금의 서비스 호출을 비교하고,
+// 커넥션을 얻기까지 기다린 시간은 Hikari 의 hikaricp.connections.acquire 타이머로, 커넥션을 잡고 있던 시간은
+// hikaricp.connections.usage 타이머로 측정한다.
+@Tag("benchmark")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:write-connection;MODE=MySQL",
+        "spring.datasource.hikari.maximum-pool-size=" + WriteConnectionBenchmarkTest.POOL_SIZE,
+        "spring.datasource.hikari.minimum-idle=" + WriteConnectionBenchmarkTest.POOL_SIZE,
+        "spring.datasource.hikari.connection-timeout=60000",
+        "spring.cloud.gcp.storage.bucket=memo-log"
+})
+@Import({ImageService.class, ProjectService.class, SceneService.class, MemoService.class, MotionService.class,
+        UserService.class, TransactionConfiguration.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class WriteConnectionBenchmarkTest {
+    static final int POOL_SIZE = 4;
+    private static final int CONCURRENT_CLIENTS = 16;
+    private static final int ROUNDS_PER_CLIENT = 3;
+    private static final long EXTERNAL_IO_MILLIS = 100;
+    private static final String STORAGE_URL = "https://storage.googleapis.com/memo-log/";
+
+    // 풀이 이미 떠 있으므로 지표 저장소는 한 번만 붙일 수 있다. 파라미터마다 전후 차이로 계산한다.
+    private static final SimpleMeterRegistry METER_REGISTRY = new SimpleMeterRegistry();
+    private static final AtomicInteger RUN = new AtomicInteger();
+
+    @Autowired
+    private ImageService imageService;
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private SceneService sceneService;
+
+    @Autowired
+    private MemoService memoService;
+
+    @Autowired
+    private MotionService motionService;
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @MockBean
+    private GoogleService googleService;
+
+    @MockBean
+    private MeshGenerationService meshGenerationService;
+
+    @MockBean
+    private FlaskService flaskService;
+
+    @MockBean
+    private ImageResolver imageResolver;
+
+    @MockBean
+    private MotionCatalog motionCatalog;
+
+    @MockBean
+    private PoseDetectionService poseDetectionService;
+
+    private Long projectId;
+    private final List<User> users = new ArrayList<>();
+
+    @BeforeEach
+    void init() throws Exception {
+        HikariDataSource hikari = dataSource.unwrap(HikariDataSource.class);
+        if (hikari.getMetricRegistry() == null) {
+            hikari.setMetricRegistry(METER_REGISTRY);
+        }
+
+        Mockito.when(googleService.storePoster(any(UploadProjectRequest.class))).thenAnswer(invocation -> upload("Poster"));
+        Mockito.when(googleService.storeScripts(any(UploadProjectRequest.class))).thenAnswer(invocation -> upload("Scripts"));
+        Mockito.when(googleService.storeImage(any(UploadSceneRequest.class))).thenAnswer(invocation -> upload("Scene"));
+        Mockito.when(googleService.storeMemo(anyString())).thenAnswer(invocation -> upload("Memo"));
+        Mockito.when(googleService.register(any())).thenAnswer(invocation ->
+                invocation.<ContentBlob>getArgument(0).getUploadUrl());
+        Mockito.when(meshGenerationService.generate(any(UploadImageRequest.class), anyLong())).thenAnswer(invocation ->
+                Mono.delay(Duration.ofMillis(EXTERNAL_IO_MILLIS))
+                        .map(tick -> ImageFlaskResponse.of(STORAGE_URL + "albedo.png", STORAGE_URL + "mesh.mtl",
+                                STORAGE_URL + "mesh.obj", STORAGE_URL + "example.png")));
+        Mockito.when(flaskService.communicateWithFlaskServerByVoice(any(), anyLong())).thenAnswer(invocation ->
+                Mono.delay(Duration.ofMillis(EXTERNAL_IO_MILLIS))
+                        .map(tick -> new FlaskResponse(STORAGE_URL + "Voice/converted.wav")));
+
+        transactionTemplate.executeWithoutResult(status -> saveFixtures(RUN.incrementAndGet()));
+    }
+
+    @DisplayName("흐름 전체를 트랜잭션으로 감쌌을 때(변경 전)와 지금 서비스의 커넥션 획득 대기 시간 비교")
+    @ParameterizedTest(name = "wrapInTransaction = {0}")
+    @ValueSource(booleans = {true, false})
+    void compareConnectionAcquire(boolean wrapInTransaction) throws Exception {
+        // given
+        Timer acquire = METER_REGISTRY.get("hikaricp.connections.acquire").timer();
+        Timer usage = METER_REGISTRY.get("hikaricp.connections.usage").timer();
+        long acquireCountBefore = acquire.count();
+        double acquireMillisBefore = acquire.totalTime(TimeUnit.MILLISECONDS);
+        long usageCountBefore = usage.count();
+        double usageMillisBefore = usage.totalTime(TimeUnit.MILLISECONDS);
+
+        // when
+        ExecutorService clients = Executors.newFixedThreadPool(CONCURRENT_CLIENTS);
+        long start = System.nanoTime();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < CONCURRENT_CLIENTS; i++) {
+            User user = users.get(i);
+            long sceneNo = i + 1;
+            futures.add(clients.submit(() -> {
+                for (int round = 0; round < ROUNDS_PER_CLIENT; round++) {
+                    writeAll(user, sceneNo, wrapInTransaction);
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        clients.shutdown();
+
+        // then: 저장이 끝나면 모든 커넥션이 풀로 돌아와야 한다.
+        assertEquals(0, dataSource.unwrap(HikariDataSource.class).getHikariPoolMXBean().getActiveConnections());
+        long acquireCount = acquire.count() - acquireCountBefore;
+        double acquireMillis = acquire.totalTime(TimeUnit.MILLISECONDS) - acquireMillisBefore;
+        long usageCount = usage.count() - usageCountBefore;
+        double usageMillis = usage.totalTime(TimeUnit.MILLISECONDS) - usageMillisBefore;
+        System.out.printf("[wrapInTransaction=%s] pool=%d clients=%d writes=%d elapsed=%dms "
+                        + "acquire(count/total/mean)=%d/%.0fms/%.2fms usage(count/total/mean)=%d/%.0fms/%.2fms%n",
+                wrapInTransaction, POOL_SIZE, CONCURRENT_CLIENTS, CONCURRENT_CLIENTS * ROUNDS_PER_CLIENT * 5,
+                elapsedMillis, acquireCount, acquireMillis, acquireMillis / acquireCount,
+                usageCount, usageMillis, usageMillis / usageCount);
+    }
+
+    // 이미지, 프로젝트, 장면, 메모, 음성 저장을 차례로 한 번씩 보낸다.
+    // wrapInTransaction 이면 변경 전 @Transactional 메서드처럼 외부 I/O 를 포함한 흐름 전체가 하나의 트랜잭션 안에서 돈다.
+    // 서비스 안의 TransactionTemplate 은 바깥 트랜잭션에 참여하므로 커넥션은 흐름이 끝날 때까지 반환되지 않는다.
+    private void writeAll(User user, long sceneNo, boolean wrapInTransaction) {
+        Long userId = user.getId();
+
+        UploadImageRequest imageRequest = new UploadImageRequest();
+        imageRequest.setDescription("benchmark");
+        FlaskVoiceRequest voiceRequest = FlaskVoiceRequest.builder()
+                .fileName("voice.wav")
+                .modelName("model")
+                .gender("female")
+                .build();
+
+        if (wrapInTransaction) {
+            inTransaction(() -> imageService.saveImage(
+                    meshGenerationService.generate(imageRequest, userId).block(), userId));
+            inTransaction(() -> projectService.uploadProject(projectRequest(user), userId));
+            inTransaction(() -> sceneService.uploadScene(sceneRequest(sceneNo)));
+            inTransaction(() -> memoService.uploadMemo(new UploadMemoRequest("memo"), userId));
+            inTransaction(() -> motionService.saveVoice(
+                    flaskService.communicateWithFlaskServerByVoice(voiceRequest, userId).block(), voiceRequest, userId));
+            return;
+        }
+
+        imageService.uploadImage(imageRequest, userId).join();
+        projectService.uploadProject(projectRequest(user), userId);
+        sceneService.uploadScene(sceneRequest(sceneNo));
+        memoService.uploadMemo(new UploadMemoRequest("memo"), userId);
+        motionService.uploadAndRespondWithAudioFileSuccess(voiceRequest, userId).join();
+    }
+
+    private <T> void inTransaction(Supplier<T> write) {
+        transactionTemplate.execute(status -> write.get());
+    }
+
+    private ContentBlob upload(String folder) throws InterruptedException {
+        Thread.sleep(EXTERNAL_IO_MILLIS);
+        String contentHash = String.format("%064x", System.nanoTime());
+        return ContentBlob.of(contentHash, folder + "/" + contentHash, STORAGE_URL + folder + "/" + contentHash);
+    }
+
+    private UploadProjectRequest projectRequest(User user) {
+        UploadProjectRequest request = new UploadProjectRequest();
+        request.setProjectName("benchmark");
+        request.setDescription("benchmark");
+        request.setStaffs(List.of(new StaffVO(user.getEmail(), StaffRole.GENERAL)));
+        request.setAvatarName(List.of("avatar"));
+        return request;
+    }
+
+    private UploadSceneRequest sceneRequest(long sceneNo) {
+        UploadSceneRequest request = new UploadSceneRequest();
+        request.setProjectId(projectId);
+        request.setSceneNo(sceneNo);
+        request.setStory("story");
+        return request;
+    }
+
+    // 클라이언트마다 그룹이 다른 사용자를 둔다. 같은 그룹의 메모를 여러 요청이 동시에 지우면 저장 흐름과 관계없이 충돌한다.
+    private void saveFixtures(int run) {
+        users.clear();
+        for (int i = 0; i < CONCURRENT_CLIENTS; i++) {
+            User user = User.builder()
+                    .name("writer-" + i)
+                    .email("writer-" + run + "-" + i + "@benchmark.com")
+                    .provider(Provider.google)
+                    .role(Role.USER)
+                    .build();
+            ProfileUpdateRequest profile = new ProfileUpdateRequest();
+            profile.setUserGroup("benchmark-" + run + "-" + i);
+            user.updateProfile(profile);
+            users.add(testEntityManager.persist(user));
+        }
+
+        // SceneService 는 프로젝트 번호로 대본을 찾으므로 대본 번호와 프로젝트 번호가 같아야 한다.
+        Project project = testEntityManager.persist(Project.builder()
+                .projectName("benchmark")
+                .group(Group.fromUser("benchmark"))
+                .build());
+        Script script = testEntityManager.persist(Script.from(STORAGE_URL + "Script/benchmark.csv", project));
+        assertEquals(project.getProjectId(), script.getScriptId());
+        projectId = project.getProjectId();
+    }
+}
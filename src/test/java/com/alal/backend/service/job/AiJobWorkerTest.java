@@ -0,0 +1,281 @@
+package com.alal.backend.service.job;
+
+import com.alal.backend.domain.entity.job.AiJob;
+import com.alal.backend.domain.entity.job.JobStatus;
+import com.alal.backend.domain.entity.job.JobType;
+import com.alal.backend.repository.job.AiJobRepository;
+import com.alal.backend.service.user.FlaskService;
+import com.alal.backend.service.user.ImageService;
+import com.alal.backend.service.user.MeshGenerationService;
+import com.alal.backend.service.user.MotionService;
+import com.alal.backend.service.user.PoseDetectionService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class AiJobWorkerTest {
+    private static final Long JOB_ID = 1L;
+    private static final Long USER_ID = 10L;
+    private static final String INSTANCE_ID = "api_1";
+
+    private AiJobRepository aiJobRepository;
+    private PoseDetectionService poseDetectionService;
+    private MotionService motionService;
+    private ThreadPoolTaskExecutor aiJobExecutor;
+    private AiJobWorker aiJobWorker;
+    private String workerId;
+
+    @BeforeEach
+    void init() {
+        aiJobRepository = Mockito.mock(AiJobRepository.class);
+        poseDetectionService = Mockito.mock(PoseDetectionService.class);
+        motionService = Mockito.mock(MotionService.class);
+        aiJobExecutor = Mockito.mock(ThreadPoolTaskExecutor.class);
+        aiJobWorker = new AiJobWorker(aiJobRepository, Mockito.mock(FlaskService.class), poseDetectionService,
+                motionService, Mockito.mock(ImageService.class), Mockito.mock(MeshGenerationService.class),
+                new ObjectMapper(), new TransactionTemplate(Mockito.mock(PlatformTransactionManager.class)),
+                new SimpleMeterRegistry(), aiJobExecutor);
+        ReflectionTestUtils.setField(aiJobWorker, "leaseMs", 120_000L);
+        ReflectionTestUtils.setField(aiJobWorker, "queueCapacity", 100);
+        ReflectionTestUtils.setField(aiJobWorker, "instanceId", INSTANCE_ID);
+        aiJobWorker.init();
+        workerId = (String) ReflectionTestUtils.getField(aiJobWorker, "workerId");
+    }
+
+    @DisplayName("작업을 가져간 워커가 추론을 실행하고 결과를 저장하는지")
+    @Test
+    void claimTest() {
+        // given
+        AiJob aiJob = runningJob(workerId);
+        Mockito.when(aiJobRepository.markRunning(eq(JOB_ID), eq(workerId), any())).thenReturn(1);
+        Mockito.when(aiJobRepository.findById(JOB_ID)).thenReturn(Optional.of(aiJob));
+        Mockito.when(poseDetectionService.detect(any())).thenReturn(Mono.just(Collections.emptyList()));
+
+        // when
+        aiJobWorker.run(JOB_ID);
+
+        // then
+        verify(motionService).saveUserHistory(Collections.emptyList(), USER_ID);
+        assertEquals(JobStatus.DONE, aiJob.getStatus());
+        assertEquals("[]", aiJob.getResult());
+    }
+
+    @DisplayName("다른 워커가 이미 가져간 작업은 다시 실행하지 않는지")
+    @Test
+    void doubleClaimTest() {
+        // given
+        Mockito.when(aiJobRepository.markRunning(eq(JOB_ID), eq(workerId), any())).thenReturn(0);
+
+        // when
+        aiJobWorker.run(JOB_ID);
+
+        // then
+        verify(poseDetectionService, never()).detect(any());
+        verify(aiJobRepository, never()).findById(anyLong());
+    }
+
+    @DisplayName("추론이 실패하면 실패 사유를 저장하는지")
+    @Test
+    void failureTest() {
+        // given
+        AiJob aiJob = runningJob(workerId);
+        Mockito.when(aiJobRepository.markRunning(eq(JOB_ID), eq(workerId), any())).thenReturn(1);
+        Mockito.when(aiJobRepository.findById(JOB_ID)).thenReturn(Optional.of(aiJob));
+        Mockito.when(poseDetectionService.detect(any())).thenReturn(Mono.error(new IllegalStateException("timeout")));
+
+        // when
+        aiJobWorker.run(JOB_ID);
+
+        // then
+        verify(motionService, never()).saveUserHistory(anyList(), anyLong());
+        assertEquals(JobStatus.FAILED, aiJob.getStatus());
+        assertEquals("timeout", aiJob.getErrorMessage());
+    }
+
+    @DisplayName("실행 도중 임대 시간이 지나 다른 워커가 가져간 작업의 결과는 덮어쓰지 않는지")
+    @Test
+    void reclaimedWhileRunningTest() {
+        // given
+        AiJob started = runningJob(workerId);
+        AiJob reclaimed = runningJob("other-worker");
+        Mockito.when(aiJobRepository.markRunning(eq(JOB_ID), eq(workerId), any())).thenReturn(1);
+        Mockito.when(aiJobRepository.findById(JOB_ID)).thenReturn(Optional.of(started), Optional.of(reclaimed));
+        Mockito.when(poseDetectionService.detect(any())).thenReturn(Mono.just(Collections.emptyList()));
+
+        // when
+        aiJobWorker.run(JOB_ID);
+
+        // then
+        assertEquals(JobStatus.RUNNING, reclaimed.getStatus());
+        assertEquals(null, reclaimed.getResult());
+    }
+
+    @DisplayName("생존 신호가 끊긴 작업 중 조건부 update 에 성공한 작업만 다시 큐에 넣는지")
+    @Test
+    void reclaimExpiredJobsTest() {
+        // given
+        Mockito.when(aiJobRepository.findExpiredJobIds(anyList(), any())).thenReturn(List.of(1L, 2L));
+        Mockito.when(aiJobRepository.reclaim(eq(1L), anyList(), any(), any())).thenReturn(1);
+        Mockito.when(aiJobRepository.reclaim(eq(2L), anyList(), any(), any())).thenReturn(0);
+
+        // when
+        aiJobWorker.reclaimExpiredJobs();
+
+        // then
+        verify(aiJobExecutor, times(1)).execute(any(Runnable.class));
+    }
+
+    @DisplayName("큐에 남은 자리만큼만 회수하고 나머지는 DB 에 남기는지")
+    @Test
+    void reclaimExpiredJobsWithinCapacityTest() {
+        // given: 큐 크기 3 중 1 자리가 이미 차 있다.
+        ReflectionTestUtils.setField(aiJobWorker, "queueCapacity", 3);
+        aiJobWorker.enqueue(100L);
+        Mockito.when(aiJobRepository.findExpiredJobIds(anyList(), any())).thenReturn(List.of(1L, 2L, 3L, 4L));
+        Mockito.when(aiJobRepository.reclaim(anyLong(), anyList(), any(), any())).thenReturn(1);
+
+        // when
+        aiJobWorker.reclaimExpiredJobs();
+
+        // then
+        verify(aiJobRepository).reclaim(eq(1L), anyList(), any(), any());
+        verify(aiJobRepository).reclaim(eq(2L), anyList(), any(), any());
+        verify(aiJobRepository, never()).reclaim(eq(3L), anyList(), any(), any());
+        verify(aiJobExecutor, times(3)).execute(any(Runnable.class));
+    }
+
+    @DisplayName("큐가 가득 차 있으면 회수하지 않는지")
+    @Test
+    void reclaimExpiredJobsWhenFullTest() {
+        // given
+        ReflectionTestUtils.setField(aiJobWorker, "queueCapacity", 1);
+        aiJobWorker.enqueue(100L);
+
+        // when
+        aiJobWorker.reclaimExpiredJobs();
+
+        // then
+        verify(aiJobRepository, never()).findExpiredJobIds(anyList(), any());
+    }
+
+    @DisplayName("큐에 넣지 못하면 QUEUED 로 남기고 생존 신호를 지워 다음 회수 주기에 가져가게 하는지")
+    @Test
+    void enqueueRejectedTest() {
+        // given
+        Mockito.doThrow(new TaskRejectedException("queue full")).when(aiJobExecutor).execute(any(Runnable.class));
+
+        // when
+        aiJobWorker.enqueue(JOB_ID);
+        aiJobWorker.enqueue(JOB_ID);
+
+        // then
+        verify(aiJobExecutor, times(2)).execute(any(Runnable.class));
+        verify(aiJobRepository, times(2)).expire(JOB_ID);
+        verify(aiJobRepository, never()).markRunning(anyLong(), anyString(), any());
+    }
+
+    @DisplayName("재시작 직후 같은 인스턴스 식별자의 이전 실행이 남긴 작업을 임대 시간을 기다리지 않고 되찾는지")
+    @Test
+    void reclaimAbandonedJobsTest() {
+        // given: like 특수 문자(_)는 escape 해서 다른 인스턴스(api-1 등)와 섞이지 않는다.
+        String ownerPattern = "api!_1/%";
+        assertTrue(workerId.startsWith(INSTANCE_ID + "/"));
+        Mockito.when(aiJobRepository.findAbandonedJobIds(anyList(), eq(ownerPattern), eq(workerId))).thenReturn(List.of(1L, 2L));
+        Mockito.when(aiJobRepository.reclaimAbandoned(eq(1L), anyList(), eq(ownerPattern), eq(workerId), any())).thenReturn(1);
+        Mockito.when(aiJobRepository.reclaimAbandoned(eq(2L), anyList(), eq(ownerPattern), eq(workerId), any())).thenReturn(0);
+
+        // when
+        aiJobWorker.reclaimAbandonedJobs();
+
+        // then
+        verify(aiJobRepository, never()).findExpiredJobIds(anyList(), any());
+        verify(aiJobExecutor, times(1)).execute(any(Runnable.class));
+    }
+
+    @DisplayName("인스턴스 식별자를 설정하지 않으면 재시작 회수를 하지 않는지")
+    @Test
+    void reclaimAbandonedJobsWithoutInstanceIdTest() {
+        // given
+        ReflectionTestUtils.setField(aiJobWorker, "instanceId", "");
+        aiJobWorker.init();
+
+        // when
+        aiJobWorker.reclaimAbandonedJobs();
+
+        // then
+        verify(aiJobRepository, never()).findAbandonedJobIds(anyList(), anyString(), anyString());
+    }
+
+    @SuppressWarnings("unchecked")
+    @DisplayName("생존 신호는 실행 중인 작업과 함께 이 인스턴스의 큐에서 기다리는 작업도 갱신하는지")
+    @Test
+    void heartbeatQueuedTest() {
+        // given
+        aiJobWorker.enqueue(1L);
+        aiJobWorker.enqueue(2L);
+
+        // when
+        aiJobWorker.heartbeat();
+
+        // then
+        ArgumentCaptor<Collection<Long>> queuedIds = ArgumentCaptor.forClass(Collection.class);
+        verify(aiJobRepository).heartbeat(eq(workerId), any());
+        verify(aiJobRepository).heartbeatQueued(queuedIds.capture(), eq(workerId), any());
+        assertEquals(Set.of(1L, 2L), new HashSet<>(queuedIds.getValue()));
+    }
+
+    @DisplayName("큐가 비어 있으면 대기 작업 생존 신호는 보내지 않는지")
+    @Test
+    void heartbeatWithoutQueuedTest() {
+        // when
+        aiJobWorker.heartbeat();
+
+        // then
+        verify(aiJobRepository).heartbeat(eq(workerId), any());
+        verify(aiJobRepository, never()).heartbeatQueued(any(), any(), any());
+    }
+
+    private AiJob runningJob(String owner) {
+        AiJob aiJob = AiJob.builder()
+                .id(JOB_ID)
+                .userId(USER_ID)
+                .type(JobType.POSE)
+                .status(JobStatus.RUNNING)
+                .payload("{\"fileName\":\"dance.mp4\"}")
+                .owner(owner)
+                .startedAt(LocalDateTime.now())
+                .heartbeatAt(LocalDateTime.now())
+                .build();
+        ReflectionTestUtils.setField(aiJob, "createdDate", LocalDateTime.now().minusSeconds(1));
+        return aiJob;
+    }
+}
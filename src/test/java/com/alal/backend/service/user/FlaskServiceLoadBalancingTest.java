@@ -0,0 +1,148 @@
+package com.alal.backend.service.user;
+
+import com.alal.backend.config.FlaskPolicyConfig;
+import com.alal.backend.payload.request.user.FlaskRequest;
+import com.alal.backend.utils.cache.VoiceConversionCache;
+import com.alal.backend.utils.resilience.FlaskCallPolicy;
+import com.alal.backend.utils.resilience.FlaskEndpoint;
+import com.alal.backend.utils.resilience.FlaskLoadBalancer;
+import com.alal.backend.utils.resilience.ModelServerInstance;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.google.cloud.storage.Storage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// 응답 속도가 다른 WireMock 서버 여러 대를 Flask 인스턴스로 두고 요청이 어떻게 나뉘는지 확인한다.
+class FlaskServiceLoadBalancingTest {
+    private static final String CHECK_POSE_URI = "/checkpose/";
+    private static final String POSE_RESPONSE = "[{\"responseMessage\":\"sample\"}]";
+    private static final int REQUESTS = 60;
+    private static final int CONCURRENCY = 6;
+
+    private final List<WireMockServer> flaskServers = new ArrayList<>();
+    private FlaskLoadBalancer flaskLoadBalancer;
+    private FlaskService flaskService;
+
+    @BeforeEach
+    void init() {
+        for (int i = 0; i < 3; i++) {
+            WireMockServer flaskServer = new WireMockServer(options().dynamicPort());
+            flaskServer.start();
+            flaskServers.add(flaskServer);
+        }
+
+        FlaskPolicyConfig flaskPolicyConfig = new FlaskPolicyConfig();
+        flaskPolicyConfig.getBreaker().setMinimumNumberOfCalls(REQUESTS);
+        flaskPolicyConfig.getBreaker().setSlidingWindowSize(REQUESTS);
+        flaskPolicyConfig.getLoadBalancer().setHealthPath("/health");
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        WebClient webClient = WebClient.builder().build();
+        String[] flaskUrls = flaskServers.stream().map(WireMockServer::baseUrl).toArray(String[]::new);
+        flaskLoadBalancer = new FlaskLoadBalancer(flaskUrls, flaskUrls, flaskPolicyConfig, webClient, meterRegistry);
+        flaskService = new FlaskService(webClient, new VoiceConversionCache(100, 60, meterRegistry),
+                new FlaskCallPolicy(flaskPolicyConfig, meterRegistry), flaskLoadBalancer, Mockito.mock(Storage.class));
+    }
+
+    @AfterEach
+    void cleanup() {
+        flaskServers.forEach(WireMockServer::stop);
+    }
+
+    @DisplayName("least-outstanding 라우팅으로 빠른 인스턴스가 더 많은 요청을 받는지")
+    @Test
+    void shiftTrafficToFastInstanceTest() {
+        // given
+        int[] latencies = {20, 100, 400};
+        for (int i = 0; i < flaskServers.size(); i++) {
+            flaskServers.get(i).stubFor(post(urlEqualTo(CHECK_POSE_URI))
+                    .willReturn(okJson(POSE_RESPONSE).withFixedDelay(latencies[i])));
+        }
+
+        // when
+        sendPoseRequests();
+
+        // then
+        int fast = requestCount(0);
+        int medium = requestCount(1);
+        int slow = requestCount(2);
+        String distribution = String.format("fast=%d, medium=%d, slow=%d", fast, medium, slow);
+        assertEquals(REQUESTS, fast + medium + slow, distribution);
+        assertTrue(fast > medium && medium > slow, distribution);
+        assertTrue(fast > REQUESTS / 2, distribution);
+    }
+
+    @DisplayName("연속으로 5xx를 내는 인스턴스는 제외되고 나머지 인스턴스가 요청을 처리하는지")
+    @Test
+    void passiveEjectionTest() {
+        // given
+        flaskServers.get(0).stubFor(post(urlEqualTo(CHECK_POSE_URI)).willReturn(serverError()));
+        flaskServers.get(1).stubFor(post(urlEqualTo(CHECK_POSE_URI)).willReturn(okJson(POSE_RESPONSE)));
+        flaskServers.get(2).stubFor(post(urlEqualTo(CHECK_POSE_URI)).willReturn(okJson(POSE_RESPONSE)));
+
+        // when
+        long failures = Flux.range(0, REQUESTS)
+                .concatMap(i -> checkPose().thenReturn(false).onErrorReturn(true))
+                .filter(failed -> failed)
+                .count()
+                .block();
+
+        // then
+        ModelServerInstance broken = flaskLoadBalancer.instances(FlaskEndpoint.POSE).get(0);
+        assertEquals(3, failures);
+        assertEquals(3, requestCount(0));
+        assertEquals(1, broken.ejections());
+        assertFalse(broken.isAvailable(System.nanoTime()));
+    }
+
+    @DisplayName("health check에 실패한 인스턴스로는 요청을 보내지 않는지")
+    @Test
+    void activeHealthCheckTest() {
+        // given
+        flaskServers.get(0).stubFor(get(urlEqualTo("/health")).willReturn(serviceUnavailable()));
+        for (WireMockServer flaskServer : flaskServers) {
+            flaskServer.stubFor(post(urlEqualTo(CHECK_POSE_URI)).willReturn(okJson(POSE_RESPONSE)));
+        }
+        flaskServers.get(1).stubFor(get(urlEqualTo("/health")).willReturn(ok()));
+        flaskServers.get(2).stubFor(get(urlEqualTo("/health")).willReturn(ok()));
+
+        // when
+        flaskLoadBalancer.checkHealth();
+        sendPoseRequests();
+
+        // then
+        assertEquals(0, requestCount(0));
+        assertEquals(REQUESTS, requestCount(1) + requestCount(2));
+    }
+
+    private void sendPoseRequests() {
+        Flux.range(0, REQUESTS)
+                .flatMap(i -> checkPose(), CONCURRENCY)
+                .blockLast();
+    }
+
+    private Mono<Integer> checkPose() {
+        return flaskService.communicateWithFlaskServer(FlaskRequest.builder().fileName("sample.mp4").build())
+                .map(List::size);
+    }
+
+    private int requestCount(int index) {
+        return flaskServers.get(index).findAll(postRequestedFor(urlEqualTo(CHECK_POSE_URI))).size();
+    }
+}
@@ -0,0 +1,148 @@
+package com.alal.backend.service.user;
+
+import com.alal.backend.advice.error.DefaultException;
+import com.alal.backend.advice.payload.ErrorCode;
+import com.alal.backend.config.FlaskPolicyConfig;
+import com.alal.backend.domain.dto.response.FlaskResponse;
+import com.alal.backend.payload.request.user.FlaskRequest;
+import com.alal.backend.utils.cache.VoiceConversionCache;
+import com.alal.backend.utils.resilience.CircuitBreaker;
+import com.alal.backend.utils.resilience.FlaskCallPolicy;
+import com.alal.backend.utils.resilience.FlaskEndpoint;
+import com.alal.backend.utils.resilience.FlaskLoadBalancer;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.google.cloud.storage.Storage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// Flask 대신 WireMock 서버로 지연과 5xx를 흉내 내어 타임아웃, bulkhead, 서킷 브레이커 동작을 확인한다.
+class FlaskServiceResilienceTest {
+    private static final String CHECK_POSE_URI = "/checkpose/";
+
+    private WireMockServer flaskServer;
+    private FlaskCallPolicy flaskCallPolicy;
+    private FlaskService flaskService;
+
+    @BeforeEach
+    void init() {
+        flaskServer = new WireMockServer(options().dynamicPort());
+        flaskServer.start();
+
+        FlaskPolicyConfig flaskPolicyConfig = new FlaskPolicyConfig();
+        flaskPolicyConfig.getPose().setTimeoutMs(500);
+        flaskPolicyConfig.getPose().setMaxConcurrentCalls(1);
+        flaskPolicyConfig.getBreaker().setSlidingWindowSize(4);
+        flaskPolicyConfig.getBreaker().setMinimumNumberOfCalls(4);
+        flaskPolicyConfig.getBreaker().setOpenStateMs(300);
+        flaskPolicyConfig.getBreaker().setPermittedCallsInHalfOpenState(1);
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        WebClient webClient = WebClient.builder().build();
+        String[] flaskUrls = {flaskServer.baseUrl()};
+        flaskCallPolicy = new FlaskCallPolicy(flaskPolicyConfig, meterRegistry);
+        flaskService = new FlaskService(webClient, new VoiceConversionCache(100, 60, meterRegistry), flaskCallPolicy,
+                new FlaskLoadBalancer(flaskUrls, flaskUrls, flaskPolicyConfig, webClient, meterRegistry),
+                Mockito.mock(Storage.class));
+    }
+
+    @AfterEach
+    void cleanup() {
+        flaskServer.stop();
+    }
+
+    @DisplayName("5xx가 계속되면 서킷이 열려 Flask를 호출하지 않고 실패하고, half-open 시험 호출이 성공하면 닫히는지")
+    @Test
+    void circuitBreakerTest() throws InterruptedException {
+        // given
+        flaskServer.stubFor(post(urlEqualTo(CHECK_POSE_URI)).willReturn(serverError()));
+        for (int i = 0; i < 4; i++) {
+            assertThrows(RuntimeException.class, this::checkPose);
+        }
+
+        // when
+        DefaultException rejected = assertThrows(DefaultException.class, this::checkPose);
+
+        // then
+        assertEquals(ErrorCode.MODEL_SERVER_UNAVAILABLE, rejected.getErrorCode());
+        assertEquals(CircuitBreaker.State.OPEN, flaskCallPolicy.state(FlaskEndpoint.POSE));
+        flaskServer.verify(4, postRequestedFor(urlEqualTo(CHECK_POSE_URI)));
+
+        // half-open 시험 호출
+        flaskServer.stubFor(post(urlEqualTo(CHECK_POSE_URI))
+                .willReturn(okJson("[{\"responseMessage\":\"sample\"}]")));
+        Thread.sleep(400);
+
+        assertEquals(1, checkPose());
+        assertEquals(CircuitBreaker.State.CLOSED, flaskCallPolicy.state(FlaskEndpoint.POSE));
+    }
+
+    @DisplayName("응답이 타임아웃보다 늦으면 504 에러로 끝나는지")
+    @Test
+    void timeoutTest() {
+        // given
+        flaskServer.stubFor(post(urlEqualTo(CHECK_POSE_URI))
+                .willReturn(okJson("[{\"responseMessage\":\"sample\"}]").withFixedDelay(2_000)));
+
+        // when
+        DefaultException timeout = assertThrows(DefaultException.class, this::checkPose);
+
+        // then
+        assertEquals(ErrorCode.MODEL_SERVER_TIMEOUT, timeout.getErrorCode());
+    }
+
+    @DisplayName("동시 호출 한도를 넘는 요청은 기다리지 않고 바로 거절되는지")
+    @Test
+    void bulkheadTest() throws InterruptedException {
+        // given
+        flaskServer.stubFor(post(urlEqualTo(CHECK_POSE_URI))
+                .willReturn(okJson("[{\"responseMessage\":\"sample\"}]").withFixedDelay(300)));
+        CompletableFuture<Integer> inFlight = CompletableFuture.supplyAsync(this::checkPose);
+        Thread.sleep(100);
+
+        // when
+        DefaultException rejected = assertThrows(DefaultException.class, this::checkPose);
+
+        // then
+        assertEquals(ErrorCode.MODEL_SERVER_UNAVAILABLE, rejected.getErrorCode());
+        assertEquals(1, inFlight.join());
+    }
+
+    @DisplayName("스트리밍 호출은 원소를 하나씩 내보내고, 끝나면 동시 호출 자리를 반환하는지")
+    @Test
+    void streamPoseTest() {
+        // given
+        flaskServer.stubFor(post(urlEqualTo(CHECK_POSE_URI))
+                .willReturn(okJson("[{\"responseMessage\":\"walk\"},{\"responseMessage\":\"jump\"}]")));
+        FlaskRequest flaskRequest = FlaskRequest.builder().fileName("sample.mp4").build();
+
+        // when
+        List<FlaskResponse> motions = flaskService.streamPose(flaskRequest).collectList().block();
+
+        // then
+        assertEquals(List.of("walk", "jump"), motions.stream()
+                .map(FlaskResponse::getResponseMessage)
+                .collect(Collectors.toList()));
+        assertEquals(1, checkPose());
+        assertEquals(CircuitBreaker.State.CLOSED, flaskCallPolicy.state(FlaskEndpoint.POSE));
+    }
+
+    private int checkPose() {
+        return flaskService.communicateWithFlaskServer(FlaskRequest.builder().fileName("sample.mp4").build())
+                .block()
+                .size();
+    }
+}
@@ -0,0 +1,117 @@
+package com.alal.backend.service.user;
+
+import com.alal.backend.config.FlaskPolicyConfig;
+import com.alal.backend.domain.dto.response.FlaskResponse;
+import com.alal.backend.payload.request.user.FlaskVoiceRequest;
+import com.alal.backend.utils.cache.VoiceConversionCache;
+import com.alal.backend.utils.resilience.FlaskCallPolicy;
+import com.alal.backend.utils.resilience.FlaskLoadBalancer;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.google.cloud.storage.Blob;
+import com.google.cloud.storage.BlobId;
+import com.google.cloud.storage.Storage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+
+// 음성 변환 캐시가 주소가 아니라 사용자와 입력 내용(GCS 메타데이터)으로 구분되는지 WireMock 으로 확인한다.
+class FlaskServiceVoiceCacheTest {
+    private static final String CONVERT_VOICE_URI = "/voice/convert";
+    private static final String VOICE_URL = "https://storage.googleapis.com/alal/Voice/line01.wav";
+
+    private WireMockServer flaskServer;
+    private Storage storage;
+    private FlaskService flaskService;
+
+    @BeforeEach
+    void init() {
+        flaskServer = new WireMockServer(options().dynamicPort());
+        flaskServer.start();
+        flaskServer.stubFor(post(urlEqualTo(CONVERT_VOICE_URI))
+                .willReturn(okJson("{\"responseMessage\":\"converted.wav\"}")));
+
+        FlaskPolicyConfig flaskPolicyConfig = new FlaskPolicyConfig();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        WebClient webClient = WebClient.builder().build();
+        String[] flaskUrls = {flaskServer.baseUrl()};
+        storage = Mockito.mock(Storage.class);
+        flaskService = new FlaskService(webClient, new VoiceConversionCache(100, 60, meterRegistry),
+                new FlaskCallPolicy(flaskPolicyConfig, meterRegistry),
+                new FlaskLoadBalancer(flaskUrls, flaskUrls, flaskPolicyConfig, webClient, meterRegistry), storage);
+    }
+
+    @AfterEach
+    void cleanup() {
+        flaskServer.stop();
+    }
+
+    @DisplayName("같은 사용자가 같은 내용의 음성을 다시 보내면 캐시를 쓰고, 다른 사용자는 따로 변환하는지")
+    @Test
+    void scopeByUserTest() {
+        // given
+        storeVoice("md5-a");
+
+        // when
+        convert(1L);
+        convert(1L);
+        convert(2L);
+
+        // then
+        flaskServer.verify(2, postRequestedFor(urlEqualTo(CONVERT_VOICE_URI)));
+    }
+
+    @DisplayName("같은 주소에 다른 파일을 덮어쓰면 이전 변환 결과를 돌려주지 않는지")
+    @Test
+    void overwrittenVoiceTest() {
+        // given
+        storeVoice("md5-a");
+        convert(1L);
+
+        // when
+        storeVoice("md5-b");
+        convert(1L);
+
+        // then
+        flaskServer.verify(2, postRequestedFor(urlEqualTo(CONVERT_VOICE_URI)));
+    }
+
+    @DisplayName("GCS 주소가 아니라 내용을 확인할 수 없는 입력은 캐시 없이 매번 변환하는지")
+    @Test
+    void unknownContentTest() {
+        // when
+        FlaskResponse first = flaskService.communicateWithFlaskServerByVoice(voiceRequest("line01.wav"), 1L).block();
+        flaskService.communicateWithFlaskServerByVoice(voiceRequest("line01.wav"), 1L).block();
+
+        // then
+        assertEquals("converted.wav", first.getResponseMessage());
+        flaskServer.verify(2, postRequestedFor(urlEqualTo(CONVERT_VOICE_URI)));
+        Mockito.verify(storage, Mockito.never()).get(any(BlobId.class));
+    }
+
+    private void storeVoice(String md5) {
+        Blob blob = Mockito.mock(Blob.class);
+        Mockito.when(blob.getMd5()).thenReturn(md5);
+        Mockito.when(storage.get(BlobId.of("alal", "Voice/line01.wav"))).thenReturn(blob);
+    }
+
+    private void convert(Long userId) {
+        flaskService.communicateWithFlaskServerByVoice(voiceRequest(VOICE_URL), userId).block();
+    }
+
+    private static FlaskVoiceRequest voiceRequest(String fileName) {
+        return FlaskVoiceRequest.builder()
+                .fileName(fileName)
+                .modelName("modelA")
+                .gender("female")
+                .build();
+    }
+}
@@ -0,0 +1,258 @@
+package com.alal.backend.service.user;
+
+import com.alal.backend.domain.dto.request.UploadImageRequest;
+import com.alal.backend.domain.dto.response.ImageFlaskResponse;
+import com.alal.backend.domain.entity.storage.GeneratedMesh;
+import com.alal.backend.repository.storage.GeneratedMeshRepository;
+import com.alal.backend.utils.ContentFingerprint;
+import com.alal.backend.utils.StorageUploader.ContentSource;
+import com.google.cloud.storage.Blob;
+import com.google.cloud.storage.BlobId;
+import com.google.cloud.storage.Storage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Optional;
+
+import static com.alal.backend.utils.StorageUploader.base64;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class MeshGenerationServiceTest {
+    private static final String IMAGE = Base64.getEncoder().encodeToString("sample image".getBytes(StandardCharsets.UTF_8));
+    private static final String MESH_URL = "https://storage.googleapis.com/memo-log/Mesh/1/sample";
+    private static final long GENERATION = 100L;
+
+    private FlaskService flaskService;
+    private GeneratedMeshRepository generatedMeshRepository;
+    private Storage storage;
+    private SimpleMeterRegistry meterRegistry;
+    private MeshGenerationService meshGenerationService;
+
+    @BeforeEach
+    void init() {
+        flaskService = Mockito.mock(FlaskService.class);
+        generatedMeshRepository = Mockito.mock(GeneratedMeshRepository.class);
+        storage = Mockito.mock(Storage.class);
+        meterRegistry = new SimpleMeterRegistry();
+        meshGenerationService = new MeshGenerationService(flaskService, generatedMeshRepository,
+                new TransactionTemplate(Mockito.mock(PlatformTransactionManager.class)), storage, meterRegistry);
+        Mockito.when(storage.get(any(BlobId.class), any(Storage.BlobGetOption.class))).thenReturn(blob(GENERATION));
+
+        Mockito.when(flaskService.uploadImage(any(), anyLong()))
+                .thenReturn(Mono.just(ImageFlaskResponse.of("new-albedo", "new-mtl", "new-obj", "new-thumbnail")));
+    }
+
+    @DisplayName("같은 이미지의 메쉬가 저장되어 있으면 Flask를 호출하지 않고 저장된 주소를 돌려주는지")
+    @Test
+    void storedMeshTest() {
+        // given
+        ContentFingerprint fingerprint = ContentFingerprint.of(base64(IMAGE));
+        Mockito.when(generatedMeshRepository.findByUserIdAndContentHashAndDescriptionHash(
+                        1L, fingerprint.getSha256(), ContentFingerprint.sha256("sample")))
+                .thenReturn(Optional.of(storedMesh(1L, fingerprint, "sample", GENERATION)));
+
+        // when
+        ImageFlaskResponse imageFlaskResponse = meshGenerationService.generate(request(), 1L).block();
+
+        // then
+        assertEquals(MESH_URL + ".obj", imageFlaskResponse.getMesh_obj());
+        verify(flaskService, never()).uploadImage(any(), anyLong());
+        assertEquals(1.0, meterRegistry.get("ai.mesh.gpu.calls.avoided").tag("reason", "stored").counter().count());
+    }
+
+    @DisplayName("저장된 주소의 파일이 다시 쓰였으면(generation 이 다르면) 기록을 지우고 새로 생성하는지")
+    @Test
+    void overwrittenMeshTest() {
+        // given
+        ContentFingerprint fingerprint = ContentFingerprint.of(base64(IMAGE));
+        GeneratedMesh stale = storedMesh(1L, fingerprint, "sample", GENERATION - 1);
+        Mockito.when(generatedMeshRepository.findByUserIdAndContentHashAndDescriptionHash(anyLong(), anyString(), anyString()))
+                .thenReturn(Optional.of(stale));
+
+        // when
+        ImageFlaskResponse imageFlaskResponse = meshGenerationService.generate(request(), 1L).block();
+
+        // then
+        assertEquals("new-obj", imageFlaskResponse.getMesh_obj());
+        verify(generatedMeshRepository).delete(stale);
+        verify(flaskService, times(1)).uploadImage(any(), anyLong());
+        assertEquals(1.0, meterRegistry.get("ai.mesh.stored.stale").counter().count());
+    }
+
+    @DisplayName("내용 주소 이름의 결과는 generation 을 확인하지 않고 재사용하는지")
+    @Test
+    void contentAddressedMeshTest() {
+        // given
+        ContentFingerprint fingerprint = ContentFingerprint.of(base64(IMAGE));
+        String url = "https://storage.googleapis.com/memo-log/Mesh/" + "a".repeat(64);
+        GeneratedMesh generatedMesh = GeneratedMesh.of(1L, fingerprint, ContentFingerprint.sha256("sample"),
+                ImageFlaskResponse.of(url, url, url, null), ignored -> null);
+        Mockito.when(generatedMeshRepository.findByUserIdAndContentHashAndDescriptionHash(anyLong(), anyString(), anyString()))
+                .thenReturn(Optional.of(generatedMesh));
+
+        // when
+        ImageFlaskResponse imageFlaskResponse = meshGenerationService.generate(request(), 1L).block();
+
+        // then
+        assertEquals(url, imageFlaskResponse.getMesh_obj());
+        verify(storage, never()).get(any(BlobId.class), any(Storage.BlobGetOption.class));
+        verify(flaskService, never()).uploadImage(any(), anyLong());
+    }
+
+    @DisplayName("설명이 다르면 같은 사진이라도 다시 생성하는지")
+    @Test
+    void otherDescriptionTest() {
+        // given
+        ContentFingerprint fingerprint = ContentFingerprint.of(base64(IMAGE));
+        Mockito.when(generatedMeshRepository.findByUserIdAndContentHashAndDescriptionHash(
+                        1L, fingerprint.getSha256(), ContentFingerprint.sha256("sample")))
+                .thenReturn(Optional.of(storedMesh(1L, fingerprint, "sample", GENERATION)));
+        UploadImageRequest other = request();
+        other.setDescription("other");
+
+        // when
+        ImageFlaskResponse imageFlaskResponse = meshGenerationService.generate(other, 1L).block();
+
+        // then
+        assertEquals("new-obj", imageFlaskResponse.getMesh_obj());
+        verify(flaskService, times(1)).uploadImage(other, 1L);
+    }
+
+    @DisplayName("생성한 결과는 주소마다 현재 generation 과 함께 기록하고, 스토리지 밖 주소는 기록하지 않는지")
+    @Test
+    void registerGenerationTest() {
+        // given
+        Mockito.when(flaskService.uploadImage(any(), eq(1L))).thenReturn(Mono.just(
+                ImageFlaskResponse.of(MESH_URL + ".png", MESH_URL + ".mtl", MESH_URL + ".obj", null)));
+        ArgumentCaptor<GeneratedMesh> saved = ArgumentCaptor.forClass(GeneratedMesh.class);
+
+        // when
+        meshGenerationService.generate(request(), 1L).block();
+        meshGenerationService.generate(request(), 2L).block();
+
+        // then
+        verify(generatedMeshRepository, times(1)).save(saved.capture());
+        assertEquals(1L, saved.getValue().getUserId());
+        assertEquals(ContentFingerprint.sha256("sample"), saved.getValue().getDescriptionHash());
+        assertEquals(GENERATION, saved.getValue().getMeshObjGeneration());
+        assertNull(saved.getValue().getThumbnailGeneration());
+    }
+
+    @DisplayName("SHA-256만 같고 MD5가 다르면 충돌로 보고 새로 생성하는지")
+    @Test
+    void collisionTest() {
+        // given
+        GeneratedMesh collided = GeneratedMesh.builder()
+                .userId(1L)
+                .contentHash(ContentFingerprint.of(base64(IMAGE)).getSha256())
+                .descriptionHash(ContentFingerprint.sha256("sample"))
+                .contentMd5("0".repeat(32))
+                .contentLength(12L)
+                .meshObjUrl("other-obj")
+                .build();
+        Mockito.when(generatedMeshRepository.findByUserIdAndContentHashAndDescriptionHash(anyLong(), anyString(), anyString()))
+                .thenReturn(Optional.of(collided));
+
+        // when
+        ImageFlaskResponse imageFlaskResponse = meshGenerationService.generate(request(), 1L).block();
+
+        // then
+        assertEquals("new-obj", imageFlaskResponse.getMesh_obj());
+        verify(flaskService, times(1)).uploadImage(any(), anyLong());
+        assertEquals(1.0, meterRegistry.get("ai.mesh.dedup.collisions").counter().count());
+    }
+
+    @DisplayName("다른 사용자가 같은 사진으로 만든 메쉬는 재사용하지 않는지")
+    @Test
+    void otherUserMeshTest() {
+        // given
+        ContentFingerprint fingerprint = ContentFingerprint.of(base64(IMAGE));
+        Mockito.when(generatedMeshRepository.findByUserIdAndContentHashAndDescriptionHash(
+                        1L, fingerprint.getSha256(), ContentFingerprint.sha256("sample")))
+                .thenReturn(Optional.of(storedMesh(1L, fingerprint, "sample", GENERATION)));
+
+        // when
+        ImageFlaskResponse imageFlaskResponse = meshGenerationService.generate(request(), 2L).block();
+
+        // then
+        assertEquals("new-obj", imageFlaskResponse.getMesh_obj());
+        verify(flaskService, times(1)).uploadImage(any(), eq(2L));
+    }
+
+    @DisplayName("진행 중인 생성은 같은 사용자의 같은 사진 요청끼리만 함께 기다리는지")
+    @Test
+    void inFlightByUserTest() {
+        // given
+        Mockito.when(flaskService.uploadImage(any(), anyLong())).thenReturn(Mono.never());
+
+        // when
+        meshGenerationService.generate(request(), 1L).subscribe();
+        meshGenerationService.generate(request(), 1L).subscribe();
+        meshGenerationService.generate(request(), 2L).subscribe();
+
+        // then
+        assertEquals(2.0, meterRegistry.get("ai.mesh.gpu.calls").counter().count());
+        assertEquals(1.0, meterRegistry.get("ai.mesh.gpu.calls.avoided").tag("reason", "in_flight").counter().count());
+    }
+
+    @DisplayName("multipart 파일도 base64 요청과 같은 지문으로 찾고, 없으면 파일 크기와 함께 스트리밍 업로드로 보내는지")
+    @Test
+    void multipartTest() {
+        // given
+        MockMultipartFile image = new MockMultipartFile("image", "sample.png", "image/png",
+                "sample image".getBytes(StandardCharsets.UTF_8));
+        ContentFingerprint fingerprint = ContentFingerprint.of(base64(IMAGE));
+        Mockito.when(generatedMeshRepository.findByUserIdAndContentHashAndDescriptionHash(
+                        1L, fingerprint.getSha256(), ContentFingerprint.sha256("sample")))
+                .thenReturn(Optional.of(storedMesh(1L, fingerprint, "sample", GENERATION)));
+        Mockito.when(flaskService.uploadImage(any(ContentSource.class), anyLong(), anyString(), anyLong()))
+                .thenReturn(Mono.just(ImageFlaskResponse.of("new-albedo", "new-mtl", "new-obj", "new-thumbnail")));
+
+        // when
+        ImageFlaskResponse stored = meshGenerationService.generate(image, "sample", 1L).block();
+        ImageFlaskResponse generated = meshGenerationService.generate(image, "sample", 2L).block();
+
+        // then
+        assertEquals(MESH_URL + ".obj", stored.getMesh_obj());
+        assertEquals("new-obj", generated.getMesh_obj());
+        verify(flaskService, times(1)).uploadImage(any(ContentSource.class), eq(12L), eq("sample"), eq(2L));
+        verify(flaskService, never()).uploadImage(any(), anyLong());
+    }
+
+    private static GeneratedMesh storedMesh(Long userId, ContentFingerprint fingerprint, String description, long generation) {
+        return GeneratedMesh.of(userId, fingerprint, ContentFingerprint.sha256(description),
+                ImageFlaskResponse.of(MESH_URL + ".png", MESH_URL + ".mtl", MESH_URL + ".obj", MESH_URL + ".mp4"),
+                url -> generation);
+    }
+
+    private static Blob blob(long generation) {
+        Blob blob = Mockito.mock(Blob.class);
+        Mockito.when(blob.getGeneration()).thenReturn(generation);
+        return blob;
+    }
+
+    private static UploadImageRequest request() {
+        UploadImageRequest uploadImageRequest = new UploadImageRequest();
+        uploadImageRequest.setImageEncodingString(IMAGE);
+        uploadImageRequest.setDescription("sample");
+        return uploadImageRequest;
+    }
+}
@@ -0,0 +1,73 @@
+package com.alal.backend.service.user;
+
+import com.alal.backend.advice.error.DefaultException;
+import com.alal.backend.advice.payload.ErrorCode;
+import com.alal.backend.domain.entity.user.Motion;
+import com.alal.backend.repository.user.MotionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+
+class MotionCatalogTest {
+    private static final String BUCKET = "https://storage.googleapis.com/alal/Motion/";
+
+    private final MotionRepository motionRepository = Mockito.mock(MotionRepository.class);
+    private final MotionCatalog motionCatalog = new MotionCatalog(motionRepository, new SimpleMeterRegistry());
+
+    @DisplayName("첫 색인 전의 검색은 DB 로 따로 찾지 않고 색인이 준비되면 같은 규칙(주소 부분 문자열)으로 답하는지")
+    @Test
+    void awaitFirstLoadTest() throws Exception {
+        // given
+        Mockito.when(motionRepository.findAll(any(Sort.class))).thenReturn(List.of(
+                motion(1L, "Walk_Forward"),
+                motion(2L, "jump_high")));
+        CompletableFuture<List<Motion>> search = CompletableFuture.supplyAsync(() -> motionCatalog.findContaining("high.fbx"));
+        Thread.sleep(100);
+        assertFalse(search.isDone());
+
+        // when
+        motionCatalog.refresh();
+
+        // then
+        assertEquals(List.of(2L), ids(search.get(1, TimeUnit.SECONDS)));
+        Mockito.verify(motionRepository, Mockito.times(1)).findAll(any(Sort.class));
+    }
+
+    @DisplayName("첫 색인이 제한 시간 안에 준비되지 않으면 잠시 후 다시 시도하라고 응답하는지")
+    @Test
+    void loadTimeoutTest() {
+        // given
+        ReflectionTestUtils.setField(motionCatalog, "loadTimeoutMs", 10L);
+
+        // when, then
+        DefaultException exception = assertThrows(DefaultException.class, () -> motionCatalog.search(List.of("walk")));
+        assertEquals(ErrorCode.CATALOG_NOT_READY, exception.getErrorCode());
+    }
+
+    private static Motion motion(Long id, String name) {
+        return Motion.builder()
+                .id(id)
+                .motionGif(BUCKET + name + ".gif")
+                .motionFbx(BUCKET + name + ".fbx")
+                .build();
+    }
+
+    private static List<Long> ids(List<Motion> motions) {
+        return motions.stream()
+                .map(Motion::getId)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,70 @@
+package com.alal.backend.service.user;
+
+import com.alal.backend.domain.dto.response.MotionImportResponse;
+import com.alal.backend.domain.entity.user.Motion;
+import com.alal.backend.lib.MotionFixture;
+import com.alal.backend.repository.user.MotionRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// ./gradlew benchmark 로만 실행된다.
+// MySQL 호환 모드의 H2 에 10만 행짜리 CSV 를 파일에서 스트리밍으로 넣고 처리 속도를 출력한다.
+@Tag("benchmark")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@DataJpaTest(properties = "spring.datasource.url=jdbc:h2:mem:motion-import;MODE=MySQL")
+@Import(MotionImportService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class MotionImportBenchmarkTest {
+    private static final int ROWS = 100_000;
+
+    @Autowired
+    private MotionImportService motionImportService;
+
+    @Autowired
+    private MotionRepository motionRepository;
+
+    @DisplayName("10만 행 CSV 를 배치 insert 로 등록하는 속도")
+    @Test
+    void importCsv(@TempDir Path directory) throws Exception {
+        // given
+        Path csv = write(directory.resolve("motions.csv"));
+
+        // when
+        MotionImportResponse response;
+        try (InputStream in = Files.newInputStream(csv)) {
+            response = motionImportService.importCsv(in);
+        }
+
+        // then
+        assertEquals(ROWS, response.getInsertedRows());
+        assertEquals(ROWS, motionRepository.count());
+        System.out.printf("[%,d rows] %,dms  %,d rows/s%n",
+                response.getInsertedRows(), response.getElapsedMillis(), response.getRowsPerSecond());
+    }
+
+    private static Path write(Path path) throws Exception {
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            writer.write("motion_gif,motion_fbx\n");
+            for (Motion motion : MotionFixture.generate(ROWS)) {
+                writer.write(motion.getMotionGif() + "," + motion.getMotionFbx() + "\n");
+            }
+        }
+        return path;
+    }
+}
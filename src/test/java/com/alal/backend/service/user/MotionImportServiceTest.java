@@ -0,0 +1,104 @@
+package com.alal.backend.service.user;
+
+import com.alal.backend.domain.dto.response.MotionImportResponse;
+import com.alal.backend.domain.entity.user.Motion;
+import com.alal.backend.repository.user.MotionRepository;
+import com.alal.backend.utils.event.MotionCatalogChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class MotionImportServiceTest {
+    private static final String BUCKET = "https://storage.googleapis.com/alal/Motion/";
+
+    private JdbcTemplate jdbcTemplate;
+    private MotionRepository motionRepository;
+    private ApplicationEventPublisher applicationEventPublisher;
+    private MotionImportService motionImportService;
+
+    @BeforeEach
+    void init() {
+        jdbcTemplate = Mockito.mock(JdbcTemplate.class);
+        motionRepository = Mockito.mock(MotionRepository.class);
+        applicationEventPublisher = Mockito.mock(ApplicationEventPublisher.class);
+        motionImportService = new MotionImportService(new TransactionTemplate(Mockito.mock(PlatformTransactionManager.class)),
+                jdbcTemplate, motionRepository, applicationEventPublisher);
+        ReflectionTestUtils.setField(motionImportService, "batchSize", 2);
+
+        Mockito.when(motionRepository.findMotionGifByGifFileNameIn(anyCollection()))
+                .thenReturn(List.of(BUCKET + "sit_down.gif"));
+        Mockito.when(motionRepository.findByGifFileNameIn(anyCollection())).thenReturn(List.of(
+                motion(7L, "sit_down"), motion(11L, "walk_forward"), motion(12L, "jump_high")));
+    }
+
+    @DisplayName("잘못된 행과 이미 있는 모션은 건너뛰고 나머지를 묶음 단위로 등록하며, 태그는 등록한 모션 id 로 넣는지")
+    @Test
+    void importCsvTest() {
+        // given
+        String csv = "MOTION_GIF,motion_fbx\n"
+                + BUCKET + "walk_forward.gif," + BUCKET + "walk_forward.fbx\n"
+                + "walk.gif," + BUCKET + "walk.fbx\n"
+                + BUCKET + "sit_down.gif," + BUCKET + "sit_down.fbx\n"
+                + BUCKET + "jump_high.gif\n"
+                + BUCKET + "jump_high.gif," + BUCKET + "jump_high.fbx\n"
+                + BUCKET + "wave.gif," + BUCKET + "wave.png\n";
+
+        // when
+        MotionImportResponse response = motionImportService.importCsv(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        // then
+        ArgumentCaptor<List<Object[]>> motionRows = listCaptor();
+        ArgumentCaptor<List<Object[]>> tagRows = listCaptor();
+        verify(jdbcTemplate, times(2)).batchUpdate(startsWith("insert into motion ("), motionRows.capture());
+        verify(jdbcTemplate, times(2)).batchUpdate(startsWith("insert into motion_tag"), tagRows.capture());
+        verify(applicationEventPublisher).publishEvent(any(MotionCatalogChangedEvent.class));
+
+        assertEquals(List.of("walk_forward", "jump_high"), motionRows.getAllValues().stream()
+                .flatMap(List::stream)
+                .map(row -> (String) row[2])
+                .collect(Collectors.toList()));
+        assertEquals(List.of("11:walk", "11:forward", "12:jump", "12:high"), tagRows.getAllValues().stream()
+                .flatMap(List::stream)
+                .map(row -> row[0] + ":" + row[1])
+                .collect(Collectors.toList()));
+        assertEquals(6, response.getTotalRows());
+        assertEquals(2, response.getInsertedRows());
+        assertEquals(1, response.getSkippedRows());
+        assertEquals(3, response.getInvalidRows());
+        assertEquals(List.of(3L, 5L, 7L), response.getErrors().stream()
+                .map(error -> Long.parseLong(error.substring(0, error.indexOf('행'))))
+                .collect(Collectors.toList()));
+    }
+
+    private static Motion motion(Long id, String name) {
+        return Motion.builder()
+                .id(id)
+                .motionGif(BUCKET + name + ".gif")
+                .build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ArgumentCaptor<List<Object[]>> listCaptor() {
+        return ArgumentCaptor.forClass(List.class);
+    }
+}
@@ -0,0 +1,119 @@
+package com.alal.backend.service.user;
+
+import com.alal.backend.domain.dto.response.FbxUrlResponse;
+import com.alal.backend.domain.dto.response.GifUrlResponse;
+import com.alal.backend.domain.dto.response.ViewResponse;
+import com.alal.backend.domain.entity.user.Motion;
+import com.alal.backend.lib.MotionFixture;
+import com.alal.backend.repository.user.MotionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.Mockito;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+
+// ./gradlew benchmark 로만 실행된다.
+// 갤러리 한 페이지(12개)를 만들 때 할당되는 메모리를, 전체를 DTO 로 만든 뒤 subList 하던 방식과 비교한다.
+@Tag("benchmark")
+class MotionPageBenchmarkTest {
+    private static final List<String> HISTORIES = Arrays.asList("walk", "jump", "dance", "wave", "kick");
+    private static final int ITERATIONS = 200;
+
+    @DisplayName("카탈로그 크기별 페이지 조회 1회당 할당량 비교")
+    @ParameterizedTest(name = "{0} motions")
+    @ValueSource(ints = {10_000, 100_000})
+    void comparePageAllocation(int size) {
+        // given
+        List<Motion> motions = MotionFixture.generate(size);
+        MotionRepository motionRepository = Mockito.mock(MotionRepository.class);
+        Mockito.when(motionRepository.findAll(any(Sort.class))).thenReturn(motions);
+        Mockito.when(motionRepository.count()).thenReturn((long) size);
+        Mockito.when(motionRepository.findMaxId()).thenReturn((long) size);
+
+        MotionCatalog motionCatalog = new MotionCatalog(motionRepository, new SimpleMeterRegistry());
+        motionCatalog.refresh();
+        MotionService motionService = new MotionService(motionCatalog, null, null, null, null, null);
+        Pageable pageable = PageRequest.of(1, 12);
+
+        // when
+        long loadAll = allocatedPerOp(() -> loadAllThenSubList(motionCatalog, pageable));
+        long paged = allocatedPerOp(() -> motionService.createViewResponse(HISTORIES, pageable));
+
+        // then
+        Page<ViewResponse> page = motionService.createViewResponse(HISTORIES, pageable);
+        Page<ViewResponse> loadAllPage = loadAllThenSubList(motionCatalog, pageable);
+        assertEquals(12, page.getContent().get(0).getGifUrls().size());
+        assertEquals(12, page.getContent().get(0).getFbxUrls().size());
+        assertEquals(loadAllPage.getTotalElements(), page.getTotalElements());
+        assertEquals(12, loadAllPage.getContent().get(0).getFbxUrls().size());
+        System.out.printf("[%,d] total=%,d  load-all=%,d bytes/op  paged=%,d bytes/op%n",
+                size, page.getTotalElements(), loadAll, paged);
+    }
+
+    // 이전 구현: 모든 모션의 DTO 를 만든 뒤 GIF, FBX 목록을 각각 페이지만큼 잘라낸다.
+    private static Page<ViewResponse> loadAllThenSubList(MotionCatalog motionCatalog, Pageable pageable) {
+        List<Motion> motions = motionCatalog.search(HISTORIES).getMotions();
+        List<GifUrlResponse> allGifs = motions.stream()
+                .map(motion -> GifUrlResponse.builder()
+                        .gifFileName(fileName(motion.getMotionGif()))
+                        .gifUrl(motion.getMotionGif())
+                        .build())
+                .collect(Collectors.toList());
+        List<FbxUrlResponse> allFbxs = motions.stream()
+                .map(motion -> FbxUrlResponse.builder()
+                        .fbxFileName(fileName(motion.getMotionFbx()))
+                        .fbxUrl(motion.getMotionFbx())
+                        .build())
+                .collect(Collectors.toList());
+
+        int start = (int) pageable.getOffset();
+        int end = Math.min(start + pageable.getPageSize(), allGifs.size());
+        List<GifUrlResponse> pagedGifs = allGifs.subList(start, end);
+        List<FbxUrlResponse> pagedFbxs = allFbxs.subList(start, end);
+
+        List<ViewResponse> content = (start < end)
+                ? Collections.singletonList(ViewResponse.fromList(pagedGifs, pagedFbxs, HISTORIES))
+                : Collections.emptyList();
+        return new PageImpl<>(content, pageable, allGifs.size());
+    }
+
+    private static String fileName(String url) {
+        String[] parts = url.split("/");
+        String fileNameWithExtension = parts[parts.length - 1];
+        return fileNameWithExtension.substring(0, fileNameWithExtension.lastIndexOf("."));
+    }
+
+    private static long allocatedPerOp(Runnable pageView) {
+        // 워밍업
+        for (int i = 0; i < ITERATIONS; i++) {
+            pageView.run();
+        }
+
+        long allocatedBefore = allocatedBytes();
+        for (int i = 0; i < ITERATIONS; i++) {
+            pageView.run();
+        }
+        return (allocatedBytes() - allocatedBefore) / ITERATIONS;
+    }
+
+    private static long allocatedBytes() {
+        com.sun.management.ThreadMXBean threadMXBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        return threadMXBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
@@ -0,0 +1,137 @@
+package com.alal.backend.service.user;
+
+import com.alal.backend.advice.error.DefaultException;
+import com.alal.backend.advice.payload.ErrorCode;
+import com.alal.backend.domain.dto.response.FlaskResponse;
+import com.alal.backend.domain.dto.response.PoseStreamResponse;
+import com.alal.backend.domain.dto.response.UpdateUserHistoryResponse;
+import com.alal.backend.domain.entity.user.User;
+import com.alal.backend.payload.request.user.FlaskRequest;
+import com.alal.backend.repository.user.UserRepository;
+import com.alal.backend.repository.user.VoiceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Flux;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class MotionServiceStreamPoseTest {
+    private static final Long USER_ID = 1L;
+
+    private UserRepository userRepository;
+    private FlaskService flaskService;
+    private MotionService motionService;
+    private User user;
+
+    @BeforeEach
+    void init() {
+        userRepository = Mockito.mock(UserRepository.class);
+        flaskService = Mockito.mock(FlaskService.class);
+        motionService = new MotionService(Mockito.mock(MotionCatalog.class), userRepository,
+                Mockito.mock(VoiceRepository.class), flaskService, Mockito.mock(PoseDetectionService.class),
+                new TransactionTemplate(Mockito.mock(PlatformTransactionManager.class)));
+
+        user = User.builder()
+                .id(USER_ID)
+                .build();
+        user.historyUpdate("old");
+        Mockito.when(userRepository.findById(USER_ID)).thenReturn(Optional.of(user));
+    }
+
+    @DisplayName("받은 동작으로 이전 기록을 덮어쓰고, 끝나면 done 이벤트로 최종 기록을 보내는지")
+    @Test
+    void streamTest() {
+        // given
+        Mockito.when(flaskService.streamPose(any()))
+                .thenReturn(Flux.just(new FlaskResponse("walk"), new FlaskResponse("jump")));
+
+        // when
+        List<ServerSentEvent<Object>> events = stream();
+
+        // then
+        assertEquals(Arrays.asList("motion", "motion", "done"), eventNames(events));
+        assertEquals(Arrays.asList("0", "1"), Arrays.asList(events.get(0).id(), events.get(1).id()));
+        assertEquals("jump", ((PoseStreamResponse) events.get(1).data()).getMotion());
+        assertEquals("walk, jump", ((UpdateUserHistoryResponse) events.get(2).data()).getUpdateMessage());
+        assertEquals("walk, jump", user.getUserHistory());
+    }
+
+    @DisplayName("인식한 동작이 없으면 이전 기록을 비우고 done 이벤트만 보내는지")
+    @Test
+    void emptyStreamTest() {
+        // given
+        Mockito.when(flaskService.streamPose(any())).thenReturn(Flux.empty());
+
+        // when
+        List<ServerSentEvent<Object>> events = stream();
+
+        // then
+        assertEquals(Arrays.asList("done"), eventNames(events));
+        assertEquals("", ((UpdateUserHistoryResponse) events.get(0).data()).getUpdateMessage());
+        assertEquals("", user.getUserHistory());
+    }
+
+    @DisplayName("중간에 실패하면 그때까지 저장한 동작은 남기고 error 이벤트로 사유를 보내는지")
+    @Test
+    void errorTest() {
+        // given
+        Mockito.when(flaskService.streamPose(any())).thenReturn(Flux.concat(
+                Flux.just(new FlaskResponse("walk")),
+                Flux.error(new DefaultException(ErrorCode.MODEL_SERVER_TIMEOUT))));
+
+        // when
+        List<ServerSentEvent<Object>> events = stream();
+
+        // then
+        assertEquals(Arrays.asList("motion", "error"), eventNames(events));
+        assertEquals(ErrorCode.MODEL_SERVER_TIMEOUT.getMessage(), events.get(1).data());
+        assertEquals("walk", user.getUserHistory());
+    }
+
+    @DisplayName("동작마다 유저를 다시 읽지 않고 정해진 개수마다 한 번에 저장하는지")
+    @Test
+    void batchSaveTest() {
+        // given: 25개 동작 -> 10개, 20개째에 저장하고 done 에서 마지막으로 저장한다.
+        List<FlaskResponse> responses = IntStream.range(0, 25)
+                .mapToObj(i -> new FlaskResponse("motion" + i))
+                .collect(Collectors.toList());
+        Mockito.when(flaskService.streamPose(any())).thenReturn(Flux.fromIterable(responses));
+
+        // when
+        List<ServerSentEvent<Object>> events = stream();
+
+        // then
+        assertEquals(26, events.size());
+        assertEquals("done", events.get(25).event());
+        verify(userRepository, times(3)).findById(USER_ID);
+        assertEquals(responses.stream()
+                .map(FlaskResponse::getResponseMessage)
+                .collect(Collectors.joining(", ")), user.getUserHistory());
+    }
+
+    private List<ServerSentEvent<Object>> stream() {
+        return motionService.streamPose(FlaskRequest.builder().fileName("dance.mp4").build(), USER_ID)
+                .collectList()
+                .block();
+    }
+
+    private static List<String> eventNames(List<ServerSentEvent<Object>> events) {
+        return events.stream()
+                .map(ServerSentEvent::event)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,117 @@
+package com.alal.backend.service.user;
+
+import com.alal.backend.advice.error.DefaultException;
+import com.alal.backend.advice.payload.ErrorCode;
+import com.alal.backend.domain.dto.response.FlaskResponse;
+import com.alal.backend.domain.vo.VideoSegment;
+import com.alal.backend.payload.request.user.FlaskRequest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.Mockito;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PoseDetectionServiceTest {
+    private static final List<VideoSegment> SEGMENTS = VideoSegment.split(75, 30, 1);
+
+    @DisplayName("긴 영상을 겹치는 구간으로 나누고 마지막 구간은 영상 끝에서 끝나는지")
+    @Test
+    void splitTest() {
+        // given
+        double durationSeconds = 75;
+
+        // when
+        List<VideoSegment> segments = VideoSegment.split(durationSeconds, 30, 1);
+
+        // then
+        assertEquals(3, segments.size());
+        assertEquals(29.0, segments.get(1).getStart());
+        assertEquals(59.0, segments.get(1).getEnd());
+        assertEquals(75.0, segments.get(2).getEnd());
+    }
+
+    @DisplayName("구간 결과를 순서대로 합치면서 겹친 시간 안에서 두 구간이 함께 찾은 동작은 한 번만 남기는지")
+    @Test
+    void mergeTest() {
+        // given: [0, 30), [29, 59), [58, 75)
+        List<List<FlaskResponse>> segmentResults = Arrays.asList(
+                Arrays.asList(response("walk", 2, 5), response("jump", 29.2, 29.8)),
+                Arrays.asList(response("jump", 29.2, 29.8), response("sit", 40, 45), response("wave", 58.1, 58.9)),
+                Arrays.asList(response("wave", 58.1, 58.9), response("walk", 60, 62), response("run", 70, 72)));
+
+        // when
+        List<FlaskResponse> merged = PoseDetectionService.merge(SEGMENTS, segmentResults);
+
+        // then
+        assertEquals(Arrays.asList("walk", "jump", "sit", "wave", "walk", "run"), messages(merged));
+    }
+
+    @DisplayName("겹친 시간 밖에서 같은 동작이 다시 나오면 중복으로 보지 않는지")
+    @Test
+    void keepRepeatedMotionOutsideOverlapTest() {
+        // given
+        List<List<FlaskResponse>> segmentResults = Arrays.asList(
+                Arrays.asList(response("wave", 10, 12)),
+                Arrays.asList(response("wave", 35, 37), response("walk", 40, 42)),
+                Arrays.asList(response("walk", 65, 67)));
+
+        // when
+        List<FlaskResponse> merged = PoseDetectionService.merge(SEGMENTS, segmentResults);
+
+        // then
+        assertEquals(Arrays.asList("wave", "wave", "walk", "walk"), messages(merged));
+    }
+
+    @DisplayName("시각이 없는 결과는 겹친 구간에서 나왔는지 알 수 없으므로 둘 다 남기는지")
+    @Test
+    void keepBothWithoutTimeTest() {
+        // given
+        List<List<FlaskResponse>> segmentResults = Arrays.asList(
+                Arrays.asList(new FlaskResponse("jump")),
+                Arrays.asList(new FlaskResponse("jump"), new FlaskResponse("sit")),
+                Arrays.asList(new FlaskResponse("sit")));
+
+        // when
+        List<FlaskResponse> merged = PoseDetectionService.merge(SEGMENTS, segmentResults);
+
+        // then
+        assertEquals(Arrays.asList("jump", "jump", "sit", "sit"), messages(merged));
+    }
+
+    @DisplayName("최대 길이를 넘거나 유한한 양수가 아닌 영상 길이는 Flask 를 호출하지 않고 400 으로 거절하는지")
+    @ParameterizedTest
+    @ValueSource(doubles = {1e9, 3600.5, 0, -1, Double.NaN, Double.POSITIVE_INFINITY})
+    void rejectDurationTest(double durationSeconds) {
+        // given
+        FlaskService flaskService = Mockito.mock(FlaskService.class);
+        PoseDetectionService poseDetectionService = new PoseDetectionService(flaskService, 30, 1, 4, 3600);
+        FlaskRequest flaskRequest = FlaskRequest.builder()
+                .fileName("dance.mp4")
+                .durationSeconds(durationSeconds)
+                .build();
+
+        // when
+        DefaultException rejected = assertThrows(DefaultException.class, () -> poseDetectionService.detect(flaskRequest));
+
+        // then
+        assertEquals(ErrorCode.INVALID_PARAMETER, rejected.getErrorCode());
+        Mockito.verifyNoInteractions(flaskService);
+    }
+
+    private static FlaskResponse response(String message, double start, double end) {
+        return new FlaskResponse(message, start, end);
+    }
+
+    private static List<String> messages(List<FlaskResponse> responses) {
+        return responses.stream()
+                .map(FlaskResponse::getResponseMessage)
+                .collect(Collectors.toList());
+    }
+}
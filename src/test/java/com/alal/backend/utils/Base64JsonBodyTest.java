@@ -0,0 +1,89 @@
+package com.alal.backend.utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+
+import java.io.ByteArrayInputStream;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class Base64JsonBodyTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @DisplayName("조각 단위로 인코딩한 본문이 통째로 인코딩한 JSON 과 같고, Content-Length 도 맞는지")
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 2, 3, Base64JsonBody.CHUNK_SIZE, Base64JsonBody.CHUNK_SIZE * 2 + 1})
+    void encodeTest(int imageBytes) throws Exception {
+        // given
+        byte[] image = new byte[imageBytes];
+        new Random(imageBytes).nextBytes(image);
+        Base64JsonBody body = new Base64JsonBody("image", () -> new ByteArrayInputStream(image), image.length, fields());
+
+        // when
+        byte[] content = read(body);
+
+        // then
+        Map<String, Object> expected = new LinkedHashMap<>();
+        expected.put("image", Base64.getEncoder().encodeToString(image));
+        expected.putAll(fields());
+        assertEquals(objectMapper.writeValueAsString(expected), new String(content, "UTF-8"));
+        assertEquals(content.length, body.contentLength());
+    }
+
+    @DisplayName("다른 필드가 없어도 올바른 JSON 을 만드는지")
+    @Test
+    void noFieldTest() throws Exception {
+        // given
+        Base64JsonBody body = new Base64JsonBody("image", () -> new ByteArrayInputStream(new byte[]{1, 2, 3, 4}), 4, Map.of());
+
+        // when
+        byte[] content = read(body);
+
+        // then
+        assertEquals("{\"image\":\"AQIDBA==\"}", new String(content, "UTF-8"));
+        assertEquals(content.length, body.contentLength());
+    }
+
+    @DisplayName("다시 구독하면(재시도) 원본을 처음부터 다시 여는지")
+    @Test
+    void resubscribeTest() {
+        // given
+        AtomicInteger opened = new AtomicInteger();
+        Base64JsonBody body = new Base64JsonBody("image", () -> {
+            opened.incrementAndGet();
+            return new ByteArrayInputStream(new byte[]{1, 2, 3});
+        }, 3, fields());
+
+        // when
+        byte[] first = read(body);
+        byte[] second = read(body);
+
+        // then
+        assertEquals(2, opened.get());
+        assertEquals(new String(first), new String(second));
+    }
+
+    private static Map<String, Object> fields() {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("image_name", "내 \"아바타\"");
+        fields.put("user_id", 1L);
+        return fields;
+    }
+
+    private static byte[] read(Base64JsonBody body) {
+        DataBuffer joined = DataBufferUtils.join(body.content()).block();
+        byte[] bytes = new byte[joined.readableByteCount()];
+        joined.read(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,142 @@
+package com.alal.backend.utils;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.core.Options;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ImageHttpClientTest {
+    private static final String IMAGE_URI = "/memo-log/Avatar/image";
+    private static final int MAX_OBJECT_BYTES = 1024;
+    private static final long READ_TIMEOUT_MILLIS = 300;
+
+    private WireMockServer storageServer;
+
+    @AfterEach
+    void cleanup() {
+        storageServer.stop();
+    }
+
+    @DisplayName("최대 크기 이하의 이미지는 Content-Length 가 있든 없든(chunked) 그대로 내려받는지")
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void downloadTest(boolean chunked) throws IOException {
+        // given
+        start(chunked ? Options.ChunkedEncodingPolicy.ALWAYS : Options.ChunkedEncodingPolicy.NEVER);
+        byte[] image = image(MAX_OBJECT_BYTES);
+        ResponseDefinitionBuilder response = aResponse().withBody(image);
+        if (chunked) {
+            // 본문을 나눠 flush 해야 Content-Length 없이 chunked 로 나간다.
+            response.withChunkedDribbleDelay(4, 40);
+        }
+        storageServer.stubFor(get(urlEqualTo(IMAGE_URI)).willReturn(response));
+
+        // when
+        byte[] downloaded = client().download(imageUrl());
+
+        // then
+        assertArrayEquals(image, downloaded);
+    }
+
+    @DisplayName("Content-Length 가 최대 크기를 넘으면 본문을 읽기 전에 거절하는지")
+    @Test
+    void contentLengthOverLimitTest() {
+        // given
+        start(Options.ChunkedEncodingPolicy.NEVER);
+        storageServer.stubFor(get(urlEqualTo(IMAGE_URI)).willReturn(aResponse().withBody(image(MAX_OBJECT_BYTES + 1))));
+
+        // when
+        IOException rejected = assertThrows(IOException.class, () -> client().download(imageUrl()));
+
+        // then
+        assertTrue(rejected.getMessage().contains("이미지 크기 초과 " + (MAX_OBJECT_BYTES + 1) + " bytes"), rejected.getMessage());
+    }
+
+    @DisplayName("Content-Length 없이 chunked 로 오는 본문도 최대 크기를 넘으면 읽는 도중 거절하는지")
+    @Test
+    void chunkedOverLimitTest() {
+        // given
+        start(Options.ChunkedEncodingPolicy.ALWAYS);
+        storageServer.stubFor(get(urlEqualTo(IMAGE_URI)).willReturn(aResponse()
+                .withBody(image(MAX_OBJECT_BYTES * 4))
+                .withChunkedDribbleDelay(8, 80)));
+
+        // when
+        IOException rejected = assertThrows(IOException.class, () -> client().download(imageUrl()));
+
+        // then
+        assertTrue(rejected.getMessage().startsWith("이미지 크기 초과 = "), rejected.getMessage());
+    }
+
+    @DisplayName("응답이 읽기 제한 시간 안에 오지 않으면 기다리지 않고 실패하는지")
+    @Test
+    void responseTimeoutTest() {
+        // given
+        start(Options.ChunkedEncodingPolicy.NEVER);
+        storageServer.stubFor(get(urlEqualTo(IMAGE_URI)).willReturn(aResponse()
+                .withBody(image(10))
+                .withFixedDelay(3_000)));
+
+        // when
+        long start = System.nanoTime();
+        assertThrows(IOException.class, () -> client().download(imageUrl()));
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // then
+        assertTrue(elapsedMillis < 2_000, "elapsed " + elapsedMillis + "ms");
+    }
+
+    @DisplayName("2xx 가 아닌 응답은 본문을 이미지로 쓰지 않고 실패하는지")
+    @ParameterizedTest
+    @ValueSource(ints = {403, 404, 500, 503})
+    void errorStatusTest(int status) {
+        // given
+        start(Options.ChunkedEncodingPolicy.NEVER);
+        storageServer.stubFor(get(urlEqualTo(IMAGE_URI)).willReturn(aResponse()
+                .withStatus(status)
+                .withBody("<Error>NoSuchKey</Error>")));
+
+        // when
+        IOException rejected = assertThrows(IOException.class, () -> client().download(imageUrl()));
+
+        // then
+        assertTrue(rejected.getMessage().contains("응답 코드 " + status), rejected.getMessage());
+    }
+
+    private void start(Options.ChunkedEncodingPolicy chunkedEncodingPolicy) {
+        storageServer = new WireMockServer(options().dynamicPort().useChunkedTransferEncoding(chunkedEncodingPolicy));
+        storageServer.start();
+    }
+
+    private ImageHttpClient client() {
+        return new ImageHttpClient(1_000, READ_TIMEOUT_MILLIS, 4, MAX_OBJECT_BYTES, new SimpleMeterRegistry());
+    }
+
+    private String imageUrl() {
+        return storageServer.baseUrl() + IMAGE_URI;
+    }
+
+    private static byte[] image(int bytes) {
+        byte[] image = new byte[bytes];
+        for (int i = 0; i < bytes; i++) {
+            image[i] = (byte) i;
+        }
+        return image;
+    }
+}
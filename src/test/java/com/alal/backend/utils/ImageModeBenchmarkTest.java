@@ -0,0 +1,118 @@
+package com.alal.backend.utils;
+
+import com.alal.backend.domain.vo.ImageMode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.cloud.storage.BlobInfo;
+import com.google.cloud.storage.Storage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+
+// ./gradlew benchmark 로만 실행된다.
+// 포스터 1장, 배역 10장, 스태프 8장인 프로젝트 조회 응답을 base64 모드와 signed URL 모드로 만들어
+// 응답 본문 크기와 지연 시간(p50, p99)을 비교한다. 다운로드는 지연 시간을 흉내 낸 Parser 로 대신한다.
+@Tag("benchmark")
+class ImageModeBenchmarkTest {
+    private static final int IMAGES = 19;
+    private static final int IMAGE_BYTES = 150 * 1024;
+    private static final long DOWNLOAD_MILLIS = 30;
+    private static final int ITERATIONS = 200;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private ThreadPoolTaskExecutor imageDownloadExecutor;
+    private ImageResolver imageResolver;
+
+    @BeforeEach
+    void init() throws Exception {
+        byte[] image = new byte[IMAGE_BYTES];
+        new Random(0).nextBytes(image);
+        String encoded = Base64.getEncoder().encodeToString(image);
+
+        Parser parser = Mockito.mock(Parser.class);
+        Mockito.when(parser.downloadAndEncodeImage(anyString())).thenAnswer(invocation -> {
+            Thread.sleep(DOWNLOAD_MILLIS);
+            return encoded;
+        });
+        Storage storage = Mockito.mock(Storage.class);
+        Mockito.when(storage.signUrl(any(BlobInfo.class), anyLong(), any(TimeUnit.class), any(Storage.SignUrlOption.class)))
+                .thenAnswer(invocation -> new URL("https://storage.googleapis.com/memo-log/"
+                        + ((BlobInfo) invocation.getArgument(0)).getName()
+                        + "?X-Goog-Algorithm=GOOG4-RSA-SHA256&X-Goog-Credential=sa%40project.iam.gserviceaccount.com"
+                        + "%2F20240101%2Fauto%2Fstorage%2Fgoog4_request&X-Goog-Date=20240101T000000Z&X-Goog-Expires=900"
+                        + "&X-Goog-SignedHeaders=host&X-Goog-Signature=" + "0".repeat(512)));
+
+        imageDownloadExecutor = new ThreadPoolTaskExecutor();
+        imageDownloadExecutor.setCorePoolSize(8);
+        imageDownloadExecutor.setMaxPoolSize(16);
+        imageDownloadExecutor.setQueueCapacity(200);
+        imageDownloadExecutor.initialize();
+
+        imageResolver = new ImageResolver(parser, storage, imageDownloadExecutor);
+        ReflectionTestUtils.setField(imageResolver, "signedUrlTtlSeconds", 900L);
+        ReflectionTestUtils.setField(imageResolver, "imageTimeoutMillis", 3_000L);
+    }
+
+    @AfterEach
+    void cleanup() {
+        imageDownloadExecutor.shutdown();
+    }
+
+    @DisplayName("base64 모드와 signed URL 모드의 응답 크기와 p99 지연 시간 비교")
+    @Test
+    void compareImageModes() throws Exception {
+        List<String> imageUrls = new ArrayList<>();
+        for (int i = 0; i < IMAGES; i++) {
+            imageUrls.add("https://storage.googleapis.com/memo-log/Avatar/image" + i);
+        }
+
+        for (ImageMode imageMode : Arrays.asList(ImageMode.BASE64, ImageMode.SIGNED_URL)) {
+            // 워밍업
+            respond(imageUrls, imageMode);
+
+            long[] elapsed = new long[ITERATIONS];
+            int payloadBytes = 0;
+            for (int i = 0; i < ITERATIONS; i++) {
+                long start = System.nanoTime();
+                payloadBytes = respond(imageUrls, imageMode).length;
+                elapsed[i] = System.nanoTime() - start;
+            }
+            Arrays.sort(elapsed);
+
+            System.out.printf("[%s] payload=%,dB p50=%.1fms p99=%.1fms%n", imageMode, payloadBytes,
+                    percentile(elapsed, 0.50), percentile(elapsed, 0.99));
+        }
+    }
+
+    // 컨트롤러가 내려보내는 것과 같이 JSON 직렬화까지 포함한다.
+    private byte[] respond(List<String> imageUrls, ImageMode imageMode) throws Exception {
+        Function<String, String> resolver = imageResolver.resolveAll(imageUrls, imageMode);
+        Map<String, String> body = new LinkedHashMap<>();
+        imageUrls.forEach(imageUrl -> body.put(imageUrl, resolver.apply(imageUrl)));
+        return objectMapper.writeValueAsBytes(body);
+    }
+
+    private static double percentile(long[] sorted, double ratio) {
+        int index = Math.min(sorted.length - 1, (int) Math.ceil(ratio * sorted.length) - 1);
+        return sorted[index] / 1_000_000.0;
+    }
+}
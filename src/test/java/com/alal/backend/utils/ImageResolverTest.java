@@ -0,0 +1,180 @@
+package com.alal.backend.utils;
+
+import com.alal.backend.domain.vo.ImageMode;
+import com.google.cloud.storage.BlobId;
+import com.google.cloud.storage.BlobInfo;
+import com.google.cloud.storage.Storage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class ImageResolverTest {
+    private static final String STORAGE_URL = "https://storage.googleapis.com/memo-log/Poster/sample%20poster";
+    private static final String OAUTH_URL = "https://lh3.googleusercontent.com/a/profile-photo=s96-c";
+
+    private static final String ENCODED = "ZW5jb2RlZA==";
+
+    private Parser parser;
+    private Storage storage;
+    private ImageResolver imageResolver;
+    private ThreadPoolTaskExecutor imageDownloadExecutor;
+
+    @BeforeEach
+    void init() throws Exception {
+        parser = Mockito.mock(Parser.class);
+        storage = Mockito.mock(Storage.class);
+        imageResolver = new ImageResolver(parser, storage, new SyncTaskExecutor());
+        ReflectionTestUtils.setField(imageResolver, "signedUrlTtlSeconds", 900L);
+        ReflectionTestUtils.setField(imageResolver, "imageTimeoutMillis", 3_000L);
+
+        Mockito.when(storage.signUrl(any(BlobInfo.class), anyLong(), any(TimeUnit.class), any(Storage.SignUrlOption.class)))
+                .thenReturn(new URL("https://storage.googleapis.com/memo-log/signed"));
+    }
+
+    @AfterEach
+    void cleanup() {
+        if (imageDownloadExecutor != null) {
+            imageDownloadExecutor.shutdown();
+        }
+    }
+
+    @DisplayName("GCS 오브젝트 주소는 디코딩한 이름으로 서명하는지")
+    @Test
+    void signStorageUrlTest() {
+        // when
+        String signed = imageResolver.signUrl(STORAGE_URL);
+
+        // then
+        ArgumentCaptor<BlobInfo> blobInfo = ArgumentCaptor.forClass(BlobInfo.class);
+        verify(storage).signUrl(blobInfo.capture(), anyLong(), any(TimeUnit.class), any(Storage.SignUrlOption.class));
+        assertEquals(BlobId.of("memo-log", "Poster/sample poster"), blobInfo.getValue().getBlobId());
+        assertEquals("https://storage.googleapis.com/memo-log/signed", signed);
+    }
+
+    @DisplayName("OAuth 프로필 사진이나 base64 처럼 GCS 주소가 아닌 값은 서명하지 않고 그대로 돌려주는지")
+    @Test
+    void keepNonStorageUrlTest() {
+        // when
+        Function<String, String> resolver = imageResolver.resolveAll(List.of(OAUTH_URL, "iVBORw0KGgo="), ImageMode.SIGNED_URL);
+
+        // then
+        assertEquals(OAUTH_URL, resolver.apply(OAUTH_URL));
+        assertEquals("iVBORw0KGgo=", resolver.apply("iVBORw0KGgo="));
+        assertEquals(null, imageResolver.signUrl(null));
+        verify(storage, never()).signUrl(any(BlobInfo.class), anyLong(), any(TimeUnit.class), any(Storage.SignUrlOption.class));
+    }
+
+    @DisplayName("여러 이미지를 이미지 풀에서 동시에 내려받는지")
+    @Test
+    void parallelTest() {
+        // given
+        List<String> imageUrls = imageUrls(4);
+        CountDownLatch started = new CountDownLatch(imageUrls.size());
+        // 네 다운로드가 모두 시작되어야 끝나므로, 순차 실행이면 제한 시간을 넘겨 대체 이미지가 된다.
+        Mockito.when(parser.downloadAndEncodeImage(anyString())).thenAnswer(invocation -> {
+            started.countDown();
+            started.await(5, TimeUnit.SECONDS);
+            return ENCODED;
+        });
+        useExecutor(4, 0);
+
+        // when
+        Function<String, String> resolver = imageResolver.resolveAll(imageUrls, ImageMode.BASE64);
+
+        // then
+        imageUrls.forEach(imageUrl -> assertEquals(ENCODED, resolver.apply(imageUrl)));
+    }
+
+    @DisplayName("제한 시간을 넘긴 이미지만 대체 이미지로 채우는지")
+    @Test
+    void timeoutTest() {
+        // given
+        List<String> imageUrls = imageUrls(2);
+        Mockito.when(parser.downloadAndEncodeImage(imageUrls.get(0))).thenReturn(ENCODED);
+        Mockito.when(parser.downloadAndEncodeImage(imageUrls.get(1))).thenAnswer(invocation -> {
+            Thread.sleep(2_000);
+            return ENCODED;
+        });
+        useExecutor(2, 0);
+        ReflectionTestUtils.setField(imageResolver, "imageTimeoutMillis", 200L);
+
+        // when
+        long start = System.nanoTime();
+        Function<String, String> resolver = imageResolver.resolveAll(imageUrls, ImageMode.BASE64);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // then
+        assertEquals(ENCODED, resolver.apply(imageUrls.get(0)));
+        assertEquals(ImageResolver.PLACEHOLDER_BASE64, resolver.apply(imageUrls.get(1)));
+        assertTrue(elapsedMillis < 2_000, "elapsed " + elapsedMillis + "ms");
+    }
+
+    @DisplayName("이미지 풀이 가득 차면 요청 스레드에서 내려받지 않고 대체 이미지로 채우는지")
+    @Test
+    void saturationTest() {
+        // given
+        List<String> imageUrls = imageUrls(3);
+        List<String> downloadThreads = new CopyOnWriteArrayList<>();
+        Mockito.when(parser.downloadAndEncodeImage(anyString())).thenAnswer(invocation -> {
+            downloadThreads.add(Thread.currentThread().getName());
+            Thread.sleep(200);
+            return ENCODED;
+        });
+        // 스레드 1개, 대기열 없음: 첫 이미지가 도는 동안 나머지는 거절된다.
+        useExecutor(1, 0);
+
+        // when
+        Function<String, String> resolver = imageResolver.resolveAll(imageUrls, ImageMode.BASE64);
+
+        // then
+        assertEquals(ENCODED, resolver.apply(imageUrls.get(0)));
+        assertEquals(ImageResolver.PLACEHOLDER_BASE64, resolver.apply(imageUrls.get(1)));
+        assertEquals(ImageResolver.PLACEHOLDER_BASE64, resolver.apply(imageUrls.get(2)));
+        assertEquals(List.of("Image-1"), downloadThreads);
+    }
+
+    private void useExecutor(int threads, int queueCapacity) {
+        imageDownloadExecutor = new ThreadPoolTaskExecutor();
+        imageDownloadExecutor.setCorePoolSize(threads);
+        imageDownloadExecutor.setMaxPoolSize(threads);
+        imageDownloadExecutor.setQueueCapacity(queueCapacity);
+        imageDownloadExecutor.setThreadNamePrefix("Image-");
+        imageDownloadExecutor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        imageDownloadExecutor.initialize();
+
+        imageResolver = new ImageResolver(parser, storage, imageDownloadExecutor);
+        ReflectionTestUtils.setField(imageResolver, "signedUrlTtlSeconds", 900L);
+        ReflectionTestUtils.setField(imageResolver, "imageTimeoutMillis", 3_000L);
+    }
+
+    private static List<String> imageUrls(int count) {
+        List<String> imageUrls = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            imageUrls.add("https://storage.googleapis.com/memo-log/Avatar/image" + i);
+        }
+        return imageUrls;
+    }
+}
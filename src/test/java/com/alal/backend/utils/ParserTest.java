@@ -0,0 +1,160 @@
+package com.alal.backend.utils;
+
+import com.alal.backend.utils.cache.EncodedImageCache;
+import com.alal.backend.utils.cache.ImageDiskCache;
+import com.alal.backend.utils.cache.ObjectGenerationCache;
+import com.google.cloud.storage.Blob;
+import com.google.cloud.storage.BlobId;
+import com.google.cloud.storage.Storage;
+import com.google.cloud.storage.StorageException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class ParserTest {
+    private static final String HASH = "a".repeat(64);
+    private static final String CONTENT_ADDRESSED_URL = "https://storage.googleapis.com/memo-log/Poster%2F" + HASH;
+    private static final String FLASK_OUTPUT_URL = "https://storage.googleapis.com/memo-log/1_thumbnail.png";
+    private static final String OAUTH_URL = "https://lh3.googleusercontent.com/a/profile-photo=s96-c";
+
+    private ImageDiskCache imageDiskCache;
+    private ImageHttpClient imageHttpClient;
+    private Storage storage;
+    private Parser parser;
+
+    @BeforeEach
+    void init() throws Exception {
+        imageDiskCache = Mockito.mock(ImageDiskCache.class);
+        Mockito.when(imageDiskCache.getOrLoad(anyString(), any(ImageDiskCache.ImageLoader.class)))
+                .thenAnswer(invocation -> ((ImageDiskCache.ImageLoader) invocation.getArgument(1))
+                        .load(invocation.getArgument(0)));
+        imageHttpClient = Mockito.mock(ImageHttpClient.class);
+        storage = Mockito.mock(Storage.class);
+        parser = parser(30_000);
+    }
+
+    private Parser parser(long generationTtlMillis) {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        return new Parser(imageDiskCache, new EncodedImageCache(1_000_000, meterRegistry), imageHttpClient, storage,
+                new ObjectGenerationCache(100, generationTtlMillis, meterRegistry));
+    }
+
+    @DisplayName("내용 주소 이름은 메타데이터를 읽지 않고 URL 로 캐시하는지")
+    @Test
+    void contentAddressedKeyTest() throws Exception {
+        // given
+        Mockito.when(imageHttpClient.download(CONTENT_ADDRESSED_URL)).thenReturn(bytes("poster"));
+
+        // when
+        parser.downloadAndEncodeImage(CONTENT_ADDRESSED_URL);
+        String encoded = parser.downloadAndEncodeImage(CONTENT_ADDRESSED_URL);
+
+        // then
+        assertEquals(Parser.encodeImageToBase64(bytes("poster")), encoded);
+        verify(imageHttpClient, times(1)).download(CONTENT_ADDRESSED_URL);
+        verify(imageDiskCache).getOrLoad(eq(CONTENT_ADDRESSED_URL), any(ImageDiskCache.ImageLoader.class));
+        verify(storage, never()).get(any(BlobId.class), any(Storage.BlobGetOption.class));
+    }
+
+    @DisplayName("같은 이름에 다시 쓰인 파일은 generation 이 바뀌어 새 내용을 내려받는지")
+    @Test
+    void generationKeyTest() throws Exception {
+        // given: generation 을 기억하지 않고 매번 읽는다.
+        parser = parser(0);
+        Blob first = blob(1L);
+        Blob second = blob(2L);
+        Mockito.when(storage.get(eq(Parser.parseBlobId(FLASK_OUTPUT_URL)), any(Storage.BlobGetOption.class)))
+                .thenReturn(first, first, second);
+        Mockito.when(imageHttpClient.download(FLASK_OUTPUT_URL)).thenReturn(bytes("before"), bytes("after"));
+
+        // when
+        String cached = parser.downloadAndEncodeImage(FLASK_OUTPUT_URL);
+        String hit = parser.downloadAndEncodeImage(FLASK_OUTPUT_URL);
+        String overwritten = parser.downloadAndEncodeImage(FLASK_OUTPUT_URL);
+
+        // then
+        assertEquals(Parser.encodeImageToBase64(bytes("before")), cached);
+        assertEquals(cached, hit);
+        assertEquals(Parser.encodeImageToBase64(bytes("after")), overwritten);
+        verify(imageHttpClient, times(2)).download(FLASK_OUTPUT_URL);
+        verify(imageDiskCache).getOrLoad(eq(FLASK_OUTPUT_URL + "#2"), any(ImageDiskCache.ImageLoader.class));
+    }
+
+    @DisplayName("generation 을 기억하는 동안에는 캐시 적중에 메타데이터를 다시 읽지 않는지")
+    @Test
+    void rememberGenerationTest() throws Exception {
+        // given
+        Mockito.when(storage.get(eq(Parser.parseBlobId(FLASK_OUTPUT_URL)), any(Storage.BlobGetOption.class)))
+                .thenReturn(blob(1L));
+        Mockito.when(imageHttpClient.download(FLASK_OUTPUT_URL)).thenReturn(bytes("thumbnail"));
+
+        // when
+        for (int i = 0; i < 5; i++) {
+            parser.downloadAndEncodeImage(FLASK_OUTPUT_URL);
+        }
+
+        // then
+        verify(storage, times(1)).get(any(BlobId.class), any(Storage.BlobGetOption.class));
+        verify(imageHttpClient, times(1)).download(FLASK_OUTPUT_URL);
+    }
+
+    @DisplayName("메타데이터를 읽지 못하면 마지막으로 본 generation 으로 캐시를 쓰고, 본 적이 없으면 캐시 없이 내려받는지")
+    @Test
+    void metadataFailureTest() throws Exception {
+        // given
+        parser = parser(0);
+        Mockito.when(storage.get(eq(Parser.parseBlobId(FLASK_OUTPUT_URL)), any(Storage.BlobGetOption.class)))
+                .thenThrow(new StorageException(503, "unavailable"))
+                .thenReturn(blob(1L))
+                .thenThrow(new StorageException(503, "unavailable"));
+        Mockito.when(imageHttpClient.download(FLASK_OUTPUT_URL)).thenReturn(bytes("thumbnail"));
+
+        // when
+        String uncached = parser.downloadAndEncodeImage(FLASK_OUTPUT_URL);
+        parser.downloadAndEncodeImage(FLASK_OUTPUT_URL);
+        String lastKnown = parser.downloadAndEncodeImage(FLASK_OUTPUT_URL);
+
+        // then
+        assertEquals(Parser.encodeImageToBase64(bytes("thumbnail")), uncached);
+        assertEquals(uncached, lastKnown);
+        verify(imageHttpClient, times(2)).download(FLASK_OUTPUT_URL);
+        verify(imageDiskCache, times(1)).getOrLoad(eq(FLASK_OUTPUT_URL + "#1"), any(ImageDiskCache.ImageLoader.class));
+    }
+
+    @DisplayName("스토리지 밖의 주소는 메모리, 디스크 캐시 모두 거치지 않는지")
+    @Test
+    void skipCacheForExternalUrlTest() throws Exception {
+        // given
+        Mockito.when(imageHttpClient.download(OAUTH_URL)).thenReturn(bytes("profile"), bytes("new profile"));
+
+        // when
+        parser.downloadAndEncodeImage(OAUTH_URL);
+        String encoded = parser.downloadAndEncodeImage(OAUTH_URL);
+
+        // then
+        assertEquals(Parser.encodeImageToBase64(bytes("new profile")), encoded);
+        verify(imageDiskCache, never()).getOrLoad(anyString(), any(ImageDiskCache.ImageLoader.class));
+    }
+
+    private static Blob blob(long generation) {
+        Blob blob = Mockito.mock(Blob.class);
+        Mockito.when(blob.getGeneration()).thenReturn(generation);
+        return blob;
+    }
+
+    private static byte[] bytes(String content) {
+        return content.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,78 @@
+package com.alal.backend.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SingleFlightTest {
+    private static final int READERS = 20;
+    private static final String POSTER_URL = "https://storage.googleapis.com/bucket/Poster/sample";
+
+    @DisplayName("같은 URL을 동시에 읽는 N개의 요청이 한 번의 다운로드만 일으키는지")
+    @Test
+    void concurrentReadersShareOneFetchTest() throws Exception {
+        // given
+        SingleFlight<String, String> singleFlight = new SingleFlight<>();
+        AtomicInteger fetchCount = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        CyclicBarrier start = new CyclicBarrier(READERS);
+
+        ExecutorService executor = Executors.newFixedThreadPool(READERS);
+        List<Future<String>> results = new ArrayList<>();
+
+        // when
+        for (int i = 0; i < READERS; i++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                return singleFlight.execute(POSTER_URL, url -> {
+                    fetchCount.incrementAndGet();
+                    awaitQuietly(release);
+                    return "image";
+                });
+            }));
+        }
+
+        // 모든 요청이 진행 중인 다운로드에 합류할 시간을 준 뒤 다운로드를 끝낸다.
+        Thread.sleep(300);
+        release.countDown();
+
+        // then
+        for (Future<String> result : results) {
+            assertEquals("image", result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, fetchCount.get());
+        assertEquals(0, singleFlight.inFlightCount());
+
+        executor.shutdownNow();
+    }
+
+    @DisplayName("다운로드가 끝난 뒤의 요청은 새로 다운로드하는지")
+    @Test
+    void completedFlightIsNotCachedTest() {
+        // given
+        SingleFlight<String, String> singleFlight = new SingleFlight<>();
+        AtomicInteger fetchCount = new AtomicInteger();
+
+        // when
+        singleFlight.execute(POSTER_URL, url -> String.valueOf(fetchCount.incrementAndGet()));
+        String second = singleFlight.execute(POSTER_URL, url -> String.valueOf(fetchCount.incrementAndGet()));
+
+        // then
+        assertEquals("2", second);
+        assertEquals(2, fetchCount.get());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
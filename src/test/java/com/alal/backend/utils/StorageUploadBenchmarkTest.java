@@ -0,0 +1,202 @@
+package com.alal.backend.utils;
+
+import com.alal.backend.config.security.token.UserPrincipal;
+import com.alal.backend.controller.user.GroupController;
+import com.alal.backend.domain.dto.request.UploadMemoRequest;
+import com.alal.backend.domain.dto.response.UploadMemoResponse;
+import com.alal.backend.service.group.AvatarService;
+import com.alal.backend.service.group.MemoService;
+import com.alal.backend.service.group.ProjectReadService;
+import com.alal.backend.service.group.ProjectService;
+import com.alal.backend.service.group.SceneService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.cloud.RestorableState;
+import com.google.cloud.WriteChannel;
+import com.google.cloud.storage.BlobInfo;
+import com.google.cloud.storage.Storage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.Mockito;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.method.annotation.AuthenticationPrincipalArgumentResolver;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.util.Base64;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// ./gradlew benchmark 로만 실행된다. (기본 test 태스크에서는 제외)
+// 두 방식 모두 MockMvc 로 같은 컨트롤러(GroupController 메모 업로드)에 요청을 보내므로, JSON 본문 파싱과 multipart 파일 바인딩을
+// 각각 포함한다. MemoService 는 받은 내용을 StorageUploader 로 그대로 올리는 스텁이다.
+@Tag("benchmark")
+class StorageUploadBenchmarkTest {
+    private static final int MB = 1024 * 1024;
+    private static final int ITERATIONS = 5;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @AfterEach
+    void cleanup() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @DisplayName("base64 JSON 업로드와 multipart 업로드의 처리량, 할당량 비교")
+    @ParameterizedTest(name = "{0}MB")
+    @ValueSource(ints = {1, 10, 50})
+    void compareUploadPaths(int sizeInMb) throws Exception {
+        // given
+        byte[] original = new byte[sizeInMb * MB];
+        new Random(0).nextBytes(original);
+        byte[] json = objectMapper.writeValueAsBytes(
+                new UploadMemoRequest(Base64.getEncoder().encodeToString(original)));
+
+        CountingWriteChannel channel = new CountingWriteChannel();
+        Storage storage = Mockito.mock(Storage.class);
+        Mockito.when(storage.writer(any(BlobInfo.class), any(Storage.BlobWriteOption.class))).thenReturn(channel);
+        StorageUploader storageUploader = new StorageUploader(storage);
+        StorageUploader.Digest digest = storageUploader.digest(() -> new ByteArrayInputStream(original));
+        BlobInfo blobInfo = BlobInfo.newBuilder("bucket", "Memo/sample").setCrc32c(digest.getCrc32c()).build();
+        MockMvc mockMvc = mockMvc(storageUploader, blobInfo);
+
+        // when
+        Result base64 = measure(channel, () -> mockMvc.perform(post("/group/memo/upload")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(status().isOk()));
+        Result multipart = measure(channel, () -> mockMvc.perform(multipart("/group/memo/upload")
+                        .file(new MockMultipartFile("csvFile", "memo.csv", "text/csv", original)))
+                .andExpect(status().isOk()));
+
+        // then
+        assertEquals((long) original.length * ITERATIONS, base64.written);
+        assertEquals((long) original.length * ITERATIONS, multipart.written);
+        System.out.printf("[%dMB] body: json=%dB multipart=%dB%n", sizeInMb, json.length, original.length);
+        System.out.printf("[%dMB] base64   : %8.1f MB/s, %,d bytes allocated/op%n",
+                sizeInMb, base64.throughput(original.length), base64.allocatedPerOp());
+        System.out.printf("[%dMB] multipart: %8.1f MB/s, %,d bytes allocated/op%n",
+                sizeInMb, multipart.throughput(original.length), multipart.allocatedPerOp());
+    }
+
+    // 컨트롤러 앞단(메시지 변환, multipart 바인딩, @CurrentUser)은 그대로 두고 서비스만 업로드 스텁으로 바꾼다.
+    private MockMvc mockMvc(StorageUploader storageUploader, BlobInfo blobInfo) {
+        MemoService memoService = Mockito.mock(MemoService.class);
+        Mockito.when(memoService.uploadMemo(any(UploadMemoRequest.class), anyLong())).thenAnswer(invocation -> {
+            UploadMemoRequest request = invocation.getArgument(0);
+            storageUploader.upload(blobInfo, StorageUploader.base64(request.getCsvFile()));
+            return UploadMemoResponse.fromEntity(blobInfo.getName());
+        });
+        Mockito.when(memoService.uploadMemo(any(MultipartFile.class), anyLong())).thenAnswer(invocation -> {
+            storageUploader.upload(blobInfo, StorageUploader.multipart(invocation.getArgument(0)));
+            return UploadMemoResponse.fromEntity(blobInfo.getName());
+        });
+
+        UserPrincipal userPrincipal = new UserPrincipal(1L, "benchmark@alal.com", null, List.of());
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(userPrincipal, null, userPrincipal.getAuthorities()));
+
+        GroupController groupController = new GroupController(memoService, Mockito.mock(AvatarService.class),
+                Mockito.mock(ProjectService.class), Mockito.mock(ProjectReadService.class), Mockito.mock(SceneService.class));
+        return MockMvcBuilders.standaloneSetup(groupController)
+                .setCustomArgumentResolvers(new AuthenticationPrincipalArgumentResolver())
+                .build();
+    }
+
+    private Result measure(CountingWriteChannel channel, ThrowingRunnable upload) throws Exception {
+        // 워밍업
+        upload.run();
+        channel.written = 0;
+
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            upload.run();
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = allocatedBytes() - allocatedBefore;
+
+        Result result = new Result(elapsed, allocated, channel.written);
+        channel.written = 0;
+        return result;
+    }
+
+    private static long allocatedBytes() {
+        com.sun.management.ThreadMXBean threadMXBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        return threadMXBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    @FunctionalInterface
+    private interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+
+    private static class Result {
+        private final long elapsedNanos;
+        private final long allocated;
+        private final long written;
+
+        Result(long elapsedNanos, long allocated, long written) {
+            this.elapsedNanos = elapsedNanos;
+            this.allocated = allocated;
+            this.written = written;
+        }
+
+        double throughput(int size) {
+            return (double) size * ITERATIONS / MB / (elapsedNanos / 1_000_000_000.0);
+        }
+
+        long allocatedPerOp() {
+            return allocated / ITERATIONS;
+        }
+    }
+
+    private static class CountingWriteChannel implements WriteChannel {
+        private long written;
+        private boolean open = true;
+
+        @Override
+        public void setChunkSize(int chunkSize) {
+        }
+
+        @Override
+        public RestorableState<WriteChannel> capture() {
+            return null;
+        }
+
+        @Override
+        public int write(ByteBuffer src) {
+            int remaining = src.remaining();
+            src.position(src.limit());
+            written += remaining;
+            return remaining;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return open;
+        }
+
+        @Override
+        public void close() {
+            open = false;
+        }
+    }
+}
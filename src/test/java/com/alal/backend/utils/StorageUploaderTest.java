@@ -0,0 +1,180 @@
+package com.alal.backend.utils;
+
+import com.alal.backend.advice.error.DefaultException;
+import com.google.cloud.RestorableState;
+import com.google.cloud.WriteChannel;
+import com.google.cloud.storage.BlobInfo;
+import com.google.cloud.storage.Storage;
+import com.google.cloud.storage.StorageException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.CRC32C;
+
+import static com.alal.backend.utils.StorageUploader.BUFFER_SIZE;
+import static com.alal.backend.utils.StorageUploader.CHUNK_SIZE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+
+class StorageUploaderTest {
+    private static final int FILE_SIZE = 20 * 1024 * 1024;
+
+    private final List<ChunkedWriteChannel> channels = new ArrayList<>();
+    private Storage storage;
+    private StorageUploader storageUploader;
+
+    @BeforeEach
+    void init() {
+        storage = Mockito.mock(Storage.class);
+        Mockito.when(storage.writer(any(BlobInfo.class), any(Storage.BlobWriteOption.class))).thenAnswer(invocation -> {
+            ChunkedWriteChannel channel = new ChunkedWriteChannel(invocation.getArgument(0));
+            channels.add(channel);
+            return channel;
+        });
+        storageUploader = new StorageUploader(storage);
+    }
+
+    @DisplayName("20MB 파일 업로드 시 청크 버퍼를 잡는 채널을 포함해도 힙 할당량이 청크 크기 수준으로 제한되는지")
+    @Test
+    void uploadBase64HeapBoundTest() {
+        // given
+        byte[] original = new byte[FILE_SIZE];
+        new Random(0).nextBytes(original);
+        String base64 = Base64.getEncoder().encodeToString(original);
+        original = null;
+        StorageUploader.Digest digest = storageUploader.digest(StorageUploader.base64(base64));
+        BlobInfo blobInfo = blobInfo(digest.getCrc32c());
+
+        // when
+        long before = allocatedBytes();
+        storageUploader.upload(blobInfo, StorageUploader.base64(base64));
+        long allocated = allocatedBytes() - before;
+
+        // then: 채널의 청크 버퍼와 업로더의 읽기 버퍼 외에는 파일 크기에 비례하는 할당이 없어야 한다.
+        ChunkedWriteChannel channel = channels.get(0);
+        assertEquals(FILE_SIZE, channel.flushed);
+        assertEquals(FILE_SIZE / CHUNK_SIZE, channel.flushCount);
+        assertEquals(CHUNK_SIZE, channel.peakBuffered);
+        assertTrue(channel.finalized);
+        assertTrue(allocated < CHUNK_SIZE + 4 * BUFFER_SIZE,
+                "업로드 중 최대 할당량 " + allocated + " bytes 가 청크 크기 수준을 넘었습니다.");
+        verify(storage).writer(eq(blobInfo), eq(Storage.BlobWriteOption.crc32cMatch()));
+    }
+
+    @DisplayName("읽는 도중 실패하면 세션을 바로 놓고, 잘린 내용은 체크섬 검증으로 객체가 되지 않는지")
+    @Test
+    void uploadFailureTest() {
+        // given
+        String valid = Base64.getEncoder().encodeToString(new byte[BUFFER_SIZE * 2]);
+        StorageUploader.Digest digest = storageUploader.digest(StorageUploader.base64(valid + valid));
+        BlobInfo blobInfo = blobInfo(digest.getCrc32c());
+
+        // when
+        assertThrows(DefaultException.class,
+                () -> storageUploader.upload(blobInfo, StorageUploader.base64(valid + "!!!!")));
+
+        // then
+        ChunkedWriteChannel channel = channels.get(0);
+        assertTrue(channel.received > 0);
+        assertFalse(channel.isOpen());
+        assertNull(channel.buffer);
+        assertFalse(channel.finalized);
+    }
+
+    @DisplayName("CRC32C 없이 업로드하면 세션을 열지 않는지")
+    @Test
+    void uploadWithoutChecksumTest() {
+        assertThrows(IllegalArgumentException.class,
+                () -> storageUploader.upload(blobInfo(null), StorageUploader.base64("AAAA")));
+        assertTrue(channels.isEmpty());
+    }
+
+    private static BlobInfo blobInfo(String crc32c) {
+        return BlobInfo.newBuilder("bucket", "Poster/sample").setCrc32c(crc32c).build();
+    }
+
+    private static long allocatedBytes() {
+        com.sun.management.ThreadMXBean threadMXBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        return threadMXBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    // BlobWriteChannel 처럼 청크 크기만큼 버퍼에 모았다가 가득 차면 보내고, close 에서 남은 내용을 보내며 마무리한다.
+    // 마무리할 때 세션을 열며 받은 CRC32C 와 받은 내용을 비교해 다르면 GCS 처럼 거절한다.
+    private static class ChunkedWriteChannel implements WriteChannel {
+        private final BlobInfo blobInfo;
+        private final CRC32C crc32c = new CRC32C();
+        private byte[] buffer;
+        private int position;
+        private long received;
+        private long flushed;
+        private int flushCount;
+        private int peakBuffered;
+        private boolean open = true;
+        private boolean finalized;
+
+        ChunkedWriteChannel(BlobInfo blobInfo) {
+            this.blobInfo = blobInfo;
+        }
+
+        @Override
+        public void setChunkSize(int chunkSize) {
+            buffer = new byte[chunkSize];
+        }
+
+        @Override
+        public RestorableState<WriteChannel> capture() {
+            return null;
+        }
+
+        @Override
+        public int write(ByteBuffer src) {
+            int count = Math.min(src.remaining(), buffer.length - position);
+            src.get(buffer, position, count);
+            position += count;
+            received += count;
+            peakBuffered = Math.max(peakBuffered, position);
+            if (position == buffer.length) {
+                flush();
+                flushCount++;
+            }
+            return count;
+        }
+
+        private void flush() {
+            crc32c.update(buffer, 0, position);
+            flushed += position;
+            position = 0;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return open;
+        }
+
+        @Override
+        public void close() {
+            flush();
+            open = false;
+            buffer = null;
+            if (!StorageUploader.encodeCrc32c(crc32c).equals(blobInfo.getCrc32c())) {
+                throw new StorageException(400, "crc32c mismatch");
+            }
+            finalized = true;
+        }
+    }
+}
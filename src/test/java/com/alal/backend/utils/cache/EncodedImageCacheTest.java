@@ -0,0 +1,138 @@
+package com.alal.backend.utils.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EncodedImageCacheTest {
+    // window 10B, main 990B. 값 크기에 항목당 64B 가 더해진다.
+    private static final long MAX_BYTES = 1_000;
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @DisplayName("자주 쓰인 항목보다 빈도가 낮은 후보는 거절되고 main 항목은 그대로 남는지")
+    @Test
+    void rejectColdCandidateTest() {
+        // given
+        EncodedImageCache cache = new EncodedImageCache(MAX_BYTES, new SimpleMeterRegistry());
+        for (int i = 0; i < 9; i++) {
+            for (int hit = 0; hit < 4; hit++) {
+                cache.getOrCompute("hot" + i, loader(36));
+            }
+        }
+        loads.set(0);
+
+        // when
+        cache.getOrCompute("cold", loader(36));
+        for (int i = 0; i < 9; i++) {
+            cache.getOrCompute("hot" + i, loader(36));
+        }
+
+        // then
+        assertEquals(1, loads.get());
+        assertEquals(900, cache.size());
+    }
+
+    @DisplayName("희생 후보 중 하나라도 더 자주 쓰였으면 앞서 고른 희생 후보도 내보내지 않는지")
+    @Test
+    void keepVictimsWhenRejectedTest() {
+        // given: main 의 LRU 순서는 cold(300B) -> hot1(300B) -> hot2(300B)
+        EncodedImageCache cache = new EncodedImageCache(MAX_BYTES, new SimpleMeterRegistry());
+        cache.getOrCompute("cold", loader(236));
+        for (int hit = 0; hit < 6; hit++) {
+            cache.getOrCompute("hot1", loader(236));
+            cache.getOrCompute("hot2", loader(236));
+        }
+
+        // when: 후보(400B)는 cold 보다 자주 쓰였지만 hot1 보다는 덜 쓰였다.
+        cache.getOrCompute("candidate", loader(336));
+        cache.getOrCompute("candidate", loader(336));
+        loads.set(0);
+        cache.getOrCompute("cold", loader(236));
+
+        // then
+        assertEquals(0, loads.get());
+        assertEquals(900, cache.size());
+    }
+
+    @DisplayName("더 자주 쓰인 후보는 필요한 만큼 LRU 희생 후보를 내보내고 들어가는지")
+    @Test
+    void admitHotCandidateTest() {
+        // given
+        EncodedImageCache cache = new EncodedImageCache(MAX_BYTES, new SimpleMeterRegistry());
+        cache.getOrCompute("cold1", loader(236));
+        cache.getOrCompute("cold2", loader(236));
+        cache.getOrCompute("warm", loader(236));
+        cache.getOrCompute("warm", loader(236));
+
+        // when
+        for (int attempt = 0; attempt < 3; attempt++) {
+            cache.getOrCompute("candidate", loader(336));
+        }
+        loads.set(0);
+        cache.getOrCompute("candidate", loader(336));
+        cache.getOrCompute("warm", loader(236));
+
+        // then
+        assertEquals(0, loads.get());
+        assertEquals(700, cache.size());
+    }
+
+    @DisplayName("읽어 오는 중에 무효화되면 이전 값을 넣지 않고, 무효화 기록도 남기지 않는지")
+    @Test
+    void invalidateTest() {
+        // given
+        EncodedImageCache cache = new EncodedImageCache(MAX_BYTES, new SimpleMeterRegistry());
+
+        // when
+        cache.getOrCompute("poster", url -> {
+            cache.invalidate(url);
+            return "stale";
+        });
+        for (int i = 0; i < 1_000; i++) {
+            cache.invalidate("never-cached" + i);
+        }
+        String loaded = cache.getOrCompute("poster", loader(36));
+
+        // then
+        assertEquals(36, loaded.length());
+        assertEquals(1, loads.get());
+        assertTrue(((Map<?, ?>) ReflectionTestUtils.getField(cache, "loading")).isEmpty());
+        assertTrue(((Map<?, ?>) ReflectionTestUtils.getField(cache, "invalidatedAt")).isEmpty());
+    }
+
+    @DisplayName("빈도 스케치의 4비트 카운터가 15에서 멈추고, 절반으로 줄일 때 옆 카운터로 넘치지 않는지")
+    @Test
+    void frequencySketchSaturationTest() {
+        // given: 카운터 16개, 160번 더할 때마다 절반으로 줄인다.
+        EncodedImageCache.FrequencySketch sketch = new EncodedImageCache.FrequencySketch(16);
+
+        // when
+        for (int i = 0; i < 20; i++) {
+            sketch.increment("poster");
+        }
+        int saturated = sketch.frequency("poster");
+        for (int i = 20; i < 160; i++) {
+            sketch.increment("poster");
+        }
+
+        // then
+        assertEquals(15, saturated);
+        assertEquals(7, sketch.frequency("poster"));
+    }
+
+    private Function<String, String> loader(int length) {
+        return url -> {
+            loads.incrementAndGet();
+            return "a".repeat(length);
+        };
+    }
+}
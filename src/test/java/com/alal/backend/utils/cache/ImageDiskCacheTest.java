@@ -0,0 +1,158 @@
+package com.alal.backend.utils.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ImageDiskCacheTest {
+    // 100B 이미지 3장까지 담는다.
+    private static final long MAX_BYTES = 300;
+
+    @TempDir
+    Path directory;
+
+    @DisplayName("용량을 넘으면 가장 오래 쓰이지 않은 이미지부터 파일까지 지우는지")
+    @Test
+    void evictLeastRecentlyUsedTest() throws IOException {
+        // given
+        ImageDiskCache cache = cache();
+        cache.put("a", image(100));
+        cache.put("b", image(100));
+        cache.put("c", image(100));
+        cache.get("a");
+
+        // when
+        cache.put("d", image(100));
+
+        // then
+        assertNull(cache.get("b"));
+        assertNotNull(cache.get("a"));
+        assertNotNull(cache.get("c"));
+        assertNotNull(cache.get("d"));
+        assertEquals(300, cache.size());
+        assertEquals(1, cache.getEvictions());
+        assertEquals(3, fileCount());
+    }
+
+    @DisplayName("용량보다 큰 이미지는 저장하지 않고 기존 항목도 내보내지 않는지")
+    @Test
+    void rejectOversizeTest() throws IOException {
+        // given
+        ImageDiskCache cache = cache();
+        cache.put("a", image(100));
+
+        // when
+        cache.put("huge", image(301));
+
+        // then
+        assertNull(cache.get("huge"));
+        assertNotNull(cache.get("a"));
+        assertEquals(100, cache.size());
+        assertEquals(0, cache.getEvictions());
+        assertEquals(1, fileCount());
+    }
+
+    @DisplayName("종료 때 기록한 LRU 순서를 재시작하면 복원하고, 쓰다 남은 임시 파일은 지우는지")
+    @Test
+    void restoreOrderTest() throws IOException {
+        // given
+        ImageDiskCache before = cache();
+        before.put("a", image(100));
+        before.put("b", image(100));
+        before.put("c", image(100));
+        before.get("a");
+        before.saveOrder();
+        Path leftover = Files.createFile(directory.resolve("leftover.tmp"));
+
+        // when
+        ImageDiskCache after = cache();
+        after.put("d", image(100));
+
+        // then: 재시작 전 LRU 순서(b -> c -> a)대로 b 가 먼저 나간다.
+        assertEquals(300, after.size());
+        assertNull(after.get("b"));
+        assertNotNull(after.get("a"));
+        assertNotNull(after.get("c"));
+        assertFalse(Files.exists(leftover));
+        assertEquals(3, fileCount());
+    }
+
+    @DisplayName("재시작할 때 줄어든 용량에 맞춰 오래된 이미지부터 내보내는지")
+    @Test
+    void shrinkOnLoadTest() throws IOException {
+        // given
+        ImageDiskCache before = cache();
+        before.put("a", image(100));
+        before.put("b", image(100));
+        before.put("c", image(100));
+        before.saveOrder();
+
+        // when
+        ImageDiskCache after = new ImageDiskCache(directory.toString(), 200, new SimpleMeterRegistry());
+        after.loadIndex();
+
+        // then
+        assertEquals(200, after.size());
+        assertEquals(1, after.getEvictions());
+        assertNull(after.get("a"));
+        assertEquals(2, fileCount());
+    }
+
+    @DisplayName("없는 이미지만 내려받고, 조회 결과를 hit/miss 로 세는지")
+    @Test
+    void countersTest() throws IOException {
+        // given
+        ImageDiskCache cache = cache();
+        AtomicInteger loads = new AtomicInteger();
+        byte[] image = image(100);
+
+        // when
+        byte[] first = cache.getOrLoad("a", url -> {
+            loads.incrementAndGet();
+            return image;
+        });
+        byte[] second = cache.getOrLoad("a", url -> {
+            loads.incrementAndGet();
+            return image;
+        });
+
+        // then
+        assertArrayEquals(image, first);
+        assertArrayEquals(image, second);
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(0, cache.getEvictions());
+    }
+
+    private ImageDiskCache cache() throws IOException {
+        ImageDiskCache cache = new ImageDiskCache(directory.toString(), MAX_BYTES, new SimpleMeterRegistry());
+        cache.loadIndex();
+        return cache;
+    }
+
+    private long fileCount() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+
+    private static byte[] image(int bytes) {
+        byte[] image = new byte[bytes];
+        image[0] = (byte) bytes;
+        return image;
+    }
+}
@@ -0,0 +1,51 @@
+package com.alal.backend.utils.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ObjectGenerationCacheTest {
+    private static final String URL = "https://storage.googleapis.com/memo-log/1_thumbnail.png";
+
+    private final AtomicLong now = new AtomicLong();
+    private final ObjectGenerationCache objectGenerationCache = new ObjectGenerationCache(2, 30_000, now::get);
+
+    @DisplayName("TTL 안에서는 기억한 generation 을 돌려주고, 지나면 다시 읽게 하되 마지막 값은 남겨 두는지")
+    @Test
+    void expireTest() {
+        // given
+        objectGenerationCache.put(URL, 7L);
+
+        // when
+        Long fresh = objectGenerationCache.get(URL);
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(30_000));
+        Long expired = objectGenerationCache.get(URL);
+
+        // then
+        assertEquals(7L, fresh);
+        assertNull(expired);
+        assertEquals(7L, objectGenerationCache.getLastKnown(URL));
+    }
+
+    @DisplayName("최대 항목 수를 넘으면 가장 오래 쓰이지 않은 주소부터 잊는지")
+    @Test
+    void evictLeastRecentlyUsedTest() {
+        // given
+        objectGenerationCache.put("a", 1L);
+        objectGenerationCache.put("b", 2L);
+        objectGenerationCache.get("a");
+
+        // when
+        objectGenerationCache.put("c", 3L);
+
+        // then
+        assertEquals(1L, objectGenerationCache.getLastKnown("a"));
+        assertNull(objectGenerationCache.getLastKnown("b"));
+        assertEquals(2, objectGenerationCache.size());
+    }
+}
@@ -0,0 +1,80 @@
+package com.alal.backend.utils.cache;
+
+import com.alal.backend.domain.dto.response.FlaskResponse;
+import com.alal.backend.payload.request.user.FlaskVoiceRequest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class VoiceConversionCacheTest {
+    private static final Long USER_ID = 1L;
+
+    private final AtomicLong now = new AtomicLong();
+    private final VoiceConversionCache voiceConversionCache = new VoiceConversionCache(2, 60, now::get);
+
+    @DisplayName("같은 사용자/음성 내용/모델/성별 요청은 이전 변환 결과를 돌려주고, TTL이 지나면 다시 변환하는지")
+    @Test
+    void hitAndExpireTest() {
+        // given
+        FlaskVoiceRequest request = voiceRequest("modelA");
+        voiceConversionCache.put(USER_ID, "md5-a", request, new FlaskResponse("converted.wav"));
+
+        // when
+        FlaskResponse cached = voiceConversionCache.get(USER_ID, "md5-a", voiceRequest("modelA"));
+        FlaskResponse otherModel = voiceConversionCache.get(USER_ID, "md5-a", voiceRequest("modelB"));
+        now.addAndGet(TimeUnit.SECONDS.toNanos(60));
+        FlaskResponse expired = voiceConversionCache.get(USER_ID, "md5-a", request);
+
+        // then
+        assertEquals("converted.wav", cached.getResponseMessage());
+        assertNull(otherModel);
+        assertNull(expired);
+        assertEquals(1.0 / 3, voiceConversionCache.hitRatio(), 1e-9);
+    }
+
+    @DisplayName("다른 사용자나 다른 음성 내용의 요청에는 이전 결과를 돌려주지 않는지")
+    @Test
+    void scopeTest() {
+        // given
+        voiceConversionCache.put(USER_ID, "md5-a", voiceRequest("modelA"), new FlaskResponse("converted.wav"));
+
+        // when
+        FlaskResponse otherUser = voiceConversionCache.get(USER_ID + 1, "md5-a", voiceRequest("modelA"));
+        FlaskResponse otherContent = voiceConversionCache.get(USER_ID, "md5-b", voiceRequest("modelA"));
+
+        // then
+        assertNull(otherUser);
+        assertNull(otherContent);
+    }
+
+    @DisplayName("최대 항목 수를 넘으면 가장 오래 쓰이지 않은 결과부터 밀려나고, 모델 단위로 비울 수 있는지")
+    @Test
+    void evictAndInvalidateModelTest() {
+        // given
+        voiceConversionCache.put(USER_ID, "md5-a", voiceRequest("modelA"), new FlaskResponse("a"));
+        voiceConversionCache.put(USER_ID, "md5-b", voiceRequest("modelB"), new FlaskResponse("b"));
+        voiceConversionCache.get(USER_ID, "md5-a", voiceRequest("modelA"));
+
+        // when
+        voiceConversionCache.put(USER_ID, "md5-c", voiceRequest("modelA"), new FlaskResponse("c"));
+        int invalidated = voiceConversionCache.invalidateModel("modelA");
+
+        // then
+        assertNull(voiceConversionCache.get(USER_ID, "md5-b", voiceRequest("modelB")));
+        assertEquals(2, invalidated);
+        assertEquals(0, voiceConversionCache.size());
+    }
+
+    private static FlaskVoiceRequest voiceRequest(String modelName) {
+        return FlaskVoiceRequest.builder()
+                .fileName("https://storage.googleapis.com/alal/Voice/line01.wav")
+                .modelName(modelName)
+                .gender("female")
+                .build();
+    }
+}
@@ -0,0 +1,91 @@
+package com.alal.backend.utils.resilience;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AimdLimiterTest {
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long SLOW = TimeUnit.SECONDS.toNanos(40);
+
+    @DisplayName("한도를 채워 쓰는 동안 정상 응답이면 한도가 1씩 늘고, 최대값을 넘지 않는지")
+    @Test
+    void additiveIncreaseTest() {
+        // given
+        AimdLimiter limiter = new AimdLimiter(2, 1, 3, 0.5, 30_000);
+
+        // when
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        limiter.onSample(FAST, false);
+        limiter.onSample(FAST, false);
+
+        // then
+        assertEquals(3, limiter.getLimit());
+        assertEquals(0, limiter.getInflight());
+        assertEquals(100.0, limiter.getRttMillis(), 1e-6);
+    }
+
+    @DisplayName("실패하거나 느린 응답이면 한도가 비율만큼 줄고, 최소값 아래로 내려가지 않는지")
+    @Test
+    void multiplicativeDecreaseTest() {
+        // given
+        AimdLimiter limiter = new AimdLimiter(8, 2, 8, 0.5, 30_000);
+
+        // when
+        limiter.tryAcquire();
+        limiter.onSample(SLOW, false);
+        int afterSlowCall = limiter.getLimit();
+        limiter.tryAcquire();
+        limiter.onSample(FAST, true);
+        limiter.tryAcquire();
+        limiter.onSample(FAST, true);
+
+        // then
+        assertEquals(4, afterSlowCall);
+        assertEquals(2, limiter.getLimit());
+    }
+
+    @DisplayName("스트리밍 호출은 첫 원소까지의 시간으로 한도를 조정하고, 자리는 스트림이 끝날 때 반환하는지")
+    @Test
+    void firstResponseTest() {
+        // given
+        AimdLimiter limiter = new AimdLimiter(2, 1, 4, 0.5, 30_000);
+
+        // when: 첫 원소는 빨리 왔고 스트림은 아직 이어진다.
+        limiter.tryAcquire();
+        limiter.onFirstResponse(FAST);
+        int afterFirstResponse = limiter.getLimit();
+        int inflightWhileStreaming = limiter.getInflight();
+        limiter.release();
+
+        // then
+        assertEquals(3, afterFirstResponse);
+        assertEquals(1, inflightWhileStreaming);
+        assertEquals(0, limiter.getInflight());
+        assertEquals(100.0, limiter.getRttMillis(), 1e-6);
+    }
+
+    @DisplayName("첫 원소를 받은 뒤 실패한 스트림은 RTT 에 넣지 않고 한도만 줄이는지")
+    @Test
+    void droppedAfterFirstResponseTest() {
+        // given
+        AimdLimiter limiter = new AimdLimiter(4, 1, 4, 0.5, 30_000);
+
+        // when
+        limiter.tryAcquire();
+        limiter.onFirstResponse(FAST);
+        limiter.onDropped();
+
+        // then
+        assertEquals(2, limiter.getLimit());
+        assertEquals(0, limiter.getInflight());
+        assertEquals(100.0, limiter.getRttMillis(), 1e-6);
+    }
+}
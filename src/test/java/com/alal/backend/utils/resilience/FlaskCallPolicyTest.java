@@ -0,0 +1,63 @@
+package com.alal.backend.utils.resilience;
+
+import com.alal.backend.config.FlaskPolicyConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class FlaskCallPolicyTest {
+    private static final Duration SLOW = Duration.ofMillis(300);
+
+    private SimpleMeterRegistry meterRegistry;
+    private FlaskCallPolicy flaskCallPolicy;
+
+    @BeforeEach
+    void init() {
+        FlaskPolicyConfig flaskPolicyConfig = new FlaskPolicyConfig();
+        flaskPolicyConfig.getPose().setTimeoutMs(1_000);
+        flaskPolicyConfig.getPose().setSlowCallMs(100);
+        flaskPolicyConfig.getPose().setInitialConcurrentCalls(2);
+        flaskPolicyConfig.getPose().setMaxConcurrentCalls(2);
+        flaskPolicyConfig.getPose().setBackoffRatio(0.5);
+
+        meterRegistry = new SimpleMeterRegistry();
+        flaskCallPolicy = new FlaskCallPolicy(flaskPolicyConfig, meterRegistry);
+    }
+
+    @DisplayName("첫 원소가 빨리 오면 스트림 전체가 slowCall 보다 길어도 한도를 줄이지 않는지")
+    @Test
+    void longStreamTest() {
+        // when
+        List<Integer> elements = flaskCallPolicy.protectMany(FlaskEndpoint.POSE,
+                () -> Flux.concat(Mono.just(1), Mono.delay(SLOW).thenReturn(2))).collectList().block();
+
+        // then
+        assertEquals(List.of(1, 2), elements);
+        assertEquals(2, gauge("ai.flask.concurrency.limit"));
+        assertEquals(0, gauge("ai.flask.concurrency.inflight"));
+    }
+
+    @DisplayName("단건 응답이 slowCall 보다 늦으면 한도를 줄이는지")
+    @Test
+    void slowCallTest() {
+        // when
+        Integer response = flaskCallPolicy.protect(FlaskEndpoint.POSE, () -> Mono.delay(SLOW).thenReturn(1)).block();
+
+        // then
+        assertEquals(1, response);
+        assertEquals(1, gauge("ai.flask.concurrency.limit"));
+        assertEquals(0, gauge("ai.flask.concurrency.inflight"));
+    }
+
+    private double gauge(String name) {
+        return meterRegistry.get(name).tag("endpoint", FlaskEndpoint.POSE.tagValue()).gauge().value();
+    }
+}
@@ -0,0 +1,39 @@
+package com.alal.backend.utils.resilience;
+
+import com.alal.backend.config.FlaskPolicyConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FlaskLoadBalancerTest {
+    @DisplayName("상태 확인이 제한 시간을 넘겨도 예외를 던지지 않고, 응답하지 않은 인스턴스만 비정상으로 표시하는지")
+    @Test
+    void healthCheckTimeoutTest() {
+        // given
+        FlaskPolicyConfig flaskPolicyConfig = new FlaskPolicyConfig();
+        flaskPolicyConfig.getLoadBalancer().setHealthTimeoutMs(100);
+        String[] flaskUrls = {"http://flask-1:5000", "http://flask-2:5000"};
+        FlaskLoadBalancer flaskLoadBalancer = Mockito.spy(new FlaskLoadBalancer(flaskUrls, new String[0],
+                flaskPolicyConfig, WebClient.builder().build(), new SimpleMeterRegistry()));
+
+        ModelServerInstance healthy = flaskLoadBalancer.instances(FlaskEndpoint.POSE).get(0);
+        ModelServerInstance hanging = flaskLoadBalancer.instances(FlaskEndpoint.POSE).get(1);
+        // 인스턴스별 타임아웃까지 무시하고 끝나지 않는 확인
+        Mockito.doReturn(Mono.just(true)).when(flaskLoadBalancer).probe(healthy);
+        Mockito.doReturn(Mono.never()).when(flaskLoadBalancer).probe(hanging);
+
+        // when
+        assertDoesNotThrow(flaskLoadBalancer::checkHealth);
+
+        // then
+        assertTrue(healthy.isHealthy());
+        assertFalse(hanging.isHealthy());
+    }
+}
@@ -0,0 +1,84 @@
+package com.alal.backend.utils.search;
+
+import com.alal.backend.domain.entity.user.Motion;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MotionIndexTest {
+    private static final String BUCKET = "https://storage.googleapis.com/alal/Motion/";
+
+    private final List<Motion> motions = Arrays.asList(
+            motion(1L, "Walk_Forward"),
+            motion(2L, "jump_high"),
+            motion(3L, "walk_back"),
+            motion(4L, "sit_down"));
+
+    @DisplayName("LIKE 검색과 같이 대소문자 구분 없이 GIF, FBX 주소에 포함된 모션을 id 순서로 찾는지")
+    @Test
+    void findContainingTest() {
+        // given
+        MotionIndex motionIndex = MotionIndex.of(motions);
+
+        // when
+        List<Long> walks = ids(motionIndex.findContaining("WALK"));
+        List<Long> fbxOnly = ids(motionIndex.findContaining("high.fbx"));
+        List<Long> none = ids(motionIndex.findContaining("dance"));
+
+        // then
+        assertEquals(Arrays.asList(1L, 3L), walks);
+        assertEquals(List.of(2L), fbxOnly);
+        assertEquals(List.of(), none);
+    }
+
+    @DisplayName("짧은 검색어나 공통 경로에 걸친 검색어도 전체 순회로 정확히 찾는지")
+    @Test
+    void fallbackTest() {
+        // given
+        MotionIndex motionIndex = MotionIndex.of(motions);
+
+        // when
+        List<Long> shortTerm = ids(motionIndex.findContaining("_d"));
+        List<Long> prefix = ids(motionIndex.findContaining("Motion/"));
+        List<Long> straddling = ids(motionIndex.findContaining("n/sit"));
+
+        // then
+        assertEquals(List.of(4L), shortTerm);
+        assertEquals(Arrays.asList(1L, 2L, 3L, 4L), prefix);
+        assertEquals(List.of(4L), straddling);
+    }
+
+    @DisplayName("여러 검색어를 한 번에 찾으면 중복 없이 많이 걸린 모션부터 정렬하고 검색어별 건수를 돌려주는지")
+    @Test
+    void searchTest() {
+        // given
+        MotionIndex motionIndex = MotionIndex.of(motions);
+
+        // when
+        MotionSearchResult searchResult = motionIndex.search(Arrays.asList("jump", "walk", "back", "walk"));
+
+        // then
+        assertEquals(Arrays.asList(3L, 2L, 1L), ids(searchResult.getMotions()));
+        assertEquals(Arrays.asList("jump", "walk", "back"), List.copyOf(searchResult.getTermCounts().keySet()));
+        assertEquals(Arrays.asList(1, 2, 1), List.copyOf(searchResult.getTermCounts().values()));
+    }
+
+    static Motion motion(Long id, String name) {
+        return Motion.builder()
+                .id(id)
+                .motionGif(BUCKET + name + ".gif")
+                .motionFbx(BUCKET + name + ".fbx")
+                .build();
+    }
+
+    private static List<Long> ids(List<Motion> motions) {
+        return motions.stream()
+                .map(Motion::getId)
+                .collect(Collectors.toList());
+    }
+}
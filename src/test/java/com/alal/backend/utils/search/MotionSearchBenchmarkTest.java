@@ -0,0 +1,95 @@
+package com.alal.backend.utils.search;
+
+import com.alal.backend.domain.entity.user.Motion;
+import com.alal.backend.lib.MotionFixture;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// ./gradlew benchmark 로만 실행된다.
+// MySQL 호환 모드의 H2 에 같은 카탈로그를 넣고, 기존 LIKE '%x%' 쿼리와 메모리 색인의 검색 시간을 비교한다.
+@Tag("benchmark")
+class MotionSearchBenchmarkTest {
+    private static final String[] TERMS = {"walk", "dance_spin", "punch", "sit_bow", "roll_12"};
+    private static final int QUERY_ITERATIONS = 5;
+    private static final int INDEX_ITERATIONS = 1_000;
+
+    @DisplayName("카탈로그 크기별 LIKE 쿼리와 trigram 색인의 검색 시간 비교")
+    @ParameterizedTest(name = "{0} motions")
+    @ValueSource(ints = {10_000, 100_000, 1_000_000})
+    void compareSearch(int size) throws Exception {
+        // given
+        List<Motion> motions = MotionFixture.generate(size);
+        MotionIndex motionIndex = MotionIndex.of(motions);
+
+        try (Connection connection = DriverManager.getConnection("jdbc:h2:mem:motion" + size + ";MODE=MySQL")) {
+            load(connection, motions);
+
+            for (String term : TERMS) {
+                // when
+                int expected = query(connection, term);
+                long queryStart = System.nanoTime();
+                for (int i = 0; i < QUERY_ITERATIONS; i++) {
+                    query(connection, term);
+                }
+                double queryMicros = (System.nanoTime() - queryStart) / 1_000.0 / QUERY_ITERATIONS;
+
+                int actual = motionIndex.findContaining(term).size();
+                long indexStart = System.nanoTime();
+                for (int i = 0; i < INDEX_ITERATIONS; i++) {
+                    motionIndex.findContaining(term);
+                }
+                double indexMicros = (System.nanoTime() - indexStart) / 1_000.0 / INDEX_ITERATIONS;
+
+                // then
+                assertEquals(expected, actual);
+                System.out.printf("[%,d] %-12s matches=%,7d  like=%,12.1fus  index=%,10.1fus%n",
+                        size, term, actual, queryMicros, indexMicros);
+            }
+        }
+    }
+
+    private static void load(Connection connection, List<Motion> motions) throws Exception {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("create table motion (id bigint primary key, motion_gif varchar(255), motion_fbx varchar(255))");
+        }
+        try (PreparedStatement insert = connection.prepareStatement("insert into motion values (?, ?, ?)")) {
+            for (Motion motion : motions) {
+                insert.setLong(1, motion.getId());
+                insert.setString(2, motion.getMotionGif());
+                insert.setString(3, motion.getMotionFbx());
+                insert.addBatch();
+                if (motion.getId() % 10_000 == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+    }
+
+    // MotionCatalog 도입 전의 전체 스캔 검색(motion_gif/motion_fbx 양쪽 like '%term%')과 같은 조건
+    private static int query(Connection connection, String term) throws Exception {
+        try (PreparedStatement select = connection.prepareStatement(
+                "select id, motion_gif, motion_fbx from motion where motion_gif like ? or motion_fbx like ?")) {
+            select.setString(1, "%" + term + "%");
+            select.setString(2, "%" + term + "%");
+            int count = 0;
+            try (ResultSet resultSet = select.executeQuery()) {
+                while (resultSet.next()) {
+                    count++;
+                }
+            }
+            return count;
+        }
+    }
+}
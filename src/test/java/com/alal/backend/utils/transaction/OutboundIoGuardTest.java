@@ -0,0 +1,81 @@
+package com.alal.backend.utils.transaction;
+
+import com.google.cloud.storage.BlobId;
+import com.google.cloud.storage.Storage;
+import com.google.cloud.storage.StorageException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class OutboundIoGuardTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @AfterEach
+    void cleanup() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+
+    @DisplayName("트랜잭션 밖의 외부 호출은 기록하지 않고, 안의 호출은 기록만 하는지")
+    @Test
+    void recordTest() {
+        // given
+        OutboundIoGuard outboundIoGuard = new OutboundIoGuard(meterRegistry, false);
+        outboundIoGuard.check("gcs", "upload");
+
+        // when
+        beginTransaction();
+        outboundIoGuard.check("gcs", "upload");
+
+        // then
+        assertEquals(1.0, meterRegistry.get("db.transaction.outbound.io").tag("target", "gcs").counter().count());
+    }
+
+    @DisplayName("fail-fast 모드에서는 트랜잭션 안의 외부 호출을 막고, 커밋 이후 콜백에서는 허용하는지")
+    @Test
+    void failFastTest() {
+        // given
+        OutboundIoGuard outboundIoGuard = new OutboundIoGuard(meterRegistry, true);
+        beginTransaction();
+
+        // when, then
+        assertThrows(IllegalStateException.class, () -> outboundIoGuard.check("webclient", "POST flask"));
+
+        TransactionSynchronizationManager.clearSynchronization();
+        assertDoesNotThrow(() -> outboundIoGuard.check("gcs", "delete"));
+    }
+
+    @DisplayName("감싼 Storage 는 어떤 메서드든 트랜잭션 안에서 부르면 걸리고, 원래 예외는 그대로 전달하는지")
+    @Test
+    void storageGuardTest() {
+        // given
+        Storage storage = Mockito.mock(Storage.class);
+        Mockito.when(storage.delete(BlobId.of("bucket", "missing"))).thenThrow(new StorageException(404, "not found"));
+        Storage guarded = new OutboundIoGuard(meterRegistry, true).guard(storage);
+
+        // when, then
+        assertThrows(StorageException.class, () -> guarded.delete(BlobId.of("bucket", "missing")));
+
+        beginTransaction();
+        assertThrows(IllegalStateException.class, () -> guarded.get(BlobId.of("bucket", "object")));
+        assertThrows(IllegalStateException.class, () -> guarded.delete(BlobId.of("bucket", "object")));
+        verify(storage, never()).get(BlobId.of("bucket", "object"));
+        assertEquals(2.0, meterRegistry.get("db.transaction.outbound.io").tag("target", "gcs").counter().count());
+    }
+
+    private static void beginTransaction() {
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+    }
+}